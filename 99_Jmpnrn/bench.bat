@@ -0,0 +1,25 @@
+@echo off
+echo  ***********************************************************************************
+echo  *                                                                                 *
+echo  *                                   Benchmarks                                    *
+echo  *                                   by GreT                                       *
+echo  *                                                                                 *
+echo  ***********************************************************************************
+rem  builds the JMH benchmarks in bench\src and runs them, the arguments go to JMH, see bench.sh
+rem  usage: bench [regex] [-prof gc] [-rf csv -rff results.csv] [-f forks] [-i iterations] [-h]
+set JMH=1.37
+set REPO=https://repo1.maven.org/maven2
+if not exist lib\bench mkdir lib\bench
+if not exist lib\bench\jmh-core-%JMH%.jar curl -sSfo lib\bench\jmh-core-%JMH%.jar %REPO%/org/openjdk/jmh/jmh-core/%JMH%/jmh-core-%JMH%.jar || goto end
+if not exist lib\bench\jmh-generator-annprocess-%JMH%.jar curl -sSfo lib\bench\jmh-generator-annprocess-%JMH%.jar %REPO%/org/openjdk/jmh/jmh-generator-annprocess/%JMH%/jmh-generator-annprocess-%JMH%.jar || goto end
+if not exist lib\bench\jopt-simple-5.0.4.jar curl -sSfo lib\bench\jopt-simple-5.0.4.jar %REPO%/net/sf/jopt-simple/jopt-simple/5.0.4/jopt-simple-5.0.4.jar || goto end
+if not exist lib\bench\commons-math3-3.6.1.jar curl -sSfo lib\bench\commons-math3-3.6.1.jar %REPO%/org/apache/commons/commons-math3/3.6.1/commons-math3-3.6.1.jar || goto end
+if exist build\bench rmdir /s /q build\bench
+mkdir build\bench
+dir /s /b bench\src\*.java > build\bench\sources.txt
+javac -encoding ISO-8859-1 -nowarn -cp "lib\bench\*;lib\*" -sourcepath src;bench\src -processor org.openjdk.jmh.generators.BenchmarkProcessor -d build\bench @build\bench\sources.txt || goto end
+java -Djava.awt.headless=true -cp "build\bench;res;lib\*;lib\bench\*" org.openjdk.jmh.Main %*
+:end
+set result=%errorlevel%
+pause
+exit /b %result%
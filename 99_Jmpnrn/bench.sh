@@ -0,0 +1,24 @@
+#!/bin/sh
+# Builds the JMH benchmarks in bench/src and runs them, the arguments go to JMH
+#   ./bench.sh                            all benchmarks
+#   ./bench.sh Shape -prof gc             the matching ones, with the bytes allocated per operation
+#   ./bench.sh -rf csv -rff before.csv    writes the results to compare against after a change
+#   ./bench.sh -f 1 -wi 1 -i 1            a quick run
+#   ./bench.sh -h                         all options of JMH
+# The JMH jars are downloaded into lib/bench the first time.
+cd "$(dirname "$0")"
+JMH=1.37
+REPO=https://repo1.maven.org/maven2
+mkdir -p lib/bench
+for jar in org/openjdk/jmh/jmh-core/$JMH/jmh-core-$JMH.jar \
+		org/openjdk/jmh/jmh-generator-annprocess/$JMH/jmh-generator-annprocess-$JMH.jar \
+		net/sf/jopt-simple/jopt-simple/5.0.4/jopt-simple-5.0.4.jar \
+		org/apache/commons/commons-math3/3.6.1/commons-math3-3.6.1.jar; do
+	if [ ! -f lib/bench/$(basename $jar) ]; then
+		curl -sSfo lib/bench/$(basename $jar) $REPO/$jar || exit 1
+	fi
+done
+rm -rf build/bench
+javac -encoding ISO-8859-1 -nowarn -cp "lib/bench/*:lib/*" -sourcepath src:bench/src \
+	-processor org.openjdk.jmh.generators.BenchmarkProcessor -d build/bench $(find bench/src -name '*.java') || exit 1
+java -Djava.awt.headless=true -cp "build/bench:res:lib/*:lib/bench/*" org.openjdk.jmh.Main "$@"
@@ -0,0 +1,63 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package test.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import game.entity.Player;
+import game.entity.projectile.Arrow;
+import game.shape.Rectangle;
+import game.shape.Vector2;
+
+/**
+ * Creating an arrow against taking it from the pool and releasing it again,
+ * run with -prof gc for the bytes allocated per arrow
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+public class ArrowPoolBenchmark {
+
+	private Player owner;
+	private Vector2 dir = new Vector2(1, -0.5);
+
+	@Setup
+	public void setup() {
+		owner = new Player(null, new Rectangle(0, 0, 1, 2.5), null);
+	}
+
+	@Benchmark
+	public Arrow create() {
+		return new Arrow(owner, 20, dir, 1);
+	}
+
+	@Benchmark
+	public void pooled(Blackhole bh) {
+		Arrow arrow = Arrow.acquire(owner, 20, dir, 1);
+		bh.consume(arrow);
+		arrow.release();
+	}
+
+}
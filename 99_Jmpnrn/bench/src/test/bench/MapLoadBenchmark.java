@@ -0,0 +1,95 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package test.bench;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import game.io.FileIO;
+import game.level.MapData;
+
+/**
+ * Loading a map from the .tmx file against loading the compiled .map file,
+ * warm in a jvm that loaded it before. Run with -prof gc for the bytes
+ * allocated per load, see {@link MapStartupBenchmark} for the first load. The
+ * map has to be compiled with MapCompiler first.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+public class MapLoadBenchmark {
+
+	@Param({ "slopes" })
+	public String map;
+
+	@Param({ "xml", "binary" })
+	public String path;
+
+	@Setup
+	public void setup() throws Exception {
+		if (!same(load(map, false), load(map, true))) {
+			throw new IllegalStateException("world/" + map + ".map differs from the .tmx, run MapCompiler");
+		}
+	}
+
+	@Benchmark
+	public MapData load() throws Exception {
+		return load(map, path.equals("binary"));
+	}
+
+	static MapData load(String name, boolean binary) throws Exception {
+		if (binary) {
+			ByteBuffer b = FileIO.mapResource("world/" + name + ".map");
+			if (b == null) {
+				throw new IllegalStateException("world/" + name + ".map not found, run MapCompiler first");
+			}
+			return MapData.read(b);
+		}
+		try (InputStream in = FileIO.getResourceAsStream("world/" + name + ".tmx")) {
+			return MapData.readTmx(in);
+		}
+	}
+
+	private static boolean same(MapData a, MapData b) {
+		if (a.getLayers().size() != b.getLayers().size()) {
+			return false;
+		}
+		for (int i = 0; i < a.getLayers().size(); i++) {
+			if (!Arrays.deepEquals(a.getLayers().get(i), b.getLayers().get(i))) {
+				return false;
+			}
+		}
+		return a.getWidth() == b.getWidth() && a.getHeight() == b.getHeight()
+				&& Arrays.equals(a.getRectangles().toArray(), b.getRectangles().toArray())
+				&& Arrays.equals(a.getPolygonSizes().toArray(), b.getPolygonSizes().toArray())
+				&& Arrays.equals(a.getPolygonPoints().toArray(), b.getPolygonPoints().toArray())
+				&& Arrays.equals(a.getMonsterLocations().toArray(), b.getMonsterLocations().toArray())
+				&& Arrays.equals(a.getDoors().toArray(), b.getDoors().toArray())
+				&& a.getSpawnX() == b.getSpawnX() && a.getSpawnY() == b.getSpawnY();
+	}
+
+}
@@ -0,0 +1,54 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package test.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import game.level.World;
+
+/**
+ * The startup of a headless world from the .tmx file against the compiled .map
+ * file, from nothing loaded to the loaded world. Every fork loads it once, so
+ * the classes and the jit start cold.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(5)
+public class MapStartupBenchmark {
+
+	@Param({ "slopes" })
+	public String map;
+
+	@Param({ "xml", "binary" })
+	public String path;
+
+	@Benchmark
+	public World startup() throws Exception {
+		World world = new World(null);
+		world.setHeadless(true);
+		world.load(MapLoadBenchmark.load(map, path.equals("binary")));
+		return world;
+	}
+
+}
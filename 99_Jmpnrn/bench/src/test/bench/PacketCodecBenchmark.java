@@ -0,0 +1,131 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package test.bench;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import net.packet.BufferPool;
+import net.packet.Packet;
+import net.packet.PacketReader;
+import net.packet.impl.ChatMessagePacket;
+import net.packet.impl.PingPacket;
+import net.packet.impl.PlayerMovePacket;
+
+/**
+ * Encoding and decoding of packets through byte arrays (getData and
+ * decode(byte[])) against encoding into and decoding from pooled buffers, and
+ * the round trip through a pooled buffer. Run with -prof gc for the bytes
+ * allocated per operation.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+public class PacketCodecBenchmark {
+
+	@Param({ "PlayerMove", "Ping", "ChatMessage" })
+	public String packet;
+
+	private IntFunction<Packet> factory;
+	private Packet prototype;
+	private byte[] data;
+	private ByteBuffer encoded;
+	private BufferPool heap;
+	private BufferPool direct;
+	private int i;
+
+	@Setup
+	public void setup() {
+		switch (packet) {
+		case "PlayerMove":
+			factory = i -> new PlayerMovePacket(i, -i);
+			break;
+		case "Ping":
+			factory = i -> new PingPacket(i);
+			break;
+		case "ChatMessage":
+			factory = i -> new ChatMessagePacket("player" + (i & 7), "hello world");
+			break;
+		default:
+			throw new IllegalArgumentException("unknown packet " + packet);
+		}
+		heap = new BufferPool(BufferPool.DEFAULT_BUFFER_SIZE, false, 16);
+		direct = new BufferPool(BufferPool.DEFAULT_BUFFER_SIZE, true, 16);
+		prototype = factory.apply(1);
+		data = prototype.getData();
+		encoded = ByteBuffer.allocateDirect(data.length);
+		encoded.put(data).flip();
+	}
+
+	@Benchmark
+	public byte[] encodeArray() {
+		return factory.apply(i++).getData();
+	}
+
+	@Benchmark
+	public int encodeHeap() {
+		return encode(heap);
+	}
+
+	@Benchmark
+	public int encodeDirect() {
+		return encode(direct);
+	}
+
+	@Benchmark
+	public Packet decodeArray() {
+		return PacketReader.decode(data);
+	}
+
+	@Benchmark
+	public Packet decodeDirect() {
+		encoded.position(0);
+		return PacketReader.decode(encoded);
+	}
+
+	/**
+	 * Encodes the packet into a pooled buffer and decodes it again
+	 */
+
+	@Benchmark
+	public Packet roundtrip() {
+		ByteBuffer b = direct.acquire(BufferPool.DEFAULT_BUFFER_SIZE);
+		prototype.encode(b);
+		b.flip();
+		Packet p = PacketReader.decode(b);
+		direct.release(b);
+		return p;
+	}
+
+	private int encode(BufferPool pool) {
+		ByteBuffer b = pool.acquire(BufferPool.DEFAULT_BUFFER_SIZE);
+		factory.apply(i++).encode(b);
+		int size = b.position();
+		pool.release(b);
+		return size;
+	}
+
+}
@@ -0,0 +1,237 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package test.bench;
+
+import java.awt.geom.Path2D;
+import java.awt.geom.Rectangle2D;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import game.graphics.Screen;
+import game.shape.Line;
+import game.shape.Polygon2D;
+import game.shape.Rectangle;
+import game.shape.Vector2;
+import test.Fixtures;
+
+/**
+ * Shapes and collision on the polygons of the slopes map. Every call tests the
+ * next of the points against the next polygon, so the branches are as mixed as
+ * they are in the game.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+public class ShapeBenchmark {
+
+	private static final int POINTS = 1024;
+
+	private List<Polygon2D> polygons;
+	private List<Polygon2D> concave;
+	private List<Path2D> paths;
+	private List<Line> lines;
+	private Vector2[] points;
+	private Vector2[] concavePoints;
+	private Vector2[] inside;
+	private double step = 1.0 / Screen.TILESIZE;
+
+	private Rectangle rect;
+	private Vector2[] origins;
+	private Vector2[] dirs;
+	private double[] moves;
+
+	private Vector2 normal = new Vector2();
+	private Vector2 contact = new Vector2();
+	private int i;
+
+	@Setup
+	public void setup() throws Exception {
+		polygons = Fixtures.polygons("slopes");
+		points = points(polygons);
+		inside = inside(polygons);
+		concave = concave();
+		concavePoints = points(concave);
+		paths = new ArrayList<>();
+		for (Polygon2D poly : concave) {
+			paths.add(new Path2D.Double(poly));
+		}
+		lines = new ArrayList<>();
+		for (Polygon2D poly : polygons) {
+			lines.addAll(poly.getAllSides());
+		}
+
+		Random random = new Random(1);
+		rect = new Rectangle(10, 10, 4, 2);
+		origins = new Vector2[POINTS];
+		dirs = new Vector2[POINTS];
+		moves = new double[POINTS * 4];
+		for (int i = 0; i < POINTS; i++) {
+			origins[i] = new Vector2(random.nextDouble() * 30, random.nextDouble() * 30);
+			// half of the rays and boxes go at the rectangle
+			Vector2 target = i % 2 == 0 ? new Vector2(12, 11) : new Vector2(random.nextDouble() * 30, random.nextDouble() * 30);
+			dirs[i] = target.sub(origins[i]);
+			moves[i * 4] = origins[i].getX();
+			moves[i * 4 + 1] = origins[i].getY();
+			moves[i * 4 + 2] = dirs[i].getX();
+			moves[i * 4 + 3] = dirs[i].getY();
+		}
+	}
+
+	@Benchmark
+	public boolean polygonContains() {
+		Vector2 p = points[i++ & (POINTS - 1)];
+		return polygons.get(i % polygons.size()).contains(p.getX(), p.getY());
+	}
+
+	@Benchmark
+	public boolean polygonIntersects() {
+		Vector2 p = points[i++ & (POINTS - 1)];
+		return polygons.get(i % polygons.size()).intersects(p.getX(), p.getY(), 1, 2);
+	}
+
+	@Benchmark
+	public boolean polygonIntersectsConcave() {
+		Vector2 p = concavePoints[i++ & (POINTS - 1)];
+		return concave.get(i % concave.size()).intersects(p.getX(), p.getY(), 1, 2);
+	}
+
+	/**
+	 * The same test with the crossings of java.awt, what intersects did before
+	 */
+
+	@Benchmark
+	public boolean polygonIntersectsCrossings() {
+		Vector2 p = concavePoints[i++ & (POINTS - 1)];
+		return paths.get(i % paths.size()).intersects(p.getX(), p.getY(), 1, 2);
+	}
+
+	@Benchmark
+	public double polygonGetPenetration() {
+		Vector2 p = points[i++ & (POINTS - 1)];
+		return polygons.get(i % polygons.size()).getPenetration(p.getX(), p.getY(), 1, 2, normal);
+	}
+
+	@Benchmark
+	public Line polygonGetNearestSideToPoint() {
+		Vector2 p = points[i++ & (POINTS - 1)];
+		return polygons.get(i % polygons.size()).getNearestSideToPoint(p);
+	}
+
+	@Benchmark
+	public boolean polygonGetNearestSide() {
+		Vector2 p = points[i++ & (POINTS - 1)];
+		Polygon2D poly = polygons.get(i % polygons.size());
+		int side = poly.getNearestSide(p.getX(), p.getY());
+		return poly.getNormalContactPoint(side, p.getX(), p.getY(), contact);
+	}
+
+	/**
+	 * How the world pushed actors out of slopes before getStepsOut
+	 */
+
+	@Benchmark
+	public double slopePushOutLoop() {
+		int k = i++ & (POINTS - 1);
+		Polygon2D poly = polygons.get(k % polygons.size());
+		double y = inside[k].getY();
+		while (poly.contains(inside[k].getX(), y)) {
+			y += step;
+		}
+		return y;
+	}
+
+	@Benchmark
+	public double slopePushOutAnalytic() {
+		int k = i++ & (POINTS - 1);
+		Polygon2D poly = polygons.get(k % polygons.size());
+		return inside[k].getY() + poly.getStepsOut(inside[k].getX(), inside[k].getY(), step) * step;
+	}
+
+	@Benchmark
+	public Vector2 lineGetNormalContactPoint() {
+		Vector2 p = points[i++ & (POINTS - 1)];
+		return lines.get(i % lines.size()).getNormalContactPoint(p);
+	}
+
+	@Benchmark
+	public boolean rectangleCollRay() {
+		int k = i++ & (POINTS - 1);
+		return rect.collRay(origins[k], dirs[k], contact, normal);
+	}
+
+	@Benchmark
+	public double rectangleSweep() {
+		int k = (i++ & (POINTS - 1)) * 4;
+		return rect.sweep(moves[k], moves[k + 1], 0.5, 0.5, moves[k + 2], moves[k + 3], normal);
+	}
+
+	/**
+	 * @return concave polygons with 8 to 24 points, like hills drawn in Tiled
+	 */
+
+	private static List<Polygon2D> concave() {
+		Random random = new Random(1);
+		List<Polygon2D> polygons = new ArrayList<>();
+		for (int i = 0; i < 16; i++) {
+			int n = 8 + random.nextInt(17);
+			polygons.add(Fixtures.star(n, 10, 10, k -> 2 + random.nextDouble() * 3));
+		}
+		return polygons;
+	}
+
+	/**
+	 * @return points in the bounds of the polygons and around them
+	 */
+
+	private static Vector2[] points(List<Polygon2D> polygons) {
+		Random random = new Random(1);
+		Vector2[] points = new Vector2[POINTS];
+		for (int i = 0; i < POINTS; i++) {
+			Rectangle2D b = polygons.get(i % polygons.size()).getBounds2D();
+			points[i] = new Vector2(b.getX() - 1 + random.nextDouble() * (b.getWidth() + 2),
+					b.getY() - 1 + random.nextDouble() * (b.getHeight() + 2));
+		}
+		return points;
+	}
+
+	/**
+	 * @return points inside the polygons, the point i is in polygon i % size
+	 */
+
+	private static Vector2[] inside(List<Polygon2D> polygons) {
+		Random random = new Random(1);
+		Vector2[] points = new Vector2[POINTS];
+		for (int i = 0; i < POINTS; i++) {
+			Polygon2D poly = polygons.get(i % polygons.size());
+			Rectangle2D b = poly.getBounds2D();
+			do {
+				points[i] = new Vector2(b.getX() + random.nextDouble() * b.getWidth(), b.getY() + random.nextDouble() * b.getHeight());
+			} while (!poly.contains(points[i]));
+		}
+		return points;
+	}
+
+}
@@ -0,0 +1,154 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package test.bench;
+
+import java.awt.Shape;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import game.entity.GameObject;
+import game.level.World;
+import game.shape.Rectangle;
+import game.shape.Vector2;
+
+/**
+ * The physics step of GameObject over 1000 actors, once with the allocating
+ * Vector2 calls it used before and once with the in place variants it uses
+ * now. Run with -prof gc for the bytes allocated per tick.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+public class VectorAllocationBenchmark {
+
+	private static final int ACTORS = 1000;
+	private static final double DT = 1 / 60.0;
+
+	private ArrayList<GameObject> actors;
+	private Vector2[] vels;
+	private Vector2 slopePoint = new Vector2();
+	private Vector2 topPoint = new Vector2();
+
+	@Setup
+	public void setup() {
+		actors = new ArrayList<>();
+		vels = new Vector2[ACTORS];
+		Random random = new Random(1);
+		for (int i = 0; i < ACTORS; i++) {
+			Dummy d = new Dummy(new Rectangle(random.nextDouble() * 100, random.nextDouble() * 100, 1, 2));
+			d.setVel(random.nextDouble() * 10 - 5, random.nextDouble() * 10 - 5);
+			vels[i] = new Vector2(d.getVel());
+			actors.add(d);
+		}
+	}
+
+	/**
+	 * The physics step like GameObject did it before, every call returns a new
+	 * Vector2 that replaces the velocity, vels stands in for the vel field of
+	 * each actor so the vectors escape like they did there
+	 */
+
+	@Benchmark
+	public double allocating() {
+		double sum = 0;
+		for (int i = 0; i < actors.size(); i++) {
+			GameObject g = actors.get(i);
+			if (vels[i].getX() > 0) {
+				vels[i] = vels[i].addX(-g.getFriction() * DT);
+			} else if (vels[i].getX() < 0) {
+				vels[i] = vels[i].addX(g.getFriction() * DT);
+			}
+			vels[i] = vels[i].addY(g.getGravity() * DT);
+			g.addPosition(vels[i].mul(DT));
+			vels[i] = vels[i].mul(0.99);
+			if (wrap(g)) {
+				vels[i] = new Vector2(vels[i].getX(), 0);
+			}
+
+			Vector2 slope = new Vector2(g.getX() + g.getWidth() / 2, g.getBot() - GameObject.SLOPE_POINT_OFFSET);
+			Vector2 top = new Vector2(g.getX() + g.getWidth() / 2, g.getY());
+			sum += slope.y - top.y + g.getCenter().x;
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public double inPlace() {
+		double sum = 0;
+		for (GameObject g : actors) {
+			g.applyFriction(DT);
+			g.applyGravity(DT);
+			g.move(DT);
+			g.getVel().mulLocal(0.99);
+			wrap(g);
+
+			g.getSlopePoint(slopePoint);
+			g.getTopCollisionPoint(topPoint);
+			sum += slopePoint.y - topPoint.y + g.getCenterX();
+		}
+		return sum;
+	}
+
+	private static boolean wrap(GameObject g) {
+		if (g.getX() > 100 || g.getX() < 0) {
+			g.setX(50);
+		}
+		if (g.getY() > 100) {
+			g.setY(0);
+			g.setVelY(0);
+			return true;
+		}
+		return false;
+	}
+
+	private static class Dummy extends GameObject {
+
+		public Dummy(Rectangle r) {
+			super(null, r, null);
+		}
+
+		@Override
+		public boolean shouldCollide(GameObject g) {
+			return true;
+		}
+
+		@Override
+		public void onStaticCollision(Shape s) {
+
+		}
+
+		@Override
+		public void onCollision(GameObject o) {
+
+		}
+
+		@Override
+		public void onOutOfWorld(World world) {
+
+		}
+
+	}
+
+}
@@ -0,0 +1,91 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package test.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import game.entity.GameObject;
+import game.entity.Player;
+import game.entity.enemy.Enemies;
+import game.entity.enemy.Skeleton;
+import game.level.World;
+import game.shape.Rectangle;
+import game.shape.Vector2;
+import test.Fixtures;
+
+/**
+ * One tick of the slopes world with a player and skeletons, half of them
+ * chasing the player. Skeletons that died are replaced every simulated second
+ * so the number of actors stays the same.
+ */
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(1)
+public class WorldUpdateBenchmark {
+
+	private static final double DT = 1.0 / 60;
+
+	@Param({ "10", "100", "500" })
+	public int actors;
+
+	private World world;
+	private Player player;
+	private long tick;
+
+	@Setup
+	public void setup() {
+		world = Fixtures.world();
+		player = new Player(world, new Rectangle(0, 0, 1, 2.5), null);
+		player.setMaxHealth(Double.MAX_VALUE);
+		player.setHealth(Double.MAX_VALUE);
+		world.spawn(player, world.getSpawnPoint());
+	}
+
+	@Benchmark
+	public int update() {
+		if (tick++ % 60 == 0) {
+			respawn();
+		}
+		world.update(DT);
+		return world.getActors().size();
+	}
+
+	private void respawn() {
+		int alive = 0;
+		for (GameObject g : world.getActors()) {
+			if (g instanceof Skeleton && !g.isRemove()) {
+				alive++;
+			}
+		}
+		for (int i = alive; i < actors - 1; i++) {
+			Skeleton skelly = Enemies.createSkelly(world);
+			if (i % 2 == 0) {
+				skelly.setTarget(player);
+			}
+			world.spawnQueue(skelly, world.getSpawnPoint().add(new Vector2(i % 20 - 10, -(i / 20) % 10)));
+		}
+	}
+
+}
@@ -9,15 +9,28 @@
 package game;
 
 import java.awt.*;
+import java.lang.management.ManagementFactory;
 
 import game.graphics.Camera;
 import game.graphics.Screen;
 import game.graphics.Image2d;
+import game.graphics.RenderSnapshot;
 import game.io.Input;
+import game.util.TripleBuffer;
 import sound.SoundEngine;
 
 public abstract class Engine implements Runnable {
 
+	public static final int DEFAULT_TICK_RATE = 60;
+	public static final int DEFAULT_FRAME_LIMIT = 120;
+	
+	/**
+	 * Longest frame that is simulated in fixed timestep mode, a longer stall only
+	 * catches up this much instead of spiralling into more and more ticks
+	 */
+	
+	public static final double MAX_FRAME_TIME = 0.25;
+
 	public int fps;
 	public int ups;
 	public int lastFps;
@@ -27,6 +40,13 @@ public abstract class Engine implements Runnable {
 	protected Screen screen;
 	private volatile boolean running;
 	private boolean showTimings;
+	private boolean fixedTimestep;
+	private int tickRate;
+	private int frameLimit;
+	private boolean renderThread;
+	private TripleBuffer<RenderSnapshot> snapshots;
+	private RenderSnapshot renderSnapshot;
+	private volatile long timeToFirstFrame;
 
 	public Engine(int width, int height, int scale) {
 		System.out.println("Hello World!");
@@ -36,6 +56,9 @@ public abstract class Engine implements Runnable {
 		this.lastFps = 0;
 		this.lastUps = 0;
 		this.showTimings = true;
+		this.fixedTimestep = true;
+		this.tickRate = DEFAULT_TICK_RATE;
+		this.frameLimit = DEFAULT_FRAME_LIMIT;
 		this.input = new Input();
 		this.screen = new Screen(this, width, height, scale);
 		Image2d.makeContext(screen);
@@ -58,6 +81,69 @@ public abstract class Engine implements Runnable {
 		return this.showTimings;
 	}
 
+	/**
+	 * In fixed timestep mode update is called tickRate times per second with a
+	 * constant elapsedTime, frames are rendered in between and interpolate with
+	 * {@link Time#alpha()}. Otherwise update and render alternate with the
+	 * measured elapsedTime.
+	 * 
+	 * @param b
+	 */
+	
+	public void setFixedTimestep(boolean b) {
+		this.fixedTimestep = b;
+	}
+	
+	public boolean isFixedTimestep() {
+		return this.fixedTimestep;
+	}
+	
+	public int getTickRate() {
+		return tickRate;
+	}
+
+	public void setTickRate(int tickRate) {
+		this.tickRate = tickRate;
+	}
+
+	public int getFrameLimit() {
+		return frameLimit;
+	}
+
+	/**
+	 * @param frameLimit max frames per second, 0 for no limit
+	 */
+	
+	public void setFrameLimit(int frameLimit) {
+		this.frameLimit = frameLimit;
+	}
+
+	public boolean isRenderThread() {
+		return renderThread;
+	}
+
+	/**
+	 * Renders on a second thread. After every tick the simulation copies what is
+	 * drawn into a {@link RenderSnapshot} and hands it to the render thread
+	 * through a {@link TripleBuffer}, so neither thread waits for the other.
+	 * Always uses a fixed timestep, must be set before start.
+	 * 
+	 * @param renderThread
+	 */
+	
+	public void setRenderThread(boolean renderThread) {
+		this.renderThread = renderThread;
+	}
+	
+	/**
+	 * @return the snapshot that is currently drawn, null if the game does not
+	 *         render on its own thread
+	 */
+	
+	public RenderSnapshot getRenderSnapshot() {
+		return renderSnapshot;
+	}
+
 	@Override
 	public void run() {
 
@@ -66,47 +152,186 @@ public abstract class Engine implements Runnable {
 		this.init();
 		this.screen.setVisible(true);
 		
+		if (renderThread) {
+			runThreaded();
+			return;
+		}
+		
 		double last = Time.getTime();
 		double timer = Time.getTime();
-		double usum = 0;
-		double rsum = 0;
+		double accumulator = 0;
 		while (running) {
 			double now = Time.getTime();
 			double elapsedTime = now - last;
 			last = now;
-			double ustart = Time.getTime();
-			this.input.poll();
-			Time.setElapsedTime(elapsedTime);
-			this.update(elapsedTime);
-			usum += Time.getTime() - ustart;
-			double rstart = Time.getTime();
+
+			if (fixedTimestep) {
+				double dt = 1.0 / tickRate;
+				accumulator += Math.min(elapsedTime, MAX_FRAME_TIME);
+				while (accumulator >= dt) {
+					this.tick(dt);
+					accumulator -= dt;
+				}
+				Time.setAlpha(accumulator / dt);
+			} else {
+				Time.setAlpha(1);
+				this.tick(elapsedTime);
+			}
+
+			Profiler.beginFrame();
 			this.screen.render();
-			rsum += Time.getTime() - rstart;
-			ups++;
+			Profiler.endFrame();
+			frameRendered();
 			fps++;
-			if (showTimings && (Time.getTime() - timer) >= 1) {
+
+			if ((Time.getTime() - timer) >= 1) {
 				lastFps = fps;
 				lastUps = ups;
-				
-				String info = String.format("UPS: %9d  FPS:  %9d\n", ups, fps);
-					   info+= String.format("avr: %.7f  avr:  %.7f\n", usum / ups, rsum / fps);
-					   info+= String.format("sum: %.7f  sum:  %.7f\n", usum, rsum);
-				System.out.println(info);
 				ups = 0;
 				fps = 0;
-				usum = 0;
-				rsum = 0;
 				timer += 1;
 			}
+
+			if (frameLimit > 0) {
+				sleepUntil(now + 1.0 / frameLimit);
+			}
 		}
 
 	}
+	
+	private void runThreaded() {
+		double dt = 1.0 / tickRate;
+		snapshots = new TripleBuffer<>(RenderSnapshot::new);
+		
+		Thread renderer = new Thread(this::renderLoop, "Render");
+		renderer.setDaemon(true);
+		renderer.start();
+		
+		double next = Time.getTime();
+		double timer = Time.getTime();
+		while (running) {
+			this.tick(dt);
+			
+			RenderSnapshot s = snapshots.getWriteBuffer();
+			s.begin(Time.getTime(), dt);
+			this.snapshot(s, screen.getCam());
+			snapshots.publish();
+			
+			if ((Time.getTime() - timer) >= 1) {
+				lastUps = ups;
+				ups = 0;
+				timer += 1;
+			}
+			
+			next += dt;
+			if (Time.getTime() - next > MAX_FRAME_TIME) {
+				// too far behind, drop the ticks instead of catching up
+				next = Time.getTime();
+			}
+			sleepUntil(next);
+		}
+	}
+	
+	private void renderLoop() {
+		double timer = Time.getTime();
+		int frames = 0;
+		while (running) {
+			double now = Time.getTime();
+			RenderSnapshot s = snapshots.acquire();
+			if (s.getTime() == 0) {
+				// nothing published yet
+				sleepUntil(now + 0.001);
+				continue;
+			}
+			
+			renderSnapshot = s;
+			Time.setAlpha(s.alpha(now));
+			Profiler.beginFrame();
+			this.screen.renderThreaded();
+			Profiler.endFrame();
+			frameRendered();
+			frames++;
+			
+			if ((Time.getTime() - timer) >= 1) {
+				lastFps = frames;
+				frames = 0;
+				timer += 1;
+			}
+			
+			if (frameLimit > 0) {
+				sleepUntil(now + 1.0 / frameLimit);
+			}
+		}
+	}
+	
+	private void frameRendered() {
+		if (timeToFirstFrame == 0) {
+			timeToFirstFrame = ManagementFactory.getRuntimeMXBean().getUptime();
+			System.out.println("First frame after " + timeToFirstFrame + " ms");
+		}
+	}
+	
+	/**
+	 * @return milliseconds from the start of the jvm until the first frame was
+	 *         rendered, 0 before
+	 */
+	
+	public long getTimeToFirstFrame() {
+		return timeToFirstFrame;
+	}
+	
+	private void tick(double elapsedTime) {
+		Profiler.beginTick();
+		long t = Profiler.begin();
+		this.input.poll();
+		Profiler.end(Profiler.INPUT, t);
+		this.screen.updateCamera();
+		Time.setElapsedTime(elapsedTime);
+		t = Profiler.begin();
+		this.update(elapsedTime);
+		Profiler.end(Profiler.UPDATE, t);
+		ups++;
+		Profiler.endTick();
+	}
+	
+	/**
+	 * Sleeps most of the remaining time and yields for the last millisecond,
+	 * Thread.sleep alone is too coarse to hit the frame time
+	 */
+	
+	private void sleepUntil(double time) {
+		double remaining;
+		while ((remaining = time - Time.getTime()) > 0) {
+			if (remaining > 0.002) {
+				try {
+					Thread.sleep((long) ((remaining - 0.001) * 1000));
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			} else {
+				Thread.yield();
+			}
+		}
+	}
 
 	public abstract void init();
 
 	public abstract void update(double elapsedTime);
 
 	public abstract void render(Graphics2D g2, Camera cam);
+	
+	/**
+	 * Copies everything render needs into the snapshot, called on the simulation
+	 * thread after every tick when rendering on its own thread
+	 * 
+	 * @param s
+	 * @param cam
+	 */
+	
+	public void snapshot(RenderSnapshot s, Camera cam) {
+		
+	}
 
 	public Input getInput () {
 		return this.input;
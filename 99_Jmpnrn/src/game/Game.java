@@ -14,10 +14,12 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
+import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 
 import game.entity.Player;
 import game.entity.item.Items;
@@ -32,9 +34,12 @@ import game.gamestate.GameStateShop;
 import game.gamestate.GameStateTest;
 import game.gamestate.GameStateType;
 import game.graphics.Camera;
+import game.graphics.Images;
+import game.graphics.RenderSnapshot;
 import game.graphics.Screen;
+import game.io.AssetPipeline;
 import game.io.FileIO;
-import game.level.World;
+import game.level.LevelManager;
 import game.questions.Questions;
 import game.shape.Rectangle;
 import game.shape.Vector2;
@@ -48,7 +53,8 @@ public class Game extends Engine {
     private Items items;
     private Player player;
     private boolean timings = false;
-    private HashMap<String, World> levels;
+    private LevelManager levels;
+    private String server;
     
     public Game() { 
     	super(1280, 720, 64);
@@ -56,7 +62,10 @@ public class Game extends Engine {
     	this.showTimings(timings);
     	this.gsm = new GameStateManager(GameStateType.INTRO);
     	this.items = new Items();
-    	
+    	this.levels = new LevelManager(this, 1280, 720);
+    }
+    
+    private void loadQuestions() {
     	URL url = FileIO.getURL("db/questions.db");
     	File db = new File(url.getFile());
     	if (db.exists()) {
@@ -93,25 +102,46 @@ public class Game extends Engine {
 
 			this.questions = new Questions("questions.db");
     	}
-    	this.levels = new HashMap<>();
-    	
     }
     
+    /**
+     * Loads the assets in parallel, the game states are created when the assets
+     * they use are loaded
+     */
+    
     @Override
     public void init() {
     	
-    	SoundEngine.getInstance().load("sound/tracklist.trl");
-    	SoundEngine.getInstance().setGlobalVolume(-40.0f);
-    	gsm.register(GameStateType.PLAY, new GameStatePlay(this));
-    	gsm.register(GameStateType.TEST, new GameStateTest(this)); 
-    	gsm.register(GameStateType.INTRO, new GameStateIntro(this));
-    	gsm.register(GameStateType.QUESTION, new GameStateQuestion(this));
-    	gsm.register(GameStateType.HOME_MENU, new GameStateHomeMenu(this));
-    	gsm.register(GameStateType.SHOP, new GameStateShop(this));
-    	gsm.register(GameStateType.GAMEOVER, new GameStateGameOver(this));
-    	gsm.register(GameStateType.SETTINGS, new GameStateSettings(this));
-    	gsm.init();
-    	items.loadJSON("item/items.json");
+    	SoundEngine sound = SoundEngine.getInstance();
+    	AssetPipeline assets = new AssetPipeline(0);
+    	assets.add("images", Images::load);
+    	assets.add("questions", this::loadQuestions);
+    	assets.add("items", () -> items.loadJSON("item/items.json"));
+    	
+    	LinkedHashMap<String, String> tracklist = sound.readTracklist("sound/tracklist.trl");
+    	ArrayList<String> tracks = new ArrayList<>();
+    	for (String id : tracklist.keySet()) {
+    		assets.add("sound " + id, () -> sound.loadTrack(id, tracklist.get(id)));
+    		tracks.add("sound " + id);
+    	}
+    	assets.add("sound volume", () -> sound.setGlobalVolume(-40.0f), tracks.toArray(new String[0]));
+    	
+    	assets.add("game states", () -> {
+    		gsm.register(GameStateType.PLAY, new GameStatePlay(this));
+    		gsm.register(GameStateType.TEST, new GameStateTest(this)); 
+    		gsm.register(GameStateType.INTRO, new GameStateIntro(this));
+    		gsm.register(GameStateType.QUESTION, new GameStateQuestion(this));
+    		gsm.register(GameStateType.HOME_MENU, new GameStateHomeMenu(this));
+    		gsm.register(GameStateType.SHOP, new GameStateShop(this));
+    		gsm.register(GameStateType.GAMEOVER, new GameStateGameOver(this));
+    		gsm.register(GameStateType.SETTINGS, new GameStateSettings(this));
+    		// starts loading the first level
+    		gsm.init();
+    	}, "images", "questions", "items");
+    	
+    	assets.start();
+    	assets.await();
+    	assets.printTimings();
     }
     
     @Override
@@ -126,6 +156,27 @@ public class Game extends Engine {
 
 			}
 		}
+		if (input.keyPressed(KeyEvent.VK_F8)) {
+			showTimings(!isShowTimings());
+		}
+		if (input.keyPressed(KeyEvent.VK_F9)) {
+			writeProfile();
+		}
+    }
+    
+    /**
+     * Writes the samples of the profiler to profile-&lt;time&gt;.csv in the working
+     * directory
+     */
+    
+    private void writeProfile() {
+    	File file = new File("profile-" + System.currentTimeMillis() + ".csv");
+    	try (FileWriter out = new FileWriter(file)) {
+    		Profiler.writeCsv(out);
+    		System.out.println("Profile written to " + file.getAbsolutePath());
+    	} catch (IOException e) {
+    		e.printStackTrace();
+    	}
     }
     
     @Override
@@ -133,6 +184,11 @@ public class Game extends Engine {
     	gsm.draw(g2, cam);
     }
     
+    @Override
+    public void snapshot(RenderSnapshot s, Camera cam) {
+    	gsm.snapshot(s, cam);
+    }
+    
 	public GameStateManager getGsm() {
 		return gsm;
 	}
@@ -161,12 +217,20 @@ public class Game extends Engine {
 		return input.getPoint().mul(1 / (double) (Screen.TILESIZE)).add(screen.getCam().getPosition());
 	}
 
-	public HashMap<String, World> getLevels() {
+	public LevelManager getLevels() {
 		return levels;
 	}
 
-	public void setLevels(HashMap<String, World> levels) {
-		this.levels = levels;
+	/**
+	 * @return host:port of the server to play on, null for a local game
+	 */
+
+	public String getServer() {
+		return server;
+	}
+
+	public void setServer(String server) {
+		this.server = server;
 	}
 	
 }
\ No newline at end of file
@@ -0,0 +1,349 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package game;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Measures named scopes of the game loop. A scope is timed with
+ * <pre>
+ * long t = Profiler.begin();
+ * ...
+ * Profiler.end(Profiler.COLLISION, t);
+ * </pre>
+ * The time of a scope is summed up over a tick or a frame and stored in a ring
+ * buffer of the last SAMPLES ticks or frames when the tick or frame ends. Tick
+ * scopes are stored by {@link #endTick()}, frame scopes by
+ * {@link #endFrame()}. Nothing is allocated while measuring, every scope is
+ * written by one thread only, so there is one game loop per jvm that is
+ * measured. Scopes contain the scopes measured inside of them, the update
+ * contains collision and garbage collection of the world.<br>
+ * <br>
+ * The samples are shown as p50, p99 and max in an overlay, can be written to
+ * csv and are committed as JFR events when a flight recording is running.
+ */
+
+public class Profiler {
+
+	public static final int SAMPLES = 1024;
+
+	public static final int INPUT = 0;
+	public static final int UPDATE = 1;
+	public static final int COLLISION = 2;
+	public static final int GC = 3;
+	public static final int TICK = 4;
+	public static final int ALLOCATION = 5;
+	public static final int DRAW = 6;
+	public static final int PRESENT = 7;
+	public static final int FRAME = 8;
+
+	private static final String[] NAMES = { "input", "update", "collision", "garbage collection", "tick",
+			"allocated bytes", "draw", "present", "frame" };
+	private static final boolean[] PER_FRAME = { false, false, false, false, false, false, true, true, true };
+	private static final int SCOPES = NAMES.length;
+
+	private static volatile boolean enabled = true;
+
+	private static final long[][] samples = new long[SCOPES][SAMPLES];
+	private static final long[] current = new long[SCOPES];
+	private static final long[] count = new long[SCOPES];
+
+	// the tick that is measured
+	private static long tickStart;
+	private static long tickAllocated;
+	private static long frameStart;
+
+	private static final com.sun.management.ThreadMXBean threads = threadBean();
+	private static final EventType eventType = EventType.getEventType(ScopeEvent.class);
+
+	// statistics of the overlay, updated every OVERLAY_INTERVAL
+	private static final long OVERLAY_INTERVAL = 500_000_000L;
+	private static final long[] sorted = new long[SAMPLES];
+	private static final long[] p50 = new long[SCOPES];
+	private static final long[] p99 = new long[SCOPES];
+	private static final long[] max = new long[SCOPES];
+	private static final String[][] labels = new String[SCOPES][3];
+	private static final Color BACKGROUND = new Color(0, 0, 0, 170);
+	private static long lastStatistics;
+
+	@Name("jmpnrn.ProfilerScope")
+	@Label("Profiler Scope")
+	@Category("Jmpnrn")
+	private static class ScopeEvent extends Event {
+
+		@Label("Scope")
+		private String scope;
+
+		@Label("Time")
+		@Timespan(Timespan.NANOSECONDS)
+		private long time;
+
+		@Label("Allocated Bytes")
+		private long allocated;
+
+	}
+
+	private static com.sun.management.ThreadMXBean threadBean() {
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			com.sun.management.ThreadMXBean b = (com.sun.management.ThreadMXBean) bean;
+			if (b.isThreadAllocatedMemorySupported() && b.isThreadAllocatedMemoryEnabled()) {
+				return b;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return the start of a scope, 0 when the profiler is disabled
+	 */
+
+	public static long begin() {
+		return enabled ? System.nanoTime() : 0;
+	}
+
+	/**
+	 * Adds the time since begin to the scope
+	 *
+	 * @param scope
+	 * @param start returned by {@link #begin()}
+	 */
+
+	public static void end(int scope, long start) {
+		if (start != 0) {
+			current[scope] += System.nanoTime() - start;
+		}
+	}
+
+	/**
+	 * Starts measuring a tick and the bytes the thread allocates in it
+	 */
+
+	public static void beginTick() {
+		if (!enabled) {
+			return;
+		}
+		if (threads != null) {
+			tickAllocated = threads.getCurrentThreadAllocatedBytes();
+		}
+		tickStart = System.nanoTime();
+	}
+
+	/**
+	 * Stores the tick scopes and starts the next tick
+	 */
+
+	public static void endTick() {
+		if (!enabled || tickStart == 0) {
+			return;
+		}
+		current[TICK] = System.nanoTime() - tickStart;
+		if (threads != null) {
+			current[ALLOCATION] = threads.getCurrentThreadAllocatedBytes() - tickAllocated;
+		}
+		commit(false);
+		tickStart = 0;
+	}
+
+	public static void beginFrame() {
+		if (enabled) {
+			frameStart = System.nanoTime();
+		}
+	}
+
+	/**
+	 * Stores the frame scopes and starts the next frame
+	 */
+
+	public static void endFrame() {
+		if (!enabled || frameStart == 0) {
+			return;
+		}
+		current[FRAME] = System.nanoTime() - frameStart;
+		commit(true);
+		frameStart = 0;
+	}
+
+	private static void commit(boolean frame) {
+		boolean jfr = eventType.isEnabled();
+		for (int s = 0; s < SCOPES; s++) {
+			if (PER_FRAME[s] != frame) {
+				continue;
+			}
+			samples[s][(int) (count[s] % SAMPLES)] = current[s];
+			count[s]++;
+			if (jfr && s != ALLOCATION) {
+				ScopeEvent e = new ScopeEvent();
+				e.scope = NAMES[s];
+				e.time = current[s];
+				e.allocated = frame ? 0 : current[ALLOCATION];
+				e.commit();
+			}
+			current[s] = 0;
+		}
+	}
+
+	/**
+	 * Sorts the samples of every scope to get the percentiles, called by the
+	 * overlay at most every OVERLAY_INTERVAL, the labels of the overlay are only
+	 * created here
+	 */
+
+	public static synchronized void updateStatistics() {
+		for (int s = 0; s < SCOPES; s++) {
+			int n = (int) Math.min(count[s], SAMPLES);
+			if (n == 0) {
+				p50[s] = p99[s] = max[s] = 0;
+				continue;
+			}
+			System.arraycopy(samples[s], 0, sorted, 0, n);
+			Arrays.sort(sorted, 0, n);
+			p50[s] = sorted[(n - 1) / 2];
+			p99[s] = sorted[(int) ((n - 1) * 0.99)];
+			max[s] = sorted[n - 1];
+		}
+		for (int s = 0; s < SCOPES; s++) {
+			labels[s][0] = format(s, p50[s]);
+			labels[s][1] = format(s, p99[s]);
+			labels[s][2] = format(s, max[s]);
+		}
+	}
+
+	/**
+	 * Draws p50, p99 and max of every scope and a graph of the last frame times
+	 *
+	 * @param g2
+	 * @param x
+	 * @param y
+	 */
+
+	public static void draw(Graphics2D g2, int x, int y) {
+		long now = System.nanoTime();
+		// the labels are null until the first update, nanoTime can be anything
+		if (labels[0][0] == null || now - lastStatistics > OVERLAY_INTERVAL) {
+			updateStatistics();
+			lastStatistics = now;
+		}
+
+		int line = 14;
+		int width = 330;
+		int height = (SCOPES + 2) * line + 64;
+		g2.setColor(BACKGROUND);
+		g2.fillRect(x, y, width, height);
+		g2.setColor(Color.WHITE);
+		int ty = y + line;
+		g2.drawString("scope", x + 6, ty);
+		g2.drawString("p50", x + 150, ty);
+		g2.drawString("p99", x + 210, ty);
+		g2.drawString("max", x + 270, ty);
+		for (int s = 0; s < SCOPES; s++) {
+			ty += line;
+			g2.drawString(NAMES[s], x + 6, ty);
+			g2.drawString(labels[s][0], x + 150, ty);
+			g2.drawString(labels[s][1], x + 210, ty);
+			g2.drawString(labels[s][2], x + 270, ty);
+		}
+
+		// frame times, the line is at 1/60 s
+		int gy = ty + line + 56;
+		int bars = Math.min(width - 12, (int) Math.min(count[FRAME], SAMPLES));
+		g2.setColor(Color.GREEN);
+		for (int i = 0; i < bars; i++) {
+			long t = samples[FRAME][(int) ((count[FRAME] - 1 - i) % SAMPLES)];
+			int h = (int) Math.min(56, t * 28 / 16_666_667L);
+			g2.drawLine(x + width - 6 - i, gy, x + width - 6 - i, gy - h);
+		}
+		g2.setColor(Color.RED);
+		g2.drawLine(x + 6, gy - 28, x + width - 6, gy - 28);
+	}
+
+	private static String format(int scope, long value) {
+		if (scope == ALLOCATION) {
+			return value / 1024 + " kB";
+		}
+		return (value / 1000) / 1000.0 + " ms";
+	}
+
+	/**
+	 * Writes the stored samples as scope,sample,value, times are in nanoseconds,
+	 * allocations in bytes
+	 *
+	 * @param out
+	 * @throws IOException
+	 */
+
+	public static void writeCsv(Writer out) throws IOException {
+		PrintWriter w = new PrintWriter(out);
+		w.println("scope,sample,value");
+		for (int s = 0; s < SCOPES; s++) {
+			long n = count[s];
+			for (long i = Math.max(0, n - SAMPLES); i < n; i++) {
+				w.print(NAMES[s]);
+				w.print(',');
+				w.print(i);
+				w.print(',');
+				w.println(samples[s][(int) (i % SAMPLES)]);
+			}
+		}
+		w.flush();
+		if (w.checkError()) {
+			throw new IOException("Failed to write the profile");
+		}
+	}
+
+	public static long getP50(int scope) {
+		return p50[scope];
+	}
+
+	public static long getP99(int scope) {
+		return p99[scope];
+	}
+
+	public static long getMax(int scope) {
+		return max[scope];
+	}
+
+	/**
+	 * @return how many samples of the scope were stored
+	 */
+
+	public static long getCount(int scope) {
+		return count[scope];
+	}
+
+	public static String getName(int scope) {
+		return NAMES[scope];
+	}
+
+	public static int getScopeCount() {
+		return SCOPES;
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	public static void setEnabled(boolean enabled) {
+		Profiler.enabled = enabled;
+	}
+
+}
@@ -11,6 +11,7 @@ package game;
 public class Time {
 
 	private static double elapsedTime;
+	private static double alpha = 1;
 	
 	public static double elapsedTime() {
 		return elapsedTime;
@@ -20,6 +21,32 @@ public class Time {
 		elapsedTime = et;
 	}
 	
+	/**
+	 * @return how far the current frame is between the previous and the current
+	 *         tick, 0 to 1, always 1 without fixed timestep
+	 */
+	
+	public static double alpha() {
+		return alpha;
+	}
+	
+	public static void setAlpha(double a) {
+		alpha = a;
+	}
+	
+	/**
+	 * Interpolates a value between the previous and the current tick for
+	 * rendering
+	 * 
+	 * @param previous value after the previous tick
+	 * @param current  value after the current tick
+	 * @return
+	 */
+	
+	public static double interpolate(double previous, double current) {
+		return previous + (current - previous) * alpha;
+	}
+	
     public static double getTime() {
         return System.nanoTime() / 1e9;
     }
@@ -0,0 +1,30 @@
+package game.entity;
+
+/**
+ * What an actor is, sent to the clients so they know what to draw for an actor
+ * they haven't seen before
+ */
+
+public enum ActorType {
+
+	OTHER,
+	PLAYER,
+	SKELETON,
+	ARROW,
+	SWORD_HIT,
+	ITEM,
+	DOOR,
+	PLATFORM;
+
+	private static final ActorType[] VALUES = values();
+
+	/**
+	 * @param ordinal
+	 * @return the type with the ordinal, {@link #OTHER} if there is none
+	 */
+
+	public static ActorType get(int ordinal) {
+		return ordinal >= 0 && ordinal < VALUES.length ? VALUES[ordinal] : OTHER;
+	}
+
+}
@@ -42,10 +42,16 @@ public class Door extends GameObject {
 
 	@Override
 	public void onCollision(GameObject o) {
-		if (o instanceof Player) {
+		if (o instanceof Player && game != null) {
 			if (game.getInput().keyPressed(KeyEvent.VK_W)) {
+				// the target is loaded in the background when the player enters this world
 				World world = game.getLevels().get(target);
-				world.spawn(o, world.getSpawnPoint());
+				if (world != null) {
+					world.spawn(o, world.getSpawnPoint());
+					game.getLevels().enter(world);
+				} else {
+					game.getLevels().load(target);
+				}
 			}
 		}
 	}
@@ -54,7 +60,18 @@ public class Door extends GameObject {
 	public void onOutOfWorld(World world) {
 		
 	}
+
+	/**
+	 * @return the name of the world the door leads to
+	 */
 	
-	
+	public String getTarget() {
+		return target;
+	}
+
+	@Override
+	public ActorType getActorType() {
+		return ActorType.DOOR;
+	}
 
 }
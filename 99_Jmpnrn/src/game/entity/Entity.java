@@ -16,7 +16,6 @@ import game.entity.projectile.Projectile;
 import game.graphics.Image2d;
 import game.level.World;
 import game.shape.Rectangle;
-import game.shape.Vector2;
 
 public abstract class Entity extends GameObject {
 	
@@ -107,16 +106,16 @@ public abstract class Entity extends GameObject {
 	}
 	
 	public void jump(double intensity) {
-		this.accelerate(new Vector2(0, -maxJumpHeight * intensity));
+		this.accelerate(0, -maxJumpHeight * intensity);
 		jumping = true;
 	}
 	
 	public void walkRight(double elapsedTime) {
-		this.accelerate(new Vector2((maxVel- Math.abs(this.getVelX())) * elapsedTime, 0));
+		this.accelerate((maxVel- Math.abs(this.getVelX())) * elapsedTime, 0);
 	}
 	
 	public void walkLeft(double elapsedTime) {
-		this.accelerate(new Vector2(-(maxVel- Math.abs(this.getVelX())) * elapsedTime, 0));
+		this.accelerate(-(maxVel- Math.abs(this.getVelX())) * elapsedTime, 0);
 	}
 	
 	public void sneak() {
@@ -12,8 +12,10 @@ import java.awt.Graphics2D;
 import java.awt.Shape;
 
 import game.Game;
+import game.Time;
 import game.graphics.Camera;
 import game.graphics.Image2d;
+import game.graphics.RenderSnapshot;
 import game.graphics.Screen;
 import game.level.World;
 import game.shape.Rectangle;
@@ -37,7 +39,13 @@ public abstract class GameObject extends Rectangle {
 	protected boolean boxCollision;
 	protected boolean staticCollision;
 	protected boolean solid;
+	protected boolean continuousCollision;
+	private int networkId;
 	private boolean grounded;
+	private ObjectPool<?> pool;
+	private boolean pooled;
+	private double prevX;
+	private double prevY;
 
 	public GameObject(World worldIn, Rectangle r, Image2d image) {
 		super(r);
@@ -50,36 +58,88 @@ public abstract class GameObject extends Rectangle {
 		this.boxCollision = true;
 		this.slopeCollision = true;
 		this.staticCollision = true;
+		this.storePreviousPosition();
 	}
 
 	@Override
 	public void draw(Graphics2D g2, Camera cam) {
-		image.draw(g2, getX() * Screen.TILESIZE - cam.getPixelOffsetX(), getY() * Screen.TILESIZE - cam.getPixelOffsetY(), getWidth() * Screen.TILESIZE, getHeight() * Screen.TILESIZE);
+		image.draw(g2, getRenderX() * Screen.TILESIZE - cam.getPixelOffsetX(), getRenderY() * Screen.TILESIZE - cam.getPixelOffsetY(), getWidth() * Screen.TILESIZE, getHeight() * Screen.TILESIZE);
+	}
+
+	/**
+	 * Remembers the current position as the state of the previous tick, called by
+	 * the world before every tick
+	 */
+	
+	public void storePreviousPosition() {
+		this.prevX = getX();
+		this.prevY = getY();
+	}
+	
+	/**
+	 * @return x interpolated between the previous and the current tick
+	 */
+	
+	public double getRenderX() {
+		return Time.interpolate(prevX, getX());
+	}
+	
+	/**
+	 * @return y interpolated between the previous and the current tick
+	 */
+	
+	public double getRenderY() {
+		return Time.interpolate(prevY, getY());
+	}
+	
+	/**
+	 * Adds what {@link #draw(Graphics2D, Camera)} would draw to the snapshot for
+	 * the render thread
+	 * 
+	 * @param s
+	 */
+	
+	public void snapshot(RenderSnapshot s) {
+		if (image != null) {
+			s.addSprite(image, prevX, prevY, getX(), getY(), getWidth(), getHeight());
+		}
+	}
+	
+	public double getPreviousX() {
+		return prevX;
+	}
+	
+	public double getPreviousY() {
+		return prevY;
 	}
 
 	public void accelerate(Vector2 acc) {
-		this.vel = vel.add(acc);
+		this.vel.addLocal(acc);
+	}
+	
+	public void accelerate(double x, double y) {
+		this.vel.addLocal(x, y);
 	}
 	
 	public void move(double elapsedTime) {
-		this.addPosition(vel.mul(elapsedTime));
+		this.addPosition(vel.x * elapsedTime, vel.y * elapsedTime);
 	}
 	
 	public void applyGravity(double elapsedTime) {
-		this.vel = this.vel.addY(gravity * elapsedTime);
+		this.vel.y += gravity * elapsedTime;
 	}
 	
 	public void applyFriction(double elapsedTime) {
-		if (this.vel.getX() > 0) {
-			this.vel = this.vel.addX(-friction * elapsedTime);
-			if (this.vel.getX() < 0) {
-				this.vel.setX(0);
+		if (this.vel.x > 0) {
+			this.vel.x -= friction * elapsedTime;
+			if (this.vel.x < 0) {
+				this.vel.x = 0;
 			}
 		}
-		if (this.vel.getX() < 0) {
-			this.vel = this.vel.addX(friction * elapsedTime);
-			if (this.vel.getX() > 0) {
-				this.vel.setX(0);
+		if (this.vel.x < 0) {
+			this.vel.x += friction * elapsedTime;
+			if (this.vel.x > 0) {
+				this.vel.x = 0;
 			}
 		}
 		
@@ -92,6 +152,47 @@ public abstract class GameObject extends Rectangle {
 	public boolean isGrounded() {
 		return grounded;
 	}
+
+	/**
+	 * Called by the pool before a released object is used again, resets what is
+	 * set when a new object is spawned. Subclasses reset their own state and call
+	 * super
+	 */
+	
+	protected void reset() {
+		this.vel.set(0, 0);
+		this.remove = false;
+		this.grounded = false;
+		this.networkId = 0;
+	}
+	
+	/**
+	 * Called when the object goes back to its pool, drops the references it holds
+	 * so the pool doesn't keep them alive
+	 */
+	
+	protected void onRelease() {
+		this.worldIn = null;
+	}
+	
+	/**
+	 * Returns the object to the pool it was acquired from
+	 * 
+	 * @return false if it is not pooled or was released already
+	 */
+	
+	public boolean release() {
+		return pool != null && pool.release(this);
+	}
+	
+	/**
+	 * @return true if the world releases the object when it removes it, objects
+	 *         that live on after they left the world return false
+	 */
+	
+	public boolean isReleasedOnRemove() {
+		return pool != null;
+	}
 	
 	public abstract boolean shouldCollide(GameObject g);
 	public abstract void onStaticCollision(Shape s);
@@ -99,7 +200,12 @@ public abstract class GameObject extends Rectangle {
 	public abstract void onOutOfWorld(World world);
 	
 	public Vector2 getSlopePoint() {
-		return new Vector2(this.getX() + this.getWidth() / 2, this.getBot() - SLOPE_POINT_OFFSET);
+		return getSlopePoint(new Vector2());
+	}
+	
+	public Vector2 getSlopePoint(Vector2 out) {
+		out.set(this.getX() + this.getWidth() / 2, this.getBot() - SLOPE_POINT_OFFSET);
+		return out;
 	}
 	
 	public void setSlopePoint(Vector2 v) {
@@ -111,7 +217,12 @@ public abstract class GameObject extends Rectangle {
 	}
 	
 	public Vector2 getTopCollisionPoint() {
-		return new Vector2(this.getX() + this.getWidth() / 2, this.getY());
+		return getTopCollisionPoint(new Vector2());
+	}
+	
+	public Vector2 getTopCollisionPoint(Vector2 out) {
+		out.set(this.getX() + this.getWidth() / 2, this.getY());
+		return out;
 	}
 	
 	public World getWorldIn() {
@@ -130,8 +241,14 @@ public abstract class GameObject extends Rectangle {
 		return vel;
 	}
 
+	/**
+	 * Copies the velocity, the vector is not kept because vel is changed in place
+	 * 
+	 * @param vel
+	 */
+	
 	public void setVel(Vector2 vel) {
-		this.vel = vel;
+		this.vel.setV(vel);
 	}
 	
 	public void setVel(double x, double y) {
@@ -211,6 +328,63 @@ public abstract class GameObject extends Rectangle {
 		this.solid = solid;
 	}
 
+	/**
+	 * Actors with continuous collision are swept from their previous position to
+	 * the current one every tick, so they hit what they would pass through in one
+	 * tick, for fast and small actors like arrows
+	 * 
+	 * @return
+	 */
+	
+	public boolean isContinuousCollision() {
+		return continuousCollision;
+	}
+
+	public void setContinuousCollision(boolean continuousCollision) {
+		this.continuousCollision = continuousCollision;
+	}
+
+	/**
+	 * @return the id the actor is known by in world snapshots, 0 until it is
+	 *         spawned
+	 */
+	
+	/**
+	 * @return what the clients draw for this actor
+	 */
+
+	public ActorType getActorType() {
+		return ActorType.OTHER;
+	}
+
+	public int getNetworkId() {
+		return networkId;
+	}
+
+	public void setNetworkId(int networkId) {
+		this.networkId = networkId;
+	}
+
+	public ObjectPool<?> getPool() {
+		return pool;
+	}
+
+	void setPool(ObjectPool<?> pool) {
+		this.pool = pool;
+	}
+
+	/**
+	 * @return true while the object is released and waits in its pool
+	 */
+
+	public boolean isPooled() {
+		return pooled;
+	}
+
+	void setPooled(boolean pooled) {
+		this.pooled = pooled;
+	}
+
 	public boolean isStaticCollision() {
 		return staticCollision;
 	}
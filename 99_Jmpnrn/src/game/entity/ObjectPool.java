@@ -0,0 +1,178 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package game.entity;
+
+import java.util.function.Supplier;
+
+/**
+ * Keeps game objects that were removed from the world so they can be used
+ * again instead of allocating new ones for short lived objects like arrows.
+ * {@link #acquire()} takes a released object and calls
+ * {@link GameObject#reset()} on it, or creates a new one if the pool is empty.
+ * The world releases pooled objects when it removes them, see
+ * {@link GameObject#isReleasedOnRemove()}. Objects released while the pool is
+ * full are left to the garbage collector.<br>
+ * <br>
+ * Acquire and release are synchronized, a pool can be shared by the worlds of
+ * the client and the server.
+ *
+ * @param <T>
+ */
+
+public class ObjectPool<T extends GameObject> {
+
+	private String name;
+	private Supplier<T> factory;
+	private GameObject[] free;
+	private int size;
+	private long acquired;
+	private long reused;
+	private long released;
+	private long discarded;
+
+	/**
+	 * @param name      shown in the metrics
+	 * @param factory   creates an object when the pool is empty
+	 * @param maxPooled how many released objects are kept at most
+	 */
+
+	public ObjectPool(String name, Supplier<T> factory, int maxPooled) {
+		this.name = name;
+		this.factory = factory;
+		this.free = new GameObject[maxPooled];
+	}
+
+	/**
+	 * @return a released object after {@link GameObject#reset()}, or a new one
+	 */
+
+	@SuppressWarnings("unchecked")
+	public synchronized T acquire() {
+		acquired++;
+		if (size == 0) {
+			T g = factory.get();
+			g.setPool(this);
+			return g;
+		}
+		GameObject g = free[--size];
+		free[size] = null;
+		reused++;
+		g.setPooled(false);
+		g.reset();
+		return (T) g;
+	}
+
+	/**
+	 * Called by {@link GameObject#release()}, the object must not be used after
+	 * this until it is acquired again
+	 *
+	 * @param g
+	 * @return false if the object is not from this pool or was released already
+	 */
+
+	synchronized boolean release(GameObject g) {
+		if (g.getPool() != this || g.isPooled()) {
+			return false;
+		}
+		released++;
+		g.setPooled(true);
+		g.onRelease();
+		if (size == free.length) {
+			discarded++;
+		} else {
+			free[size++] = g;
+		}
+		return true;
+	}
+
+	/**
+	 * Drops the released objects and resets the metrics
+	 */
+
+	public synchronized void clear() {
+		for (int i = 0; i < size; i++) {
+			free[i] = null;
+		}
+		size = 0;
+		acquired = reused = released = discarded = 0;
+	}
+
+	/**
+	 * @param maxPooled 0 turns pooling off, released objects are discarded
+	 */
+
+	public synchronized void setMaxPooled(int maxPooled) {
+		GameObject[] f = new GameObject[maxPooled];
+		size = Math.min(size, maxPooled);
+		System.arraycopy(free, 0, f, 0, size);
+		free = f;
+	}
+
+	public synchronized int getMaxPooled() {
+		return free.length;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return released objects waiting in the pool
+	 */
+
+	public synchronized int available() {
+		return size;
+	}
+
+	public synchronized long getAcquired() {
+		return acquired;
+	}
+
+	/**
+	 * @return acquired objects that were taken from the pool instead of created
+	 */
+
+	public synchronized long getReused() {
+		return reused;
+	}
+
+	/**
+	 * @return acquired objects that had to be created
+	 */
+
+	public synchronized long getCreated() {
+		return acquired - reused;
+	}
+
+	public synchronized long getReleased() {
+		return released;
+	}
+
+	/**
+	 * @return released objects that were dropped because the pool was full
+	 */
+
+	public synchronized long getDiscarded() {
+		return discarded;
+	}
+
+	/**
+	 * @return the part of the acquired objects that came from the pool, 0 to 1
+	 */
+
+	public synchronized double getHitRate() {
+		return acquired > 0 ? reused / (double) acquired : 0;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return String.format("%s: %d acquired, %d created, %.1f%% hits, %d released, %d discarded, %d free", name, acquired, acquired - reused, getHitRate() * 100, released, discarded, size);
+	}
+
+}
@@ -8,9 +8,9 @@
  *******************************************************/
 package game.entity;
 
-import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.event.KeyEvent;
+import java.util.List;
 
 import game.Time;
 import game.entity.item.Item;
@@ -37,7 +37,7 @@ public class Player extends Entity {
 	
 	public Player(World worldIn, Rectangle rect, Image2d image) {
 		super(worldIn, rect, image);
-		this.input = game.getInput();
+		this.input = game != null ? game.getInput() : null;
 		this.hotbar = new Item[9];
 		this.facing = Direction.RIGHT;
 		this.inventory = new Inventory(this, 200);
@@ -48,81 +48,85 @@ public class Player extends Entity {
 		super.update(elapsedTime);
 
 		if (!isDead()) {
-
-			if (input.keyHeld(KeyEvent.VK_A)) {
-				this.facing = Direction.LEFT;
-				this.walkLeft(elapsedTime);
-			}
-
-			if (input.keyHeld(KeyEvent.VK_D)) {
-				this.facing = Direction.RIGHT;
-				this.walkRight(elapsedTime);
+			if (input != null) {
+				handleInput(elapsedTime);
 			}
+		} else if (game != null) {
+			game.getGsm().changeGameState(GameStateType.GAMEOVER);
+		}
+	}
+	
+	private void handleInput(double elapsedTime) {
+		if (input.keyHeld(KeyEvent.VK_A)) {
+			this.facing = Direction.LEFT;
+			this.walkLeft(elapsedTime);
+		}
 
-			if (isGrounded()) {
-				if (input.keyPressed(KeyEvent.VK_SPACE)) {
-					jumpStartTime = Time.getTime();
-				}
-				
-				if (jumpStartTime > 0) {
-					if ((Time.getTime() - jumpStartTime) > maxJumpTime) {
-						jump(1);
-						jumpStartTime = -0xABC;
-					}
-				}
-				
-				if (input.keyReleased(KeyEvent.VK_SPACE)) {
-					double intensity = (Time.getTime() - jumpStartTime) / maxJumpTime;
+		if (input.keyHeld(KeyEvent.VK_D)) {
+			this.facing = Direction.RIGHT;
+			this.walkRight(elapsedTime);
+		}
 
-					if (intensity <= 1 && intensity >= 0) {
-						jump(intensity);
-					}
+		if (isGrounded()) {
+			if (input.keyPressed(KeyEvent.VK_SPACE)) {
+				jumpStartTime = Time.getTime();
+			}
+			
+			if (jumpStartTime > 0) {
+				if ((Time.getTime() - jumpStartTime) > maxJumpTime) {
+					jump(1);
 					jumpStartTime = -0xABC;
 				}
-				
 			}
+			
+			if (input.keyReleased(KeyEvent.VK_SPACE)) {
+				double intensity = (Time.getTime() - jumpStartTime) / maxJumpTime;
 
-			if (input.keyPressed(KeyEvent.VK_SHIFT)) {
-				this.setHeight(1);
-				this.addPosition(0, 1.5);
+				if (intensity <= 1 && intensity >= 0) {
+					jump(intensity);
+				}
+				jumpStartTime = -0xABC;
 			}
+			
+		}
 
-			if (input.keyReleased(KeyEvent.VK_SHIFT)) {
-				this.setHeight(2.5);
-				this.addPosition(0, -1.5);
+		if (input.keyPressed(KeyEvent.VK_SHIFT)) {
+			this.setHeight(1);
+			this.addPosition(0, 1.5);
+		}
+
+		if (input.keyReleased(KeyEvent.VK_SHIFT)) {
+			this.setHeight(2.5);
+			this.addPosition(0, -1.5);
+		}
+		
+		if (!inInventory) {
+			if (input.mousePressed(0)) {
+				Item item = hotbar[mainhand];
+				use(item);
 			}
 			
-			if (!inInventory) {
-				if (input.mousePressed(0)) {
-					Item item = hotbar[mainhand];
-					use(item);
-				}
-				
-				int mouseCycle = input.wheelRotations();
-				if (mouseCycle != 0) {
+			int mouseCycle = input.wheelRotations();
+			if (mouseCycle != 0) {
 
-					while (mouseCycle < 0) {
-						mouseCycle++;
-						this.hotbarCycleLeft();
-					}
-
-					while (mouseCycle > 0) {
-						mouseCycle--;
-						this.hotbarCycleRight();
-					}
+				while (mouseCycle < 0) {
+					mouseCycle++;
+					this.hotbarCycleLeft();
+				}
 
+				while (mouseCycle > 0) {
+					mouseCycle--;
+					this.hotbarCycleRight();
 				}
+
 			}
-			
-			if (input.keyPressed(KeyEvent.VK_G)) {
-				Item item = hotbar[mainhand];
-				if (item != null) {
-					drop(item);
-				}
+		}
+		
+		if (input.keyPressed(KeyEvent.VK_G)) {
+			Item item = hotbar[mainhand];
+			if (item != null) {
+				drop(item);
 			}
-			
-		} else {
-			game.getGsm().changeGameState(GameStateType.GAMEOVER);
 		}
 	}
 	
@@ -180,6 +184,7 @@ public class Player extends Entity {
 				if (item.isRemoveOnUse()) {
 					this.inventory.remove(item);
 					this.removeFromHotbar(item);
+					item.release();
 				}
 			}
 		}
@@ -233,19 +238,21 @@ public class Player extends Entity {
 		return "Player " + this.getPosition() + " " + this.getVel();
 	}
 
-	public void drawInfo(Graphics2D g2, Camera cam) {
-		g2.setColor(Color.BLUE);
-		g2.fillRoundRect(25, 25, 200, 180, 10, 10);
-		g2.setColor(Color.WHITE);
-		g2.drawString("VEL:  " + this.getVel().toString(), 50, 50);
-		g2.drawString("POS:  " + this.getPosition().toString(), 50, 70);
-		g2.drawString("JST:  " + this.jumpStartTime, 50, 90);
-		g2.drawString("TIME: " + Time.getTime(), 50, 110);
-		g2.drawString("FRC:  " + this.friction, 50, 130);
-		g2.drawString("GRV:  " + this.gravity, 50, 150);
-		g2.drawString("GND:  " + this.isGrounded(), 50, 170);
-		g2.drawString("DIR:  " + this.facing, 50, 190);
-
+	/**
+	 * Adds the lines of the debug info
+	 * 
+	 * @param lines
+	 */
+
+	public void getInfo(List<String> lines) {
+		lines.add("VEL:  " + this.getVel().toString());
+		lines.add("POS:  " + this.getPosition().toString());
+		lines.add("JST:  " + this.jumpStartTime);
+		lines.add("TIME: " + Time.getTime());
+		lines.add("FRC:  " + this.friction);
+		lines.add("GRV:  " + this.gravity);
+		lines.add("GND:  " + this.isGrounded());
+		lines.add("DIR:  " + this.facing);
 	}
 
 	public boolean hotbarContains(Item item) {
@@ -306,5 +313,10 @@ public class Player extends Entity {
 	public void setHotbarAt(int i, Item item) {
 		this.hotbar[i] = item;
 	}
-	
+
+	@Override
+	public ActorType getActorType() {
+		return ActorType.PLAYER;
+	}
+
 }
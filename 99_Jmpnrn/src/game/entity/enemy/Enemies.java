@@ -11,6 +11,7 @@ package game.entity.enemy;
 import game.Game;
 import game.entity.GameObject;
 import game.graphics.Images;
+import game.level.World;
 import game.shape.Rectangle;
 
 public class Enemies {
@@ -20,6 +21,19 @@ public class Enemies {
 		skelly.addItem(Game.instance.getItems().get("game_bow_skelly"));
 		return skelly;
 	}
+	
+	/**
+	 * Creates a skeleton with the items of the world, works without a game
+	 * 
+	 * @param world
+	 * @return
+	 */
+	
+	public static Skeleton createSkelly(World world) {
+		Skeleton skelly = new Skeleton(world, new Rectangle(0, 0, 1, 2), Images.SKELLY);
+		skelly.addItem(world.getItems().get("game_bow_skelly"));
+		return skelly;
+	}
 
 	public static GameObject get(String monster) {
 		switch (monster) {
@@ -30,6 +44,16 @@ public class Enemies {
 				return createSkelly();
 		}
 	}
+	
+	public static GameObject get(String monster, World world) {
+		switch (monster) {
+			case "skelly": {
+				return createSkelly(world);
+			}
+			default:
+				return createSkelly(world);
+		}
+	}
 
 	public static boolean exists(String s) {
 		switch (s) {
@@ -10,6 +10,7 @@ package game.entity.enemy;
 
 import java.util.ArrayList;
 
+import game.Game;
 import game.entity.Entity;
 import game.entity.item.Item;
 import game.entity.item.LootTable;
@@ -33,7 +34,7 @@ public class Enemy extends Entity {
 	public Enemy(World worldIn, Rectangle rect, Image2d image, String ltFile) {
 		super(worldIn, rect, image);
 		this.range = 10;
-		this.lt = new LootTable(ltFile);
+		this.lt = new LootTable(worldIn != null ? worldIn.getItems() : Game.instance.getItems(), ltFile);
 	}
 
 	@Override
@@ -12,6 +12,7 @@ import java.awt.Shape;
 import java.util.ArrayList;
 
 import game.Time;
+import game.entity.ActorType;
 import game.entity.GameObject;
 import game.entity.Inventory;
 import game.entity.item.Item;
@@ -130,5 +131,10 @@ public class Skeleton extends Enemy {
 		super.onHit(p);
 		this.cooldown = 0;
 	}
-	
+
+	@Override
+	public ActorType getActorType() {
+		return ActorType.SKELETON;
+	}
+
 }
@@ -8,14 +8,12 @@
  *******************************************************/
 package game.entity.item;
 
-import java.awt.Color;
-import java.awt.Font;
-import java.awt.Graphics2D;
+import java.util.List;
 
+import game.entity.ActorType;
 import game.entity.Entity;
 import game.entity.GameObject;
 import game.graphics.Image2d;
-import game.graphics.Screen;
 import game.level.World;
 import game.shape.Rectangle;
 import game.shape.Vector2;
@@ -91,10 +89,32 @@ public abstract class Item extends GameObject {
 		return false;
 	}
 	
+	/**
+	 * A pooled item is a new item when it is used again, it gets a new uid
+	 */
+	
+	@Override
+	protected void reset() {
+		super.reset();
+		this.uid = nextUid++;
+	}
+	
+	/**
+	 * Items that are removed from the world were picked up and live on in an
+	 * inventory, they are released when they are used up
+	 */
+	
+	@Override
+	public boolean isReleasedOnRemove() {
+		return false;
+	}
+	
 	@Override
 	public Item clone() {
 		Item clone = (Item) super.clone();
 		clone.uid = nextUid++;
+		// super.clone is shallow, every clone needs its own velocity
+		clone.vel = new Vector2(vel);
 		return clone;
 	}
 	
@@ -130,12 +150,21 @@ public abstract class Item extends GameObject {
 		this.removeOnUse = removeOnUse;
 	}
 
-	public void drawInfo(Graphics2D g2, int x, int y) {
-		g2.setColor(Color.WHITE);
-		g2.setFont(Screen.FONT_SMALL.deriveFont(13f).deriveFont(Font.BOLD));
-		g2.drawString(name, x + 10, y);
-		g2.drawString("Value: " + value, x + 10, y + 13);
-		g2.drawString("UID: " + uid, x + 10, y + 26);
+	/**
+	 * Adds the lines shown when the mouse is over the item
+	 * 
+	 * @param lines
+	 */
+
+	public void getInfo(List<String> lines) {
+		lines.add(name);
+		lines.add("Value: " + value);
+		lines.add("UID: " + uid);
 	}
-	
+
+	@Override
+	public ActorType getActorType() {
+		return ActorType.ITEM;
+	}
+
 }
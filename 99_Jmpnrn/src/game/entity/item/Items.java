@@ -8,6 +8,7 @@
  *******************************************************/
 package game.entity.item;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
 
@@ -15,21 +16,43 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 
+import game.entity.ObjectPool;
 import game.entity.item.consumable.Food;
+import game.entity.item.consumable.QuestionPotion;
+import game.entity.item.weapon.Bow;
+import game.entity.item.weapon.Sword;
+import game.graphics.Images;
 import game.io.FileIO;
+import game.shape.Rectangle;
 
 public class Items {
 	
+	private static final int MAX_POOLED = 32;
+	
 	private HashMap<String, Item> items;
+	private HashMap<String, ObjectPool<Item>> pools;
 	
 	public static final Item NOTHING = new NoItem();
 	
 	public Items() {
 		this.items = new HashMap<>();
+		this.pools = new HashMap<>();
 	}
 	
 	public void register(Item item) {
 		this.items.put(item.getId(), item);
+		this.pools.put(item.getId(), new ObjectPool<>("item " + item.getId(), item::clone, MAX_POOLED));
+	}
+	
+	/**
+	 * Registers the weapons and potions that are not in the item json
+	 */
+	
+	public void registerDefaults() {
+		register(new Bow("game_bow", "Bow", FileIO.loadImage("img/game_bow.png"), FileIO.loadImage("img/game_arrow.png"), new Rectangle(0, 0, 0.5, 0.5), 20, 10, 0.1));
+		register(new Bow("game_bow_skelly", "Bow", FileIO.loadImage("img/game_bow_skelly.png"), FileIO.loadImage("img/game_fire_arrow.png"), new Rectangle(0, 0, 0.5, 0.5), 11, 20, 0.1));
+		register(new Sword("game_sword", "Sword", Images.SWORD, 10, 0.1));
+		register(new QuestionPotion("game_question_potion", "Magic Potion", FileIO.loadImage("img/game_potion.png")));
 	}
 	
 	public void loadJSON(String json) {
@@ -60,19 +83,33 @@ public class Items {
 			if (items.containsKey(id)) {
 				System.err.println("Dublicated Item id " + id);
 			}
-			items.put(id, food);
+			register(food);
 		}
 		
 	}
 	
+	/**
+	 * @param id
+	 * @return a copy of the registered item, taken from its pool if one was used
+	 *         up
+	 */
+	
 	public Item get(String id) {
-		Item item;
+		ObjectPool<Item> pool;
 		
-		if ((item = items.get(id)) == null) {
+		if ((pool = pools.get(id)) == null) {
 			System.err.printf("Item id %s not registered\n", id);
 		}
 		
-		return items.get(id).clone();
+		return pool.acquire();
+	}
+	
+	/**
+	 * @return the pools of the registered items, for their metrics
+	 */
+	
+	public Collection<ObjectPool<Item>> getPools() {
+		return pools.values();
 	}
 	
 	@Override
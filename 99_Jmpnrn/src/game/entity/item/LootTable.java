@@ -23,9 +23,13 @@ public class LootTable {
 	private Items items;
 	
 	public LootTable(String fname) {
+		this(Game.instance.getItems(), fname);
+	}
+	
+	public LootTable(Items items, String fname) {
 		this.loot = new HashMap<>();
 		this.random = new Random();
-		this.items = Game.instance.getItems();
+		this.items = items;
 		String sloot = FileIO.read(fname);
 		String[] lootLines = sloot.split("\n");
 		for (String s : lootLines) {
@@ -15,6 +15,7 @@ import game.entity.Entity;
 import game.entity.GameObject;
 import game.graphics.Camera;
 import game.graphics.Image2d;
+import game.graphics.RenderSnapshot;
 import game.level.World;
 import game.shape.Vector2;
 
@@ -47,6 +48,11 @@ public class NoItem extends Item {
 	@Override
 	public void draw(Graphics2D g2, Camera cam) {
 
+	}
+	
+	@Override
+	public void snapshot(RenderSnapshot s) {
+
 	}
 
 	@Override
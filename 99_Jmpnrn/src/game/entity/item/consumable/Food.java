@@ -8,8 +8,8 @@
  *******************************************************/
 package game.entity.item.consumable;
 
-import java.awt.Graphics2D;
 import java.awt.Shape;
+import java.util.List;
 
 import game.entity.Entity;
 import game.entity.item.Item;
@@ -115,12 +115,12 @@ public class Food extends Item {
 	}
 	
 	@Override
-	public void drawInfo(Graphics2D g2, int x, int y) {
-		super.drawInfo(g2, x, y);
-		g2.drawString("Health:    " + health, x + 10, y + 39);
-		g2.drawString("Poison:    " + poison, x + 10, y + 52);
-		g2.drawString("Alcohol:   " + alcohol, x + 10, y + 65);
-		g2.drawString("Rotteness: " + rotteness, x + 10, y + 78);
+	public void getInfo(List<String> lines) {
+		super.getInfo(lines);
+		lines.add("Health:    " + health);
+		lines.add("Poison:    " + poison);
+		lines.add("Alcohol:   " + alcohol);
+		lines.add("Rotteness: " + rotteness);
 	}
 	
 }
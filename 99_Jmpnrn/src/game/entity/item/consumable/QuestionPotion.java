@@ -26,6 +26,7 @@ public class QuestionPotion extends Item {
 	@Override
 	public boolean onInteract(Entity e, Vector2 dir) {
 		e.removeItem(this);
+		this.release();
 		game.getGsm().changeGameState(GameStateType.QUESTION);
 		return false;
 	}
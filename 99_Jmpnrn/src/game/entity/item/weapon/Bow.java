@@ -35,7 +35,7 @@ public class Bow extends Weapon {
 		if (isReady()) {
 			this.startCooldown();
 			World world = e.getWorldIn();
-			Arrow arrow = new Arrow(e, vel, dir, getDamage());
+			Arrow arrow = Arrow.acquire(e, vel, dir, getDamage());
 			arrow.setRect(arrowBounds);
 			arrow.setImage(arrowImage);
 			Vector2 pos = e.getCenter();
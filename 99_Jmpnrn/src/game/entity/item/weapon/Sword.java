@@ -50,7 +50,7 @@ public class Sword extends Weapon {
 				}
 			}
 			
-			world.spawnQueue(new SwordHit(e, 10, this.getCooldown(), 0.1, direction), dir);
+			world.spawnQueue(SwordHit.acquire(e, 10, this.getCooldown(), 0.1, direction), dir);
 		}
 		return false;
 	}
@@ -30,6 +30,12 @@ public abstract class Weapon extends Item {
 		lastTime = Time.getTime();
 	}
 	
+	@Override
+	protected void reset() {
+		super.reset();
+		this.lastTime = 0;
+	}
+	
 	public boolean isReady() {
 		if (Time.getTime() - lastTime > cooldown || lastTime == -1) {
 			lastTime = -1;
@@ -13,9 +13,11 @@ import java.awt.Graphics2D;
 import java.awt.Shape;
 
 import game.Time;
+import game.entity.ActorType;
 import game.entity.GameObject;
 import game.graphics.Camera;
 import game.graphics.Image2d;
+import game.graphics.RenderSnapshot;
 import game.graphics.Screen;
 import game.level.World;
 import game.shape.Rectangle;
@@ -55,7 +57,12 @@ public class Platform extends GameObject {
 	public void draw(Graphics2D g2, Camera cam) {
 		int tilesize = Screen.TILESIZE;
 		g2.setColor(color);
-		g2.fillRect((int) (this.getX() * tilesize - cam.getPixelOffsetX()), (int) (this.getY() * tilesize - cam.getPixelOffsetY()), (int) (getWidth() * tilesize), (int) (getHeight() * tilesize));
+		g2.fillRect((int) (this.getRenderX() * tilesize - cam.getPixelOffsetX()), (int) (this.getRenderY() * tilesize - cam.getPixelOffsetY()), (int) (getWidth() * tilesize), (int) (getHeight() * tilesize));
+	}
+	
+	@Override
+	public void snapshot(RenderSnapshot s) {
+		s.addRect(color, getPreviousX(), getPreviousY(), getX(), getY(), getWidth(), getHeight());
 	}
 	
 	@Override
@@ -84,4 +91,9 @@ public class Platform extends GameObject {
 		
 	}
 
+	@Override
+	public ActorType getActorType() {
+		return ActorType.PLATFORM;
+	}
+
 }
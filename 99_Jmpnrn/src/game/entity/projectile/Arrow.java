@@ -10,8 +10,10 @@ package game.entity.projectile;
 
 import java.awt.Shape;
 
+import game.entity.ActorType;
 import game.entity.Entity;
 import game.entity.GameObject;
+import game.entity.ObjectPool;
 import game.graphics.Image2d;
 import game.graphics.Images;
 import game.io.FileIO;
@@ -20,10 +22,34 @@ import game.shape.Vector2;
 
 public class Arrow extends Projectile {
 	
+	public static final ObjectPool<Arrow> POOL = new ObjectPool<>("arrow", Arrow::new, 256);
+	
 	public Arrow(Entity owner, double vel, Vector2 dir, double damage) {
 		super(owner, new Rectangle(vel, vel, 0.5, 0.5), Images.ARROW, vel, dir, damage);
 		this.setGravity(9.81);
 		this.setFriction(0.10);
+		this.continuousCollision = true;
+	}
+	
+	private Arrow() {
+		super(new Rectangle(0, 0, 0.5, 0.5), Images.ARROW);
+		this.setGravity(9.81);
+		this.setFriction(0.10);
+		this.continuousCollision = true;
+	}
+	
+	/**
+	 * @param owner
+	 * @param vel
+	 * @param dir
+	 * @param damage
+	 * @return an arrow from the pool, it goes back when the world removes it
+	 */
+	
+	public static Arrow acquire(Entity owner, double vel, Vector2 dir, double damage) {
+		Arrow arrow = POOL.acquire();
+		arrow.launch(owner, vel, dir, damage);
+		return arrow;
 	}
 	
 	@Override
@@ -52,4 +78,9 @@ public class Arrow extends Projectile {
 		this.setVel(0, 0);
 	}
 
+	@Override
+	public ActorType getActorType() {
+		return ActorType.ARROW;
+	}
+
 }
@@ -23,12 +23,40 @@ public abstract class Projectile extends GameObject{
 	private double damage;
 	
 	public Projectile(Entity owner, Rectangle r, Image2d image, double vel, Vector2 dir, double damage) {
-		super(owner.getWorldIn(), r, image);
+		this(r, image);
+		launch(owner, vel, dir, damage);
+	}
+	
+	/**
+	 * A projectile without owner for a pool, {@link #launch} sets it up before it
+	 * is spawned
+	 */
+	
+	protected Projectile(Rectangle r, Image2d image) {
+		super(null, r, image);
+	}
+	
+	/**
+	 * @param owner
+	 * @param vel   speed in the direction
+	 * @param dir   doesn't need to be a unit vector
+	 * @param damage
+	 */
+	
+	protected void launch(Entity owner, double vel, Vector2 dir, double damage) {
+		this.worldIn = owner.getWorldIn();
 		this.owner = owner;
-		this.setVel(dir.unitvectl(vel));
+		this.vel.setV(dir);
+		this.vel.unitvectLocal().mulLocal(vel);
 		this.damage = damage;
 	}
 	
+	@Override
+	protected void onRelease() {
+		super.onRelease();
+		this.owner = null;
+	}
+	
 	@Override
 	public void onCollision(GameObject o) {
 		if (o instanceof Entity) {
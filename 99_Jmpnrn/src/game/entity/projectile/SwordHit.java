@@ -10,8 +10,10 @@ package game.entity.projectile;
 
 import java.awt.Shape;
 
+import game.entity.ActorType;
 import game.entity.Entity;
 import game.entity.GameObject;
+import game.entity.ObjectPool;
 import game.graphics.Images;
 import game.shape.Rectangle;
 import game.shape.Vector2;
@@ -25,6 +27,8 @@ public class SwordHit extends Projectile {
 	private boolean hasHit;
 	private double knockback;
 	
+	public static final ObjectPool<SwordHit> POOL = new ObjectPool<>("sword hit", SwordHit::new, 64);
+	
 	public SwordHit(Entity owner, double damage, double duaration, double knockback, Direction dir) {
 		super(owner, new Rectangle(0, 0, 1.5, 1.5), Images.SWORD_HIT, 0, new Vector2(0, 0), damage);
 		this.direction = dir;
@@ -33,32 +37,59 @@ public class SwordHit extends Projectile {
 		this.staticCollision = false;
 		this.knockback = knockback;
 	}
+	
+	private SwordHit() {
+		super(new Rectangle(0, 0, 1.5, 1.5), Images.SWORD_HIT);
+		this.staticCollision = false;
+	}
+	
+	/**
+	 * @param owner
+	 * @param damage
+	 * @param duaration
+	 * @param knockback
+	 * @param dir
+	 * @return a sword hit from the pool, it goes back when the world removes it
+	 */
+	
+	public static SwordHit acquire(Entity owner, double damage, double duaration, double knockback, Direction dir) {
+		SwordHit hit = POOL.acquire();
+		hit.launch(owner, 0, Vector2.X, damage);
+		hit.direction = dir;
+		hit.duaration = duaration;
+		hit.knockback = knockback;
+		return hit;
+	}
+	
+	@Override
+	protected void reset() {
+		super.reset();
+		this.timer = 0;
+		this.hasHit = false;
+	}
 
 	@Override
 	public void hitEntity(Entity e) {
 		if (!e.equals(owner) && !hasHit) {
 			e.loseHealth(this.getDamage());
 			
-			Vector2 kb;
 			switch (direction) {
 				case DOWN:
-					kb = new Vector2(0, -1).mul(knockback);
+					e.getVel().addLocal(0, -knockback);
 					break;
 				case LEFT:
-					kb = new Vector2(-1, 0).mul(knockback);
+					e.getVel().addLocal(-knockback, 0);
 					break;
 				case RIGHT:
-					kb = new Vector2(1, 0).mul(knockback);
+					e.getVel().addLocal(knockback, 0);
 					break;
 				case UP:
-					kb = new Vector2(0, 1).mul(knockback);
+					e.getVel().addLocal(0, knockback);
 					break;
 				default:
-					kb = new Vector2(0, 0);
 					break;
 				
 			}
-			e.setVel(e.getVel().add(kb));
 			
 			hasHit = true;
 		}
@@ -108,4 +139,9 @@ public class SwordHit extends Projectile {
 		
 	}
 
+	@Override
+	public ActorType getActorType() {
+		return ActorType.SWORD_HIT;
+	}
+
 }
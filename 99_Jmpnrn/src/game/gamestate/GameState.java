@@ -5,6 +5,7 @@ import java.awt.Graphics2D;
 import game.Game;
 import game.graphics.Camera;
 import game.graphics.Drawable;
+import game.graphics.RenderSnapshot;
 import game.io.Input;
 
 public abstract class GameState implements Drawable {
@@ -49,4 +50,14 @@ public abstract class GameState implements Drawable {
 	@Override
 	public abstract void draw(Graphics2D g2, Camera cam);
 	
+	/**
+	 * called after every tick when the game renders on its own thread, copies
+	 * what draw needs into the snapshot
+	 * @param s
+	 * @param cam
+	 */
+	public void snapshot(RenderSnapshot s, Camera cam) {
+		
+	}
+	
 }
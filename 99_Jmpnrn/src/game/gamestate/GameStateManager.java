@@ -14,6 +14,7 @@ import java.util.Iterator;
 
 import game.graphics.Camera;
 import game.graphics.Drawable;
+import game.graphics.RenderSnapshot;
 
 public class GameStateManager implements Drawable {
 	
@@ -59,5 +60,9 @@ public class GameStateManager implements Drawable {
 		gameStates.get(state).draw(g2, cam);
 	}
 	
+	public void snapshot(RenderSnapshot s, Camera cam) {
+		gameStates.get(state).snapshot(s, cam);
+	}
+	
 
 }
@@ -9,9 +9,11 @@
 package game.gamestate;
 
 import java.awt.Color;
+import java.awt.Font;
 import java.awt.Graphics2D;
 import java.awt.event.KeyEvent;
 import java.util.ArrayList;
+import java.util.List;
 
 import game.Game;
 import game.entity.GameObject;
@@ -20,23 +22,26 @@ import game.entity.enemy.Enemies;
 import game.entity.enemy.Skeleton;
 import game.entity.item.Item;
 import game.entity.item.Items;
-import game.entity.item.consumable.QuestionPotion;
-import game.entity.item.weapon.Bow;
-import game.entity.item.weapon.Sword;
 import game.graphics.Camera;
+import game.graphics.HudSnapshot;
 import game.graphics.Image2d;
 import game.graphics.Images;
+import game.graphics.RenderSnapshot;
 import game.graphics.Screen;
 import game.io.FileIO;
 import game.io.Input;
 import game.level.World;
 import game.shape.Rectangle;
 import game.shape.Vector2;
+import net.client.ServerSession;
 import sound.SoundEngine;
 
 public class GameStatePlay extends GameState {
 
+	public static final String START_LEVEL = "slopes";
+
 	private Player player;
+	private ServerSession session;
 	private Screen screen;
 	private Input input;
 	private boolean showActors;
@@ -50,6 +55,7 @@ public class GameStatePlay extends GameState {
 	private int scrollOffset = 0;
 	private int itemsPerLine = 10;
 	private int totalLines = 10;
+	private HudSnapshot hud;
 
 	public GameStatePlay(Game game) {
 		super(game);
@@ -57,31 +63,41 @@ public class GameStatePlay extends GameState {
 		this.input = game.getInput();
 		this.showActors = false;
 		this.selectedIndex = -1;
+		this.hud = new HudSnapshot();
 	}
 
 	@Override
 	public void init() {
 		Items items = game.getItems();
-		items.register(new Bow("game_bow", "Bow", FileIO.loadImage("img/game_bow.png"), FileIO.loadImage("img/game_arrow.png"), new Rectangle(0, 0, 0.5, 0.5), 20, 10, 0.1));
-		items.register(new Bow("game_bow_skelly", "Bow", FileIO.loadImage("img/game_bow_skelly.png"), FileIO.loadImage("img/game_fire_arrow.png"), new Rectangle(0, 0, 0.5, 0.5), 11, 20, 0.1));
-		items.register(new Sword("game_sword", "Sword", Images.SWORD, 10, 0.1));
-		items.register(new QuestionPotion("game_question_potion", "Magic Potion", FileIO.loadImage("img/game_potion.png")));
+		items.registerDefaults();
 		
-		World world1 = new World(game);
-		world1.load("slopes");
-		world1.init();
-		game.getLevels().put("slopes", world1);
+		// loads in the background while the menu is shown
+		game.getLevels().load(START_LEVEL);
+	}
+	
+	/**
+	 * Spawns the player once the first world is loaded. When playing on a server
+	 * the enemies come from the server.
+	 * 
+	 * @param world1
+	 */
+	
+	private void start(World world1) {
+		Items items = game.getItems();
+		game.getLevels().enter(world1);
 		
-		World world2 = new World(game);
-		world2.load("default");
-		world2.init();
-		game.getLevels().put("default", world2);
-				
 		player = new Player(world1, new Rectangle(3, 3, 1, 2.5), FileIO.loadImage("img/bacardi.png"));
 		player.addItem(items.get("game_bow"));
 		player.addItem(items.get("game_sword"));
 		player.getWorldIn().spawn(player, player.getWorldIn().getSpawnPoint());
 
+		if (game.getServer() != null) {
+			session = ServerSession.connect(game.getServer());
+			world1.setMaxEnemies(0);
+			screen.getCam().setTarget(player);
+			return;
+		}
+
 		Skeleton skelly = new Skeleton(player.getWorldIn(), new Rectangle(0, 0, 1, 2), FileIO.loadImage("img/skeleton.png"));
 		skelly.addItem(items.get("game_bow_skelly"));
 		player.getWorldIn().spawn(skelly, player.getWorldIn().getSpawnPoint().sub(new Vector2(1, 0)));
@@ -94,6 +110,13 @@ public class GameStatePlay extends GameState {
 	
 	@Override
 	public void update(double elapsedTime) {
+		if (player == null) {
+			World world = game.getLevels().get(START_LEVEL);
+			if (world == null) {
+				return;
+			}
+			start(world);
+		}
 		globalHotKeys();
 		if (player.isInInventory()) {
 			hoverSelectedIndex = getInventoryItemIndex(input.getPoint());
@@ -164,10 +187,22 @@ public class GameStatePlay extends GameState {
 				}
 
 			}
+			
+			Item[] items = player.getInventory().getInventory();
+			int maxScrollOffset = (items.length / itemsPerLine) - totalLines;
+			if (scrollOffset < 0) {
+				scrollOffset = 0;
+			}
+			if ((scrollOffset + totalLines) * itemsPerLine > items.length) {
+				scrollOffset = maxScrollOffset;
+			}
 
 			
 		}
 		player.getWorldIn().update(elapsedTime);
+		if (session != null) {
+			session.update(player.getWorldIn(), player);
+		}
 		screen.getCam().update(elapsedTime);
 		float speed = 1f;
 		
@@ -175,7 +210,7 @@ public class GameStatePlay extends GameState {
 
 	public void globalHotKeys() {
 
-		if (input.keyPressed(KeyEvent.VK_ENTER)) {
+		if (input.keyPressed(KeyEvent.VK_ENTER) && session == null) {
 			player.getWorldIn().spawn(Enemies.createSkelly(), player.getWorldIn().getSpawnPoint());
 		}
 		
@@ -213,36 +248,93 @@ public class GameStatePlay extends GameState {
 
 	@Override
 	public void draw(Graphics2D g2, Camera cam) {
+		// on the render thread only the snapshot may be drawn, the world and the player are updated meanwhile
+		RenderSnapshot s = game.getRenderSnapshot();
+		boolean threaded = game.isRenderThread();
+		if (threaded ? s == null || s.getWorld() == null || !s.getHud().isFilled() : player == null) {
+			g2.setColor(Color.BLACK);
+			g2.fillRect(0, 0, (int) cam.getWidth(), (int) cam.getHeight());
+			g2.setColor(Color.WHITE);
+			g2.drawString("Loading...", 25, 25);
+			return;
+		}
 //		g2.setXORMode(new Color(red, green, blue));
-		player.getWorldIn().draw(g2, cam);
+		HudSnapshot hud;
+		if (threaded) {
+			s.getWorld().draw(g2, cam, s);
+			hud = s.getHud();
+		} else {
+			player.getWorldIn().draw(g2, cam);
+			hud = this.hud;
+			hud.clear();
+			snapshot(hud);
+		}
 		//    	drawGrid(g2, Screen.TILESIZE, 50, 50, cam);
-		if (showPlayerInfo) {
-			player.drawInfo(g2, cam);
+		drawPlayerInfo(g2, hud.getPlayerInfo());
+		drawPlayerInventory(g2, cam, hud);
+		drawWorldInfo(g2, cam, hud.getActorInfo());
+		drawPlayerHealth(g2, cam, hud);
+		
+		if (hud.isInventoryOpen()) {
+			drawInventory(g2, hud);
+			if (hud.getDragged() != null) {
+				hud.getDragged().draw(g2, hud.getCursorX(), hud.getCursorY(), size, size);
+			}
+			drawItemInfo(g2, hud);
 		}
-		drawPlayerInventory(g2, cam);
 		
+	}
+
+	@Override
+	public void snapshot(RenderSnapshot s, Camera cam) {
+		if (player == null) {
+			return;
+		}
+		player.getWorldIn().snapshot(s, cam);
+		snapshot(s.getHud());
+	}
+
+	/**
+	 * Copies what the HUD shows from the player
+	 * 
+	 * @param hud
+	 */
+
+	private void snapshot(HudSnapshot hud) {
+		hud.setHealth(player.getHealth(), player.getMaxHealth());
+		Item[] hotbar = player.getHotbar();
+		Image2d[] images = hud.hotbar(hotbar.length);
+		for (int i = 0; i < hotbar.length; i++) {
+			images[i] = hotbar[i] != null ? hotbar[i].getImage() : null;
+		}
+		hud.setMainhand(player.getMainhand());
+
+		if (showPlayerInfo) {
+			player.getInfo(hud.getPlayerInfo());
+		}
 		if (showActors) {
-			drawWorldInfo(g2, cam);
+			for (GameObject g : player.getWorldIn().getActors()) {
+				hud.getActorInfo().add("" + g);
+			}
 		}
-		drawPlayerHealth(g2, cam);
-		
+
 		if (player.isInInventory()) {
-			drawInventory(g2, cam);
-			if (selectedIndex != -1) {
-				Item item = player.getInventory().getInventory()[selectedIndex];
-				if (item != null) {
-					item.getImage().draw(g2, input.getX(), input.getY(), size, size);
-				}
+			hud.setInventoryOpen(true);
+			Item[] items = player.getInventory().getInventory();
+			Image2d[] slots = hud.inventory(itemsPerLine * totalLines);
+			for (int i = 0; i < slots.length; i++) {
+				Item item = items[i + scrollOffset * itemsPerLine];
+				slots[i] = item != null ? item.getImage() : null;
 			}
-			
-			if (hoverSelectedIndex != -1) {
-				Item item = player.getInventory().getInventory()[hoverSelectedIndex];
-				if (item != null) {
-					item.drawInfo(g2, input.getX(), input.getY());
-				}
+			int maxScrollOffset = (items.length / itemsPerLine) - totalLines;
+			hud.setInventoryScroll((double) scrollOffset / (double) maxScrollOffset);
+
+			Item selected = selectedIndex != -1 ? items[selectedIndex] : null;
+			hud.setDragged(selected != null ? selected.getImage() : null, input.getX(), input.getY());
+			if (hoverSelectedIndex != -1 && items[hoverSelectedIndex] != null) {
+				items[hoverSelectedIndex].getInfo(hud.getItemInfo());
 			}
 		}
-		
 	}
 
 	public void drawGrid(Graphics2D g2, int tilesize, int rows, int colls, Camera cam)  {
@@ -260,12 +352,24 @@ public class GameStatePlay extends GameState {
 
 	}
 
-	public void drawPlayerInventory(Graphics2D g2, Camera cam) {
+	public void drawPlayerInfo(Graphics2D g2, List<String> lines) {
+		if (lines.isEmpty()) {
+			return;
+		}
+		g2.setColor(Color.BLUE);
+		g2.fillRoundRect(25, 25, 200, 180, 10, 10);
+		g2.setColor(Color.WHITE);
+		for (int i = 0; i < lines.size(); i++) {
+			g2.drawString(lines.get(i), 50, 50 + i * 20);
+		}
+	}
+
+	public void drawPlayerInventory(Graphics2D g2, Camera cam, HudSnapshot hud) {
 
 		int size = 64;
 		int space = 5;
 
-		Item[] hotbar = player.getHotbar();
+		Image2d[] hotbar = hud.getHotbar();
 
 		int hotbarlength = hotbar.length * size + (hotbar.length - 1) * space;
 		int offsetX = (int) (cam.getWidth() / 2 - hotbarlength / 2);
@@ -275,24 +379,23 @@ public class GameStatePlay extends GameState {
 
 			g2.setColor(Color.BLUE);
 
-			if (player.getMainhand() == i) {
+			if (hud.getMainhand() == i) {
 				g2.setColor(Color.YELLOW);
 			}
 
 			g2.fillRoundRect(offsetX + i * (size + space), offsetY, size, size, 10, 10);
 
-			Item item = hotbar[i];
-			if (item != null) {
-				item.getImage().draw(g2, offsetX + i * (size + space), offsetY, size, size);
+			if (hotbar[i] != null) {
+				hotbar[i].draw(g2, offsetX + i * (size + space), offsetY, size, size);
 			}
 
 		}
 	}
 
-	public void drawPlayerHealth(Graphics2D g2, Camera cam) {
+	public void drawPlayerHealth(Graphics2D g2, Camera cam, HudSnapshot hud) {
 
-		double health = player.getHealth();
-		double maxHealth = player.getMaxHealth();
+		double health = hud.getHealth();
+		double maxHealth = hud.getMaxHealth();
 
 		int size = 48;
 		int space = 4;
@@ -322,9 +425,12 @@ public class GameStatePlay extends GameState {
 		}
 	}
 
-	public void drawWorldInfo(Graphics2D  g2, Camera cam) {
+	public void drawWorldInfo(Graphics2D  g2, Camera cam, List<String> actors) {
+		if (actors.isEmpty()) {
+			return;
+		}
 
-		int asize = player.getWorldIn().getActors().size();
+		int asize = actors.size();
 		int dyLine = 15;
 		int width = 300;
 		g2.setColor(Color.BLUE);
@@ -332,16 +438,15 @@ public class GameStatePlay extends GameState {
 		g2.setColor(Color.WHITE);
 
 		g2.drawString("Actors size: " + asize, (float) cam.getWidth() - width, 50);
-		int i = 0; for (GameObject g : player.getWorldIn().getActors()) {
-			g2.drawString("" + g, (float) cam.getWidth() - width, i * dyLine + 75);
-			i++;
+		for (int i = 0; i < asize; i++) {
+			g2.drawString(actors.get(i), (float) cam.getWidth() - width, i * dyLine + 75);
 		}
 		
 	}
 	
-	public void drawInventory(Graphics2D  g2, Camera cam) {
+	public void drawInventory(Graphics2D  g2, HudSnapshot hud) {
 		
-		Item[] items = player.getInventory().getInventory();
+		Image2d[] items = hud.getInventory();
 		
 		int rwidth = itemsPerLine * size + (itemsPerLine + 1) * space;
 		int rheight = totalLines * size + (totalLines + 1) * space;
@@ -349,33 +454,31 @@ public class GameStatePlay extends GameState {
 		g2.setColor(Color.BLUE.brighter());
 		g2.fillRoundRect(rx, ry, rwidth, rheight, 20, 20);
 		
-		int tiles = itemsPerLine * totalLines;
-		if (scrollOffset < 0) {
-			scrollOffset = 0;
-		}
-		
-		int maxScrollOffset = (items.length / itemsPerLine) - totalLines;
-		if ((scrollOffset + totalLines) * itemsPerLine > items.length) {
-			scrollOffset = maxScrollOffset;
-		}
-		
-		for (int i = 0; i < tiles; i++) {
+		for (int i = 0; i < items.length; i++) {
 			int x = i % itemsPerLine;
 			int y = i / itemsPerLine;
 
 			g2.setColor(new Color(0, 191, 255));
 			g2.fillRoundRect(x * size + (x + 1) * space + rx, y * size + (y + 1) * space + ry, size, size, 25, 25);
-			if (items[i + scrollOffset * itemsPerLine] != null) {
-				items[i + scrollOffset * itemsPerLine].getImage().draw(g2, x * size + (x + 1) * space + rx, y * size + (y + 1) * space + ry, size, size);
+			if (items[i] != null) {
+				items[i].draw(g2, x * size + (x + 1) * space + rx, y * size + (y + 1) * space + ry, size, size);
 			}
 		}
 		
-		double percent = (double) ((double) scrollOffset / (double) maxScrollOffset);
-		double y = rheight * percent;
+		double y = rheight * hud.getInventoryScroll();
 		g2.setColor(Color.YELLOW);
 		g2.fillRoundRect((int) (rx + rwidth),(int) (ry + y), 10, 10, 10, 10);
 	}
 	
+	public void drawItemInfo(Graphics2D g2, HudSnapshot hud) {
+		List<String> lines = hud.getItemInfo();
+		g2.setColor(Color.WHITE);
+		g2.setFont(Screen.FONT_SMALL.deriveFont(13f).deriveFont(Font.BOLD));
+		for (int i = 0; i < lines.size(); i++) {
+			g2.drawString(lines.get(i), hud.getCursorX() + 10, hud.getCursorY() + i * 13);
+		}
+	}
+	
 	public int getInventoryItemIndex(Vector2 pos) {
 		pos = pos.sub(new Vector2(rx + space / 2, ry + space / 2));
 		int rwidth = itemsPerLine * size + (itemsPerLine + 1) * space;
@@ -11,6 +11,7 @@ package game.graphics;
 import java.awt.event.KeyEvent;
 
 import game.Game;
+import game.Time;
 import game.entity.GameObject;
 import game.io.Input;
 import game.shape.Rectangle;
@@ -21,11 +22,15 @@ public class Camera extends Rectangle {
 	private Game game;
 	private GameObject target;
 	private Screen screen;
+	private double prevX;
+	private double prevY;
 
 	public Camera(Screen screen, double x, double y, double width, double height) {
 		super(x, y, width, height);
 		this.screen = screen;
 		this.game = (Game) screen.getGame();
+		this.prevX = x;
+		this.prevY = y;
 	}
 
 	public void setTarget(GameObject target) {
@@ -33,6 +38,8 @@ public class Camera extends Rectangle {
 	}
 
 	public void update(double elapsedTime) {
+		this.prevX = getX();
+		this.prevY = getY();
 		Vector2 screen = this.getDim();
 		double speed = 10;
 		if (target == null) {
@@ -72,15 +79,15 @@ public class Camera extends Rectangle {
 		} else {
 
 			if (xScroll) {
-				if ((target.getCenter().x - tWidth / 2) < 0) {
+				if ((target.getCenterX() - tWidth / 2) < 0) {
 					this.setX(0);
 				} else {
-						this.setX(target.getCenter().x - tWidth / 2);
+						this.setX(target.getCenterX() - tWidth / 2);
 			
 					
 				}
 				
-				if (target.getCenter().x  + tWidth / 2 > world.getWidth()) {
+				if (target.getCenterX()  + tWidth / 2 > world.getWidth()) {
 					this.setX(world.getWidth() - tWidth);
 				}
 				
@@ -89,16 +96,16 @@ public class Camera extends Rectangle {
 			}
 
 			if (yScroll) {
-				if ((target.getCenter().y - tHeight / 2) < 0) {
+				if ((target.getCenterY() - tHeight / 2) < 0) {
 					this.setY(0);
 				} else {
-					this.setY((target.getCenter().y - tHeight / 2));
+					this.setY((target.getCenterY() - tHeight / 2));
 
 					
 					
 				}
 				
-				if (target.getCenter().y > world.getHeight() - tHeight / 2) {
+				if (target.getCenterY() > world.getHeight() - tHeight / 2) {
 					this.setY((world.getHeight() - tHeight));
 				}
 				
@@ -126,11 +133,19 @@ public class Camera extends Rectangle {
 	}
 	
 	public double getPixelOffsetX() {
-		return this.getX() * Screen.TILESIZE;
+		return Time.interpolate(prevX, getX()) * Screen.TILESIZE;
 	}
 	
 	public double getPixelOffsetY() {
-		return this.getY() * Screen.TILESIZE;
+		return Time.interpolate(prevY, getY()) * Screen.TILESIZE;
+	}
+	
+	public double getPreviousX() {
+		return prevX;
+	}
+	
+	public double getPreviousY() {
+		return prevY;
 	}
 	
 }
@@ -0,0 +1,184 @@
+package game.graphics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * What the HUD of the play state shows: health, hotbar, inventory and the info
+ * texts. The simulation thread copies it from the player, so the render thread
+ * never reads the player while it changes. The arrays are reused as long as
+ * their length stays the same.
+ */
+
+public class HudSnapshot {
+
+	private boolean filled;
+	private double health;
+	private double maxHealth;
+	private Image2d[] hotbar;
+	private int mainhand;
+	private boolean inventoryOpen;
+	private Image2d[] inventory;
+	private double inventoryScroll;
+	private Image2d dragged;
+	private int cursorX;
+	private int cursorY;
+	private ArrayList<String> playerInfo;
+	private ArrayList<String> itemInfo;
+	private ArrayList<String> actorInfo;
+
+	public HudSnapshot() {
+		this.hotbar = new Image2d[0];
+		this.inventory = new Image2d[0];
+		this.playerInfo = new ArrayList<>();
+		this.itemInfo = new ArrayList<>();
+		this.actorInfo = new ArrayList<>();
+	}
+
+	public void clear() {
+		this.filled = false;
+		this.inventoryOpen = false;
+		this.dragged = null;
+		Arrays.fill(hotbar, null);
+		Arrays.fill(inventory, null);
+		playerInfo.clear();
+		itemInfo.clear();
+		actorInfo.clear();
+	}
+
+	/**
+	 * @param length
+	 * @return the images of the hotbar to fill in, null for an empty slot
+	 */
+
+	public Image2d[] hotbar(int length) {
+		filled = true;
+		if (hotbar.length != length) {
+			hotbar = new Image2d[length];
+		}
+		return hotbar;
+	}
+
+	/**
+	 * @param length
+	 * @return the images of the inventory slots that are shown, null for an empty
+	 *         slot
+	 */
+
+	public Image2d[] inventory(int length) {
+		if (inventory.length != length) {
+			inventory = new Image2d[length];
+		}
+		return inventory;
+	}
+
+	/**
+	 * @return if the HUD was filled since the last {@link #clear()}
+	 */
+
+	public boolean isFilled() {
+		return filled;
+	}
+
+	public void setHealth(double health, double maxHealth) {
+		this.health = health;
+		this.maxHealth = maxHealth;
+	}
+
+	public double getHealth() {
+		return health;
+	}
+
+	public double getMaxHealth() {
+		return maxHealth;
+	}
+
+	public Image2d[] getHotbar() {
+		return hotbar;
+	}
+
+	public int getMainhand() {
+		return mainhand;
+	}
+
+	public void setMainhand(int mainhand) {
+		this.mainhand = mainhand;
+	}
+
+	public boolean isInventoryOpen() {
+		return inventoryOpen;
+	}
+
+	public void setInventoryOpen(boolean inventoryOpen) {
+		this.inventoryOpen = inventoryOpen;
+	}
+
+	public Image2d[] getInventory() {
+		return inventory;
+	}
+
+	/**
+	 * @return how far the inventory is scrolled down, 0 to 1
+	 */
+
+	public double getInventoryScroll() {
+		return inventoryScroll;
+	}
+
+	public void setInventoryScroll(double inventoryScroll) {
+		this.inventoryScroll = inventoryScroll;
+	}
+
+	/**
+	 * @param dragged the image of the item that is dragged, null for none
+	 * @param x       the mouse position
+	 * @param y
+	 */
+
+	public void setDragged(Image2d dragged, int x, int y) {
+		this.dragged = dragged;
+		this.cursorX = x;
+		this.cursorY = y;
+	}
+
+	public Image2d getDragged() {
+		return dragged;
+	}
+
+	/**
+	 * @return x of the mouse, where the dragged item and the item info are drawn
+	 */
+
+	public int getCursorX() {
+		return cursorX;
+	}
+
+	public int getCursorY() {
+		return cursorY;
+	}
+
+	/**
+	 * @return the lines of the player info, empty if it is not shown
+	 */
+
+	public ArrayList<String> getPlayerInfo() {
+		return playerInfo;
+	}
+
+	/**
+	 * @return the lines of the info of the item under the mouse
+	 */
+
+	public ArrayList<String> getItemInfo() {
+		return itemInfo;
+	}
+
+	/**
+	 * @return a line per actor, empty if the actors are not shown
+	 */
+
+	public ArrayList<String> getActorInfo() {
+		return actorInfo;
+	}
+
+}
@@ -20,6 +20,12 @@ import java.awt.image.ImageObserver;
 import java.awt.image.ImageProducer;
 import java.awt.image.VolatileImage;
 
+/**
+ * An image that is drawn from video memory. The accelerated copy is created
+ * when the image is drawn the first time, in a headless environment it is never
+ * created and the image is drawn from the buffer.
+ */
+
 public class Image2d {
 
 	private VolatileImage img;
@@ -30,24 +36,30 @@ public class Image2d {
 	}
 
 	public Image2d(BufferedImage img) {
-		this.img = toVolatileImage(img);
 		this.buffer = img;
 	}
 	
 	public int getWidth() {
-		return this.img.getWidth();
+		return this.buffer.getWidth();
 	}
 	
 	public int getHeight() {
-		return this.img.getHeight();
+		return this.buffer.getHeight();
 	}
 
 	public Graphics2D createGraphics() {
-		Graphics2D g2 =  (Graphics2D) img.getGraphics();
+		if (GraphicsEnvironment.isHeadless()) {
+			return buffer.createGraphics();
+		}
+		Graphics2D g2 =  (Graphics2D) getImage().getGraphics();
 		return g2;
 	}
 
 	public boolean backup() {
+		if (img == null) {
+			// nothing was drawn into video memory, the buffer is up to date
+			return true;
+		}
 		if (img.validate(gc()) != VolatileImage.IMAGE_OK) {
 			return false; 
 		}
@@ -57,10 +69,15 @@ public class Image2d {
 	}
 
 	public void draw(Graphics2D g2, double x, double y) {
-		draw(g2, x, y, img.getWidth(), img.getHeight());
+		draw(g2, x, y, getWidth(), getHeight());
 	}
 
 	public void draw(Graphics2D g2, double x, double y, double width, double height) {
+		if (GraphicsEnvironment.isHeadless()) {
+			g2.drawImage(buffer, (int) x, (int) y, (int) width, (int) height, null);
+			return;
+		}
+		getImage();
 
 		int i = 0;
 
@@ -80,6 +97,12 @@ public class Image2d {
 	}
 
 	public void draw(Graphics2D g2, double sx, double sy, double sw, double sh, double dx, double dy, double dw, double dh) {
+		if (GraphicsEnvironment.isHeadless()) {
+			g2.drawImage(buffer, (int) dx, (int) dy, (int) (dx + dw), (int) (dy + dh), (int) sx, (int) sy, (int) (sx + sw), (int) (sy + sh), null);
+			return;
+		}
+		getImage();
+
 		int i = 0;
 
 		do {
@@ -92,7 +115,7 @@ public class Image2d {
 			if (img.validate(gc()) != VolatileImage.IMAGE_OK) {
 				restore();
 			}
-			g2.drawImage(img, (int) dx, (int) dy, (int) (dx + dw), (int) (dx + dh), (int) sx, (int) sy, (int) (sx + sw), (int) (sy + sh), null);
+			g2.drawImage(img, (int) dx, (int) dy, (int) (dx + dw), (int) (dy + dh), (int) sx, (int) sy, (int) (sx + sw), (int) (sy + sh), null);
 		} while (img.contentsLost());
 	}
 	
@@ -104,10 +127,29 @@ public class Image2d {
 		this.draw(g2, x - getWidth() / 2, y - getHeight() / 2, getWidth(), getHeight());
 	}
 
+	/**
+	 * @return the accelerated copy, created on the first call, must not be called
+	 *         in a headless environment
+	 */
+
 	public VolatileImage getImage() {
+		if (this.img == null) {
+			this.img = toVolatileImage(buffer);
+		}
 		return this.img;
 	}
 
+	/**
+	 * Releases the accelerated copy, it is created again when the image is drawn
+	 */
+
+	public void flush() {
+		if (this.img != null) {
+			this.img.flush();
+			this.img = null;
+		}
+	}
+
 	public BufferedImage getBackup() {
 		return this.buffer;
 	}
@@ -29,4 +29,24 @@ public class Images {
 	
 	public static final Image2d SKELLY = FileIO.loadImage("img/skeleton.png");
 	
+	/**
+	 * Loads the images if they aren't loaded yet, lets the asset pipeline load
+	 * them on its thread instead of when they are used first. The fields are
+	 * loaded when the class is initialized, reading them here makes sure that
+	 * happens in this call.
+	 */
+	
+	public static void load() {
+		Image2d[] images = { HEART_FULL, HEART_HALF, HEART_DEAD, HOLY_GRAIL, TITLE_FONT, BACARDI, MENU_BUTTON, MENU_BACKGROUND, QUESTIONS_BG, ARROW, SWORD, SWORD_HIT, SKELLY };
+		int missing = 0;
+		for (Image2d image : images) {
+			if (image == null) {
+				missing++;
+			}
+		}
+		if (missing > 0) {
+			System.err.println(missing + " of " + images.length + " images could not be loaded");
+		}
+	}
+	
 }
@@ -0,0 +1,184 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package game.graphics;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.util.Arrays;
+
+import game.Time;
+import game.level.World;
+
+/**
+ * Everything the render thread needs to draw the world of one tick: the camera,
+ * the sprites of all actors, each with its position of the previous and the
+ * current tick, and the HUD. The simulation thread fills a snapshot and hands it over
+ * through a TripleBuffer, after that it is only read until it is handed back.
+ * Snapshots are reused, the arrays only grow.
+ */
+
+public class RenderSnapshot {
+
+	private double time;
+	private double tickTime;
+	private World world;
+	private double camPrevX;
+	private double camPrevY;
+	private double camX;
+	private double camY;
+
+	private int count;
+	private Image2d[] images;
+	private Color[] colors;
+	private double[] prevX;
+	private double[] prevY;
+	private double[] x;
+	private double[] y;
+	private double[] width;
+	private double[] height;
+	private HudSnapshot hud;
+
+	public RenderSnapshot() {
+		this.images = new Image2d[64];
+		this.colors = new Color[64];
+		this.prevX = new double[64];
+		this.prevY = new double[64];
+		this.x = new double[64];
+		this.y = new double[64];
+		this.width = new double[64];
+		this.height = new double[64];
+		this.hud = new HudSnapshot();
+	}
+
+	/**
+	 * Starts a new snapshot
+	 *
+	 * @param time     when the tick finished
+	 * @param tickTime length of one tick
+	 */
+
+	public void begin(double time, double tickTime) {
+		this.time = time;
+		this.tickTime = tickTime;
+		this.world = null;
+		Arrays.fill(images, 0, count, null);
+		Arrays.fill(colors, 0, count, null);
+		this.count = 0;
+		hud.clear();
+	}
+
+	public void setCamera(World world, double prevX, double prevY, double x, double y) {
+		this.world = world;
+		this.camPrevX = prevX;
+		this.camPrevY = prevY;
+		this.camX = x;
+		this.camY = y;
+	}
+
+	/**
+	 * Adds an image drawn at the interpolated position, all values in tiles
+	 */
+
+	public void addSprite(Image2d image, double prevX, double prevY, double x, double y, double width, double height) {
+		int i = add(prevX, prevY, x, y, width, height);
+		images[i] = image;
+	}
+
+	/**
+	 * Adds a filled rectangle drawn at the interpolated position, all values in
+	 * tiles
+	 */
+
+	public void addRect(Color color, double prevX, double prevY, double x, double y, double width, double height) {
+		int i = add(prevX, prevY, x, y, width, height);
+		colors[i] = color;
+	}
+
+	private int add(double prevX, double prevY, double x, double y, double width, double height) {
+		if (count == this.x.length) {
+			int size = count * 2;
+			images = Arrays.copyOf(images, size);
+			colors = Arrays.copyOf(colors, size);
+			this.prevX = Arrays.copyOf(this.prevX, size);
+			this.prevY = Arrays.copyOf(this.prevY, size);
+			this.x = Arrays.copyOf(this.x, size);
+			this.y = Arrays.copyOf(this.y, size);
+			this.width = Arrays.copyOf(this.width, size);
+			this.height = Arrays.copyOf(this.height, size);
+		}
+		int i = count++;
+		this.prevX[i] = prevX;
+		this.prevY[i] = prevY;
+		this.x[i] = x;
+		this.y[i] = y;
+		this.width[i] = width;
+		this.height[i] = height;
+		return i;
+	}
+
+	/**
+	 * Draws the sprites with {@link Time#alpha()}
+	 *
+	 * @param g2
+	 */
+
+	public void draw(Graphics2D g2) {
+		int tilesize = Screen.TILESIZE;
+		double offsetX = getPixelOffsetX();
+		double offsetY = getPixelOffsetY();
+
+		for (int i = 0; i < count; i++) {
+			double dx = Time.interpolate(prevX[i], x[i]) * tilesize - offsetX;
+			double dy = Time.interpolate(prevY[i], y[i]) * tilesize - offsetY;
+			if (images[i] != null) {
+				images[i].draw(g2, dx, dy, width[i] * tilesize, height[i] * tilesize);
+			} else {
+				g2.setColor(colors[i]);
+				g2.fillRect((int) dx, (int) dy, (int) (width[i] * tilesize), (int) (height[i] * tilesize));
+			}
+		}
+	}
+
+	/**
+	 * @param now
+	 * @return how far now is into the tick after this snapshot, 0 to 1
+	 */
+
+	public double alpha(double now) {
+		if (tickTime <= 0) {
+			return 1;
+		}
+		return Math.max(0, Math.min(1, (now - time) / tickTime));
+	}
+
+	public double getPixelOffsetX() {
+		return Time.interpolate(camPrevX, camX) * Screen.TILESIZE;
+	}
+
+	public double getPixelOffsetY() {
+		return Time.interpolate(camPrevY, camY) * Screen.TILESIZE;
+	}
+
+	public World getWorld() {
+		return world;
+	}
+
+	public HudSnapshot getHud() {
+		return hud;
+	}
+
+	public double getTime() {
+		return time;
+	}
+
+	public int size() {
+		return count;
+	}
+
+}
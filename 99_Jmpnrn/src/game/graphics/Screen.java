@@ -24,6 +24,7 @@ import java.awt.image.VolatileImage;
 import java.io.IOException;
 
 import game.Engine;
+import game.Profiler;
 import game.io.FileIO;
 
 public class Screen extends Canvas implements WindowListener, ComponentListener {
@@ -32,14 +33,18 @@ public class Screen extends Canvas implements WindowListener, ComponentListener
 	public static final Font FONT_MEDIUM = new Font("Monospaced Bold", Font.PLAIN, 20);
 	public static final Font FONT_LARGE = new Font("Monospaced Bold", Font.PLAIN, 30);
 	
-	public static final Font PIXEL_FONT_SMALL = createFont("font/pixel_font_2.ttf").deriveFont(15f);
-	public static final Font PIXEL_FONT_MEDIUM = createFont("font/pixel_font_2.ttf").deriveFont(20f);
-	public static final Font PIXEL_FONT_LARGE = createFont("font/pixel_font_2.ttf").deriveFont(40f);
+	private static final Font PIXEL_FONT = createFont("font/pixel_font_2.ttf");
+	public static final Font PIXEL_FONT_SMALL = PIXEL_FONT.deriveFont(15f);
+	public static final Font PIXEL_FONT_MEDIUM = PIXEL_FONT.deriveFont(20f);
+	public static final Font PIXEL_FONT_LARGE = PIXEL_FONT.deriveFont(40f);
 	
 	public static final int TILESIZE = 64;
 	private static final long serialVersionUID = 1L;
 	private Engine game;
 	private Camera cam;
+	private Camera renderCam;
+	private volatile int viewWidth;
+	private volatile int viewHeight;
 	private Frame frame;
 
 	private BufferStrategy strategy;
@@ -49,6 +54,9 @@ public class Screen extends Canvas implements WindowListener, ComponentListener
 		this.setPreferredSize(new Dimension(width, height));
 		this.game = game;
 		this.cam = new Camera(this, 0, 0, width, height);
+		this.renderCam = new Camera(this, 0, 0, width, height);
+		this.viewWidth = width;
+		this.viewHeight = height;
 		this.setFocusable(true);
 		this.addKeyListener(game.getInput());
 		frame = new Frame("GameScreen");
@@ -77,22 +85,58 @@ public class Screen extends Canvas implements WindowListener, ComponentListener
 		}
 	}
 
+	/**
+	 * Renders with the camera of the simulation, both run on the same thread
+	 */
+
 	public void render() {
+		render(cam);
+	}
+
+	/**
+	 * Renders on the render thread. The camera of the simulation is updated
+	 * meanwhile, so this one gets its own camera which only has the size of the
+	 * screen, the position comes from the snapshot.
+	 */
+
+	public void renderThreaded() {
+		render(renderCam);
+	}
+
+	private void render(Camera view) {
 		checkVBuffer();
-		cam.setDimensions(getWidth(), getHeight());
+		viewWidth = getWidth();
+		viewHeight = getHeight();
+		view.setDimensions(viewWidth, viewHeight);
 		
+		long t = Profiler.begin();
 		Graphics2D g3 = (Graphics2D) vBuffer.getGraphics();
 		g3.clearRect(0, 0, getWidth(), getHeight());
-		game.render(g3, cam);
+		game.render(g3, view);
+		if (game.isShowTimings()) {
+			Profiler.draw(g3, 10, 10);
+		}
 		g3.dispose();
+		Profiler.end(Profiler.DRAW, t);
 		
+		t = Profiler.begin();
 		Graphics2D g2 = (Graphics2D) strategy.getDrawGraphics();
 		g2.clearRect(0, 0, getWidth(), getHeight());
 		g2.drawImage(vBuffer, 0, 0, getWidth(), getHeight(), null);
 		g2.dispose();
 		strategy.show();
+		Profiler.end(Profiler.PRESENT, t);
 	}
 	
+	/**
+	 * Gives the camera of the simulation the size the screen was last rendered
+	 * with, called on the simulation thread before every tick
+	 */
+
+	public void updateCamera() {
+		cam.setDimensions(viewWidth, viewHeight);
+	}
+
 	public Camera getCam() {
 		return cam;
 	}
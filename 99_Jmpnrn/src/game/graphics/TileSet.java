@@ -8,58 +8,109 @@
  *******************************************************/
 package game.graphics;
 
+import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException;
-
-import javax.imageio.ImageIO;
 
 import game.io.FileIO;
 
+/**
+ * A sheet of equally sized tiles. The sheet is kept as one image and tiles are
+ * drawn as source rectangles of it, so there is only one accelerated image per
+ * sheet.
+ */
+
 public class TileSet {
 
-	private Image2d[][] tiles;
+	private Image2d sheet;
+	private Image2d[] tiles;
+	private int tilesizex;
+	private int tilesizey;
 	private int tileset_rows;
 	private int tileset_colls;
 
 	public TileSet(String filename, int tilesize) {
-
-		BufferedImage img = FileIO.loadBufferedImage(filename);
-		this.tileset_rows = img.getHeight() / tilesize;
-		this.tileset_colls = img.getWidth() / tilesize;
-		this.tiles = new Image2d[tileset_rows][tileset_colls];
-
-		for (int row = 0; row < tileset_rows; row++) {
-			for (int coll = 0; coll < tileset_colls; coll++) {
-				BufferedImage subImage = img.getSubimage(coll * tilesize, row * tilesize, tilesize, tilesize);
-				tiles[row][coll] = new Image2d(subImage);
-			}
-		}
+		this(filename, tilesize, tilesize);
 	}
 	
+	/**
+	 * The sheet is taken from the shared image cache, release it with
+	 * {@link FileIO#releaseImage(String)} when the tileset isn't used any more
+	 */
+	
 	public TileSet(String filename, int tilesizex, int tilesizey) {
+		this(FileIO.loadImage(filename), tilesizex, tilesizey);
+	}
 
-		BufferedImage img = FileIO.loadBufferedImage(filename);
+	public TileSet(BufferedImage img, int tilesizex, int tilesizey) {
+		this(new Image2d(img), tilesizex, tilesizey);
+	}
+
+	public TileSet(Image2d sheet, int tilesizex, int tilesizey) {
+		BufferedImage img = sheet.getBackup();
+		this.sheet = sheet;
+		this.tilesizex = tilesizex;
+		this.tilesizey = tilesizey;
 		this.tileset_rows = img.getHeight() / tilesizey;
 		this.tileset_colls = img.getWidth() / tilesizex;
-		this.tiles = new Image2d[tileset_rows][tileset_colls];
+		this.tiles = new Image2d[tileset_rows * tileset_colls];
+	}
 
-		for (int row = 0; row < tileset_rows; row++) {
-			for (int coll = 0; coll < tileset_colls; coll++) {
-				BufferedImage subImage = img.getSubimage(coll * tilesizex, row * tilesizey, tilesizex, tilesizey);
-				tiles[row][coll] = new Image2d(subImage);
-			}
-		}
+	/**
+	 * Draws a tile with the accelerated sheet
+	 * 
+	 * @param g2
+	 * @param n      index of the tile
+	 * @param x
+	 * @param y
+	 * @param width
+	 * @param height
+	 */
+
+	public void draw(Graphics2D g2, int n, double x, double y, double width, double height) {
+		int sx = (n % tileset_colls) * tilesizex;
+		int sy = (n / tileset_colls) * tilesizey;
+		sheet.draw(g2, sx, sy, tilesizex, tilesizey, x, y, width, height);
+	}
+
+	/**
+	 * Draws a tile from the sheet in memory, for drawing into images where
+	 * reading back the accelerated sheet would be slow
+	 * 
+	 * @param g2
+	 * @param n      index of the tile
+	 * @param x
+	 * @param y
+	 * @param width
+	 * @param height
+	 */
+
+	public void drawBuffered(Graphics2D g2, int n, int x, int y, int width, int height) {
+		int sx = (n % tileset_colls) * tilesizex;
+		int sy = (n / tileset_colls) * tilesizey;
+		g2.drawImage(sheet.getBackup(), x, y, x + width, y + height, sx, sy, sx + tilesizex, sy + tilesizey, null);
 	}
 
+	/**
+	 * @param n
+	 * @return the tile as its own image, created on the first call. Prefer
+	 *         {@link #draw(Graphics2D, int, double, double, double, double)}
+	 */
+
 	public Image2d get(int n) {
-		int row = n / tileset_colls;
-		int coll = n % tileset_colls;
-		return tiles[row][coll];
+		if (tiles[n] == null) {
+			int sx = (n % tileset_colls) * tilesizex;
+			int sy = (n / tileset_colls) * tilesizey;
+			tiles[n] = new Image2d(sheet.getBackup().getSubimage(sx, sy, tilesizex, tilesizey));
+		}
+		return tiles[n];
 	}
 
 	public Image2d get(int coll, int row) {
-		return tiles[row][coll];
+		return get(row * tileset_colls + coll);
+	}
+
+	public Image2d getSheet() {
+		return sheet;
 	}
 	
 	public int getTileCount() {
@@ -8,6 +8,8 @@
  *******************************************************/
 package game.graphics;
 
+import java.awt.Graphics2D;
+
 public class TiledTileSet {
 
 	private TileSet[] sets;
@@ -29,6 +31,26 @@ public class TiledTileSet {
 	}
 	
 	public Image2d get(int n) {
+		int index = indexOf(n);
+		return sets[index].get(n - offsetOf(index));
+	}
+	
+	/**
+	 * Draws tile n from the sheet in memory, see
+	 * {@link TileSet#drawBuffered(Graphics2D, int, int, int, int, int)}
+	 */
+	
+	public void drawBuffered(Graphics2D g2, int n, int x, int y, int width, int height) {
+		int index = indexOf(n);
+		sets[index].drawBuffered(g2, n - offsetOf(index), x, y, width, height);
+	}
+	
+	public void draw(Graphics2D g2, int n, double x, double y, double width, double height) {
+		int index = indexOf(n);
+		sets[index].draw(g2, n - offsetOf(index), x, y, width, height);
+	}
+	
+	private int indexOf(int n) {
 		int sum = 0;
 		int index = 0;
 		
@@ -36,8 +58,15 @@ public class TiledTileSet {
 			sum += sets[index].getTileCount();
 			index++;
 		}
-		
-		return sets[index].get(n - sum);
+		return index;
+	}
+	
+	private int offsetOf(int index) {
+		int sum = 0;
+		for (int i = 0; i < index; i++) {
+			sum += sets[i].getTileCount();
+		}
+		return sum;
 	}
 	
 }
@@ -0,0 +1,194 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package game.io;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs the loads of the startup as tasks on a thread pool. A task starts when
+ * the tasks it depends on are done, a task that fails or depends on a failed
+ * task is reported and skipped. Dependencies have to be added before the tasks
+ * that need them, so there can't be cycles.
+ */
+
+public class AssetPipeline {
+
+	private LinkedHashMap<String, Task> tasks;
+	private ExecutorService workers;
+	private long start;
+
+	public static class Task {
+
+		private String name;
+		private Runnable load;
+		private Task[] dependencies;
+		private CompletableFuture<Void> future;
+		private volatile long begin;
+		private volatile long end;
+		private volatile String thread;
+		private volatile Throwable error;
+
+		public String getName() {
+			return name;
+		}
+
+		/**
+		 * @return nanoseconds from the start of the pipeline
+		 */
+
+		public long getBegin() {
+			return begin;
+		}
+
+		public long getEnd() {
+			return end;
+		}
+
+		public long getDuration() {
+			return end - begin;
+		}
+
+		public String getThread() {
+			return thread;
+		}
+
+		public Throwable getError() {
+			return error;
+		}
+
+		public boolean isDone() {
+			return future != null && future.isDone();
+		}
+
+	}
+
+	/**
+	 * @param threads 0 for one per processor, at least two because loads wait
+	 *                for the disk as well
+	 */
+
+	public AssetPipeline(int threads) {
+		int n = threads > 0 ? threads : Math.max(2, Runtime.getRuntime().availableProcessors());
+		this.tasks = new LinkedHashMap<>();
+		this.workers = Executors.newFixedThreadPool(n, r -> {
+			Thread t = new Thread(r, "Asset Loader");
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+	/**
+	 * @param name         unique name of the task
+	 * @param load
+	 * @param dependencies names of tasks that have to be done first
+	 */
+
+	public void add(String name, Runnable load, String... dependencies) {
+		if (tasks.containsKey(name)) {
+			throw new IllegalArgumentException("Duplicated asset task " + name);
+		}
+		Task task = new Task();
+		task.name = name;
+		task.load = load;
+		task.dependencies = new Task[dependencies.length];
+		for (int i = 0; i < dependencies.length; i++) {
+			task.dependencies[i] = tasks.get(dependencies[i]);
+			if (task.dependencies[i] == null) {
+				throw new IllegalArgumentException("Asset task " + name + " depends on unknown task " + dependencies[i]);
+			}
+		}
+		tasks.put(name, task);
+	}
+
+	/**
+	 * Starts all tasks whose dependencies are done, the rest is started when
+	 * their dependencies are
+	 */
+
+	public void start() {
+		start = System.nanoTime();
+		for (Task task : tasks.values()) {
+			CompletableFuture<?>[] dependencies = new CompletableFuture<?>[task.dependencies.length];
+			for (int i = 0; i < dependencies.length; i++) {
+				dependencies[i] = task.dependencies[i].future;
+			}
+			task.future = CompletableFuture.allOf(dependencies).thenRunAsync(() -> run(task), workers);
+		}
+	}
+
+	private void run(Task task) {
+		task.thread = Thread.currentThread().getName();
+		task.begin = System.nanoTime() - start;
+		try {
+			task.load.run();
+		} catch (RuntimeException | Error e) {
+			task.error = e;
+			throw e;
+		} finally {
+			task.end = System.nanoTime() - start;
+		}
+	}
+
+	/**
+	 * Waits for all tasks
+	 * 
+	 * @return false if a task failed
+	 */
+
+	public boolean await() {
+		boolean ok = true;
+		for (Task task : tasks.values()) {
+			try {
+				task.future.join();
+			} catch (CompletionException e) {
+				if (task.error != null) {
+					System.err.println("ERROR Loading " + task.name + " failed: " + task.error);
+				}
+				ok = false;
+			}
+		}
+		workers.shutdown();
+		return ok;
+	}
+
+	/**
+	 * @return nanoseconds from the start until the last task was done
+	 */
+
+	public long getTotalTime() {
+		long total = 0;
+		for (Task task : tasks.values()) {
+			total = Math.max(total, task.end);
+		}
+		return total;
+	}
+
+	public ArrayList<Task> getTasks() {
+		return new ArrayList<>(tasks.values());
+	}
+
+	/**
+	 * Prints start, duration and thread of every task
+	 */
+
+	public void printTimings() {
+		System.out.printf("%-24s %10s %10s  %s\n", "asset", "start ms", "ms", "thread");
+		for (Task task : tasks.values()) {
+			String state = !task.isDone() ? "not done" : task.error != null ? "failed" : task.end == 0 ? "skipped" : task.thread;
+			System.out.printf("%-24s %10.1f %10.1f  %s\n", task.name, task.begin / 1e6, task.getDuration() / 1e6, state);
+		}
+		System.out.printf("%-24s %10s %10.1f\n", "total", "", getTotalTime() / 1e6);
+	}
+
+}
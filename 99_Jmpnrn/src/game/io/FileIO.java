@@ -15,7 +15,12 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 
 import javax.imageio.ImageIO;
 
@@ -44,14 +49,33 @@ public class FileIO {
 		return (JsonObject) JsonParser.parseString(read(fname));
 	}
 	
+	private static final ImageCache images = new ImageCache(ImageCache.DEFAULT_MEMORY_CAP);
+	
+	/**
+	 * Loads an image through the shared cache, every call counts as a reference,
+	 * see {@link #releaseImage(String)}. The image is shared and must not be drawn
+	 * into.
+	 * 
+	 * @param name
+	 * @return null if the image can't be loaded
+	 */
+	
 	public static Image2d loadImage(String name) {
-		Image2d img = null;
-		try {
-			img = new Image2d(ImageIO.read(getURL(name)));
-		} catch (IOException e) {
-			e.printStackTrace();
-		}
-		return img;
+		return images.acquire(name);
+	}
+	
+	/**
+	 * Releases a reference taken with {@link #loadImage(String)}
+	 * 
+	 * @param name
+	 */
+	
+	public static void releaseImage(String name) {
+		images.release(name);
+	}
+	
+	public static ImageCache getImages() {
+		return images;
 	}
 	
 	public static BufferedImage loadBufferedImage(String name) {
@@ -71,5 +95,31 @@ public class FileIO {
 	public static InputStream getResourceAsStream(String fname) {
 		return FileIO.class.getClassLoader().getResourceAsStream(fname);
 	}
+	
+	/**
+	 * Maps a resource into memory, resources that are not a file, like in a jar,
+	 * are read into a heap buffer
+	 * 
+	 * @param fname
+	 * @return the content, null if the resource doesn't exist
+	 * @throws IOException
+	 */
+	
+	public static ByteBuffer mapResource(String fname) throws IOException {
+		URL url = getURL(fname);
+		if (url == null) {
+			return null;
+		}
+		if ("file".equals(url.getProtocol())) {
+			try (FileChannel channel = FileChannel.open(Paths.get(url.toURI()), StandardOpenOption.READ)) {
+				return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			} catch (URISyntaxException e) {
+				throw new IOException(e);
+			}
+		}
+		try (InputStream in = url.openStream()) {
+			return ByteBuffer.wrap(in.readAllBytes());
+		}
+	}
 
 }
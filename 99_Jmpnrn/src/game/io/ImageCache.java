@@ -0,0 +1,214 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package game.io;
+
+import java.awt.image.DataBuffer;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import javax.imageio.ImageIO;
+
+import game.graphics.Image2d;
+
+/**
+ * Images by resource path. An image is decoded the first time it is acquired
+ * and shared by everyone who acquires it after that. Every acquire counts as a
+ * reference, images nobody references any more stay cached until the memory
+ * cap is exceeded, then the least recently used of them are dropped.
+ * Referenced images are never dropped, so the cap can be exceeded by them.<br>
+ * <br>
+ * Images are decoded outside of the lock, so different images can be decoded
+ * by several threads at once. A thread that acquires an image another thread
+ * is decoding waits for it.
+ */
+
+public class ImageCache {
+
+	public static final long DEFAULT_MEMORY_CAP = 64L * 1024 * 1024;
+
+	private LinkedHashMap<String, Entry> entries;
+	private long memoryCap;
+	private long memoryUsed;
+	private int decoded;
+	private int hits;
+
+	private static class Entry {
+
+		private Image2d image;
+		private int references;
+		private long bytes;
+		// completes when the image is decoded, null after that
+		private CompletableFuture<Image2d> loading;
+
+	}
+
+	public ImageCache(long memoryCap) {
+		this.memoryCap = memoryCap;
+		this.entries = new LinkedHashMap<>(64, 0.75f, true);
+	}
+
+	/**
+	 * Returns the image and counts a reference to it, call
+	 * {@link #release(String)} when it isn't used any more
+	 * 
+	 * @param name of the resource
+	 * @return the shared image, null if it can't be loaded
+	 */
+
+	public Image2d acquire(String name) {
+		Entry entry;
+		CompletableFuture<Image2d> loading;
+		synchronized (this) {
+			entry = entries.get(name);
+			if (entry != null) {
+				entry.references++;
+				if (entry.loading == null) {
+					hits++;
+					return entry.image;
+				}
+				loading = entry.loading;
+			} else {
+				// a placeholder, other threads wait for this one to decode it
+				entry = new Entry();
+				entry.references = 1;
+				entry.loading = new CompletableFuture<>();
+				entries.put(name, entry);
+				loading = null;
+			}
+		}
+
+		if (loading != null) {
+			Image2d image = loading.join();
+			if (image != null) {
+				synchronized (this) {
+					hits++;
+				}
+			}
+			return image;
+		}
+
+		Image2d image = decode(name);
+		synchronized (this) {
+			if (image == null) {
+				// nobody got a reference, the next acquire tries again
+				entries.remove(name);
+			} else {
+				entry.image = image;
+				// the decoded pixels, the accelerated copy is not counted
+				DataBuffer data = image.getBackup().getRaster().getDataBuffer();
+				entry.bytes = (long) data.getSize() * data.getNumBanks() * DataBuffer.getDataTypeSize(data.getDataType()) / 8;
+				memoryUsed += entry.bytes;
+				decoded++;
+				evict();
+			}
+			loading = entry.loading;
+			entry.loading = null;
+		}
+		loading.complete(image);
+		return image;
+	}
+
+	/**
+	 * Removes a reference, the image can be dropped when it has none left
+	 * 
+	 * @param name
+	 */
+
+	public synchronized void release(String name) {
+		Entry entry = entries.get(name);
+		if (entry == null || entry.references == 0) {
+			return;
+		}
+		entry.references--;
+		if (entry.references == 0) {
+			evict();
+		}
+	}
+
+	private Image2d decode(String name) {
+		URL url = FileIO.getURL(name);
+		if (url == null) {
+			System.err.println("ERROR Image not found " + name);
+			return null;
+		}
+		try {
+			return new Image2d(ImageIO.read(url));
+		} catch (IOException e) {
+			e.printStackTrace();
+			return null;
+		}
+	}
+
+	private void evict() {
+		Iterator<Map.Entry<String, Entry>> it = entries.entrySet().iterator();
+		while (memoryUsed > memoryCap && it.hasNext()) {
+			Entry entry = it.next().getValue();
+			if (entry.references > 0) {
+				continue;
+			}
+			memoryUsed -= entry.bytes;
+			entry.image.flush();
+			it.remove();
+		}
+	}
+
+	/**
+	 * Drops all images nobody references
+	 */
+
+	public synchronized void trim() {
+		long cap = memoryCap;
+		memoryCap = 0;
+		evict();
+		memoryCap = cap;
+	}
+
+	public synchronized int getReferences(String name) {
+		Entry entry = entries.get(name);
+		return entry != null ? entry.references : 0;
+	}
+
+	public synchronized long getMemoryCap() {
+		return memoryCap;
+	}
+
+	public synchronized void setMemoryCap(long memoryCap) {
+		this.memoryCap = memoryCap;
+		evict();
+	}
+
+	public synchronized long getMemoryUsed() {
+		return memoryUsed;
+	}
+
+	public synchronized int getCachedImages() {
+		return entries.size();
+	}
+
+	/**
+	 * @return how often an image was read from disk
+	 */
+
+	public synchronized int getDecoded() {
+		return decoded;
+	}
+
+	/**
+	 * @return how often an image was acquired that was cached already
+	 */
+
+	public synchronized int getHits() {
+		return hits;
+	}
+
+}
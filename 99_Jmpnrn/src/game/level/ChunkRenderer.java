@@ -0,0 +1,266 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package game.level;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import game.graphics.Camera;
+import game.graphics.Image2d;
+import game.graphics.TiledTileSet;
+
+/**
+ * Draws the tile layers of a world in chunks of CHUNK_SIZE x CHUNK_SIZE tiles.
+ * A chunk is only rendered when it is inside the camera, rendered chunks are
+ * kept in a least recently used cache limited by a memory budget. Chunks that
+ * are visible in the current frame are never evicted.
+ */
+
+public class ChunkRenderer {
+
+	public static final int CHUNK_SIZE = 16;
+	public static final long DEFAULT_MEMORY_BUDGET = 96L * 1024 * 1024;
+
+	private TiledTileSet tilesets;
+	private List<int[][]> layers;
+	private int width;
+	private int height;
+	private int chunkColls;
+	private int chunkRows;
+	private boolean[] emptyChunks;
+	private int tilesize;
+	private long memoryBudget;
+	private long memoryUsed;
+	private long peakMemoryUsed;
+	private int renderedChunks;
+	private int frame;
+	private LinkedHashMap<Integer, Chunk> chunks;
+
+	private static class Chunk {
+
+		private Image2d image;
+		private long bytes;
+		private int frame;
+
+	}
+
+	/**
+	 * @param tilesets     used to look up the tile images
+	 * @param layers       tile ids per layer as [row][coll], 0 is no tile
+	 * @param width        of the map in tiles
+	 * @param height       of the map in tiles
+	 * @param memoryBudget for the cached chunks in bytes
+	 */
+
+	public ChunkRenderer(TiledTileSet tilesets, List<int[][]> layers, int width, int height, long memoryBudget) {
+		this.tilesets = tilesets;
+		this.layers = layers;
+		this.width = width;
+		this.height = height;
+		this.memoryBudget = memoryBudget;
+		this.chunkColls = (width + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		this.chunkRows = (height + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		this.chunks = new LinkedHashMap<>(16, 0.75f, true);
+		this.emptyChunks = new boolean[chunkColls * chunkRows];
+
+		for (int cy = 0; cy < chunkRows; cy++) {
+			for (int cx = 0; cx < chunkColls; cx++) {
+				emptyChunks[cy * chunkColls + cx] = isEmpty(cx, cy);
+			}
+		}
+	}
+
+	private boolean isEmpty(int cx, int cy) {
+		for (int[][] layer : layers) {
+			for (int row = cy * CHUNK_SIZE; row < Math.min(height, (cy + 1) * CHUNK_SIZE); row++) {
+				for (int coll = cx * CHUNK_SIZE; coll < Math.min(width, (cx + 1) * CHUNK_SIZE); coll++) {
+					if (layer[row][coll] > 0) {
+						return false;
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Draws all chunks inside the camera, chunks are rendered with the given
+	 * tilesize, if it changed all cached chunks are dropped
+	 *
+	 * @param g2
+	 * @param cam
+	 * @param tilesize pixels per tile on screen
+	 */
+
+	public void draw(Graphics2D g2, Camera cam, int tilesize) {
+		draw(g2, (int) cam.getPixelOffsetX(), (int) cam.getPixelOffsetY(), (int) cam.getWidth(), (int) cam.getHeight(),
+				tilesize);
+	}
+
+	/**
+	 * Draws all chunks inside the viewport
+	 *
+	 * @param g2
+	 * @param offsetX  left of the viewport in pixels
+	 * @param offsetY  top of the viewport in pixels
+	 * @param width    of the viewport in pixels
+	 * @param height   of the viewport in pixels
+	 * @param tilesize pixels per tile on screen
+	 */
+
+	public void draw(Graphics2D g2, int offsetX, int offsetY, int width, int height, int tilesize) {
+		if (this.tilesize != tilesize) {
+			clear();
+			this.tilesize = tilesize;
+		}
+
+		frame++;
+		int chunkPixels = CHUNK_SIZE * tilesize;
+		int cx0 = Math.max(0, Math.floorDiv(offsetX, chunkPixels));
+		int cy0 = Math.max(0, Math.floorDiv(offsetY, chunkPixels));
+		int cx1 = Math.min(chunkColls - 1, Math.floorDiv(offsetX + width - 1, chunkPixels));
+		int cy1 = Math.min(chunkRows - 1, Math.floorDiv(offsetY + height - 1, chunkPixels));
+
+		for (int cy = cy0; cy <= cy1; cy++) {
+			for (int cx = cx0; cx <= cx1; cx++) {
+				if (emptyChunks[cy * chunkColls + cx]) {
+					continue;
+				}
+				Chunk chunk = getChunk(cx, cy);
+				chunk.image.draw(g2, cx * chunkPixels - offsetX, cy * chunkPixels - offsetY);
+			}
+		}
+
+		evict();
+	}
+
+	/**
+	 * Renders the chunks inside the viewport without drawing them, so the first
+	 * frame that shows them doesn't have to. Must not be called while another
+	 * thread draws.
+	 *
+	 * @param offsetX  left of the viewport in pixels
+	 * @param offsetY  top of the viewport in pixels
+	 * @param width    of the viewport in pixels
+	 * @param height   of the viewport in pixels
+	 * @param tilesize pixels per tile on screen
+	 */
+
+	public void prepare(int offsetX, int offsetY, int width, int height, int tilesize) {
+		if (this.tilesize != tilesize) {
+			clear();
+			this.tilesize = tilesize;
+		}
+
+		int chunkPixels = CHUNK_SIZE * tilesize;
+		int cx0 = Math.max(0, Math.floorDiv(offsetX, chunkPixels));
+		int cy0 = Math.max(0, Math.floorDiv(offsetY, chunkPixels));
+		int cx1 = Math.min(chunkColls - 1, Math.floorDiv(offsetX + width - 1, chunkPixels));
+		int cy1 = Math.min(chunkRows - 1, Math.floorDiv(offsetY + height - 1, chunkPixels));
+
+		for (int cy = cy0; cy <= cy1; cy++) {
+			for (int cx = cx0; cx <= cx1; cx++) {
+				if (!emptyChunks[cy * chunkColls + cx]) {
+					getChunk(cx, cy);
+				}
+			}
+		}
+		evict();
+	}
+
+	private Chunk getChunk(int cx, int cy) {
+		int key = cy * chunkColls + cx;
+		Chunk chunk = chunks.get(key);
+		if (chunk == null) {
+			chunk = new Chunk();
+			chunk.image = render(cx, cy);
+			// volatile image + backup
+			chunk.bytes = 2L * chunk.image.getWidth() * chunk.image.getHeight() * 4;
+			chunks.put(key, chunk);
+			memoryUsed += chunk.bytes;
+			peakMemoryUsed = Math.max(peakMemoryUsed, memoryUsed);
+			renderedChunks++;
+		}
+		chunk.frame = frame;
+		return chunk;
+	}
+
+	private Image2d render(int cx, int cy) {
+		int colls = Math.min(CHUNK_SIZE, width - cx * CHUNK_SIZE);
+		int rows = Math.min(CHUNK_SIZE, height - cy * CHUNK_SIZE);
+		BufferedImage img = new BufferedImage(colls * tilesize, rows * tilesize, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g2 = img.createGraphics();
+
+		for (int[][] layer : layers) {
+			for (int row = 0; row < rows; row++) {
+				for (int coll = 0; coll < colls; coll++) {
+					int n = layer[cy * CHUNK_SIZE + row][cx * CHUNK_SIZE + coll];
+					if (n > 0) {
+						n--;
+						tilesets.drawBuffered(g2, n, coll * tilesize, row * tilesize, tilesize, tilesize);
+					}
+				}
+			}
+		}
+		g2.dispose();
+
+		return new Image2d(img);
+	}
+
+	private void evict() {
+		Iterator<Map.Entry<Integer, Chunk>> it = chunks.entrySet().iterator();
+		while (memoryUsed > memoryBudget && it.hasNext()) {
+			Chunk chunk = it.next().getValue();
+			if (chunk.frame == frame) {
+				// everything after this was used in this frame as well
+				break;
+			}
+			memoryUsed -= chunk.bytes;
+			chunk.image.flush();
+			it.remove();
+		}
+	}
+
+	public void clear() {
+		for (Chunk chunk : chunks.values()) {
+			chunk.image.flush();
+		}
+		chunks.clear();
+		memoryUsed = 0;
+	}
+
+	public long getMemoryBudget() {
+		return memoryBudget;
+	}
+
+	public void setMemoryBudget(long memoryBudget) {
+		this.memoryBudget = memoryBudget;
+	}
+
+	public long getMemoryUsed() {
+		return memoryUsed;
+	}
+
+	public long getPeakMemoryUsed() {
+		return peakMemoryUsed;
+	}
+
+	public int getCachedChunks() {
+		return chunks.size();
+	}
+
+	public int getRenderedChunks() {
+		return renderedChunks;
+	}
+
+}
@@ -0,0 +1,156 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package game.level;
+
+import java.awt.GraphicsEnvironment;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import game.Game;
+import game.entity.Door;
+import game.entity.GameObject;
+import game.graphics.Screen;
+
+/**
+ * Loads worlds on worker threads. A world is handed out only after its map is
+ * parsed and the chunks around the spawn point are rendered, so switching to it
+ * doesn't stall the game thread. When the player enters a world the worlds its
+ * doors lead to are loaded in the background.
+ */
+
+public class LevelManager {
+
+	private Game game;
+	private ExecutorService workers;
+	private ConcurrentHashMap<String, CompletableFuture<World>> levels;
+	private int viewWidth;
+	private int viewHeight;
+	private boolean headless;
+
+	/**
+	 * @param game
+	 * @param viewWidth  pixels rendered around the spawn point
+	 * @param viewHeight
+	 */
+
+	public LevelManager(Game game, int viewWidth, int viewHeight) {
+		this.game = game;
+		this.viewWidth = viewWidth;
+		this.viewHeight = viewHeight;
+		this.levels = new ConcurrentHashMap<>();
+		this.headless = GraphicsEnvironment.isHeadless();
+		int threads = Math.max(1, Math.min(2, Runtime.getRuntime().availableProcessors() - 1));
+		this.workers = Executors.newFixedThreadPool(threads, r -> {
+			Thread t = new Thread(r, "Level Loader");
+			t.setDaemon(true);
+			return t;
+		});
+	}
+
+	/**
+	 * Starts loading the world unless it is loaded or loading already
+	 *
+	 * @param name
+	 * @return completes with the world on a worker thread
+	 */
+
+	public CompletableFuture<World> load(String name) {
+		return levels.computeIfAbsent(name, n -> CompletableFuture.supplyAsync(() -> create(n), workers));
+	}
+
+	private World create(String name) {
+		long start = System.nanoTime();
+		World world = new World(game);
+		world.setHeadless(headless);
+		world.load(name);
+		world.init();
+
+		ChunkRenderer renderer = world.getTileRenderer();
+		if (renderer != null) {
+			int x = (int) (world.getSpawnPoint().getX() * Screen.TILESIZE) - viewWidth / 2;
+			int y = (int) (world.getSpawnPoint().getY() * Screen.TILESIZE) - viewHeight / 2;
+			renderer.prepare(x, y, viewWidth, viewHeight, Screen.TILESIZE);
+		}
+
+		System.out.printf("Loaded %s in %.1f ms\n", name, (System.nanoTime() - start) / 1e6);
+		return world;
+	}
+
+	/**
+	 * @param name
+	 * @return the world, null if it is not loaded yet or failed to load
+	 */
+
+	public World get(String name) {
+		CompletableFuture<World> f = levels.get(name);
+		if (f == null || !f.isDone() || f.isCompletedExceptionally()) {
+			return null;
+		}
+		return f.join();
+	}
+
+	/**
+	 * Waits for the world, loads it if it is not loading yet
+	 *
+	 * @param name
+	 * @return
+	 */
+
+	public World await(String name) {
+		return load(name).join();
+	}
+
+	public boolean isLoaded(String name) {
+		return get(name) != null;
+	}
+
+	/**
+	 * Called when the player enters a world, loads the worlds its doors lead to
+	 *
+	 * @param world
+	 */
+
+	public void enter(World world) {
+		for (GameObject g : world.getActors()) {
+			if (g instanceof Door) {
+				load(((Door) g).getTarget());
+			}
+		}
+	}
+
+	/**
+	 * Forgets the world and releases its images, it is loaded again on the next
+	 * {@link #load(String)}
+	 *
+	 * @param name
+	 */
+
+	public void unload(String name) {
+		CompletableFuture<World> f = levels.remove(name);
+		if (f != null) {
+			f.thenAccept(World::dispose);
+		}
+	}
+
+	/**
+	 * @param headless for worlds loaded after this, see
+	 *                 {@link World#setHeadless(boolean)}
+	 */
+
+	public void setHeadless(boolean headless) {
+		this.headless = headless;
+	}
+
+	public void shutdown() {
+		workers.shutdownNow();
+	}
+
+}
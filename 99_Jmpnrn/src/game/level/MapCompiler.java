@@ -0,0 +1,71 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package game.level;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+
+/**
+ * Compiles Tiled .tmx maps into the binary format of {@link MapData}, the
+ * .map file is written next to the .tmx file. A world loads the .map file
+ * instead of the .tmx file if it was compiled from the .tmx as it is now, maps
+ * that were changed in Tiled are loaded from the .tmx until they are compiled
+ * again.<br>
+ * <br>
+ * usage: MapCompiler &lt;.tmx files or directories&gt;, default res/world
+ */
+
+public class MapCompiler {
+
+	public static void main(String[] args) throws Exception {
+		if (args.length == 0) {
+			args = new String[] { "res/world" };
+		}
+
+		for (String arg : args) {
+			File file = new File(arg);
+			if (file.isDirectory()) {
+				for (File f : file.listFiles()) {
+					if (f.getName().endsWith(".tmx")) {
+						compile(f);
+					}
+				}
+			} else {
+				compile(file);
+			}
+		}
+	}
+
+	/**
+	 * @param tmx
+	 * @return the .map file
+	 * @throws Exception
+	 */
+
+	public static File compile(File tmx) throws Exception {
+		String name = tmx.getName();
+		File out = new File(tmx.getParentFile(), name.substring(0, name.lastIndexOf('.')) + ".map");
+
+		byte[] source = Files.readAllBytes(tmx.toPath());
+		MapData map = MapData.readTmx(new ByteArrayInputStream(source));
+		map.setSourceChecksum(MapData.checksum(ByteBuffer.wrap(source)));
+		try (OutputStream os = new BufferedOutputStream(new FileOutputStream(out))) {
+			map.write(os);
+		}
+
+		System.out.printf("%s (%d bytes) -> %s (%d bytes)\n", tmx, tmx.length(), out, out.length());
+		return out;
+	}
+
+}
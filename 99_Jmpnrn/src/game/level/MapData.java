@@ -0,0 +1,450 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package game.level;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+import game.io.FileIO;
+import game.shape.Polygon2D;
+import game.util.DoubleList;
+import game.util.IntList;
+
+/**
+ * Everything a world needs from a map, independent of how it was stored. All
+ * positions are in tiles.<br>
+ * <br>
+ * A map is read from a Tiled .tmx file or from the binary format written by
+ * {@link #write(OutputStream)}, which {@link MapCompiler} creates from the .tmx
+ * files. The binary format stores the tile layers as shorts (or ints if a tile
+ * id doesn't fit) and the collision shapes as flat arrays of doubles, so it is
+ * read with bulk copies instead of parsing text. Its header holds a checksum of
+ * the .tmx it was compiled from, a .map whose .tmx changed since is not used.
+ */
+
+public class MapData {
+
+	public static final int MAGIC = 0x4A4D4150; // JMAP
+	public static final int VERSION = 2;
+
+	private static final byte SHORT_LAYER = 2;
+	private static final byte INT_LAYER = 4;
+
+	private long sourceChecksum;
+	private int tilesize;
+	private int width;
+	private int height;
+	private ArrayList<String> tilesetImages;
+	private IntList tilesetTilesizes;
+	private ArrayList<int[][]> layers;
+	private DoubleList rectangles;
+	private IntList polygonSizes;
+	private DoubleList polygonPoints;
+	private boolean hasSpawnPoint;
+	private double spawnX;
+	private double spawnY;
+	private DoubleList monsterLocations;
+	private DoubleList doors;
+	private ArrayList<String> doorTargets;
+
+	public MapData() {
+		this.tilesetImages = new ArrayList<>();
+		this.tilesetTilesizes = new IntList();
+		this.layers = new ArrayList<>();
+		this.rectangles = new DoubleList();
+		this.polygonSizes = new IntList();
+		this.polygonPoints = new DoubleList();
+		this.monsterLocations = new DoubleList();
+		this.doors = new DoubleList();
+		this.doorTargets = new ArrayList<>();
+	}
+
+	/**
+	 * Loads world/name.map if it was compiled from the current world/name.tmx,
+	 * or if there is no .tmx, like in a jar without the sources. Loads the .tmx
+	 * otherwise.
+	 *
+	 * @param name
+	 * @return
+	 * @throws Exception
+	 */
+
+	public static MapData load(String name) throws Exception {
+		ByteBuffer b = FileIO.mapResource("world/" + name + ".map");
+		ByteBuffer tmx = FileIO.mapResource("world/" + name + ".tmx");
+		if (b != null) {
+			if (tmx == null || isCompiledFrom(b, tmx)) {
+				return read(b);
+			}
+			System.err.println("world/" + name + ".map was not compiled from the current .tmx, run MapCompiler");
+		}
+		try (InputStream in = FileIO.getResourceAsStream("world/" + name + ".tmx")) {
+			return readTmx(in);
+		}
+	}
+
+	/**
+	 * @param map a map written by {@link #write(OutputStream)}, from its position
+	 * @param tmx the .tmx file, from its position
+	 * @return true if the map is of this version and was compiled from the tmx,
+	 *         the positions of both are not changed
+	 */
+
+	public static boolean isCompiledFrom(ByteBuffer map, ByteBuffer tmx) {
+		int p = map.position();
+		return map.remaining() >= 16 && map.getInt(p) == MAGIC && map.getInt(p + 4) == VERSION && map.getLong(p + 8) == checksum(tmx);
+	}
+
+	/**
+	 * @param source
+	 * @return the CRC32 of the remaining bytes, the position is not changed
+	 */
+
+	public static long checksum(ByteBuffer source) {
+		CRC32 crc = new CRC32();
+		crc.update(source.duplicate());
+		return crc.getValue();
+	}
+
+	// -------------------------------------------------------------------------------------------------------
+	// Tiled
+	// -------------------------------------------------------------------------------------------------------
+
+	/**
+	 * Reads a Tiled map, see {@link TmxReader}
+	 * 
+	 * @param in
+	 * @return
+	 * @throws Exception
+	 */
+
+	public static MapData readTmx(InputStream in) throws Exception {
+		return new TmxReader(in).read();
+	}
+
+	// -------------------------------------------------------------------------------------------------------
+	// Binary
+	// -------------------------------------------------------------------------------------------------------
+
+	public void write(OutputStream os) throws IOException {
+		DataOutputStream out = new DataOutputStream(os);
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeLong(sourceChecksum);
+		out.writeInt(tilesize);
+		out.writeInt(width);
+		out.writeInt(height);
+
+		out.writeInt(tilesetImages.size());
+		for (int i = 0; i < tilesetImages.size(); i++) {
+			writeString(out, tilesetImages.get(i));
+			out.writeInt(tilesetTilesizes.get(i));
+		}
+
+		out.writeInt(layers.size());
+		for (int[][] layer : layers) {
+			boolean fitsShort = true;
+			for (int[] row : layer) {
+				for (int n : row) {
+					fitsShort &= n >= Short.MIN_VALUE && n <= Short.MAX_VALUE;
+				}
+			}
+			out.writeByte(fitsShort ? SHORT_LAYER : INT_LAYER);
+			out.writeInt(layer.length);
+			out.writeInt(layer.length > 0 ? layer[0].length : 0);
+			for (int[] row : layer) {
+				for (int n : row) {
+					if (fitsShort) {
+						out.writeShort(n);
+					} else {
+						out.writeInt(n);
+					}
+				}
+			}
+		}
+
+		writeDoubles(out, rectangles);
+
+		out.writeInt(polygonSizes.size());
+		for (int i = 0; i < polygonSizes.size(); i++) {
+			out.writeInt(polygonSizes.get(i));
+		}
+		writeDoubles(out, polygonPoints);
+
+		out.writeBoolean(hasSpawnPoint);
+		out.writeDouble(spawnX);
+		out.writeDouble(spawnY);
+		writeDoubles(out, monsterLocations);
+
+		writeDoubles(out, doors);
+		for (String target : doorTargets) {
+			writeString(out, target);
+		}
+		out.flush();
+	}
+
+	/**
+	 * Reads a map written by {@link #write(OutputStream)}
+	 *
+	 * @param b from the position to the end of the map
+	 * @return
+	 * @throws IOException if it is not a map of this version
+	 */
+
+	public static MapData read(ByteBuffer b) throws IOException {
+		if (b.getInt() != MAGIC) {
+			throw new IOException("Not a map file");
+		}
+		int version = b.getInt();
+		if (version != VERSION) {
+			throw new IOException("Unsupported map version " + version);
+		}
+
+		MapData m = new MapData();
+		m.sourceChecksum = b.getLong();
+		m.tilesize = b.getInt();
+		m.width = b.getInt();
+		m.height = b.getInt();
+
+		int tilesets = b.getInt();
+		for (int i = 0; i < tilesets; i++) {
+			m.tilesetImages.add(readString(b));
+			m.tilesetTilesizes.add(b.getInt());
+		}
+
+		int layers = b.getInt();
+		for (int i = 0; i < layers; i++) {
+			byte type = b.get();
+			int rows = b.getInt();
+			int colls = b.getInt();
+			int[][] layer = new int[rows][colls];
+			if (type == SHORT_LAYER) {
+				short[] tiles = new short[rows * colls];
+				b.asShortBuffer().get(tiles);
+				b.position(b.position() + tiles.length * 2);
+				for (int r = 0; r < rows; r++) {
+					for (int c = 0; c < colls; c++) {
+						layer[r][c] = tiles[r * colls + c];
+					}
+				}
+			} else {
+				IntBuffer tiles = b.asIntBuffer();
+				for (int r = 0; r < rows; r++) {
+					tiles.get(layer[r]);
+				}
+				b.position(b.position() + rows * colls * 4);
+			}
+			m.layers.add(layer);
+		}
+
+		m.rectangles = readDoubles(b);
+
+		int polygons = b.getInt();
+		for (int i = 0; i < polygons; i++) {
+			m.polygonSizes.add(b.getInt());
+		}
+		m.polygonPoints = readDoubles(b);
+
+		m.hasSpawnPoint = b.get() != 0;
+		m.spawnX = b.getDouble();
+		m.spawnY = b.getDouble();
+		m.monsterLocations = readDoubles(b);
+
+		m.doors = readDoubles(b);
+		for (int i = 0; i < m.doors.size() / 4; i++) {
+			m.doorTargets.add(readString(b));
+		}
+		return m;
+	}
+
+	private static void writeDoubles(DataOutputStream out, DoubleList values) throws IOException {
+		out.writeInt(values.size());
+		for (int i = 0; i < values.size(); i++) {
+			out.writeDouble(values.get(i));
+		}
+	}
+
+	private static DoubleList readDoubles(ByteBuffer b) {
+		double[] values = new double[b.getInt()];
+		b.asDoubleBuffer().get(values);
+		b.position(b.position() + values.length * 8);
+		return new DoubleList(values);
+	}
+
+	private static void writeString(DataOutputStream out, String s) throws IOException {
+		byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+		out.writeShort(bytes.length);
+		out.write(bytes);
+	}
+
+	private static String readString(ByteBuffer b) {
+		byte[] bytes = new byte[b.getShort() & 0xFFFF];
+		b.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	// -------------------------------------------------------------------------------------------------------
+	// Readers
+	// -------------------------------------------------------------------------------------------------------
+
+	void setSize(int tilesize, int width, int height) {
+		this.tilesize = tilesize;
+		this.width = width;
+		this.height = height;
+	}
+
+	void addTileset(String image, int tilesize) {
+		this.tilesetImages.add(image);
+		this.tilesetTilesizes.add(tilesize);
+	}
+
+	void setSpawnPoint(double x, double y) {
+		this.hasSpawnPoint = true;
+		this.spawnX = x;
+		this.spawnY = y;
+	}
+
+	void addDoorTarget(String target) {
+		this.doorTargets.add(target);
+	}
+
+	// -------------------------------------------------------------------------------------------------------
+	// Getters
+	// -------------------------------------------------------------------------------------------------------
+
+	public int getTilesize() {
+		return tilesize;
+	}
+
+	public int getWidth() {
+		return width;
+	}
+
+	public int getHeight() {
+		return height;
+	}
+
+	public int getTilesetCount() {
+		return tilesetImages.size();
+	}
+
+	/**
+	 * @param i
+	 * @return the resource name of the image of the tileset
+	 */
+
+	public String getTilesetImage(int i) {
+		return tilesetImages.get(i);
+	}
+
+	public int getTilesetTilesize(int i) {
+		return tilesetTilesizes.get(i);
+	}
+
+	/**
+	 * @return the checksum of the .tmx the map was compiled from, see
+	 *         {@link #checksum(ByteBuffer)}
+	 */
+
+	public long getSourceChecksum() {
+		return sourceChecksum;
+	}
+
+	public void setSourceChecksum(long sourceChecksum) {
+		this.sourceChecksum = sourceChecksum;
+	}
+
+	public ArrayList<int[][]> getLayers() {
+		return layers;
+	}
+
+	/**
+	 * @return x, y, width and height of every collision rectangle
+	 */
+
+	public DoubleList getRectangles() {
+		return rectangles;
+	}
+
+	/**
+	 * @return the number of vertices of every polygon
+	 */
+
+	public IntList getPolygonSizes() {
+		return polygonSizes;
+	}
+
+	/**
+	 * @return x and y of the vertices of all polygons, one polygon after the other
+	 */
+
+	public DoubleList getPolygonPoints() {
+		return polygonPoints;
+	}
+
+	/**
+	 * @return new polygons from the sizes and points, the caller can change them
+	 */
+
+	public List<Polygon2D> createPolygons() {
+		List<Polygon2D> polygons = new ArrayList<>(polygonSizes.size());
+		for (int i = 0, p = 0; i < polygonSizes.size(); i++) {
+			int n = polygonSizes.get(i);
+			double[] xs = new double[n];
+			double[] ys = new double[n];
+			for (int k = 0; k < n; k++, p += 2) {
+				xs[k] = polygonPoints.get(p);
+				ys[k] = polygonPoints.get(p + 1);
+			}
+			polygons.add(new Polygon2D(xs, ys, n));
+		}
+		return polygons;
+	}
+
+	public boolean hasSpawnPoint() {
+		return hasSpawnPoint;
+	}
+
+	public double getSpawnX() {
+		return spawnX;
+	}
+
+	public double getSpawnY() {
+		return spawnY;
+	}
+
+	/**
+	 * @return x and y of every location where monsters spawn
+	 */
+
+	public DoubleList getMonsterLocations() {
+		return monsterLocations;
+	}
+
+	/**
+	 * @return x, y, width and height of every door
+	 */
+
+	public DoubleList getDoors() {
+		return doors;
+	}
+
+	public String getDoorTarget(int i) {
+		return doorTargets.get(i);
+	}
+
+}
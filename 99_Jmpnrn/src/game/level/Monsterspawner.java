@@ -59,7 +59,7 @@ public class Monsterspawner {
 					}
 				}
 				String monster = randomMonster();
-				world.spawnQueue(Enemies.get(monster), location);
+				world.spawnQueue(Enemies.get(monster, world), location);
 			}
 		}
 	}
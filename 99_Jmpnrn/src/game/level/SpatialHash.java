@@ -0,0 +1,232 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package game.level;
+
+import java.util.Arrays;
+import java.util.List;
+
+import game.entity.GameObject;
+import game.util.IntList;
+
+/**
+ * Uniform grid over the tiles of a world, used as broadphase for actor vs actor
+ * collision. Objects are stored by their index in the list given to
+ * {@link #build(List)}, queries return those indices in ascending order so the
+ * caller can keep the iteration order of the list.
+ */
+
+public class SpatialHash {
+
+	public static final double DEFAULT_CELL_SIZE = 2;
+
+	private double cellSize;
+	private int colls;
+	private int rows;
+	private IntList[] cells;
+	private IntList usedCells;
+	private List<? extends GameObject> objects;
+	private int size;
+	private int[] minColl;
+	private int[] minRow;
+	private int[] maxColl;
+	private int[] maxRow;
+	private int[] marks;
+	private int mark;
+
+	/**
+	 * Creates a grid covering width x height tiles
+	 *
+	 * @param width    of the world in tiles
+	 * @param height   of the world in tiles
+	 * @param cellSize edge length of one cell in tiles
+	 */
+
+	public SpatialHash(int width, int height, double cellSize) {
+		this.cellSize = cellSize;
+		this.colls = Math.max(1, (int) Math.ceil(width / cellSize));
+		this.rows = Math.max(1, (int) Math.ceil(height / cellSize));
+		this.cells = new IntList[colls * rows];
+		this.usedCells = new IntList();
+		this.minColl = new int[0];
+		this.minRow = new int[0];
+		this.maxColl = new int[0];
+		this.maxRow = new int[0];
+		this.marks = new int[0];
+	}
+
+	/**
+	 * Clears the grid and inserts all objects of the list
+	 *
+	 * @param objects
+	 */
+
+	public void build(List<? extends GameObject> objects) {
+		for (int i = 0; i < usedCells.size(); i++) {
+			cells[usedCells.get(i)].clear();
+		}
+		usedCells.clear();
+
+		this.objects = objects;
+		this.size = objects.size();
+		if (minColl.length < size) {
+			int capacity = Math.max(size, minColl.length * 2);
+			minColl = new int[capacity];
+			minRow = new int[capacity];
+			maxColl = new int[capacity];
+			maxRow = new int[capacity];
+			marks = new int[capacity];
+			mark = 0;
+		}
+
+		for (int i = 0; i < size; i++) {
+			GameObject g = objects.get(i);
+			minColl[i] = coll(g.getLeft());
+			minRow[i] = row(g.getTop());
+			maxColl[i] = coll(g.getRight());
+			maxRow[i] = row(g.getBot());
+			insert(i);
+		}
+	}
+
+	/**
+	 * Moves the object to its new cells if it left the cells it was inserted in
+	 *
+	 * @param index of the object
+	 * @return true if the cells of the object changed
+	 */
+
+	public boolean update(int index) {
+		if (index >= size) {
+			return false;
+		}
+
+		GameObject g = objects.get(index);
+		int c0 = coll(g.getLeft());
+		int r0 = row(g.getTop());
+		int c1 = coll(g.getRight());
+		int r1 = row(g.getBot());
+
+		if (c0 == minColl[index] && r0 == minRow[index] && c1 == maxColl[index] && r1 == maxRow[index]) {
+			return false;
+		}
+
+		remove(index);
+		minColl[index] = c0;
+		minRow[index] = r0;
+		maxColl[index] = c1;
+		maxRow[index] = r1;
+		insert(index);
+		return true;
+	}
+
+	/**
+	 * Collects the indices of all objects sharing a cell with the object
+	 *
+	 * @param index of the object
+	 * @param out   cleared and filled with the sorted indices, includes index
+	 */
+
+	public void query(int index, IntList out) {
+		query(minColl[index], minRow[index], maxColl[index], maxRow[index], out);
+	}
+
+	/**
+	 * Collects the indices of all objects sharing a cell with the area
+	 *
+	 * @param x
+	 * @param y
+	 * @param width
+	 * @param height
+	 * @param out    cleared and filled with the sorted indices
+	 */
+
+	public void query(double x, double y, double width, double height, IntList out) {
+		query(coll(x), row(y), coll(x + width), row(y + height), out);
+	}
+
+	private void query(int c0, int r0, int c1, int r1, IntList out) {
+		out.clear();
+		nextMark();
+		for (int row = r0; row <= r1; row++) {
+			for (int coll = c0; coll <= c1; coll++) {
+				IntList cell = cells[row * colls + coll];
+				if (cell == null) {
+					continue;
+				}
+				for (int i = 0; i < cell.size(); i++) {
+					int index = cell.get(i);
+					if (marks[index] != mark) {
+						marks[index] = mark;
+						out.add(index);
+					}
+				}
+			}
+		}
+		out.sort();
+	}
+
+	private void insert(int index) {
+		for (int row = minRow[index]; row <= maxRow[index]; row++) {
+			for (int coll = minColl[index]; coll <= maxColl[index]; coll++) {
+				int n = row * colls + coll;
+				IntList cell = cells[n];
+				if (cell == null) {
+					cell = new IntList(4);
+					cells[n] = cell;
+				}
+				if (cell.isEmpty()) {
+					usedCells.add(n);
+				}
+				cell.add(index);
+			}
+		}
+	}
+
+	private void remove(int index) {
+		for (int row = minRow[index]; row <= maxRow[index]; row++) {
+			for (int coll = minColl[index]; coll <= maxColl[index]; coll++) {
+				cells[row * colls + coll].removeValue(index);
+			}
+		}
+	}
+
+	private void nextMark() {
+		mark++;
+		if (mark == Integer.MAX_VALUE) {
+			Arrays.fill(marks, 0);
+			mark = 1;
+		}
+	}
+
+	private int coll(double x) {
+		return clamp((int) Math.floor(x / cellSize), colls);
+	}
+
+	private int row(double y) {
+		return clamp((int) Math.floor(y / cellSize), rows);
+	}
+
+	private static int clamp(int v, int length) {
+		if (v < 0) {
+			return 0;
+		} else if (v >= length) {
+			return length - 1;
+		}
+		return v;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public double getCellSize() {
+		return cellSize;
+	}
+
+}
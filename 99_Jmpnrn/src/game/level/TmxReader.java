@@ -0,0 +1,426 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package game.level;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import game.util.DoubleList;
+
+/**
+ * Reads a Tiled .tmx map with a streaming parser. The tile data of a layer is
+ * decoded directly from the characters of the parser into the layer array, so
+ * no copy of the text is made. Layers can be stored as csv or as base64,
+ * uncompressed or compressed with zlib or gzip.
+ */
+
+public class TmxReader {
+
+	private XMLStreamReader xml;
+	private MapData map;
+
+	// the object that is read
+	private boolean inObject;
+	private boolean objectHasChildren;
+	private double objectX;
+	private double objectY;
+	private double objectWidth;
+	private double objectHeight;
+	private String objectType;
+	private String objectProperty;
+	private boolean objectIsPoint;
+
+	public TmxReader(InputStream in) throws XMLStreamException {
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+		this.xml = factory.createXMLStreamReader(in);
+		this.map = new MapData();
+	}
+
+	public MapData read() throws XMLStreamException, IOException {
+		try {
+			while (xml.hasNext()) {
+				int event = xml.next();
+				if (event == XMLStreamConstants.START_ELEMENT) {
+					startElement(xml.getLocalName());
+				} else if (event == XMLStreamConstants.END_ELEMENT && xml.getLocalName().equals("object")) {
+					endObject();
+				}
+			}
+		} finally {
+			xml.close();
+		}
+		return map;
+	}
+
+	private void startElement(String name) throws XMLStreamException, IOException {
+		if (inObject) {
+			objectHasChildren = true;
+		}
+
+		switch (name) {
+			case "map": {
+				map.setSize(intAttribute("tilewidth"), intAttribute("width"), intAttribute("height"));
+				break;
+			}
+			case "tileset": {
+				int tilesize = intAttribute("tilewidth");
+				while (xml.nextTag() != XMLStreamConstants.START_ELEMENT || !xml.getLocalName().equals("image")) {
+					if (xml.isEndElement() && xml.getLocalName().equals("tileset")) {
+						throw new IOException("Tileset without image");
+					}
+				}
+				String[] parts = xml.getAttributeValue(null, "source").split("/");
+				map.addTileset("img/" + parts[parts.length - 1], tilesize);
+				break;
+			}
+			case "layer": {
+				int[][] layer = new int[intAttribute("height")][intAttribute("width")];
+				while (xml.next() != XMLStreamConstants.START_ELEMENT || !xml.getLocalName().equals("data")) {
+				}
+				readData(layer);
+				map.getLayers().add(layer);
+				break;
+			}
+			case "object": {
+				inObject = true;
+				objectHasChildren = false;
+				objectIsPoint = false;
+				objectX = doubleAttribute("x");
+				objectY = doubleAttribute("y");
+				objectWidth = doubleAttribute("width");
+				objectHeight = doubleAttribute("height");
+				objectType = xml.getAttributeValue(null, "type");
+				objectProperty = null;
+				break;
+			}
+			case "polygon": {
+				if (inObject) {
+					readPolygon(xml.getAttributeValue(null, "points"));
+					// the object is done, the polygon is not looked at again
+					inObject = false;
+				}
+				break;
+			}
+			case "point": {
+				objectIsPoint = true;
+				break;
+			}
+			case "property": {
+				if (inObject && objectProperty == null) {
+					objectProperty = xml.getAttributeValue(null, "value");
+				}
+				break;
+			}
+		}
+	}
+
+	private void endObject() {
+		if (!inObject) {
+			return;
+		}
+		inObject = false;
+		int tilesize = map.getTilesize();
+		double scale = 1.0 / (double) tilesize;
+
+		if (!objectHasChildren) {
+			addRectangle(map.getRectangles(), tilesize);
+		} else if (objectIsPoint) {
+			if ("spawnpoint".equals(objectType)) {
+				map.setSpawnPoint(objectX * scale, objectY * scale);
+			} else if ("mspawn".equals(objectType)) {
+				map.getMonsterLocations().add(objectX * scale);
+				map.getMonsterLocations().add(objectY * scale);
+			}
+		} else if (objectProperty != null) {
+			addRectangle(map.getDoors(), tilesize);
+			map.addDoorTarget(objectProperty.split(":")[1]);
+		}
+	}
+
+	private void addRectangle(DoubleList out, int tilesize) {
+		out.add(objectX / tilesize);
+		out.add(objectY / tilesize);
+		out.add(objectWidth / tilesize);
+		out.add(objectHeight / tilesize);
+	}
+
+	/**
+	 * Parses "x,y x,y ..." without splitting the string
+	 */
+
+	private void readPolygon(String points) {
+		double scale = 1.0 / (double) map.getTilesize();
+		int count = 0;
+		int start = 0;
+		int length = points.length();
+		for (int i = 0; i <= length; i++) {
+			char c = i < length ? points.charAt(i) : ' ';
+			if (c == ',') {
+				map.getPolygonPoints().add((Double.parseDouble(points.substring(start, i)) + objectX) * scale);
+				start = i + 1;
+			} else if (c == ' ') {
+				if (i > start) {
+					map.getPolygonPoints().add((Double.parseDouble(points.substring(start, i)) + objectY) * scale);
+					count++;
+				}
+				start = i + 1;
+			}
+		}
+		map.getPolygonSizes().add(count);
+	}
+
+	// -------------------------------------------------------------------------------------------------------
+	// Tile data
+	// -------------------------------------------------------------------------------------------------------
+
+	/**
+	 * Decodes the data element the reader is at into the layer
+	 */
+
+	private void readData(int[][] layer) throws XMLStreamException, IOException {
+		String encoding = xml.getAttributeValue(null, "encoding");
+		String compression = xml.getAttributeValue(null, "compression");
+
+		if (encoding == null) {
+			throw new IOException("Layers stored as xml tiles are not supported, use csv or base64");
+		} else if (encoding.equals("csv")) {
+			CsvDecoder csv = new CsvDecoder(layer);
+			while (xml.next() == XMLStreamConstants.CHARACTERS) {
+				csv.decode(xml.getTextCharacters(), xml.getTextStart(), xml.getTextLength());
+			}
+			csv.finish();
+		} else if (encoding.equals("base64")) {
+			int width = layer.length > 0 ? layer[0].length : 0;
+			Base64Decoder base64;
+			ByteArrayOutputStream compressed = null;
+			if (compression == null) {
+				base64 = new Base64Decoder(new TileSink(layer));
+			} else {
+				// compressed data is small, keep it and inflate it when it is complete
+				compressed = new ByteArrayOutputStream(width * layer.length / 4 + 64);
+				base64 = new Base64Decoder(compressed::write);
+			}
+			while (xml.next() == XMLStreamConstants.CHARACTERS) {
+				base64.decode(xml.getTextCharacters(), xml.getTextStart(), xml.getTextLength());
+			}
+
+			if (compressed != null) {
+				InputStream in = new ByteArrayInputStream(compressed.toByteArray());
+				switch (compression) {
+					case "zlib":
+						in = new InflaterInputStream(in);
+						break;
+					case "gzip":
+						in = new GZIPInputStream(in);
+						break;
+					default:
+						throw new IOException("Unsupported compression " + compression);
+				}
+				TileSink sink = new TileSink(layer);
+				byte[] buffer = new byte[4096];
+				int n;
+				while ((n = in.read(buffer)) > 0) {
+					sink.write(buffer, 0, n);
+				}
+				in.close();
+			}
+		} else {
+			throw new IOException("Unsupported encoding " + encoding);
+		}
+	}
+
+	/**
+	 * Parses comma separated numbers into a layer, numbers can be split between
+	 * two calls of decode
+	 */
+
+	private static class CsvDecoder {
+
+		private int[][] layer;
+		private int width;
+		private int index;
+		private long value;
+		private boolean inNumber;
+
+		public CsvDecoder(int[][] layer) {
+			this.layer = layer;
+			this.width = layer.length > 0 ? layer[0].length : 0;
+		}
+
+		public void decode(char[] text, int start, int length) throws IOException {
+			for (int i = start; i < start + length; i++) {
+				char c = text[i];
+				if (c >= '0' && c <= '9') {
+					value = value * 10 + (c - '0');
+					inNumber = true;
+				} else if (c == ',') {
+					put();
+				} else if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+					throw new IOException("Unexpected character in csv tile data: " + c);
+				}
+			}
+		}
+
+		public void finish() throws IOException {
+			if (inNumber) {
+				put();
+			}
+		}
+
+		private void put() throws IOException {
+			if (index >= width * layer.length) {
+				throw new IOException("More tiles than the layer has");
+			}
+			// gids are unsigned, the flip flags are in the highest bits
+			layer[index / width][index % width] = (int) value;
+			index++;
+			value = 0;
+			inNumber = false;
+		}
+
+	}
+
+	/**
+	 * Receives bytes, the sink of a {@link Base64Decoder}
+	 */
+
+	private interface ByteSink {
+
+		public void write(byte[] b, int off, int len) throws IOException;
+
+	}
+
+	/**
+	 * Assembles little endian unsigned ints into a layer
+	 */
+
+	private static class TileSink implements ByteSink {
+
+		private int[][] layer;
+		private int width;
+		private int index;
+		private int value;
+		private int bytes;
+
+		public TileSink(int[][] layer) {
+			this.layer = layer;
+			this.width = layer.length > 0 ? layer[0].length : 0;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			for (int i = off; i < off + len; i++) {
+				value |= (b[i] & 0xFF) << (bytes * 8);
+				if (++bytes == 4) {
+					if (index >= width * layer.length) {
+						throw new IOException("More tiles than the layer has");
+					}
+					layer[index / width][index % width] = value;
+					index++;
+					value = 0;
+					bytes = 0;
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * Decodes base64 in chunks, whitespace in between is skipped
+	 */
+
+	private static class Base64Decoder {
+
+		private static final int[] VALUES = new int[128];
+
+		static {
+			Arrays.fill(VALUES, -1);
+			String alphabet = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789+/";
+			for (int i = 0; i < alphabet.length(); i++) {
+				VALUES[alphabet.charAt(i)] = i;
+			}
+		}
+
+		private ByteSink sink;
+		private byte[] out;
+		private int bits;
+		private int count;
+
+		public Base64Decoder(ByteSink sink) {
+			this.sink = sink;
+			this.out = new byte[3072];
+		}
+
+		public void decode(char[] text, int start, int length) throws IOException {
+			int n = 0;
+			for (int i = start; i < start + length; i++) {
+				char c = text[i];
+				if (c == '=') {
+					// padding, the last quantum is cut short
+					if (count > 1) {
+						bits <<= 6 * (4 - count);
+						out[n++] = (byte) (bits >> 16);
+						if (count == 3) {
+							out[n++] = (byte) (bits >> 8);
+						}
+					}
+					bits = 0;
+					count = 0;
+					continue;
+				}
+				int v = c < 128 ? VALUES[c] : -1;
+				if (v < 0) {
+					// whitespace
+					continue;
+				}
+				bits = (bits << 6) | v;
+				count++;
+				if (count == 4) {
+					out[n++] = (byte) (bits >> 16);
+					out[n++] = (byte) (bits >> 8);
+					out[n++] = (byte) bits;
+					bits = 0;
+					count = 0;
+					if (n > out.length - 3) {
+						sink.write(out, 0, n);
+						n = 0;
+					}
+				}
+			}
+			sink.write(out, 0, n);
+		}
+
+	}
+
+	private int intAttribute(String name) {
+		return Integer.parseInt(xml.getAttributeValue(null, name));
+	}
+
+	/**
+	 * @return the value of the attribute, 0 if the element doesn't have it
+	 */
+
+	private double doubleAttribute(String name) {
+		String value = xml.getAttributeValue(null, name);
+		return value != null ? Double.parseDouble(value) : 0;
+	}
+
+}
@@ -10,44 +10,44 @@ package game.level;
 
 import java.awt.Color;
 import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.Shape;
 import java.awt.event.KeyEvent;
-import java.io.InputStream;
 import java.util.ArrayList;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
-
 import game.Game;
+import game.Profiler;
 import game.entity.Door;
 import game.entity.GameObject;
 import game.entity.Player;
 import game.entity.enemy.Enemy;
+import game.entity.item.Items;
 import game.graphics.Camera;
 import game.graphics.Drawable;
 import game.graphics.Image2d;
+import game.graphics.RenderSnapshot;
 import game.graphics.Screen;
 import game.graphics.TiledTileSet;
 import game.graphics.TileSet;
 import game.io.FileIO;
 import game.io.Input;
-import game.shape.Line;
+import game.shape.BoundingVolumeHierarchy;
 import game.shape.Polygon2D;
 import game.shape.Rectangle;
 import game.shape.Vector2;
+import game.util.DoubleList;
+import game.util.IntList;
 
 public class World implements Drawable {
 
 	private Game game;
 	private Input input;
+	private Items items;
 	private ArrayList<Rectangle> collisionRectangles;
 	private ArrayList<Polygon2D> collisionPolygons;
 	private ArrayList<GameObject> actors;
 	private ArrayList<GameObject> newActorQueue;
-	private Image2d worldImageBuffer;
+	private ChunkRenderer tileRenderer;
 	private TiledTileSet tilesets;
 	private Player player;
 	private ArrayList<int[][]> layerList;
@@ -59,12 +59,27 @@ public class World implements Drawable {
 	private boolean showHitboxes;
 	private boolean drawWorld;
 	private boolean fillHitboxes;
+	private boolean headless;
 	private Image2d background;
+	private ArrayList<String> images;
 	private Rectangle bounds;
+	private SpatialHash broadphase;
+	private BoundingVolumeHierarchy rectangleIndex;
+	private BoundingVolumeHierarchy polygonIndex;
+	private IntList candidates;
+	private IntList staticCandidates;
+	private IntList queryCandidates;
+	private IntList sweepHits;
+	private DoubleList sweepTimes;
+	private Rectangle sweepTarget;
+	private Vector2 slopePoint;
+	private Vector2 topPoint;
+	private Vector2 contactPoint;
 	private Vector2 spawnPoint;
 	private double monsterSpawnCooldown;
 	private double monsterSpawnCooldownValue = 5;
 	private int maxEnemies = 5;
+	private int nextNetworkId = 1;
 
 	public World(Game game) {
 		this.game = game;
@@ -72,152 +87,148 @@ public class World implements Drawable {
 		this.collisionRectangles = new ArrayList<>();
 		this.actors = new ArrayList<>();
 		this.newActorQueue = new ArrayList<>();
-		this.input = game.getInput();
+		this.candidates = new IntList();
+		this.staticCandidates = new IntList();
+		this.queryCandidates = new IntList();
+		this.sweepHits = new IntList();
+		this.sweepTimes = new DoubleList();
+		this.sweepTarget = new Rectangle();
+		this.slopePoint = new Vector2();
+		this.topPoint = new Vector2();
+		this.contactPoint = new Vector2();
+		this.rectangleIndex = new BoundingVolumeHierarchy(collisionRectangles);
+		this.polygonIndex = new BoundingVolumeHierarchy(collisionPolygons);
+		this.input = game != null ? game.getInput() : null;
 		this.showHitboxes = false;
 		this.drawWorld = true;
 		this.fillHitboxes = false;
+		this.headless = GraphicsEnvironment.isHeadless();
 		this.spawnPoint = new Vector2(2, 2);
+		this.images = new ArrayList<>();
 	}
 
+	/**
+	 * Creates an empty world without a map, tiles and monsters
+	 * 
+	 * @param game
+	 * @param width  in tiles
+	 * @param height in tiles
+	 */
+
+	public World(Game game, int width, int height) {
+		this(game);
+		this.width = width;
+		this.height = height;
+		this.bounds = new Rectangle(0, 0, width, height);
+		this.broadphase = new SpatialHash(width, height, SpatialHash.DEFAULT_CELL_SIZE);
+		this.layerList = new ArrayList<int[][]>();
+	}
+
+	/**
+	 * Loads the map, the compiled map if there is one and the .tmx file otherwise
+	 * 
+	 * @param filename
+	 */
+
 	public void load(String filename) {
-		layerList = new ArrayList<int[][]>();
-		this.background = FileIO.loadImage("img/waterfall.png");
 		this.monsterspawner = new Monsterspawner(this, "world/" + filename + ".mls");
-
 		try {
-			// load world File into DOM
-			InputStream in = FileIO.getResourceAsStream("world/" + filename + ".tmx");
-			DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
-			DocumentBuilder db = dbf.newDocumentBuilder();
-			Document doc = db.parse(in);
-			doc.getDocumentElement().normalize();
-			Element map = doc.getDocumentElement();
-
-			tilesize = Integer.parseInt(map.getAttribute("tilewidth"));
-			width = Integer.parseInt(map.getAttribute("width"));
-			height = Integer.parseInt(map.getAttribute("height"));
-			this.bounds = new Rectangle(0, 0, width, height);
-
-			tilesets = new TiledTileSet();
-
-			// read tilesets
-			NodeList tilesets = doc.getElementsByTagName("tileset");
-			for (int i = 0; i < tilesets.getLength(); i++) {
-				Element tileset = (Element) tilesets.item(i);
-				Element src = (Element) tileset.getElementsByTagName("image").item(0);
-				String stringsrc = src.getAttribute("source");
-				String[] parts = stringsrc.split("/");
-				String fname = parts[parts.length - 1];
-				System.out.println("Loading tileset: " + fname);
-				int tilesettilesize = Integer.parseInt(tileset.getAttribute("tilewidth"));
-				this.tilesets.addTileset(new TileSet("img/" + fname, tilesettilesize));
-			}
+			load(MapData.load(filename));
+		} catch (Exception e) {
+			e.printStackTrace();
+		}
+	}
 
-			// read layers
-			NodeList layers = doc.getElementsByTagName("layer");
-			for (int i = 0; i < layers.getLength(); i++) {
-				Element layer = (Element) layers.item(i);
-				String name = layer.getAttribute("name");
-				System.out.println("Loading layer: " + name);
-				Element data = (Element) layer.getElementsByTagName("data").item(0);
-				layerList.add(toIntArray(data.getTextContent().trim()));
+	/**
+	 * Builds the world from the map, in headless mode only what is needed to
+	 * simulate the world is loaded, without the background, the tilesets and the
+	 * tile renderer
+	 * 
+	 * @param map
+	 */
+
+	public void load(MapData map) {
+		this.layerList = map.getLayers();
+		if (!headless) {
+			this.background = loadImage("img/waterfall.png");
+		}
 
-			}
+		this.tilesize = map.getTilesize();
+		this.width = map.getWidth();
+		this.height = map.getHeight();
+		this.bounds = new Rectangle(0, 0, width, height);
+		this.broadphase = new SpatialHash(width, height, SpatialHash.DEFAULT_CELL_SIZE);
 
-			System.out.println("Reading Objects");
-
-			// read objectgroups
-			NodeList objectgroups = doc.getElementsByTagName("objectgroup");
-			for (int i = 0; i < objectgroups.getLength(); i++) {
-				Element objgrp = (Element) objectgroups.item(i);
-				NodeList objs = objgrp.getElementsByTagName("object");
-				for (int j = 0; j < objs.getLength(); j++) {
-					Element obj = (Element) objs.item(j);
-					if (obj.hasChildNodes()) {
-						if (obj.getElementsByTagName("polygon").getLength() > 0) {
-							Element polygon = (Element) obj.getElementsByTagName("polygon").item(0);
-
-							double offsetX = Double.parseDouble(obj.getAttribute("x"));
-							double offsetY = Double.parseDouble(obj.getAttribute("y"));
-							Vector2 offset = new Vector2(offsetX, offsetY);
-
-							String spoints = polygon.getAttribute("points");
-							String[] points = spoints.split(" ");
-							Vector2[] verts = new Vector2[points.length];
-
-							for (int k = 0; k < verts.length; k++) {
-								String[] xy = points[k].split(",");
-								verts[k] = new Vector2(Double.parseDouble(xy[0]), Double.parseDouble(xy[1]));
-								verts[k] = verts[k].add(offset).mul(1.0 / (double) tilesize);
-							}
+		this.tilesets = new TiledTileSet();
+		for (int i = 0; i < map.getTilesetCount() && !headless; i++) {
+			System.out.println("Loading tileset: " + map.getTilesetImage(i));
+			this.tilesets.addTileset(new TileSet(loadImage(map.getTilesetImage(i)), map.getTilesetTilesize(i), map.getTilesetTilesize(i)));
+		}
 
-							Polygon2D poly = new Polygon2D(verts);
-							this.collisionPolygons.add(poly);
+		DoubleList rects = map.getRectangles();
+		for (int i = 0; i < rects.size(); i += 4) {
+			this.collisionRectangles.add(new Rectangle(rects.get(i), rects.get(i + 1), rects.get(i + 2), rects.get(i + 3)));
+		}
 
-						} else if (obj.getElementsByTagName("point").getLength() > 0) {
+		for (Polygon2D poly : map.createPolygons()) {
+			// split now so the collision doesn't have to
+			poly.getConvexParts();
+			this.collisionPolygons.add(poly);
+		}
 
-							String type = obj.getAttribute("type");
-							Vector2 p = new Vector2(Double.parseDouble(obj.getAttribute("x")),
-									Double.parseDouble(obj.getAttribute("y"))).mul(1 / (double) tilesize);
-							switch (type) {
-								case ("spawnpoint"): {
-									spawnPoint = p;
-									break;
-								}
-								case ("mspawn"): {
-									monsterspawner.addLocation(p);
-									break;
-								}
-							}
-						} else {
-							if (obj.getElementsByTagName("properties").getLength() > 0) {
-								Element special = (Element) obj.getElementsByTagName("property").item(0);
-								String data = special.getAttribute("value");
-								System.out.println(data);
-
-								double rx = Double.parseDouble(obj.getAttribute("x"));
-								double ry = Double.parseDouble(obj.getAttribute("y"));
-								double rwidth = Double.parseDouble(obj.getAttribute("width"));
-								double rheight = Double.parseDouble(obj.getAttribute("height"));
-
-								rx = (rx / (double) tilesize);
-								ry = (ry / (double) tilesize);
-								rwidth = (rwidth / (double) tilesize);
-								rheight = (rheight / (double) tilesize);
-
-								Rectangle rect = new Rectangle(rx, ry, rwidth, rheight);
-								TileSet doors = new TileSet("img/world_doors_32x32.png", 64, 96);
-								Door door = new Door(this, rect, doors.get(0), data.split(":")[1]);
-								this.spawn(door, rect.getPosition());
+		if (map.hasSpawnPoint()) {
+			this.spawnPoint = new Vector2(map.getSpawnX(), map.getSpawnY());
+		}
 
-							}
-						}
+		DoubleList locations = map.getMonsterLocations();
+		for (int i = 0; i < locations.size() && monsterspawner != null; i += 2) {
+			monsterspawner.addLocation(new Vector2(locations.get(i), locations.get(i + 1)));
+		}
 
-					} else {
+		DoubleList doors = map.getDoors();
+		Image2d doorImage = null;
+		if (!headless && doors.size() > 0) {
+			doorImage = new TileSet(loadImage("img/world_doors_32x32.png"), 64, 96).get(0);
+		}
+		for (int i = 0; i < doors.size(); i += 4) {
+			Rectangle rect = new Rectangle(doors.get(i), doors.get(i + 1), doors.get(i + 2), doors.get(i + 3));
+			Door door = new Door(this, rect, doorImage, map.getDoorTarget(i / 4));
+			this.spawn(door, rect.getPosition());
+		}
 
-						double rx = Double.parseDouble(obj.getAttribute("x"));
-						double ry = Double.parseDouble(obj.getAttribute("y"));
-						double rwidth = Double.parseDouble(obj.getAttribute("width"));
-						double rheight = Double.parseDouble(obj.getAttribute("height"));
+		this.rectangleIndex = new BoundingVolumeHierarchy(collisionRectangles);
+		this.polygonIndex = new BoundingVolumeHierarchy(collisionPolygons);
 
-						rx = (rx / (double) tilesize);
-						ry = (ry / (double) tilesize);
-						rwidth = (rwidth / (double) tilesize);
-						rheight = (rheight / (double) tilesize);
+		if (!headless) {
+			this.tileRenderer = new ChunkRenderer(this.tilesets, layerList, width, height, ChunkRenderer.DEFAULT_MEMORY_BUDGET);
+		}
+	}
 
-						Rectangle rect = new Rectangle(rx, ry, rwidth, rheight);
-						this.collisionRectangles.add(rect);
-					}
-				}
-			}
+	/**
+	 * Loads an image through the shared cache, it is released by
+	 * {@link #dispose()}
+	 */
 
-			createImageBuffer(Screen.TILESIZE);
-			System.out.println("DONE");
+	private Image2d loadImage(String name) {
+		images.add(name);
+		return FileIO.loadImage(name);
+	}
 
-		} catch (Exception e) {
-			e.printStackTrace();
-		}
+	/**
+	 * Releases the images of the world and the rendered chunks, the world can't
+	 * be drawn after this
+	 */
 
+	public void dispose() {
+		for (String name : images) {
+			FileIO.releaseImage(name);
+		}
+		images.clear();
+		if (tileRenderer != null) {
+			tileRenderer.clear();
+			tileRenderer = null;
+		}
+		background = null;
 	}
 
 	public void init() {
@@ -237,7 +248,7 @@ public class World implements Drawable {
 		this.input();
 		monsterSpawnCooldown += elapsedTime;
 
-		if (enemies < maxEnemies && monsterSpawnCooldown > monsterSpawnCooldownValue) {
+		if (monsterspawner != null && enemies < maxEnemies && monsterSpawnCooldown > monsterSpawnCooldownValue) {
 			monsterspawner.spawnMonsters(1);
 			monsterSpawnCooldown = 0;
 		}
@@ -250,6 +261,10 @@ public class World implements Drawable {
 			newActorQueue.clear();
 		}
 
+		for (GameObject actor : actors) {
+			actor.storePreviousPosition();
+		}
+
 		// Update GameObjects
 		for (GameObject actor : actors) {
 			actor.update(elapsedTime);
@@ -259,10 +274,22 @@ public class World implements Drawable {
 		}
 
 		// Collision detection
-		for (GameObject actor : actors) {
+		long t = Profiler.begin();
+		int count = actors.size();
+		broadphase.build(actors);
+		for (int i = 0; i < count; i++) {
+			if (actors.get(i).isContinuousCollision() && !actors.get(i).isRemove()) {
+				sweep(i);
+			}
+		}
+		for (int i = 0; i < count; i++) {
+			GameObject actor = actors.get(i);
 			actor.setGrounded(false);
 			boolean slopeCollision = false;
-			for (GameObject actor2 : actors) {
+			broadphase.query(i, candidates);
+			for (int c = 0; c < candidates.size(); c++) {
+				int j = candidates.get(c);
+				GameObject actor2 = actors.get(j);
 				if (actor != actor2 && !actor.isRemove() && !actor2.isRemove()) {
 					if (actor.intersects(actor2)) {
 
@@ -281,7 +308,7 @@ public class World implements Drawable {
 							} else if (predictedPosition == GameObject.POS_DOWN) {
 								actor.setY(actor2.getTop() - actor.getHeight());
 								actor.setVelY(actor2.getVelY());
-								actor.addPosition(actor2.getVel().mul(elapsedTime));
+								actor.addPosition(actor2.getVelX() * elapsedTime, actor2.getVelY() * elapsedTime);
 								actor.setGrounded(true);
 							}
 						}
@@ -289,45 +316,71 @@ public class World implements Drawable {
 						actor.onCollision(actor2);
 						actor2.onCollision(actor);
 
+						broadphase.update(j);
+						if (broadphase.update(i)) {
+							// actor changed cells, continue with the candidates of the new cells
+							broadphase.query(i, candidates);
+							c = lastIndexAtMost(candidates, j);
+						}
+
 					}
 				}
 			}
 			if (actor.isStaticCollision()) {
-				for (Polygon2D poly : collisionPolygons) {
+				queryPolygons(actor, staticCandidates);
+				for (int c = 0; c < staticCandidates.size(); c++) {
+					int k = staticCandidates.get(c);
+					Polygon2D poly = collisionPolygons.get(k);
+					double lastX = actor.getX();
+					double lastY = actor.getY();
 
 					if (actor.isSlopeCollision()) {
-						Vector2 slopePoint = actor.getSlopePoint();
-						Vector2 topPoint = actor.getTopCollisionPoint();
+						actor.getSlopePoint(slopePoint);
+						actor.getTopCollisionPoint(topPoint);
 
 						if (poly.contains(topPoint)) {
 
 							actor.onStaticCollision(poly);
-							while (poly.contains(topPoint)) {
-								actor.setY(actor.getY() + (1.0 / (double) Screen.TILESIZE));
-								topPoint = actor.getTopCollisionPoint();
-							}
+							pushOutBelow(actor, poly);
 
 						} else {
 
+							boolean onSlope = false;
 							if (poly.getBounds().contains(slopePoint)) {
 								slopeCollision = true;
-								if (poly.contains(slopePoint)) {
+								onSlope = poly.contains(slopePoint);
+								if (onSlope) {
 									actor.onStaticCollision(poly);
 									actor.setBoxCollision(false);
 									actor.setGrounded(true);
-									Line line = poly.getNearestSideToPoint(actor.getSlopePoint());
-									Vector2 contact = line.getNormalContactPoint(actor.getSlopePoint());
-									if (contact.isFinite()) {
-										actor.setY(contact.getY() - actor.getHeight() + GameObject.SLOPE_POINT_OFFSET);
+									int side = poly.getNearestSide(slopePoint.getX(), slopePoint.getY());
+									// -1 without sides or with NaN distances from a degenerate side
+									if (side >= 0 && poly.getNormalContactPoint(side, slopePoint.getX(), slopePoint.getY(), contactPoint)) {
+										actor.setY(contactPoint.getY() - actor.getHeight() + GameObject.SLOPE_POINT_OFFSET);
 										actor.getVel().setY(0);
 									}
 								}
 							}
+							if (!onSlope) {
+								pushOutOfCeiling(actor, poly);
+							}
 						}
 					}
+
+					if (actor.getX() != lastX || actor.getY() != lastY) {
+						// the probe points moved, continue with the polygons at the new position
+						queryPolygons(actor, staticCandidates);
+						c = lastIndexAtMost(staticCandidates, k);
+					}
 				}
 
-				for (Rectangle rect : collisionRectangles) {
+				rectangleIndex.query(actor.getX(), actor.getY(), actor.getWidth(), actor.getHeight(), staticCandidates);
+				for (int c = 0; c < staticCandidates.size(); c++) {
+					int k = staticCandidates.get(c);
+					Rectangle rect = collisionRectangles.get(k);
+					double lastX = actor.getX();
+					double lastY = actor.getY();
+
 					if (rect.intersects(actor)) {
 						actor.onStaticCollision(rect);
 						if (actor.isBoxCollision()) {
@@ -348,16 +401,29 @@ public class World implements Drawable {
 							}
 						}
 					}
+
+					if (actor.getX() != lastX || actor.getY() != lastY) {
+						rectangleIndex.query(actor.getX(), actor.getY(), actor.getWidth(), actor.getHeight(), staticCandidates);
+						c = lastIndexAtMost(staticCandidates, k);
+					}
 				}
 			}
 			if (!slopeCollision) {
 				actor.setBoxCollision(true);
 			}
+			broadphase.update(i);
 		}
+		Profiler.end(Profiler.COLLISION, t);
+
+		t = Profiler.begin();
 		garbageCollection();
+		Profiler.end(Profiler.GC, t);
 	}
 
 	public void input() {
+		if (input == null) {
+			return;
+		}
 		if (input.keyPressed(KeyEvent.VK_F6)) {
 			fillHitboxes = !fillHitboxes;
 			System.out.println("fillHitboxes: " + fillHitboxes);
@@ -371,19 +437,21 @@ public class World implements Drawable {
 			monsterspawner.spawnMonsters(100);
 			System.out.println("Spawn Monsters");
 		} else if (input.keyPressed(KeyEvent.VK_F3)) {
-			this.spawnQueue(game.getItems().get("game_jack_daniels"), spawnPoint);
+			this.spawnQueue(getItems().get("game_jack_daniels"), spawnPoint);
 			System.out.println("Spawn Monsters");
 		}
 	}
 
 	public boolean checkCollision(Rectangle rectangle) {
-		for (Rectangle rect : collisionRectangles) {
-			if (rect.intersects(rectangle)) {
+		rectangleIndex.query(rectangle.getX(), rectangle.getY(), rectangle.getWidth(), rectangle.getHeight(), queryCandidates);
+		for (int i = 0; i < queryCandidates.size(); i++) {
+			if (collisionRectangles.get(queryCandidates.get(i)).intersects(rectangle)) {
 				return true;
 			}
 		}
-		for (Polygon2D poly : collisionPolygons) {
-			if (poly.intersects(rectangle)) {
+		polygonIndex.query(rectangle.getX(), rectangle.getY(), rectangle.getWidth(), rectangle.getHeight(), queryCandidates);
+		for (int i = 0; i < queryCandidates.size(); i++) {
+			if (collisionPolygons.get(queryCandidates.get(i)).intersects(rectangle)) {
 				return true;
 			}
 		}
@@ -396,13 +464,15 @@ public class World implements Drawable {
 	}
 
 	public boolean checkCollision(Vector2 point) {
-		for (Rectangle rect : collisionRectangles) {
-			if (rect.contains(point)) {
+		rectangleIndex.query(point.getX(), point.getY(), queryCandidates);
+		for (int i = 0; i < queryCandidates.size(); i++) {
+			if (collisionRectangles.get(queryCandidates.get(i)).contains(point)) {
 				return true;
 			}
 		}
-		for (Polygon2D poly : collisionPolygons) {
-			if (poly.contains(point)) {
+		polygonIndex.query(point.getX(), point.getY(), queryCandidates);
+		for (int i = 0; i < queryCandidates.size(); i++) {
+			if (collisionPolygons.get(queryCandidates.get(i)).contains(point)) {
 				return true;
 			}
 		}
@@ -415,7 +485,9 @@ public class World implements Drawable {
 	}
 
 	public boolean checkSlopeCollision(GameObject g) {
-		for (Polygon2D poly : collisionPolygons) {
+		queryPolygons(g, queryCandidates);
+		for (int i = 0; i < queryCandidates.size(); i++) {
+			Polygon2D poly = collisionPolygons.get(queryCandidates.get(i));
 			if (poly.contains(g.getSlopePoint()) || poly.contains(g.getTopCollisionPoint())) {
 				return true;
 			}
@@ -424,50 +496,248 @@ public class World implements Drawable {
 	}
 
 	public boolean checkRectangleCollision(GameObject g) {
-		for (Rectangle rect : collisionRectangles) {
-			if (rect.intersects(g)) {
+		rectangleIndex.query(g.getX(), g.getY(), g.getWidth(), g.getHeight(), queryCandidates);
+		for (int i = 0; i < queryCandidates.size(); i++) {
+			if (collisionRectangles.get(queryCandidates.get(i)).intersects(g)) {
 				return true;
 			}
 		}
 		return false;
 	}
 
-	public void garbageCollection() {
-		ArrayList<GameObject> trash = new ArrayList<GameObject>();
-		for (GameObject g : actors) {
-			if (g.isRemove()) {
-				trash.add(g);
+	/**
+	 * Moves the box of a continuous collision actor from its previous position to
+	 * the current one. It stops at the first collision rectangle or polygon in
+	 * the way, and collides with the actors it passes before, nearest first.
+	 * Actors it still overlaps at the end are left to the collision that
+	 * follows.
+	 */
+
+	private void sweep(int index) {
+		GameObject actor = actors.get(index);
+		double x = actor.getPreviousX();
+		double y = actor.getPreviousY();
+		double dx = actor.getX() - x;
+		double dy = actor.getY() - y;
+		if (dx == 0 && dy == 0) {
+			return;
+		}
+		double w = actor.getWidth();
+		double h = actor.getHeight();
+		double bx = Math.min(x, x + dx);
+		double by = Math.min(y, y + dy);
+		double bw = w + Math.abs(dx);
+		double bh = h + Math.abs(dy);
+
+		double end = 1;
+		Shape hit = null;
+		if (actor.isStaticCollision()) {
+			rectangleIndex.query(bx, by, bw, bh, queryCandidates);
+			for (int c = 0; c < queryCandidates.size(); c++) {
+				Rectangle rect = collisionRectangles.get(queryCandidates.get(c));
+				double t = rect.sweep(x, y, w, h, dx, dy, null);
+				if (t <= end) {
+					end = t;
+					hit = rect;
+				}
+			}
+			polygonIndex.query(bx, by, bw, bh, queryCandidates);
+			for (int c = 0; c < queryCandidates.size(); c++) {
+				Polygon2D poly = collisionPolygons.get(queryCandidates.get(c));
+				double t = poly.sweep(x, y, w, h, dx, dy, null);
+				if (t <= end) {
+					end = t;
+					hit = poly;
+				}
+			}
+		}
+
+		broadphase.query(bx, by, bw, bh, queryCandidates);
+		sweepHits.clear();
+		sweepTimes.clear();
+		double ex = x + dx * end;
+		double ey = y + dy * end;
+		for (int c = 0; c < queryCandidates.size(); c++) {
+			int j = queryCandidates.get(c);
+			GameObject other = actors.get(j);
+			if (j == index || other.isRemove()) {
+				continue;
+			}
+			// relative to the other actor, which moved in this tick too
+			double ox = other.getPreviousX();
+			double oy = other.getPreviousY();
+			double odx = other.getX() - ox;
+			double ody = other.getY() - oy;
+			sweepTarget.setRect(ox + odx * end, oy + ody * end, other.getWidth(), other.getHeight());
+			if (sweepTarget.intersects(ex, ey, w, h)) {
+				continue;
+			}
+			sweepTarget.setRect(ox, oy, other.getWidth(), other.getHeight());
+			double t = sweepTarget.sweep(x, y, w, h, dx - odx, dy - ody, null);
+			if (!(t <= end)) {
+				continue;
 			}
+			// sorted by time
+			int k = sweepHits.size();
+			sweepHits.add(j);
+			sweepTimes.add(t);
+			while (k > 0 && sweepTimes.get(k - 1) > t) {
+				sweepHits.set(k, sweepHits.get(k - 1));
+				sweepTimes.set(k, sweepTimes.get(k - 1));
+				k--;
+			}
+			sweepHits.set(k, j);
+			sweepTimes.set(k, t);
+		}
+
+		for (int k = 0; k < sweepHits.size() && !actor.isRemove(); k++) {
+			GameObject other = actors.get(sweepHits.get(k));
+			if (!other.isRemove()) {
+				actor.onCollision(other);
+				other.onCollision(actor);
+			}
+		}
+
+		if (hit != null && !actor.isRemove()) {
+			actor.setPosition(ex, ey);
+			actor.onStaticCollision(hit);
+		}
+		broadphase.update(index);
+	}
+
+	/**
+	 * Moves the object down in steps of one pixel until its top collision point
+	 * is out of the polygon
+	 */
+
+	private void pushOutBelow(GameObject g, Polygon2D poly) {
+		double step = 1.0 / (double) Screen.TILESIZE;
+		g.getTopCollisionPoint(topPoint);
+		g.setY(g.getY() + poly.getStepsOut(topPoint.getX(), topPoint.getY(), step) * step);
+		g.getTopCollisionPoint(topPoint);
+	}
+
+	/**
+	 * The top collision point is in the middle of the object, a wide object can
+	 * jump into a sloped ceiling with a corner of its head. Pushes it out of
+	 * sides that face down, the way the top collision point is pushed down.
+	 * Sides that face up are left to the slope point, so the object stands on
+	 * slopes with its middle as before.
+	 */
+
+	private void pushOutOfCeiling(GameObject g, Polygon2D poly) {
+		double depth = poly.getPenetration(g.getX(), g.getY(), g.getWidth(), g.getHeight(), contactPoint);
+		if (depth > 0 && contactPoint.getY() > Math.abs(contactPoint.getX())) {
+			g.onStaticCollision(poly);
+			g.addPosition(contactPoint.getX() * depth, contactPoint.getY() * depth);
+		}
+	}
+
+	/**
+	 * Collects the polygons that may contain the slope point or the top collision
+	 * point of the object or overlap its sides
+	 */
+
+	private void queryPolygons(GameObject g, IntList out) {
+		double top = g.getY();
+		double bot = g.getBot() - GameObject.SLOPE_POINT_OFFSET;
+		polygonIndex.query(g.getX(), Math.min(top, bot), g.getWidth(), Math.abs(bot - top), out);
+	}
+
+	/**
+	 * @return the position of the last value in the sorted list that is not
+	 *         greater than value, -1 if there is none
+	 */
+
+	private static int lastIndexAtMost(IntList sorted, int value) {
+		int i = -1;
+		while (i + 1 < sorted.size() && sorted.get(i + 1) <= value) {
+			i++;
+		}
+		return i;
+	}
+
+	/**
+	 * Removes the actors that are marked to be removed and releases the pooled
+	 * ones. The actors are compared by identity, equals of a rectangle compares
+	 * the bounds.
+	 */
+
+	public void garbageCollection() {
+		int kept = 0;
+		int count = actors.size();
+		for (int i = 0; i < count; i++) {
+			GameObject g = actors.get(i);
+			boolean remove = g.isRemove();
 
 			if (outOfWorld(g)) {
 				g.onOutOfWorld(this);
 			}
 
+			if (!remove) {
+				actors.set(kept++, g);
+			} else if (g.isReleasedOnRemove()) {
+				g.release();
+			}
 		}
-		for (GameObject g : trash) {
-			actors.remove(g);
+		for (int i = count - 1; i >= kept; i--) {
+			actors.remove(i);
 		}
 	}
 
 	public void draw(Graphics2D g2, Camera cam) {
+		drawStatic(g2, cam.getPixelOffsetX(), cam.getPixelOffsetY(), cam.getWidth(), cam.getHeight());
+
+		g2.setColor(Color.BLACK);
+		for (GameObject g : actors) {
+			g.draw(g2, cam);
+		}
+
+	}
 
-		int scale = Screen.TILESIZE;
-		background.draw(g2, 0, 0, cam.getWidth(), cam.getHeight());
+	/**
+	 * Draws the world from a snapshot, only touches state that does not change
+	 * after load so it can run on the render thread while the world updates
+	 *
+	 * @param g2
+	 * @param cam only used for the size of the screen
+	 * @param s
+	 */
 
-		if (tilesize != scale) {
-			createImageBuffer(scale);
+	public void draw(Graphics2D g2, Camera cam, RenderSnapshot s) {
+		drawStatic(g2, s.getPixelOffsetX(), s.getPixelOffsetY(), cam.getWidth(), cam.getHeight());
+
+		g2.setColor(Color.BLACK);
+		s.draw(g2);
+	}
+
+	/**
+	 * Adds the camera and all actors to the snapshot
+	 *
+	 * @param s
+	 * @param cam
+	 */
+
+	public void snapshot(RenderSnapshot s, Camera cam) {
+		s.setCamera(this, cam.getPreviousX(), cam.getPreviousY(), cam.getX(), cam.getY());
+		for (GameObject g : actors) {
+			g.snapshot(s);
 		}
+	}
+
+	private void drawStatic(Graphics2D g2, double offsetX, double offsetY, double width, double height) {
+
+		background.draw(g2, 0, 0, width, height);
 
 		if (drawWorld) {
-			worldImageBuffer.draw(g2, cam.getPixelOffsetX(), cam.getPixelOffsetY(), cam.getWidth(), cam.getHeight(), 0,
-					0, cam.getWidth(), cam.getHeight());
+			tileRenderer.draw(g2, (int) offsetX, (int) offsetY, (int) width, (int) height, Screen.TILESIZE);
 		}
 
 		g2.setColor(Color.RED.darker());
 		if (showHitboxes) {
 			for (Rectangle rect : collisionRectangles) {
 				rect = rect.scale(Screen.TILESIZE);
-				rect.translate(-cam.getPixelOffsetX(), -cam.getPixelOffsetY());
+				rect.translate(-offsetX, -offsetY);
 				if (fillHitboxes) {
 					g2.setColor(Color.BLUE);
 					g2.fill(rect);
@@ -481,7 +751,7 @@ public class World implements Drawable {
 
 			for (Polygon2D poly : collisionPolygons) {
 				Graphics2D tran = (Graphics2D) g2.create();
-				tran.translate(-cam.getPixelOffsetX(), -cam.getPixelOffsetY());
+				tran.translate(-offsetX, -offsetY);
 				if (fillHitboxes) {
 					tran.setColor(Color.RED);
 					tran.fill(poly.scale(Screen.TILESIZE));
@@ -495,16 +765,14 @@ public class World implements Drawable {
 			}
 		}
 
-		g2.setColor(Color.BLACK);
-		for (GameObject g : actors) {
-			g.draw(g2, cam);
-		}
-
 	}
 
 	public void spawn(GameObject g, Vector2 pos) {
+		checkNotPooled(g);
 		g.setWorldIn(this);
+		assignNetworkId(g);
 		g.setPosition(pos);
+		g.storePreviousPosition();
 		if (g instanceof Player) {
 			this.player = (Player) g;
 		}
@@ -519,9 +787,20 @@ public class World implements Drawable {
 		this.calcEnemies();
 	}
 
+	/**
+	 * Adds the object at the start of the next update. Objects from a pool get a
+	 * new network id, {@link GameObject#reset()} clears it.
+	 * 
+	 * @param g
+	 * @param pos
+	 */
+
 	public void spawnQueue(GameObject g, Vector2 pos) {
+		checkNotPooled(g);
 		g.setWorldIn(this);
+		assignNetworkId(g);
 		g.setPosition(pos);
+		g.storePreviousPosition();
 		if (g instanceof Player) {
 			this.player = (Player) g;
 		}
@@ -530,6 +809,18 @@ public class World implements Drawable {
 		this.calcEnemies();
 	}
 
+	private void checkNotPooled(GameObject g) {
+		if (g.isPooled()) {
+			throw new IllegalStateException("Spawned " + g.getClass().getSimpleName() + " after it was released to its pool");
+		}
+	}
+
+	private void assignNetworkId(GameObject g) {
+		if (g.getNetworkId() == 0) {
+			g.setNetworkId(nextNetworkId++);
+		}
+	}
+
 	public boolean outOfWorld(GameObject g) {
 		boolean outOfWorld = false;
 
@@ -556,6 +847,42 @@ public class World implements Drawable {
 		return this.game;
 	}
 
+	/**
+	 * @return the items of the game, a world without a game loads its own items
+	 *         the first time they are needed
+	 */
+
+	public Items getItems() {
+		if (game != null) {
+			return game.getItems();
+		}
+		if (items == null) {
+			items = new Items();
+			items.loadJSON("item/items.json");
+			items.registerDefaults();
+		}
+		return items;
+	}
+
+	/**
+	 * A headless world only simulates, it loads no images and can't be drawn
+	 * 
+	 * @return
+	 */
+
+	public boolean isHeadless() {
+		return headless;
+	}
+
+	/**
+	 * @param headless must be set before {@link #load(String)}, true is the
+	 *                 default in a headless environment
+	 */
+
+	public void setHeadless(boolean headless) {
+		this.headless = headless;
+	}
+
 	public Rectangle getBounds() {
 		return this.bounds;
 	}
@@ -568,49 +895,37 @@ public class World implements Drawable {
 		this.showHitboxes = showHitboxes;
 	}
 
-	public void createImageBuffer(int tilesize) {
-		this.tilesize = tilesize;
-		this.worldImageBuffer = new Image2d(width * tilesize, height * tilesize);
-		Graphics2D g2 = this.worldImageBuffer.createGraphics();
-		System.out.println("Drawing world");
+	public ChunkRenderer getTileRenderer() {
+		return tileRenderer;
+	}
 
-		int i = 0;
-		for (int[][] layer : layerList) {
-			i++;
-			System.out.println("Layer " + i + "/" + layerList.size());
-			for (int row = 0; row < height; row++) {
-				for (int coll = 0; coll < width; coll++) {
-					int n = layer[row][coll];
-					if (n > 0) {
-						n--;
-						g2.drawImage(tilesets.get(n).getImage(), coll * tilesize, row * tilesize, tilesize, tilesize,
-								null);
-					}
-				}
-			}
-		}
-		g2.dispose();
+	public TiledTileSet getTilesets() {
+		return tilesets;
+	}
 
-		worldImageBuffer.backup();
+	public ArrayList<int[][]> getLayers() {
+		return layerList;
 	}
 
-	private int[][] toIntArray(String sdata) {
-		int[][] data;
-		int width, height;
+	public int getWidth() {
+		return width;
+	}
 
-		String[] rows = sdata.split("\n");
-		height = rows.length;
-		width = rows[0].split(",").length;
-		data = new int[height][width];
+	public int getHeight() {
+		return height;
+	}
 
-		for (int i = 0; i < rows.length; i++) {
-			String[] row_values = rows[i].split(",");
-			for (int j = 0; j < row_values.length; j++) {
-				data[i][j] = Integer.parseInt(row_values[j]);
-			}
-		}
+	public int getMaxEnemies() {
+		return maxEnemies;
+	}
+
+	/**
+	 * @param maxEnemies how many enemies the monster spawner keeps alive, 0 when
+	 *                   the enemies come from a server
+	 */
 
-		return data;
+	public void setMaxEnemies(int maxEnemies) {
+		this.maxEnemies = maxEnemies;
 	}
 
 	public Vector2 getSpawnPoint() {
@@ -0,0 +1,235 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package game.shape;
+
+import java.awt.Shape;
+import java.awt.geom.Rectangle2D;
+import java.util.List;
+
+import game.util.IntList;
+
+/**
+ * Immutable bounding volume hierarchy over the bounds of static shapes. The
+ * tree is built once and stored in flat arrays, a query only walks the nodes
+ * whose box overlaps the query box.<br>
+ * <br>
+ * Queries return the indices of the shapes in the list given to the
+ * constructor in ascending order.
+ */
+
+public class BoundingVolumeHierarchy {
+
+	private static final int LEAF_SIZE = 4;
+
+	private int count;
+	private double[] minX;
+	private double[] minY;
+	private double[] maxX;
+	private double[] maxY;
+
+	private int nodes;
+	private double[] nodeMinX;
+	private double[] nodeMinY;
+	private double[] nodeMaxX;
+	private double[] nodeMaxY;
+	private int[] nodeStart;
+	private int[] nodeCount;
+	private int[] nodeRight;
+	private int[] order;
+	private int[] stack;
+
+	/**
+	 * Builds the tree over the bounds of the shapes, for a Polygon2D that are the
+	 * same bounds its contains and intersects methods test first
+	 *
+	 * @param shapes
+	 */
+
+	public BoundingVolumeHierarchy(List<? extends Shape> shapes) {
+		this.count = shapes.size();
+		this.minX = new double[count];
+		this.minY = new double[count];
+		this.maxX = new double[count];
+		this.maxY = new double[count];
+		this.order = new int[count];
+
+		for (int i = 0; i < count; i++) {
+			Rectangle2D b = shapes.get(i).getBounds2D();
+			minX[i] = b.getMinX();
+			minY[i] = b.getMinY();
+			maxX[i] = b.getMaxX();
+			maxY[i] = b.getMaxY();
+			order[i] = i;
+		}
+
+		int capacity = Math.max(1, 2 * count);
+		this.nodeMinX = new double[capacity];
+		this.nodeMinY = new double[capacity];
+		this.nodeMaxX = new double[capacity];
+		this.nodeMaxY = new double[capacity];
+		this.nodeStart = new int[capacity];
+		this.nodeCount = new int[capacity];
+		this.nodeRight = new int[capacity];
+		this.nodes = 0;
+
+		int depth = build(0, count);
+		this.stack = new int[depth + 2];
+	}
+
+	/**
+	 * Creates the node for order[start..end) and its children in depth first
+	 * order, the left child always directly follows its parent
+	 *
+	 * @return the depth of the subtree
+	 */
+
+	private int build(int start, int end) {
+		int node = nodes++;
+		nodeStart[node] = start;
+		nodeCount[node] = end - start;
+
+		double x0 = Double.POSITIVE_INFINITY, y0 = Double.POSITIVE_INFINITY;
+		double x1 = Double.NEGATIVE_INFINITY, y1 = Double.NEGATIVE_INFINITY;
+		double cx0 = Double.POSITIVE_INFINITY, cy0 = Double.POSITIVE_INFINITY;
+		double cx1 = Double.NEGATIVE_INFINITY, cy1 = Double.NEGATIVE_INFINITY;
+		for (int i = start; i < end; i++) {
+			int n = order[i];
+			x0 = Math.min(x0, minX[n]);
+			y0 = Math.min(y0, minY[n]);
+			x1 = Math.max(x1, maxX[n]);
+			y1 = Math.max(y1, maxY[n]);
+			double cx = (minX[n] + maxX[n]) / 2;
+			double cy = (minY[n] + maxY[n]) / 2;
+			cx0 = Math.min(cx0, cx);
+			cy0 = Math.min(cy0, cy);
+			cx1 = Math.max(cx1, cx);
+			cy1 = Math.max(cy1, cy);
+		}
+		nodeMinX[node] = x0;
+		nodeMinY[node] = y0;
+		nodeMaxX[node] = x1;
+		nodeMaxY[node] = y1;
+
+		if (end - start <= LEAF_SIZE) {
+			nodeRight[node] = -1;
+			return 1;
+		}
+
+		// split at the median center along the longer axis
+		boolean splitX = (cx1 - cx0) >= (cy1 - cy0);
+		int mid = (start + end) >>> 1;
+		select(start, end - 1, mid, splitX);
+
+		int left = build(start, mid);
+		nodeRight[node] = nodes;
+		int right = build(mid, end);
+		nodeCount[node] = 0;
+		return 1 + Math.max(left, right);
+	}
+
+	private double center(int n, boolean x) {
+		return x ? minX[n] + maxX[n] : minY[n] + maxY[n];
+	}
+
+	/**
+	 * Partially sorts order[lo..hi] so that order[k] holds the element that
+	 * would be there if it was sorted by its center
+	 */
+
+	private void select(int lo, int hi, int k, boolean x) {
+		while (hi > lo) {
+			double pivot = center(order[(lo + hi) >>> 1], x);
+			int i = lo;
+			int j = hi;
+			while (i <= j) {
+				while (center(order[i], x) < pivot) {
+					i++;
+				}
+				while (center(order[j], x) > pivot) {
+					j--;
+				}
+				if (i <= j) {
+					int tmp = order[i];
+					order[i] = order[j];
+					order[j] = tmp;
+					i++;
+					j--;
+				}
+			}
+			if (k <= j) {
+				hi = j;
+			} else if (k >= i) {
+				lo = i;
+			} else {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Collects all shapes whose bounds overlap or touch the area
+	 *
+	 * @param x      left
+	 * @param y      top
+	 * @param width
+	 * @param height
+	 * @param out    cleared and filled with the sorted indices
+	 */
+
+	public void query(double x, double y, double width, double height, IntList out) {
+		out.clear();
+		if (count == 0) {
+			return;
+		}
+
+		double qx1 = x + width;
+		double qy1 = y + height;
+		int top = 0;
+		stack[top++] = 0;
+
+		while (top > 0) {
+			int node = stack[--top];
+			if (nodeMinX[node] > qx1 || nodeMaxX[node] < x || nodeMinY[node] > qy1 || nodeMaxY[node] < y) {
+				continue;
+			}
+
+			if (nodeRight[node] == -1) {
+				int end = nodeStart[node] + nodeCount[node];
+				for (int i = nodeStart[node]; i < end; i++) {
+					int n = order[i];
+					if (minX[n] <= qx1 && maxX[n] >= x && minY[n] <= qy1 && maxY[n] >= y) {
+						out.add(n);
+					}
+				}
+			} else {
+				stack[top++] = nodeRight[node];
+				stack[top++] = node + 1;
+			}
+		}
+
+		out.sort();
+	}
+
+	/**
+	 * Collects all shapes whose bounds contain or touch the point
+	 *
+	 * @param x
+	 * @param y
+	 * @param out cleared and filled with the sorted indices
+	 */
+
+	public void query(double x, double y, IntList out) {
+		query(x, y, 0, 0, out);
+	}
+
+	public int size() {
+		return count;
+	}
+
+}
@@ -0,0 +1,248 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package game.shape;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Splits a simple polygon into convex parts. The polygon is cut into triangles
+ * by ear clipping, then neighbouring parts are merged as long as the merged
+ * part stays convex (Hertel-Mehlhorn). That is at most four times the minimal
+ * number of parts and fast enough for the polygons of a map when it is loaded.
+ */
+
+public class ConvexDecomposition {
+
+	private ConvexDecomposition() {
+	}
+
+	/**
+	 * @param poly
+	 * @return the polygon itself if it is convex, else its convex parts. A
+	 *         polygon that crosses itself can't be clipped completely, the rest
+	 *         of it is one part that is not convex.
+	 */
+	public static List<Polygon2D> decompose(Polygon2D poly) {
+		double[] xs = poly.xpoints;
+		double[] ys = poly.ypoints;
+
+		// the points counter clockwise in a y up system, without repeated points
+		int[] order = new int[poly.npoints];
+		int n = 0;
+		boolean reverse = signedArea(poly) < 0;
+		for (int i = 0; i < poly.npoints; i++) {
+			int index = reverse ? poly.npoints - 1 - i : i;
+			if (n == 0 || xs[index] != xs[order[n - 1]] || ys[index] != ys[order[n - 1]]) {
+				order[n++] = index;
+			}
+		}
+		while (n > 1 && xs[order[0]] == xs[order[n - 1]] && ys[order[0]] == ys[order[n - 1]]) {
+			n--;
+		}
+		if (n < 3 || isConvex(xs, ys, order, n)) {
+			return Collections.singletonList(poly);
+		}
+
+		List<int[]> parts = triangulate(xs, ys, order, n);
+		merge(xs, ys, parts);
+
+		List<Polygon2D> polygons = new ArrayList<>(parts.size());
+		for (int[] part : parts) {
+			Polygon2D p = new Polygon2D();
+			for (int index : part) {
+				p.addPoint(xs[index], ys[index]);
+			}
+			polygons.add(p);
+		}
+		return polygons;
+	}
+
+	/**
+	 * Ear clipping, an ear is a convex corner whose triangle contains no other
+	 * point. Collinear corners are removed without a triangle.
+	 */
+	private static List<int[]> triangulate(double[] xs, double[] ys, int[] order, int n) {
+		List<int[]> triangles = new ArrayList<>();
+		int[] rest = new int[n];
+		System.arraycopy(order, 0, rest, 0, n);
+		int m = n;
+
+		while (m > 3) {
+			boolean clipped = false;
+			for (int k = 0; k < m && !clipped; k++) {
+				int a = rest[(k + m - 1) % m];
+				int b = rest[k];
+				int c = rest[(k + 1) % m];
+				double cross = cross(xs, ys, a, b, c);
+				if (cross < 0 || (cross > 0 && containsReflex(xs, ys, rest, m, a, b, c))) {
+					continue;
+				}
+				if (cross > 0) {
+					triangles.add(new int[] { a, b, c });
+				}
+				System.arraycopy(rest, k + 1, rest, k, m - k - 1);
+				m--;
+				clipped = true;
+			}
+			if (!clipped) {
+				// the polygon crosses itself
+				break;
+			}
+		}
+
+		if (m > 3) {
+			int[] part = new int[m];
+			System.arraycopy(rest, 0, part, 0, m);
+			triangles.add(part);
+		} else if (m == 3 && cross(xs, ys, rest[0], rest[1], rest[2]) > 0) {
+			triangles.add(new int[] { rest[0], rest[1], rest[2] });
+		}
+		return triangles;
+	}
+
+	/**
+	 * Only reflex points can be inside of an ear, points on its sides count as
+	 * inside
+	 */
+	private static boolean containsReflex(double[] xs, double[] ys, int[] rest, int m, int a, int b, int c) {
+		for (int i = 0; i < m; i++) {
+			int p = rest[i];
+			if (p == a || p == b || p == c || cross(xs, ys, rest[(i + m - 1) % m], p, rest[(i + 1) % m]) >= 0) {
+				continue;
+			}
+			if (samePoint(xs, ys, p, a) || samePoint(xs, ys, p, b) || samePoint(xs, ys, p, c)) {
+				continue;
+			}
+			if (cross(xs, ys, a, b, p) >= 0 && cross(xs, ys, b, c, p) >= 0 && cross(xs, ys, c, a, p) >= 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Merges parts that share a side while the result is convex, until no more
+	 * parts can be merged
+	 */
+	private static void merge(double[] xs, double[] ys, List<int[]> parts) {
+		boolean merged = true;
+		while (merged) {
+			merged = false;
+			for (int i = 0; i < parts.size() && !merged; i++) {
+				for (int j = i + 1; j < parts.size() && !merged; j++) {
+					int[] part = merge(parts.get(i), parts.get(j));
+					if (part != null && isConvex(xs, ys, part, part.length)) {
+						parts.set(i, part);
+						parts.remove(j);
+						merged = true;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the points of both parts without the side they share, null if they
+	 *         don't share one
+	 */
+	private static int[] merge(int[] a, int[] b) {
+		for (int i = 0; i < a.length; i++) {
+			int p = a[i];
+			int q = a[(i + 1) % a.length];
+			for (int j = 0; j < b.length; j++) {
+				if (b[j] != q || b[(j + 1) % b.length] != p) {
+					continue;
+				}
+				// a from q round to p, then b from after p to before q
+				int[] part = new int[a.length + b.length - 2];
+				int n = 0;
+				for (int t = 0; t < a.length; t++) {
+					part[n++] = a[(i + 1 + t) % a.length];
+				}
+				for (int t = 0; t < b.length - 2; t++) {
+					part[n++] = b[(j + 2 + t) % b.length];
+				}
+				return part;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @param poly
+	 * @return true if all corners of the polygon turn the same way and it turns
+	 *         around once, a star that crosses itself turns the same way at
+	 *         every corner too
+	 */
+	public static boolean isConvex(Polygon2D poly) {
+		int n = poly.npoints;
+		boolean left = false;
+		boolean right = false;
+		double turn = 0;
+		for (int i = 0; i < n; i++) {
+			int a = (i + n - 1) % n;
+			int c = (i + 1) % n;
+			double cross = cross(poly.xpoints, poly.ypoints, a, i, c);
+			left |= cross > 0;
+			right |= cross < 0;
+			turn += turn(poly.xpoints, poly.ypoints, a, i, c);
+		}
+		return !(left && right) && Math.abs(turn) < 3 * Math.PI;
+	}
+
+	private static boolean isConvex(double[] xs, double[] ys, int[] order, int n) {
+		double turn = 0;
+		for (int i = 0; i < n; i++) {
+			int a = order[(i + n - 1) % n];
+			int b = order[i];
+			int c = order[(i + 1) % n];
+			if (cross(xs, ys, a, b, c) < 0) {
+				return false;
+			}
+			turn += turn(xs, ys, a, b, c);
+		}
+		return turn < 3 * Math.PI;
+	}
+
+	/**
+	 * @return the angle the direction changes by at b, the sum of a polygon is
+	 *         2 pi for every time it turns around
+	 */
+	private static double turn(double[] xs, double[] ys, int a, int b, int c) {
+		double dot = (xs[b] - xs[a]) * (xs[c] - xs[b]) + (ys[b] - ys[a]) * (ys[c] - ys[b]);
+		return Math.atan2(cross(xs, ys, a, b, c), dot);
+	}
+
+	/**
+	 * @return twice the area, positive if the points are counter clockwise in a
+	 *         y up system
+	 */
+	private static double signedArea(Polygon2D poly) {
+		double area = 0;
+		for (int i = 0, last = poly.npoints - 1; i < poly.npoints; last = i, i++) {
+			area += poly.xpoints[last] * poly.ypoints[i] - poly.xpoints[i] * poly.ypoints[last];
+		}
+		return area;
+	}
+
+	/**
+	 * @return positive if a, b, c turn the same way as the points of a polygon
+	 *         with positive area
+	 */
+	private static double cross(double[] xs, double[] ys, int a, int b, int c) {
+		return (xs[b] - xs[a]) * (ys[c] - ys[b]) - (ys[b] - ys[a]) * (xs[c] - xs[b]);
+	}
+
+	private static boolean samePoint(double[] xs, double[] ys, int a, int b) {
+		return xs[a] == xs[b] && ys[a] == ys[b];
+	}
+
+}
@@ -7,10 +7,9 @@ import java.awt.geom.PathIterator;
 import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 
 
 /**
@@ -32,6 +31,44 @@ public class Polygon2D implements Shape {
 	public double ypoints[];
 	protected Rectangle bounds;
 
+	// the edges as y = slope * x + intercept in the vertical slabs between the
+	// sorted x coordinates of the points, sorted by y in every slab, built when
+	// needed and dropped when the points change
+	private double[] slabX;
+	private int slabCount;
+	private int[] slabStart;
+	private double[] slabSlope;
+	private double[] slabIntercept;
+
+	// the sides packed EDGE_STRIDE values each: the points, the unit normal, the
+	// length and the bounds, built when needed and dropped when the points change
+	private static final int EDGE_STRIDE = 11;
+	private static final int AX = 0;
+	private static final int AY = 1;
+	private static final int BX = 2;
+	private static final int BY = 3;
+	private static final int NX = 4;
+	private static final int NY = 5;
+	private static final int LENGTH = 6;
+	private static final int MIN_X = 7;
+	private static final int MIN_Y = 8;
+	private static final int MAX_X = 9;
+	private static final int MAX_Y = 10;
+	private double[] edges;
+	private List<Line> sides;
+	// the exact bounds, set with the edges
+	private double left;
+	private double top;
+	private double right;
+	private double bottom;
+	// 1 if the normals point out of the polygon, -1 if into it
+	private double outward;
+
+	// the convex parts of the polygon and if they are convex and cover it, the
+	// parts of a polygon that crosses itself don't
+	private List<Polygon2D> convexParts;
+	private boolean convexPartsExact;
+
 	public Polygon2D() {
 		xpoints = new double[4];
 		ypoints = new double[4];
@@ -61,10 +98,22 @@ public class Polygon2D implements Shape {
 	public void reset() {
 		npoints = 0;
 		bounds = null;
+		clearCache();
 	}
 
 	public void invalidate() {
 		bounds = null;
+		clearCache();
+	}
+
+	/**
+	 * Drops the edges and slabs computed from the points
+	 */
+	private void clearCache() {
+		slabX = null;
+		edges = null;
+		sides = null;
+		convexParts = null;
 	}
 
 	public void translate(double deltaX, double deltaY) {
@@ -75,6 +124,7 @@ public class Polygon2D implements Shape {
 		if (bounds != null) {
 			bounds.translate(deltaX, deltaY);
 		}
+		clearCache();
 	}
 	
 	public Polygon2D scale(double scale) {
@@ -88,33 +138,41 @@ public class Polygon2D implements Shape {
 		return polygon;
 	}
 	
+	/**
+	 * @param point
+	 * @param n
+	 * @return the n points of the polygon nearest to the point, the nearest
+	 *         first
+	 */
 	public List<Vector2> nearestEdges(Vector2 point, int n) {
-		List<Vector2> edges = getAllEdges();
-		List<Vector2> nearestEdges = new ArrayList<>();
-		
-		for (int i = 0; i < n; i++) {
-
-			Vector2 nearest = edges.get(0);
-			double min = nearest.distance(point);
-			
-			for (int j = 1; j < edges.size(); j++) {
-				
-				Vector2 edge = edges.get(j);
-				double distance = edge.distance(point);
-				
-				if (distance > min) {
-					nearest = edge;
-					min = edge.distance(point);
-				}
-				
+		n = Math.min(n, npoints);
+		int[] nearest = new int[n];
+		double[] distances = new double[n];
+		int found = 0;
+
+		// insertion into the n nearest found so far
+		for (int i = 0; i < npoints; i++) {
+			double dx = xpoints[i] - point.getX();
+			double dy = ypoints[i] - point.getY();
+			double distance = dx * dx + dy * dy;
+			if (found == n && distance >= distances[n - 1]) {
+				continue;
+			}
+			int k = found < n ? found++ : n - 1;
+			while (k > 0 && distances[k - 1] > distance) {
+				nearest[k] = nearest[k - 1];
+				distances[k] = distances[k - 1];
+				k--;
 			}
-			
-			nearestEdges.add(nearest);
-			edges.remove(nearest);
+			nearest[k] = i;
+			distances[k] = distance;
 		}
 
+		List<Vector2> edges = new ArrayList<>(found);
+		for (int i = 0; i < found; i++) {
+			edges.add(new Vector2(xpoints[nearest[i]], ypoints[nearest[i]]));
+		}
 		return edges;
-		
 	}
 	
 	public Vector2 getNextPointOnBounds(Vector2 p) {
@@ -122,64 +180,526 @@ public class Polygon2D implements Shape {
 		return line.getNormalContactPoint(p);
 	}
 	
+	/**
+	 * @return the sides from every point to the next, created once and shared
+	 *         until the points change
+	 */
 	public List<Line> getAllSides() {
-		List<Vector2> edges = getAllEdges();
-		List<Line> lines = new ArrayList<>();
-		
-		for (int i = 0; i < edges.size(); i++) {
-
-			int next = i + 1;
-			if (next >= edges.size()) {
-				next = 0;
+		if (sides == null) {
+			Line[] lines = new Line[npoints];
+			for (int i = 0; i < npoints; i++) {
+				int next = i + 1 < npoints ? i + 1 : 0;
+				lines[i] = new Line(new Vector2(xpoints[i], ypoints[i]), new Vector2(xpoints[next], ypoints[next]));
 			}
-			
-			Line line = new Line(edges.get(i), edges.get(next));
-			lines.add(line);
-			
+			sides = Collections.unmodifiableList(Arrays.asList(lines));
 		}
-		
-		return lines;
-		
+		return sides;
 	}
 	
+	/**
+	 * @param p
+	 * @return the side whose line is nearest to the point, see
+	 *         {@link #getNearestSide(double, double)}
+	 */
 	public Line getNearestSideToPoint(Vector2 p) {
-		List<Vector2> edges = getAllEdges();
-		List<Line> sides = new ArrayList<>();
-		Map<Double,Line> distmap = new HashMap<>();
-		
-		for (int i = 0; i < edges.size(); i++) {
+		int side = getNearestSide(p.getX(), p.getY());
+		return side >= 0 ? getAllSides().get(side) : null;
+	}
 
-			int next = i + 1;
-			if (next >= edges.size()) {
-				next = 0;
+	/**
+	 * Measures the distance to the line through every side, not to the side
+	 * itself, and doesn't allocate.
+	 * 
+	 * @param x
+	 * @param y
+	 * @return the index of the side nearest to the point, the last one if sides
+	 *         are equally near, -1 if the polygon has no sides
+	 */
+	public int getNearestSide(double x, double y) {
+		double[] e = getEdges();
+		int nearest = -1;
+		double min = Double.POSITIVE_INFINITY;
+		for (int i = 0, o = 0; i < npoints; i++, o += EDGE_STRIDE) {
+			double distance = Math.abs((x - e[o + AX]) * e[o + NX] + (y - e[o + AY]) * e[o + NY]);
+			if (distance <= min) {
+				min = distance;
+				nearest = i;
 			}
-			
-			Line line = new Line(edges.get(i), edges.get(next));
-			sides.add(line);
-			
-			//calcualte distance between point and line
-			double distance = line.getDistanceBetweenPointAndLine(p);
-			distmap.put(distance, line);
-			
-		}
-
-		//search for the minimum disctance and return line
-		Iterator<Double> it = distmap.keySet().iterator();
-		double min = it.next();
-		
-		while (it.hasNext()) {
-			double dist = it.next();
-			Line line = distmap.get(dist);
-			
-			if (dist < min) {
-				min = dist;
+		}
+		return nearest;
+	}
+
+	/**
+	 * Projects the point onto the line through the side
+	 * 
+	 * @param side
+	 * @param x
+	 * @param y
+	 * @param out  the projected point
+	 * @return false if the projection is not between the points of the side,
+	 *         out is not changed then
+	 */
+	public boolean getNormalContactPoint(int side, double x, double y, Vector2 out) {
+		double[] e = getEdges();
+		int o = side * EDGE_STRIDE;
+		double length = e[o + LENGTH];
+		// the direction is the normal turned back
+		double dx = -e[o + NY];
+		double dy = e[o + NX];
+		double t = (x - e[o + AX]) * dx + (y - e[o + AY]) * dy;
+		if (!(t >= 0 && t <= length)) {
+			return false;
+		}
+		out.set(e[o + AX] + dx * t, e[o + AY] + dy * t);
+		return true;
+	}
+
+	public int getSideCount() {
+		return npoints;
+	}
+
+	/**
+	 * @param side
+	 * @param out  the unit normal of the side, it points out of a polygon whose
+	 *             points are clockwise on screen
+	 */
+	public void getSideNormal(int side, Vector2 out) {
+		double[] e = getEdges();
+		out.set(e[side * EDGE_STRIDE + NX], e[side * EDGE_STRIDE + NY]);
+	}
+
+	public double getSideLength(int side) {
+		return getEdges()[side * EDGE_STRIDE + LENGTH];
+	}
+
+	/**
+	 * Tests the bounds of the side against a rectangle, a cheap test before
+	 * looking at the side itself
+	 */
+	public boolean sideBoundsIntersect(int side, double x, double y, double w, double h) {
+		double[] e = getEdges();
+		int o = side * EDGE_STRIDE;
+		return e[o + MAX_X] >= x && e[o + MIN_X] <= x + w && e[o + MAX_Y] >= y && e[o + MIN_Y] <= y + h;
+	}
+
+	private double[] getEdges() {
+		if (edges == null) {
+			double[] e = new double[npoints * EDGE_STRIDE];
+			left = Double.POSITIVE_INFINITY;
+			top = Double.POSITIVE_INFINITY;
+			right = Double.NEGATIVE_INFINITY;
+			bottom = Double.NEGATIVE_INFINITY;
+			for (int i = 0, o = 0; i < npoints; i++, o += EDGE_STRIDE) {
+				int next = i + 1 < npoints ? i + 1 : 0;
+				double ax = xpoints[i];
+				double ay = ypoints[i];
+				double bx = xpoints[next];
+				double by = ypoints[next];
+				double length = Math.sqrt((bx - ax) * (bx - ax) + (by - ay) * (by - ay));
+				e[o + AX] = ax;
+				e[o + AY] = ay;
+				e[o + BX] = bx;
+				e[o + BY] = by;
+				// the same direction as Line.getNormalAxis, NaN for sides without length
+				e[o + NX] = (by - ay) / length;
+				e[o + NY] = (ax - bx) / length;
+				e[o + LENGTH] = length;
+				e[o + MIN_X] = Math.min(ax, bx);
+				e[o + MIN_Y] = Math.min(ay, by);
+				e[o + MAX_X] = Math.max(ax, bx);
+				e[o + MAX_Y] = Math.max(ay, by);
+				left = Math.min(left, ax);
+				top = Math.min(top, ay);
+				right = Math.max(right, ax);
+				bottom = Math.max(bottom, ay);
 			}
-			
+			outward = area(e) < 0 ? -1 : 1;
+			edges = e;
 		}
-		
-		return distmap.get(min);
+		return edges;
 	}
-	
+
+	/**
+	 * @return twice the area, positive if the points are clockwise on screen
+	 */
+	private double area(double[] e) {
+		double area = 0;
+		for (int i = 0, o = 0; i < npoints; i++, o += EDGE_STRIDE) {
+			area += e[o + AX] * e[o + BY] - e[o + BX] * e[o + AY];
+		}
+		return area;
+	}
+
+	/**
+	 * @return the polygon split into convex polygons, see
+	 *         {@link ConvexDecomposition}, computed once until the points change
+	 */
+	public List<Polygon2D> getConvexParts() {
+		if (convexParts == null) {
+			List<Polygon2D> parts = ConvexDecomposition.decompose(this);
+			// the parts of a polygon that crosses itself don't cover the same area
+			boolean exact = true;
+			double area = 0;
+			for (Polygon2D part : parts) {
+				exact &= ConvexDecomposition.isConvex(part);
+				area += Math.abs(part.area(part.getEdges()));
+			}
+			double whole = Math.abs(area(getEdges()));
+			convexPartsExact = exact && Math.abs(area - whole) <= 1e-9 * Math.max(1, whole);
+			convexParts = parts;
+		}
+		return convexParts;
+	}
+
+	/**
+	 * Separating axis test of a rectangle against the convex parts of the
+	 * polygon. The axes are the sides of the rectangle and the normals of the
+	 * sides of a part, the axis with the least overlap is the one to push the
+	 * rectangle out along. A convex part is behind all of its sides, so only
+	 * how far the rectangle reaches behind a side is measured, without
+	 * projecting the points of the part. Nothing is allocated.
+	 * 
+	 * @param x
+	 * @param y
+	 * @param w
+	 * @param h
+	 * @param normal the unit vector to move the rectangle by the depth to get it
+	 *               out of the deepest part, not changed if they don't overlap
+	 * @return the penetration depth into the part the rectangle is deepest in, 0
+	 *         if it doesn't overlap the polygon. Also 0 for a polygon that
+	 *         crosses itself and can't be split into convex parts exactly, it
+	 *         has no penetration vector, {@link #intersects(double, double, double, double)}
+	 *         still finds the overlap with the exact test.
+	 */
+	public double getPenetration(double x, double y, double w, double h, Vector2 normal) {
+		double depth = 0;
+		List<Polygon2D> parts = getConvexParts();
+		if (!convexPartsExact) {
+			return 0;
+		}
+		for (int i = 0; i < parts.size(); i++) {
+			depth = Math.max(depth, parts.get(i).separate(x, y, w, h, depth, normal));
+		}
+		return depth;
+	}
+
+	/**
+	 * The separating axis test of {@link #getPenetration} for a moving
+	 * rectangle, the time it enters a convex part is when it starts to overlap
+	 * on the last of the axes.
+	 * 
+	 * @param x      the rectangle at the start
+	 * @param y
+	 * @param w
+	 * @param h
+	 * @param dx     how far the rectangle moves
+	 * @param dy
+	 * @param normal the normal of the side the rectangle hits, only set on a hit,
+	 *               can be null
+	 * @return the part of the move in [0, 1] after which the rectangle touches
+	 *         the polygon, NaN if it doesn't or overlaps it at the start already.
+	 *         Also NaN if the convex parts are not exact, like
+	 *         {@link #getPenetration}
+	 */
+	public double sweep(double x, double y, double w, double h, double dx, double dy, Vector2 normal) {
+		double first = Double.NaN;
+		List<Polygon2D> parts = getConvexParts();
+		if (!convexPartsExact) {
+			return first;
+		}
+		for (int i = 0; i < parts.size(); i++) {
+			double t = parts.get(i).sweepConvex(x, y, w, h, dx, dy, first, normal);
+			if (t < first || first != first) {
+				first = t;
+			}
+		}
+		return first;
+	}
+
+	/**
+	 * @param first the normal is only set if the time is before this
+	 * @return the time the rectangle enters this convex polygon, NaN if it
+	 *         doesn't
+	 */
+	private double sweepConvex(double x, double y, double w, double h, double dx, double dy, double first, Vector2 normal) {
+		double[] e = getEdges();
+		if (Math.max(x, x + dx) + w <= left || Math.min(x, x + dx) >= right || Math.max(y, y + dy) + h <= top
+				|| Math.min(y, y + dy) >= bottom) {
+			return Double.NaN;
+		}
+
+		double enter = Double.NEGATIVE_INFINITY;
+		double exit = Double.POSITIVE_INFINITY;
+		double nx = 0;
+		double ny = 0;
+
+		// the axes of the rectangle
+		if (dx == 0) {
+			if (x + w <= left || x >= right) {
+				return Double.NaN;
+			}
+		} else {
+			enter = ((dx > 0 ? left : right) - (dx > 0 ? x + w : x)) / dx;
+			exit = ((dx > 0 ? right : left) - (dx > 0 ? x : x + w)) / dx;
+			nx = dx > 0 ? -1 : 1;
+		}
+		if (dy == 0) {
+			if (y + h <= top || y >= bottom) {
+				return Double.NaN;
+			}
+		} else {
+			double near = ((dy > 0 ? top : bottom) - (dy > 0 ? y + h : y)) / dy;
+			if (near > enter) {
+				enter = near;
+				nx = 0;
+				ny = dy > 0 ? -1 : 1;
+			}
+			exit = Math.min(exit, ((dy > 0 ? bottom : top) - (dy > 0 ? y : y + h)) / dy);
+		}
+
+		// the sides, the rectangle overlaps while it reaches behind a side
+		double cx = x + w / 2;
+		double cy = y + h / 2;
+		for (int i = 0, o = 0; i < npoints; i++, o += EDGE_STRIDE) {
+			double ax = e[o + NX] * outward;
+			double ay = e[o + NY] * outward;
+			if (ax != ax || ax == 0 || ay == 0) {
+				continue;
+			}
+			double radius = w / 2 * Math.abs(ax) + h / 2 * Math.abs(ay);
+			double behind = e[o + AX] * ax + e[o + AY] * ay - (cx * ax + cy * ay - radius);
+			double speed = -(dx * ax + dy * ay);
+			if (speed == 0) {
+				if (behind <= 0) {
+					return Double.NaN;
+				}
+			} else if (speed > 0) {
+				// moves behind the side
+				double t = -behind / speed;
+				if (t > enter) {
+					enter = t;
+					nx = ax;
+					ny = ay;
+				}
+			} else {
+				exit = Math.min(exit, -behind / speed);
+			}
+		}
+
+		if (enter >= exit || enter < 0 || enter > 1) {
+			return Double.NaN;
+		}
+		if (normal != null && !(enter >= first)) {
+			normal.set(nx, ny);
+		}
+		return enter;
+	}
+
+	/**
+	 * The separating axis test of a rectangle against this polygon, which has to
+	 * be convex
+	 * 
+	 * @param deepest the normal is only set if the depth is greater than this
+	 * @return the penetration depth, 0 if they don't overlap
+	 */
+	private double separate(double x, double y, double w, double h, double deepest, Vector2 normal) {
+		double[] e = getEdges();
+		if (right <= x || left >= x + w || bottom <= y || top >= y + h) {
+			return 0;
+		}
+
+		// the axes of the rectangle, the bounds are the projection on them
+		double depth = right - x;
+		double nx = 1;
+		double ny = 0;
+		if (x + w - left < depth) {
+			depth = x + w - left;
+			nx = -1;
+		}
+		if (bottom - y < depth) {
+			depth = bottom - y;
+			nx = 0;
+			ny = 1;
+		}
+		if (y + h - top < depth) {
+			depth = y + h - top;
+			nx = 0;
+			ny = -1;
+		}
+
+		double cx = x + w / 2;
+		double cy = y + h / 2;
+		for (int i = 0, o = 0; i < npoints; i++, o += EDGE_STRIDE) {
+			double ax = e[o + NX] * outward;
+			double ay = e[o + NY] * outward;
+			if (ax != ax || ax == 0 || ay == 0) {
+				// no length, or the same axis as a side of the rectangle
+				continue;
+			}
+			double radius = w / 2 * Math.abs(ax) + h / 2 * Math.abs(ay);
+			double behind = e[o + AX] * ax + e[o + AY] * ay - (cx * ax + cy * ay - radius);
+			if (behind <= 0) {
+				return 0;
+			}
+			if (behind < depth) {
+				depth = behind;
+				nx = ax;
+				ny = ay;
+			}
+		}
+
+		if (depth > deepest) {
+			normal.set(nx, ny);
+		}
+		return depth;
+	}
+
+	/**
+	 * Finds where a point that moves down from (x, y) crosses the outline next,
+	 * a point inside the polygon leaves it there. The slab of x is found with a
+	 * binary search and the edges in it with another one, so it takes
+	 * O(log n) instead of testing contains for every step down.
+	 * 
+	 * @param x
+	 * @param y
+	 * @return the y of the next edge below y at x, NaN if there is none
+	 */
+	public double getExitBelow(double x, double y) {
+		if (npoints <= 2) {
+			return Double.NaN;
+		}
+		if (slabX == null) {
+			buildSlabs();
+		}
+		int s = Arrays.binarySearch(slabX, 0, slabCount + 1, x);
+		if (s < 0) {
+			s = -s - 2;
+		}
+		if (s < 0 || s >= slabCount) {
+			return Double.NaN;
+		}
+
+		// first edge of the slab that is below y
+		int lo = slabStart[s];
+		int hi = slabStart[s + 1];
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (slabSlope[mid] * x + slabIntercept[mid] > y) {
+				hi = mid;
+			} else {
+				lo = mid + 1;
+			}
+		}
+		if (lo == slabStart[s + 1]) {
+			return Double.NaN;
+		}
+		return slabSlope[lo] * x + slabIntercept[lo];
+	}
+
+	/**
+	 * Counts the steps a point inside the polygon has to move down until it is
+	 * outside, the same as moving it step by step while contains is true. The
+	 * count is computed from {@link #getExitBelow(double, double)} and the bottom
+	 * of the bounds, contains is false below them. Contains only settles the step
+	 * that ends on the edge, where rounding decides if the point is in or out.
+	 * 
+	 * @param x
+	 * @param y
+	 * @param step
+	 * @return at least 1
+	 */
+	public int getStepsOut(double x, double y, double step) {
+		if (npoints <= 2) {
+			return 1;
+		}
+		if (bounds == null) {
+			calculateBounds(xpoints, ypoints, npoints);
+		}
+		int steps = 1;
+		double exit = getExitBelow(x, y);
+		if (!(exit <= bounds.getMaxY())) {
+			exit = bounds.getMaxY();
+		}
+		if (exit > y) {
+			steps = Math.max(1, (int) Math.ceil((exit - y) / step));
+			if (steps > 1 && exit - (y + (steps - 1) * step) < 1e-9 && !contains(x, y + (steps - 1) * step)) {
+				steps--;
+			}
+		}
+		while (contains(x, y + steps * step)) {
+			steps++;
+		}
+		return steps;
+	}
+
+	/**
+	 * Splits the polygon at the x coordinates of its points into vertical slabs
+	 * and stores the edges that span each slab as line equations. Edges of a
+	 * simple polygon don't cross inside of a slab, so they are ordered by y.
+	 */
+	private void buildSlabs() {
+		double[] xs = Arrays.copyOf(xpoints, npoints);
+		Arrays.sort(xs);
+		int unique = 0;
+		for (int i = 0; i < npoints; i++) {
+			if (i == 0 || xs[i] != xs[unique - 1]) {
+				xs[unique++] = xs[i];
+			}
+		}
+		int slabs = Math.max(0, unique - 1);
+
+		// every edge spans the slabs between its end points
+		int entries = 0;
+		for (int i = 0, last = npoints - 1; i < npoints; last = i, i++) {
+			if (xpoints[i] != xpoints[last]) {
+				entries += Math.abs(Arrays.binarySearch(xs, 0, unique, xpoints[i]) - Arrays.binarySearch(xs, 0, unique, xpoints[last]));
+			}
+		}
+
+		int[] start = new int[slabs + 1];
+		double[] slope = new double[entries];
+		double[] intercept = new double[entries];
+		double[] order = new double[entries];
+		int n = 0;
+		for (int s = 0; s < slabs; s++) {
+			start[s] = n;
+			double x0 = xs[s];
+			double x1 = xs[s + 1];
+			double mid = (x0 + x1) / 2;
+			for (int i = 0, last = npoints - 1; i < npoints; last = i, i++) {
+				double ax = xpoints[last];
+				double ay = ypoints[last];
+				double bx = xpoints[i];
+				double by = ypoints[i];
+				if (Math.min(ax, bx) > x0 || Math.max(ax, bx) < x1) {
+					continue;
+				}
+				double m = (by - ay) / (bx - ax);
+				double c = ay - m * ax;
+				double y = m * mid + c;
+
+				// insertion sort, there are only a few edges in a slab
+				int k = n++;
+				while (k > start[s] && order[k - 1] > y) {
+					slope[k] = slope[k - 1];
+					intercept[k] = intercept[k - 1];
+					order[k] = order[k - 1];
+					k--;
+				}
+				slope[k] = m;
+				intercept[k] = c;
+				order[k] = y;
+			}
+		}
+		start[slabs] = n;
+
+		slabCount = slabs;
+		slabStart = start;
+		slabSlope = slope;
+		slabIntercept = intercept;
+		slabX = xs;
+	}
+
 	public List<Vector2> getAllEdges() {
 		List<Vector2> edges = new ArrayList<>();
 		
@@ -244,6 +764,7 @@ public class Polygon2D implements Shape {
 		if (bounds != null) {
 			updateBounds(x, y);
 		}
+		clearCache();
 	}
 
 	public java.awt.Rectangle getBounds() {
@@ -387,12 +908,25 @@ public class Polygon2D implements Shape {
 	 * @since 1.2
 	 */
 	public boolean intersects(double x, double y, double w, double h) {
-		if (npoints <= 0 || !getBounds().intersects(x, y, w, h)) {
+		if (npoints <= 2 || w <= 0 || h <= 0) {
+			return false;
+		}
+		getEdges();
+		if (right <= x || left >= x + w || bottom <= y || top >= y + h) {
 			return false;
 		}
 
-		Crossings cross = getCrossings(x, y, x + w, y + h);
-		return (cross == null || !cross.isEmpty());
+		List<Polygon2D> parts = getConvexParts();
+		if (!convexPartsExact) {
+			Crossings cross = getCrossings(x, y, x + w, y + h);
+			return (cross == null || !cross.isEmpty());
+		}
+		for (int i = 0; i < parts.size(); i++) {
+			if (parts.get(i).separate(x, y, w, h, Double.POSITIVE_INFINITY, null) > 0) {
+				return true;
+			}
+		}
+		return false;
 	}
 
 	/**
@@ -45,6 +45,18 @@ public class Rectangle extends Rectangle2D.Double implements Drawable {
         return new Vector2(x + width / 2, y + height / 2);
     }
 
+    /**
+     * Writes the center into out instead of creating a new Vector
+     * 
+     * @param out
+     * @return out
+     */
+    
+    public Vector2 getCenter(Vector2 out) {
+    	out.set(x + width / 2, y + height / 2);
+    	return out;
+    }
+
     public void setCenter(Vector2 center) {
     	this.x = center.getX() - width / 2;
     	this.y = center.getY() - height / 2;
@@ -160,6 +172,68 @@ public class Rectangle extends Rectangle2D.Double implements Drawable {
 
     }
 
+    /**
+     * The slab test of collRay for a moving box: the ray of the top left corner
+     * of the box against this rectangle grown by the size of the box. Nothing
+     * is allocated.
+     * 
+     * @param x      the box at the start
+     * @param y
+     * @param w
+     * @param h
+     * @param dx     how far the box moves
+     * @param dy
+     * @param normal the side of this rectangle the box hits, only set on a hit,
+     *               can be null
+     * @return the part of the move in [0, 1] after which the box touches this
+     *         rectangle, NaN if it doesn't or overlaps it at the start already
+     */
+    public double sweep(double x, double y, double w, double h, double dx, double dy, Vector2 normal) {
+        double enter = java.lang.Double.NEGATIVE_INFINITY;
+        double exit = java.lang.Double.POSITIVE_INFINITY;
+        double nx = 0;
+        double ny = 0;
+
+        double minX = this.x - w;
+        double maxX = this.x + this.width;
+        if (dx == 0) {
+            if (x <= minX || x >= maxX) {
+                return java.lang.Double.NaN;
+            }
+        } else {
+            double near = ((dx > 0 ? minX : maxX) - x) / dx;
+            double far = ((dx > 0 ? maxX : minX) - x) / dx;
+            enter = near;
+            nx = dx > 0 ? -1 : 1;
+            exit = far;
+        }
+
+        double minY = this.y - h;
+        double maxY = this.y + this.height;
+        if (dy == 0) {
+            if (y <= minY || y >= maxY) {
+                return java.lang.Double.NaN;
+            }
+        } else {
+            double near = ((dy > 0 ? minY : maxY) - y) / dy;
+            double far = ((dy > 0 ? maxY : minY) - y) / dy;
+            if (near > enter) {
+                enter = near;
+                nx = 0;
+                ny = dy > 0 ? -1 : 1;
+            }
+            exit = Math.min(exit, far);
+        }
+
+        if (enter >= exit || enter < 0 || enter > 1) {
+            return java.lang.Double.NaN;
+        }
+        if (normal != null) {
+            normal.set(nx, ny);
+        }
+        return enter;
+    }
+
     public double getLeft() {
         return this.getX();
     }
@@ -279,6 +279,170 @@ public class Vector2 extends Point2D.Double {
 		return new Vector2(this.x + v.x, this.y + v.y);
 	}
 
+	/**
+	 * Adds x and y
+	 * 
+	 * @param x
+	 * @param y
+	 * @return the new Vector
+	 */
+
+	public Vector2 add(double x, double y) {
+		return new Vector2(this.x + x, this.y + y);
+	}
+
+	//-------------------------------------------------------------------------------------------------------
+	//                           In place variants, change this Vector and return it
+	//-------------------------------------------------------------------------------------------------------
+
+	/**
+	 * Adds the Vector to this Vector
+	 * 
+	 * @param v
+	 * @return this
+	 */
+
+	public Vector2 addLocal(Vector2 v) {
+		this.x += v.x;
+		this.y += v.y;
+		return this;
+	}
+
+	/**
+	 * Adds x and y to this Vector
+	 * 
+	 * @param x
+	 * @param y
+	 * @return this
+	 */
+
+	public Vector2 addLocal(double x, double y) {
+		this.x += x;
+		this.y += y;
+		return this;
+	}
+
+	/**
+	 * Adds v * n to this Vector
+	 * 
+	 * @param v
+	 * @param n
+	 * @return this
+	 */
+
+	public Vector2 addScaledLocal(Vector2 v, double n) {
+		this.x += v.x * n;
+		this.y += v.y * n;
+		return this;
+	}
+
+	/**
+	 * Subtracts the Vector from this Vector
+	 * 
+	 * @param v
+	 * @return this
+	 */
+
+	public Vector2 subLocal(Vector2 v) {
+		this.x -= v.x;
+		this.y -= v.y;
+		return this;
+	}
+
+	/**
+	 * Subtracts x and y from this Vector
+	 * 
+	 * @param x
+	 * @param y
+	 * @return this
+	 */
+
+	public Vector2 subLocal(double x, double y) {
+		this.x -= x;
+		this.y -= y;
+		return this;
+	}
+
+	/**
+	 * Multiplies x and y by n
+	 * 
+	 * @param n
+	 * @return this
+	 */
+
+	public Vector2 mulLocal(double n) {
+		this.x *= n;
+		this.y *= n;
+		return this;
+	}
+
+	/**
+	 * Multiplies <b>this.x * v.x</b> and <b>this.y * v.y</b>
+	 * 
+	 * @param v
+	 * @return this
+	 */
+
+	public Vector2 mulLocal(Vector2 v) {
+		this.x *= v.x;
+		this.y *= v.y;
+		return this;
+	}
+
+	/**
+	 * Divides x and y by n
+	 * 
+	 * @param n
+	 * @return this
+	 */
+
+	public Vector2 divLocal(double n) {
+		this.x /= n;
+		this.y /= n;
+		return this;
+	}
+
+	/**
+	 * Rotates this Vector by 180 degrees
+	 * 
+	 * @return this
+	 */
+
+	public Vector2 negateLocal() {
+		this.x = -x;
+		this.y = -y;
+		return this;
+	}
+
+	/**
+	 * Scales this Vector to length 1, a zero Vector stays zero
+	 * 
+	 * @return this
+	 */
+
+	public Vector2 unitvectLocal() {
+		double length = length();
+		if (length > 0) {
+			this.x /= length;
+			this.y /= length;
+		}
+		return this;
+	}
+
+	/**
+	 * Sets this Vector to <b>b - a</b>
+	 * 
+	 * @param a
+	 * @param b
+	 * @return this
+	 */
+
+	public Vector2 setDiff(Vector2 a, Vector2 b) {
+		this.x = b.x - a.x;
+		this.y = b.y - a.y;
+		return this;
+	}
+
 	/**
 	 * Tests if the Vectors are the same
 	 * 
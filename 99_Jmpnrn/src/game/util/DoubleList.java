@@ -0,0 +1,78 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package game.util;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive doubles
+ */
+
+public class DoubleList {
+
+	private double[] data;
+	private int size;
+
+	public DoubleList() {
+		this(16);
+	}
+
+	public DoubleList(int capacity) {
+		this.data = new double[Math.max(1, capacity)];
+		this.size = 0;
+	}
+
+	/**
+	 * Wraps the array without copying it
+	 *
+	 * @param data
+	 */
+
+	public DoubleList(double[] data) {
+		this.data = data.length > 0 ? data : new double[1];
+		this.size = data.length;
+	}
+
+	public void add(double value) {
+		if (size == data.length) {
+			data = Arrays.copyOf(data, size * 2);
+		}
+		data[size++] = value;
+	}
+
+	public double get(int index) {
+		return data[index];
+	}
+
+	public void set(int index, double value) {
+		data[index] = value;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void clear() {
+		size = 0;
+	}
+
+	public double[] toArray() {
+		return Arrays.copyOf(data, size);
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(toArray());
+	}
+
+}
@@ -0,0 +1,99 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package game.util;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive ints, used where an ArrayList&lt;Integer&gt; would
+ * box on every tick
+ */
+
+public class IntList {
+
+	private int[] data;
+	private int size;
+
+	public IntList() {
+		this(16);
+	}
+
+	public IntList(int capacity) {
+		this.data = new int[Math.max(1, capacity)];
+		this.size = 0;
+	}
+
+	public void add(int value) {
+		if (size == data.length) {
+			data = Arrays.copyOf(data, size * 2);
+		}
+		data[size++] = value;
+	}
+
+	public int get(int index) {
+		return data[index];
+	}
+
+	public void set(int index, int value) {
+		data[index] = value;
+	}
+
+	/**
+	 * Removes the first occurrence of value by swapping the last element into its
+	 * place, the order of the list is not kept
+	 *
+	 * @param value
+	 * @return if the value was found
+	 */
+
+	public boolean removeValue(int value) {
+		for (int i = 0; i < size; i++) {
+			if (data[i] == value) {
+				data[i] = data[--size];
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public boolean contains(int value) {
+		for (int i = 0; i < size; i++) {
+			if (data[i] == value) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public void sort() {
+		Arrays.sort(data, 0, size);
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void clear() {
+		size = 0;
+	}
+
+	public int[] toArray() {
+		return Arrays.copyOf(data, size);
+	}
+
+	@Override
+	public String toString() {
+		return Arrays.toString(Arrays.copyOf(data, size));
+	}
+
+}
@@ -0,0 +1,73 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package game.util;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Lock free handoff of the latest value from one writer thread to one reader
+ * thread. The writer fills its buffer and publishes it, the reader always gets
+ * the most recently published buffer. Neither thread ever waits for the other
+ * and a buffer is never written while it is read.
+ *
+ * @param <T>
+ */
+
+public class TripleBuffer<T> {
+
+	private static final int INDEX = 3;
+	private static final int FRESH = 4;
+
+	private final Object[] buffers;
+	private final AtomicInteger middle;
+	private int write;
+	private int read;
+
+	public TripleBuffer(Supplier<T> factory) {
+		this.buffers = new Object[] { factory.get(), factory.get(), factory.get() };
+		this.write = 0;
+		this.middle = new AtomicInteger(1);
+		this.read = 2;
+	}
+
+	/**
+	 * @return the buffer owned by the writer, only call from the writer thread
+	 */
+
+	@SuppressWarnings("unchecked")
+	public T getWriteBuffer() {
+		return (T) buffers[write];
+	}
+
+	/**
+	 * Hands the write buffer over to the reader and takes back the buffer that
+	 * was waiting in the middle
+	 */
+
+	public void publish() {
+		write = middle.getAndSet(write | FRESH) & INDEX;
+	}
+
+	/**
+	 * Swaps in the latest published buffer if there is one, only call from the
+	 * reader thread
+	 *
+	 * @return the buffer owned by the reader
+	 */
+
+	@SuppressWarnings("unchecked")
+	public T acquire() {
+		if ((middle.get() & FRESH) != 0) {
+			read = middle.getAndSet(read) & INDEX;
+		}
+		return (T) buffers[read];
+	}
+
+}
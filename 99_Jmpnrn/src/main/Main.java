@@ -14,6 +14,10 @@ public class Main {
 
     public static void main(String[] args) {
         Game game = new Game();
+        if (args.length > 0) {
+            // host:port of the server to play on
+            game.setServer(args[0]);
+        }
         game.start();
     }
 
@@ -0,0 +1,32 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package net;
+
+import net.packet.Packet;
+
+/**
+ * One end of a connection packets can be sent to, either a blocking
+ * {@link net.client.Client} or a connection of the NIO server
+ */
+
+public interface Connection {
+
+	/**
+	 * Sends the packet with the client id of this connection
+	 *
+	 * @param p
+	 */
+
+	public void send(Packet p);
+
+	public void setClientId(int id);
+
+	public int getClientId();
+
+}
@@ -8,21 +8,42 @@
  *******************************************************/
 package net;
 
-import net.packet.Packet;
+import game.level.World;
 import net.server.Server;
+import net.server.ServerSimulation;
 
 public class GameServer {
 
+	public static final int PORT = 4444;
+	public static final int WORLD_WIDTH = 100;
+	public static final int WORLD_HEIGHT = 50;
+
+	/**
+	 * @param args the name of the map to run, without a map the world is empty
+	 */
+	
 	public static void main(String[] args) {
 		
-		Server server = new Server(4444);
+		Server server = new Server(PORT, 2);
+		ServerSimulation simulation = new ServerSimulation(server, createWorld(args.length > 0 ? args[0] : null));
+		simulation.run();
 		
-		while (true) {
-			Packet p = server.getPackets().next();
-			
+	}
+	
+	/**
+	 * @param map the name of the map, null for an empty world
+	 * @return the headless world the server simulates
+	 */
+	
+	public static World createWorld(String map) {
+		if (map == null) {
+			return new World(null, WORLD_WIDTH, WORLD_HEIGHT);
 		}
-		
-		
+		World world = new World(null);
+		world.setHeadless(true);
+		world.load(map);
+		world.init();
+		return world;
 	}
 	
 }
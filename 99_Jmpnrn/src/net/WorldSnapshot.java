@@ -0,0 +1,395 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package net;
+
+import static net.packet.ByteStreamUtil.getVarInt;
+import static net.packet.ByteStreamUtil.getZigZag;
+import static net.packet.ByteStreamUtil.putVarInt;
+import static net.packet.ByteStreamUtil.putZigZag;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import game.entity.ActorType;
+import game.entity.GameObject;
+import game.util.IntList;
+
+/**
+ * The type, position and size of all actors of a world at one tick, sorted by
+ * network id. Positions and sizes are stored in steps of {@link #QUANTUM}
+ * tiles, so a client which applies the deltas ends up with exactly the state of
+ * the server.<br>
+ * <br>
+ * A delta against a base snapshot contains the ids of the removed actors, the
+ * type, position and size of new actors and the movement of actors that moved.
+ * An actor whose type or size changed is sent like a new one. Actors that
+ * didn't change cost nothing.
+ */
+
+public class WorldSnapshot {
+
+	public static final double QUANTUM = 1.0 / 1024;
+
+	private int tick;
+	private int size;
+	private int[] ids;
+	private int[] types;
+	private int[] x;
+	private int[] y;
+	private int[] w;
+	private int[] h;
+	private IntList removed;
+	private IntList added;
+	private IntList moved;
+
+	public WorldSnapshot() {
+		this(64);
+	}
+
+	public WorldSnapshot(int capacity) {
+		capacity = Math.max(1, capacity);
+		this.tick = -1;
+		this.ids = new int[capacity];
+		this.types = new int[capacity];
+		this.x = new int[capacity];
+		this.y = new int[capacity];
+		this.w = new int[capacity];
+		this.h = new int[capacity];
+		this.removed = new IntList();
+		this.added = new IntList();
+		this.moved = new IntList();
+	}
+
+	/**
+	 * Replaces the content with the actors that have a network id
+	 *
+	 * @param tick
+	 * @param actors
+	 */
+
+	public void capture(int tick, List<GameObject> actors) {
+		clear(tick);
+		for (int i = 0; i < actors.size(); i++) {
+			GameObject g = actors.get(i);
+			if (g.getNetworkId() != 0 && !g.isRemove()) {
+				add(g.getNetworkId(), g.getActorType().ordinal(), quantize(g.getX()), quantize(g.getY()), quantize(g.getWidth()), quantize(g.getHeight()));
+			}
+		}
+		sort();
+	}
+
+	public void clear(int tick) {
+		this.tick = tick;
+		this.size = 0;
+	}
+
+	/**
+	 * Adds an actor, ids must be added in ascending order
+	 *
+	 * @param id
+	 * @param type the ordinal of the {@link ActorType}
+	 * @param x    quantized
+	 * @param y    quantized
+	 * @param w    quantized
+	 * @param h    quantized
+	 */
+
+	public void add(int id, int type, int x, int y, int w, int h) {
+		if (size == ids.length) {
+			int capacity = size * 2;
+			ids = Arrays.copyOf(ids, capacity);
+			types = Arrays.copyOf(types, capacity);
+			this.x = Arrays.copyOf(this.x, capacity);
+			this.y = Arrays.copyOf(this.y, capacity);
+			this.w = Arrays.copyOf(this.w, capacity);
+			this.h = Arrays.copyOf(this.h, capacity);
+		}
+		ids[size] = id;
+		types[size] = type;
+		this.x[size] = x;
+		this.y[size] = y;
+		this.w[size] = w;
+		this.h[size] = h;
+		size++;
+	}
+
+	/**
+	 * Insertion sort by id, the actors of a world are almost always in spawn
+	 * order already
+	 */
+
+	private void sort() {
+		for (int i = 1; i < size; i++) {
+			int id = ids[i];
+			if (ids[i - 1] <= id) {
+				continue;
+			}
+			int pt = types[i];
+			int px = x[i];
+			int py = y[i];
+			int pw = w[i];
+			int ph = h[i];
+			int j = i - 1;
+			while (j >= 0 && ids[j] > id) {
+				ids[j + 1] = ids[j];
+				types[j + 1] = types[j];
+				x[j + 1] = x[j];
+				y[j + 1] = y[j];
+				w[j + 1] = w[j];
+				h[j + 1] = h[j];
+				j--;
+			}
+			ids[j + 1] = id;
+			types[j + 1] = pt;
+			x[j + 1] = px;
+			y[j + 1] = py;
+			w[j + 1] = pw;
+			h[j + 1] = ph;
+		}
+	}
+
+	/**
+	 * Writes what changed since the base
+	 *
+	 * @param b
+	 * @param base the snapshot the receiver already has, null to write
+	 *             everything
+	 */
+
+	public void writeDelta(ByteBuffer b, WorldSnapshot base) {
+		int baseSize = base != null ? base.size : 0;
+
+		// removed actors
+		int count = 0;
+		for (int i = 0, j = 0; i < baseSize; i++) {
+			while (j < size && ids[j] < base.ids[i]) {
+				j++;
+			}
+			if (j == size || ids[j] != base.ids[i]) {
+				count++;
+			}
+		}
+		putVarInt(b, count);
+		int last = 0;
+		for (int i = 0, j = 0; i < baseSize; i++) {
+			while (j < size && ids[j] < base.ids[i]) {
+				j++;
+			}
+			if (j == size || ids[j] != base.ids[i]) {
+				putVarInt(b, base.ids[i] - last);
+				last = base.ids[i];
+			}
+		}
+
+		// new actors and actors that changed their type or size
+		count = 0;
+		for (int i = 0, j = 0; i < size; i++) {
+			while (j < baseSize && base.ids[j] < ids[i]) {
+				j++;
+			}
+			if (!sameActor(base, j, i)) {
+				count++;
+			}
+		}
+		putVarInt(b, count);
+		last = 0;
+		for (int i = 0, j = 0; i < size; i++) {
+			while (j < baseSize && base.ids[j] < ids[i]) {
+				j++;
+			}
+			if (!sameActor(base, j, i)) {
+				putVarInt(b, ids[i] - last);
+				putVarInt(b, types[i]);
+				putZigZag(b, x[i]);
+				putZigZag(b, y[i]);
+				putVarInt(b, w[i]);
+				putVarInt(b, h[i]);
+				last = ids[i];
+			}
+		}
+
+		// moved actors
+		count = 0;
+		for (int i = 0, j = 0; i < size; i++) {
+			while (j < baseSize && base.ids[j] < ids[i]) {
+				j++;
+			}
+			if (sameActor(base, j, i) && (base.x[j] != x[i] || base.y[j] != y[i])) {
+				count++;
+			}
+		}
+		putVarInt(b, count);
+		last = 0;
+		for (int i = 0, j = 0; i < size; i++) {
+			while (j < baseSize && base.ids[j] < ids[i]) {
+				j++;
+			}
+			if (sameActor(base, j, i) && (base.x[j] != x[i] || base.y[j] != y[i])) {
+				putVarInt(b, ids[i] - last);
+				putZigZag(b, x[i] - base.x[j]);
+				putZigZag(b, y[i] - base.y[j]);
+				last = ids[i];
+			}
+		}
+	}
+
+	/**
+	 * @param base
+	 * @return the most bytes {@link #writeDelta(ByteBuffer, WorldSnapshot)} can
+	 *         write against the base
+	 */
+
+	public int getMaxDeltaSize(WorldSnapshot base) {
+		int baseSize = base != null ? base.size : 0;
+		// a var int takes at most 5 bytes, 3 counts, an id per removed actor and
+		// 6 values per new actor
+		return 3 * 5 + baseSize * 5 + size * 6 * 5;
+	}
+
+	/**
+	 * @return if the actor at index j of the base is the actor at index i with
+	 *         the same type and size
+	 */
+
+	private boolean sameActor(WorldSnapshot base, int j, int i) {
+		return base != null && j < base.size && base.ids[j] == ids[i] && base.types[j] == types[i] && base.w[j] == w[i] && base.h[j] == h[i];
+	}
+
+	/**
+	 * Replaces the content with the base with the delta applied
+	 *
+	 * @param b    written by {@link #writeDelta(ByteBuffer, WorldSnapshot)}
+	 * @param base the same base the delta was written against, must not be this
+	 * @param tick
+	 */
+
+	public void readDelta(ByteBuffer b, WorldSnapshot base, int tick) {
+		clear(tick);
+		int baseSize = base != null ? base.size : 0;
+
+		removed.clear();
+		int count = getVarInt(b);
+		int id = 0;
+		for (int i = 0; i < count; i++) {
+			id += getVarInt(b);
+			removed.add(id);
+		}
+
+		added.clear();
+		count = getVarInt(b);
+		id = 0;
+		for (int i = 0; i < count; i++) {
+			id += getVarInt(b);
+			added.add(id);
+			added.add(getVarInt(b));
+			added.add(getZigZag(b));
+			added.add(getZigZag(b));
+			added.add(getVarInt(b));
+			added.add(getVarInt(b));
+		}
+
+		moved.clear();
+		count = getVarInt(b);
+		id = 0;
+		for (int i = 0; i < count; i++) {
+			id += getVarInt(b);
+			moved.add(id);
+			moved.add(getZigZag(b));
+			moved.add(getZigZag(b));
+		}
+
+		// merge the base with the new actors, all lists are sorted by id
+		int j = 0;
+		int a = 0;
+		int m = 0;
+		int r = 0;
+		while (j < baseSize || a < added.size()) {
+			int baseId = j < baseSize ? base.ids[j] : Integer.MAX_VALUE;
+			int addedId = a < added.size() ? added.get(a) : Integer.MAX_VALUE;
+			if (addedId <= baseId) {
+				add(addedId, added.get(a + 1), added.get(a + 2), added.get(a + 3), added.get(a + 4), added.get(a + 5));
+				a += 6;
+				if (addedId == baseId) {
+					j++;
+				}
+				continue;
+			}
+			while (r < removed.size() && removed.get(r) < baseId) {
+				r++;
+			}
+			if (r == removed.size() || removed.get(r) != baseId) {
+				int px = base.x[j];
+				int py = base.y[j];
+				if (m < moved.size() && moved.get(m) == baseId) {
+					px += moved.get(m + 1);
+					py += moved.get(m + 2);
+					m += 3;
+				}
+				add(baseId, base.types[j], px, py, base.w[j], base.h[j]);
+			}
+			j++;
+		}
+	}
+
+	/**
+	 * @param o
+	 * @return if both contain the same actors with the same type, position and
+	 *         size
+	 */
+
+	public boolean sameState(WorldSnapshot o) {
+		if (size != o.size) {
+			return false;
+		}
+		for (int i = 0; i < size; i++) {
+			if (ids[i] != o.ids[i] || types[i] != o.types[i] || x[i] != o.x[i] || y[i] != o.y[i] || w[i] != o.w[i] || h[i] != o.h[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public static int quantize(double v) {
+		return (int) Math.round(v / QUANTUM);
+	}
+
+	public int getTick() {
+		return tick;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public int getId(int index) {
+		return ids[index];
+	}
+
+	public ActorType getType(int index) {
+		return ActorType.get(types[index]);
+	}
+
+	public double getX(int index) {
+		return x[index] * QUANTUM;
+	}
+
+	public double getY(int index) {
+		return y[index] * QUANTUM;
+	}
+
+	public double getWidth(int index) {
+		return w[index] * QUANTUM;
+	}
+
+	public double getHeight(int index) {
+		return h[index] * QUANTUM;
+	}
+
+}
@@ -11,20 +11,22 @@ package net.client;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.net.Socket;
+import java.nio.ByteBuffer;
 
-import net.packet.ByteStreamUtil;
+import net.Connection;
+import net.packet.BufferPool;
 import net.packet.Packet;
 import net.packet.PacketQueue;
 import net.packet.PacketReader;
 import net.packet.PacketReaderService;
 
-public class Client {
+public class Client implements Connection {
 	
 	protected Socket socket;
 	protected PacketQueue packets;
 	protected PacketReaderService tcpReader;
 	protected OutputStream out;
-	protected byte clientId;
+	protected short clientId;
 	
 	protected Thread tcpReaderThread;
 	
@@ -62,27 +64,29 @@ public class Client {
 	
 	public void stop() {
 		tcpReaderThread.interrupt();
+		try {
+			// the reader blocks in the socket, only closing it wakes it up
+			socket.close();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
 	}
 	
+	@Override
 	public void send(Packet p) {
 		p.setClientId(clientId);
 		
+		ByteBuffer b = BufferPool.HEAP.acquire(Packet.HEADER_SIZE + p.getLength());
 		try {
-			
-			byte[] packet = p.getData();
-			
-			int length = p.getLength() + Packet.HEADER_SIZE;
-			int rawLength = packet.length;
-
-			if (length != rawLength) {
-				System.err.println("Length does not match raw length");
-				System.err.println("PID: " + p.getId() + " Length: (raw/should) " + rawLength + "/" + length);
-			}
-			
-			out.write(packet, 0, length);
+			p.encode(b);
+			// the same packet may be sent to other clients at the same time
+			b.putShort(Packet.CLIENT_ID_OFFSET, clientId);
+			out.write(b.array(), b.arrayOffset(), b.position());
 			out.flush();
 		} catch (IOException e) {
 			e.printStackTrace();
+		} finally {
+			BufferPool.HEAP.release(b);
 		}
 	}
 	
@@ -100,11 +104,13 @@ public class Client {
 		return packets;
 	}
 
+	@Override
 	public void setClientId(int id) {
-		this.clientId = (byte) id;
+		this.clientId = (short) id;
 	}
 
-	public byte getClientId() {
+	@Override
+	public int getClientId() {
 		return clientId;
 	}
 	
@@ -0,0 +1,86 @@
+package net.client;
+
+import java.awt.Graphics2D;
+import java.awt.Shape;
+
+import game.entity.ActorType;
+import game.entity.GameObject;
+import game.graphics.Camera;
+import game.graphics.Image2d;
+import game.graphics.Images;
+import game.level.World;
+import game.shape.Rectangle;
+
+/**
+ * An actor of the server in the world of a client. It doesn't simulate
+ * anything, the snapshots of the server move it.
+ */
+
+public class NetworkActor extends GameObject {
+
+	private ActorType type;
+
+	public NetworkActor(World worldIn, Rectangle r, ActorType type) {
+		super(worldIn, r, worldIn.isHeadless() ? null : imageOf(type));
+		this.type = type;
+		this.gravity = 0;
+		this.friction = 0;
+		this.boxCollision = false;
+		this.slopeCollision = false;
+		this.staticCollision = false;
+	}
+
+	/**
+	 * @param type
+	 * @return the image to draw actors of the type with, null for actors the
+	 *         snapshot doesn't tell enough about
+	 */
+
+	private static Image2d imageOf(ActorType type) {
+		switch (type) {
+			case PLAYER:
+				return Images.BACARDI;
+			case SKELETON:
+				return Images.SKELLY;
+			case ARROW:
+				return Images.ARROW;
+			case SWORD_HIT:
+				return Images.SWORD_HIT;
+			default:
+				return null;
+		}
+	}
+
+	@Override
+	public void draw(Graphics2D g2, Camera cam) {
+		if (image != null) {
+			super.draw(g2, cam);
+		}
+	}
+
+	@Override
+	public boolean shouldCollide(GameObject g) {
+		return false;
+	}
+
+	@Override
+	public void onStaticCollision(Shape s) {
+
+	}
+
+	@Override
+	public void onCollision(GameObject o) {
+
+	}
+
+	@Override
+	public void onOutOfWorld(World world) {
+
+	}
+
+	@Override
+	public ActorType getActorType() {
+		return type;
+	}
+
+}
@@ -0,0 +1,188 @@
+package net.client;
+
+import java.util.HashMap;
+
+import game.entity.ActorType;
+import game.entity.GameObject;
+import game.level.World;
+import game.shape.Rectangle;
+import game.shape.Vector2;
+import net.GameServer;
+import net.WorldSnapshot;
+import net.packet.Packet;
+import net.packet.impl.LoginPacket;
+import net.packet.impl.PlayerMovePacket;
+import net.packet.impl.PlayerSpawnPacket;
+import net.packet.impl.SnapshotPacket;
+
+/**
+ * The connection of the game to a server. Every update the snapshots that
+ * arrived are applied to the world of the client and acknowledged, so the
+ * server can send the next ones as delta, and the position of the local player
+ * is sent to the server.
+ */
+
+public class ServerSession {
+
+	private Client client;
+	private SnapshotReceiver receiver;
+	private HashMap<Integer, NetworkActor> actors;
+	private HashMap<Integer, NetworkActor> previous;
+	private int playerId;
+	private int baseTick;
+	private int snapshots;
+
+	public ServerSession(Client client) {
+		this.client = client;
+		this.receiver = new SnapshotReceiver();
+		this.actors = new HashMap<>();
+		this.previous = new HashMap<>();
+		this.baseTick = -1;
+	}
+
+	/**
+	 * @param address host:port, the port can be left out
+	 * @return the session
+	 * @see #connect(String, int)
+	 */
+
+	public static ServerSession connect(String address) {
+		int colon = address.lastIndexOf(':');
+		if (colon < 0) {
+			return connect(address, GameServer.PORT);
+		}
+		return connect(address.substring(0, colon), Integer.parseInt(address.substring(colon + 1)));
+	}
+
+	/**
+	 * Connects and logs in
+	 *
+	 * @param host
+	 * @param port
+	 * @return the session
+	 */
+
+	public static ServerSession connect(String host, int port) {
+		Client client = new Client(host, port);
+		client.send(new LoginPacket());
+		Packet login = client.request();
+		client.setClientId(login.getClientID());
+		client.start();
+		return new ServerSession(client);
+	}
+
+	/**
+	 * Applies the packets that arrived, call it after the world was updated so
+	 * the actors of the server are drawn between their last two positions
+	 *
+	 * @param world
+	 * @param player the local player, null if there is none yet
+	 */
+
+	public void update(World world, GameObject player) {
+		Packet p;
+		while ((p = client.getPackets().poll()) != null) {
+			if (p instanceof SnapshotPacket) {
+				SnapshotPacket snapshot = (SnapshotPacket) p;
+				WorldSnapshot s = receiver.receive(snapshot);
+				if (s != null) {
+					apply(s, world);
+					client.send(receiver.acknowledge(s));
+					baseTick = snapshot.getBaseTick();
+					snapshots++;
+				}
+			} else if (p instanceof PlayerSpawnPacket) {
+				playerId = ((PlayerSpawnPacket) p).getNetworkId();
+			}
+		}
+		if (player != null) {
+			client.send(new PlayerMovePacket(player.getX(), player.getY()));
+		}
+	}
+
+	/**
+	 * Moves the actors of the server to the state of the snapshot, spawns the
+	 * new ones and removes the ones that are gone. The own player is drawn by
+	 * the client and doors come with the map.
+	 *
+	 * @param s
+	 * @param world
+	 */
+
+	private void apply(WorldSnapshot s, World world) {
+		// the actors of the last snapshot, the ones left at the end are gone
+		HashMap<Integer, NetworkActor> swap = previous;
+		previous = actors;
+		actors = swap;
+		for (int i = 0; i < s.size(); i++) {
+			int id = s.getId(i);
+			ActorType type = s.getType(i);
+			if (id == playerId || type == ActorType.DOOR) {
+				continue;
+			}
+			NetworkActor actor = previous.remove(id);
+			if (actor != null && actor.getActorType() != type) {
+				world.remove(actor);
+				actor = null;
+			}
+			if (actor == null) {
+				actor = new NetworkActor(world, new Rectangle(0, 0, s.getWidth(i), s.getHeight(i)), type);
+				actor.setNetworkId(id);
+				// spawn would drop actors with the same bounds as another one
+				world.spawnQueue(actor, new Vector2(s.getX(i), s.getY(i)));
+			} else {
+				actor.setPosition(s.getX(i), s.getY(i));
+				actor.setWidth(s.getWidth(i));
+				actor.setHeight(s.getHeight(i));
+			}
+			actors.put(id, actor);
+		}
+
+		for (NetworkActor actor : previous.values()) {
+			world.remove(actor);
+		}
+		previous.clear();
+	}
+
+	public void stop() {
+		client.stop();
+	}
+
+	/**
+	 * @return the network id of the own player, 0 before the server sent it
+	 */
+
+	public int getPlayerId() {
+		return playerId;
+	}
+
+	/**
+	 * @return the base tick of the last snapshot, -1 if it contained the whole
+	 *         world
+	 */
+
+	public int getBaseTick() {
+		return baseTick;
+	}
+
+	/**
+	 * @return how many snapshots were applied
+	 */
+
+	public int getSnapshots() {
+		return snapshots;
+	}
+
+	/**
+	 * @return the actors of the server in the world of the client
+	 */
+
+	public int getActorCount() {
+		return actors.size();
+	}
+
+	public SnapshotReceiver getReceiver() {
+		return receiver;
+	}
+
+}
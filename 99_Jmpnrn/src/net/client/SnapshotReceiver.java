@@ -0,0 +1,126 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package net.client;
+
+import java.nio.ByteBuffer;
+
+import net.WorldSnapshot;
+import net.packet.impl.SnapshotAckPacket;
+import net.packet.impl.SnapshotPacket;
+import net.server.ServerSimulation;
+
+/**
+ * Rebuilds the world snapshots of the server from the deltas it sends and
+ * keeps the ones the next deltas can be based on. The parts of a split delta
+ * arrive in order and are collected until the last one is there.
+ */
+
+public class SnapshotReceiver {
+
+	private WorldSnapshot[] history;
+	private WorldSnapshot latest;
+	private ByteBuffer parts;
+	private int partsTick;
+	private int nextPart;
+
+	public SnapshotReceiver() {
+		this.history = new WorldSnapshot[ServerSimulation.HISTORY];
+		for (int i = 0; i < history.length; i++) {
+			history[i] = new WorldSnapshot();
+		}
+		this.parts = ByteBuffer.allocate(SnapshotPacket.MAX_DELTA_SIZE);
+		this.partsTick = -1;
+	}
+
+	/**
+	 * Applies the delta to the snapshot it is based on
+	 * 
+	 * @param p
+	 * @return the snapshot, null if the base is not known, which can happen right
+	 *         after connecting, or if more parts of the delta are missing
+	 */
+
+	public WorldSnapshot receive(SnapshotPacket p) {
+		ByteBuffer delta = p.getDelta();
+		if (p.getParts() > 1) {
+			delta = collect(p);
+			if (delta == null) {
+				return null;
+			}
+		}
+
+		WorldSnapshot base = null;
+		if (p.getBaseTick() >= 0) {
+			base = history[p.getBaseTick() % history.length];
+			if (base.getTick() != p.getBaseTick()) {
+				return null;
+			}
+		}
+
+		WorldSnapshot s = history[p.getTick() % history.length];
+		s.readDelta(delta, base, p.getTick());
+		if (latest == null || s.getTick() > latest.getTick()) {
+			latest = s;
+		}
+		return s;
+	}
+
+	/**
+	 * Adds the part to the delta
+	 * 
+	 * @param p
+	 * @return the whole delta after the last part, otherwise null
+	 */
+
+	private ByteBuffer collect(SnapshotPacket p) {
+		if (p.getPart() == 0) {
+			parts.clear();
+			partsTick = p.getTick();
+			nextPart = 0;
+		}
+		if (p.getTick() != partsTick || p.getPart() != nextPart) {
+			// a part of a snapshot we didn't see the start of
+			partsTick = -1;
+			return null;
+		}
+		ByteBuffer delta = p.getDelta();
+		if (parts.remaining() < delta.remaining()) {
+			ByteBuffer grown = ByteBuffer.allocate(Math.max(parts.capacity() * 2, parts.position() + delta.remaining()));
+			parts.flip();
+			grown.put(parts);
+			parts = grown;
+		}
+		parts.put(delta);
+		nextPart++;
+		if (nextPart < p.getParts()) {
+			return null;
+		}
+		partsTick = -1;
+		parts.flip();
+		return parts;
+	}
+
+	/**
+	 * @param s
+	 * @return the packet to tell the server the snapshot arrived
+	 */
+
+	public SnapshotAckPacket acknowledge(WorldSnapshot s) {
+		return new SnapshotAckPacket(s.getTick());
+	}
+
+	/**
+	 * @return the newest snapshot, null before the first one arrived
+	 */
+
+	public WorldSnapshot getLatest() {
+		return latest;
+	}
+
+}
@@ -0,0 +1,119 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package net.packet;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reuses buffers to encode packets into. All buffers of a pool have the same
+ * size, bigger requests get a new buffer which is not taken back.
+ */
+
+public class BufferPool {
+
+	public static final int DEFAULT_BUFFER_SIZE = 1024;
+	public static final int DEFAULT_MAX_POOLED = 256;
+
+	/**
+	 * Heap buffers for blocking streams, which need the backing array
+	 */
+	public static final BufferPool HEAP = new BufferPool(DEFAULT_BUFFER_SIZE, false, DEFAULT_MAX_POOLED);
+
+	private int bufferSize;
+	private boolean direct;
+	private ByteBuffer[] buffers;
+	private int pooled;
+	private ThreadLocal<ByteBuffer[]> local;
+
+	/**
+	 * @param bufferSize
+	 * @param direct     if the buffers are allocated outside the heap, saves a
+	 *                   copy when they are written to a channel
+	 * @param maxPooled  how many released buffers are kept at most
+	 */
+
+	public BufferPool(int bufferSize, boolean direct, int maxPooled) {
+		this.bufferSize = bufferSize;
+		this.direct = direct;
+		this.buffers = new ByteBuffer[maxPooled];
+		this.local = ThreadLocal.withInitial(() -> new ByteBuffer[1]);
+	}
+
+	/**
+	 * @param size the bytes needed
+	 * @return a cleared buffer with at least size bytes remaining
+	 */
+
+	public ByteBuffer acquire(int size) {
+		if (size > bufferSize) {
+			return allocate(size);
+		}
+		// a thread that releases its buffers itself never needs the lock
+		ByteBuffer[] slot = local.get();
+		ByteBuffer b = slot[0];
+		if (b != null) {
+			slot[0] = null;
+		} else {
+			synchronized (this) {
+				if (pooled > 0) {
+					b = buffers[--pooled];
+					buffers[pooled] = null;
+				}
+			}
+		}
+		if (b == null) {
+			return allocate(bufferSize);
+		}
+		b.clear();
+		return b;
+	}
+
+	/**
+	 * Gives the buffer back, it must not be used afterwards
+	 *
+	 * @param b
+	 */
+
+	public void release(ByteBuffer b) {
+		if (b.capacity() != bufferSize || b.isDirect() != direct) {
+			return;
+		}
+		ByteBuffer[] slot = local.get();
+		if (slot[0] == null) {
+			slot[0] = b;
+			return;
+		}
+		synchronized (this) {
+			if (pooled < buffers.length) {
+				buffers[pooled++] = b;
+			}
+		}
+	}
+
+	private ByteBuffer allocate(int size) {
+		return direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+	}
+
+	public int getBufferSize() {
+		return bufferSize;
+	}
+
+	public boolean isDirect() {
+		return direct;
+	}
+
+	/**
+	 * @return how many buffers are ready to be reused by any thread
+	 */
+
+	public synchronized int available() {
+		return pooled;
+	}
+
+}
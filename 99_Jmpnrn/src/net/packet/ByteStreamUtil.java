@@ -257,6 +257,82 @@ public class ByteStreamUtil {
 
 	}
 
+	/**
+	 * Writes the string into exactly len bytes, cut off or padded with zeros
+	 * like writeS
+	 */
+
+	public static void putString(ByteBuffer b, String s, int len) {
+		int n = Math.min(s.length(), len);
+		int i = 0;
+		// plain ascii can be written without encoding the string into an array
+		while (i < n && s.charAt(i) < 0x80) {
+			i++;
+		}
+		if (i < n) {
+			byte[] bytes = s.getBytes();
+			n = Math.min(bytes.length, len);
+			b.put(bytes, 0, n);
+		} else {
+			for (i = 0; i < n; i++) {
+				b.put((byte) s.charAt(i));
+			}
+		}
+		for (i = n; i < len; i++) {
+			b.put((byte) 0);
+		}
+	}
+
+	public static String getString(ByteBuffer b, int len) {
+		String s;
+		if (b.hasArray()) {
+			s = new String(b.array(), b.arrayOffset() + b.position(), len);
+			b.position(b.position() + len);
+		} else {
+			byte[] bytes = new byte[len];
+			b.get(bytes);
+			s = new String(bytes);
+		}
+		return s.trim();
+	}
+
+	/**
+	 * Writes the int with 7 bits per byte, small values take one byte
+	 */
+
+	public static void putVarInt(ByteBuffer b, int i) {
+		while ((i & ~0x7F) != 0) {
+			b.put((byte) ((i & 0x7F) | 0x80));
+			i >>>= 7;
+		}
+		b.put((byte) i);
+	}
+
+	public static int getVarInt(ByteBuffer b) {
+		int i = 0;
+		int shift = 0;
+		byte read;
+		do {
+			read = b.get();
+			i |= (read & 0x7F) << shift;
+			shift += 7;
+		} while ((read & 0x80) != 0);
+		return i;
+	}
+
+	/**
+	 * Like putVarInt, but small negative values take one byte too
+	 */
+
+	public static void putZigZag(ByteBuffer b, int i) {
+		putVarInt(b, (i << 1) ^ (i >> 31));
+	}
+
+	public static int getZigZag(ByteBuffer b) {
+		int i = getVarInt(b);
+		return (i >>> 1) ^ -(i & 1);
+	}
+
 	public static void main(String[] args) {
 
 		ByteArrayOutputStream out = new ByteArrayOutputStream(100);
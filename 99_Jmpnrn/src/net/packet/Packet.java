@@ -8,20 +8,22 @@
  *******************************************************/
 package net.packet;
 
-import static net.packet.ByteStreamUtil.getByte;
-import static net.packet.ByteStreamUtil.getChar;
-import static net.packet.ByteStreamUtil.writeb;
-import static net.packet.ByteStreamUtil.writec;
-
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
 
 import game.Game;
+import net.Connection;
 import net.server.Server;
 
+/**
+ * The header of every packet is the packet id (1 byte), the client id (2
+ * bytes) and the length of the data after the header (2 bytes, unsigned)
+ */
+
 public abstract class Packet {
 	
-	public static final int HEADER_SIZE = 4;
+	public static final int HEADER_SIZE = 5;
+	public static final int CLIENT_ID_OFFSET = 1;
+	public static final int LENGTH_OFFSET = 3;
 	
 	public static final byte ID_LOGIN = 0;
 	public static final byte ID_LOGOUT = 1;
@@ -29,6 +31,9 @@ public abstract class Packet {
 	public static final byte ID_PING = 3;
 	public static final byte ID_CHAT_MESSAGE = 20;
 	public static final byte ID_PLAYER_MOVE = 40;
+	public static final byte ID_SNAPSHOT = 41;
+	public static final byte ID_SNAPSHOT_ACK = 42;
+	public static final byte ID_PLAYER_SPAWN = 43;
 	
 	public static final char LEN_LOGIN = 0;
 	public static final char LEN_LOGOUT = 0;
@@ -36,48 +41,91 @@ public abstract class Packet {
 	public static final char LEN_PING = 8;
 	public static final char LEN_CHAT_MESSGE = 536;
 	public static final char LEN_PLAYER_MOVE = 16;
+	public static final char LEN_SNAPSHOT_ACK = 4;
+	public static final char LEN_PLAYER_SPAWN = 4;
 	
 	private byte id;
-	private byte clientId;
+	private short clientId;
 	private char length;
-	protected ByteArrayOutputStream data;
-	protected ByteArrayInputStream in;
+	private Connection source;
 	
 	public Packet(int id, int length) {
 		this.id = (byte) id;
 		this.clientId = -1;
 		this.length = (char) length;
-		this.data = new ByteArrayOutputStream(length);
-		writeb(data, (byte) id);
-		writeb(data, (byte) -1);
-		writec(data, (char) length);
 	}
 	
 	public Packet(byte[] b) {
-		data = new ByteArrayOutputStream(b.length);
-		writeb(data, b);
-		in = new ByteArrayInputStream(b);
-		id = getByte(in);
-		clientId = getByte(in);
-		length = getChar(in);
-		
+		this(ByteBuffer.wrap(b));
+	}
+	
+	/**
+	 * Reads the header, the constructor of the subclass reads the data after it
+	 * 
+	 * @param b positioned at the start of the packet
+	 */
+	
+	public Packet(ByteBuffer b) {
+		id = b.get();
+		clientId = b.getShort();
+		length = b.getChar();
+	}
+	
+	/**
+	 * @param b
+	 * @param start where the header of the packet starts
+	 * @return header and data size of the packet, the header must be in the
+	 *         buffer already
+	 */
+	
+	public static int size(ByteBuffer b, int start) {
+		return HEADER_SIZE + b.getChar(start + LENGTH_OFFSET);
 	}
 	
 	public void setClientId(int clientId) {
-		this.clientId = (byte) clientId;
+		this.clientId = (short) clientId;
 	}
 
+	/**
+	 * @return a new array with header and data
+	 */
+	
 	public byte[] getData() {
-		byte[] b = data.toByteArray();
-		b[1] = clientId;
+		byte[] b = new byte[HEADER_SIZE + length];
+		encode(ByteBuffer.wrap(b));
 		return b;
 	}
 	
+	/**
+	 * Writes header and data at the position of the buffer
+	 * 
+	 * @param b needs HEADER_SIZE + getLength() bytes remaining
+	 */
+	
+	public void encode(ByteBuffer b) {
+		b.put(id);
+		b.putShort(clientId);
+		b.putChar(length);
+		int start = b.position();
+		write(b);
+		if (b.position() - start != length) {
+			throw new IllegalStateException("Packet " + id + " wrote " + (b.position() - start) + " of " + (int) length + " bytes");
+		}
+	}
+	
+	/**
+	 * Writes the data after the header
+	 * 
+	 * @param b
+	 */
+	
+	protected abstract void write(ByteBuffer b);
+	
 	public byte getId() {
 		return id;
 	}
 	
-	public byte getClientID() {
+	public int getClientID() {
 		return clientId;
 	}
 
@@ -85,6 +133,19 @@ public abstract class Packet {
 		return length;
 	}
 	
+	/**
+	 * @return the connection the packet was received from, null if it was created
+	 *         locally
+	 */
+	
+	public Connection getSource() {
+		return source;
+	}
+
+	public void setSource(Connection source) {
+		this.source = source;
+	}
+	
 	public abstract void handle(Game game);
 	public abstract void handle(Server server);
 
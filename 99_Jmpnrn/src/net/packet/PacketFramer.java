@@ -0,0 +1,74 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package net.packet;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Collects the bytes read from a non blocking channel and splits them into
+ * packets using the length in the packet header
+ */
+
+public class PacketFramer {
+
+	public static final int MAX_PACKET_SIZE = Packet.HEADER_SIZE + Character.MAX_VALUE;
+
+	private ByteBuffer buffer;
+
+	public PacketFramer() {
+		this.buffer = ByteBuffer.allocate(MAX_PACKET_SIZE);
+	}
+
+	/**
+	 * @return the buffer to read into, always ready for writing
+	 */
+
+	public ByteBuffer getBuffer() {
+		return buffer;
+	}
+
+	/**
+	 * Takes the next complete packet out of the buffer
+	 *
+	 * @return header and data of the packet, null if it is not complete yet
+	 */
+
+	public byte[] next() {
+		buffer.flip();
+		byte[] packet = null;
+		if (buffer.remaining() >= Packet.HEADER_SIZE) {
+			int length = Packet.size(buffer, buffer.position());
+			if (buffer.remaining() >= length) {
+				packet = new byte[length];
+				buffer.get(packet);
+			}
+		}
+		buffer.compact();
+		return packet;
+	}
+
+	/**
+	 * Decodes the next complete packet straight from the buffer, skips packets
+	 * with an unknown id
+	 *
+	 * @return the packet, null if there is no complete packet yet
+	 */
+
+	public Packet nextPacket() {
+		buffer.flip();
+		Packet packet = null;
+		while (packet == null && buffer.remaining() >= Packet.HEADER_SIZE
+				&& buffer.remaining() >= Packet.size(buffer, buffer.position())) {
+			packet = PacketReader.decode(buffer);
+		}
+		buffer.compact();
+		return packet;
+	}
+
+}
@@ -9,31 +9,81 @@
 package net.packet;
 
 import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 public class PacketQueue extends ArrayBlockingQueue<Packet>{
 	
 	private static final long serialVersionUID = 1L;
-	private int capacity;
 	
 	public PacketQueue(int capacity) {
 		super(capacity);
-		this.capacity = capacity;
 	}
 	
+	/**
+	 * Waits until there is space in the queue
+	 * 
+	 * @return false if the thread was interrupted while waiting
+	 */
+	
 	@Override
 	public boolean add(Packet p) {
-		while (size() >= capacity) {}
-		return super.add(p);
+		try {
+			put(p);
+			return true;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
+	}
+	
+	/**
+	 * Waits until there is space in the queue, at most for the timeout
+	 * 
+	 * @param p
+	 * @param timeout
+	 * @param unit
+	 * @return false if the packet was not added
+	 */
+	
+	public boolean add(Packet p, long timeout, TimeUnit unit) {
+		try {
+			return offer(p, timeout, unit);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		}
 	}
 	
+	/**
+	 * Waits until a packet is available
+	 * 
+	 * @return the packet, null if the thread was interrupted while waiting
+	 */
+	
 	public Packet next() {
-		Packet p;
-		do {
-			p = poll();
-		} while (p == null);
-		
-		return p;
+		try {
+			return take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+	}
+	
+	/**
+	 * Waits until a packet is available, at most for the timeout
+	 * 
+	 * @param timeout
+	 * @param unit
+	 * @return the packet, null if none arrived in time
+	 */
+	
+	public Packet next(long timeout, TimeUnit unit) {
+		try {
+			return poll(timeout, unit);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
 	}
 	
 	public boolean full() {
@@ -8,114 +8,165 @@
  *******************************************************/
 package net.packet;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.Socket;
+import java.nio.ByteBuffer;
 
 import net.packet.impl.ChatMessagePacket;
 import net.packet.impl.LoginPacket;
 import net.packet.impl.LogoutPacket;
 import net.packet.impl.PingPacket;
 import net.packet.impl.PlayerMovePacket;
+import net.packet.impl.PlayerSpawnPacket;
+import net.packet.impl.SnapshotAckPacket;
+import net.packet.impl.SnapshotPacket;
 import net.packet.impl.WelcomePacket;
 
-import static net.packet.ByteStreamUtil.*;
-
 public class PacketReader {
 
 	private Socket socket;
-	private InputStream in;
+	private DataInputStream in;
+	private ByteBuffer buffer;
 	private volatile boolean running;
 
 	public PacketReader(Socket socket) {
 		this.socket = socket;
+		this.buffer = ByteBuffer.allocate(BufferPool.DEFAULT_BUFFER_SIZE);
 		try {
-			in = socket.getInputStream();
+			in = new DataInputStream(socket.getInputStream());
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
 	}
 
-	public Packet nextPacket() {
-
-		byte[] header = read(Packet.HEADER_SIZE);
-		ByteArrayInputStream headerIn = new ByteArrayInputStream(header);
+	/**
+	 * Blocks until the next packet arrived
+	 * 
+	 * @return the packet, null if the connection was closed
+	 */
 
-		byte id = getByte(headerIn);
-		byte clientId = getByte(headerIn);
-		char length = getChar(headerIn);
-
-		byte[] data = read(length);
-		byte[] packet = merge(header, data);
+	public Packet nextPacket() {
 
-		switch (id) {
+		while (true) {
+			if (!read(0, Packet.HEADER_SIZE)) {
+				return null;
+			}
+			int size = Packet.size(buffer, 0);
+			if (size > buffer.capacity()) {
+				ByteBuffer b = ByteBuffer.allocate(size);
+				b.put(buffer.array(), 0, Packet.HEADER_SIZE);
+				buffer = b;
+			}
+			if (!read(Packet.HEADER_SIZE, size - Packet.HEADER_SIZE)) {
+				return null;
+			}
+			buffer.clear().limit(size);
+			Packet p = decode(buffer);
+			if (p != null) {
+				return p;
+			}
+		}
+		
+	}
+	
+	/**
+	 * Creates the packet for the id in the header
+	 * 
+	 * @param packet header and data
+	 * @return the packet, null if the id is unknown
+	 */
+	
+	public static Packet decode(byte[] packet) {
+		return decode(ByteBuffer.wrap(packet));
+	}
+	
+	/**
+	 * Creates the packet for the id in the header, the packet reads its fields
+	 * straight from the buffer
+	 * 
+	 * @param b positioned at the start of a complete packet, afterwards
+	 *          positioned after it
+	 * @return the packet, null if the id is unknown
+	 */
+	
+	public static Packet decode(ByteBuffer b) {
+		
+		int start = b.position();
+		int end = start + Packet.size(b, start);
+		Packet p = null;
+		
+		switch (b.get(start)) {
 
 		case (Packet.ID_LOGIN): {
-			LoginPacket p = new LoginPacket(packet);
-			return p;
+			p = new LoginPacket(b);
+			break;
 		}
 
 		case (Packet.ID_LOGOUT): {
-			LogoutPacket p = new LogoutPacket(packet);
+			new LogoutPacket(b);
 			break;
 		}
 
 		case (Packet.ID_WELCOME): {
-			WelcomePacket p = new WelcomePacket(packet);
-			return p;
+			p = new WelcomePacket(b);
+			break;
 		}
 
 		case (Packet.ID_PING): {
-			PingPacket p = new PingPacket(packet);
-			return p;
+			p = new PingPacket(b);
+			break;
 		}
 
 		case (Packet.ID_PLAYER_MOVE): {
-			PlayerMovePacket p = new PlayerMovePacket(packet);
-			return p;
+			p = new PlayerMovePacket(b);
+			break;
 		}
 		
 		case (Packet.ID_CHAT_MESSAGE): {
-			ChatMessagePacket p = new ChatMessagePacket(packet);
-			return p;
+			p = new ChatMessagePacket(b);
+			break;
 		}
 		
+		case (Packet.ID_SNAPSHOT): {
+			p = new SnapshotPacket(b);
+			break;
 		}
 		
-		return nextPacket();
+		case (Packet.ID_SNAPSHOT_ACK): {
+			p = new SnapshotAckPacket(b);
+			break;
+		}
+		
+		case (Packet.ID_PLAYER_SPAWN): {
+			p = new PlayerSpawnPacket(b);
+			break;
+		}
+		
+		}
+		
+		b.position(end);
+		return p;
 		
 	}
-	
-	private byte[] merge(byte[] a, byte[] b) {
-		ByteArrayOutputStream out = new ByteArrayOutputStream(a.length + b.length);
-		writeb(out, a);
-		writeb(out, b);
-		return out.toByteArray();
-	}
-
-	private byte[] read(int n) {
 
-		if (n < 1) {
-			return new byte[0];
-		}
+	/**
+	 * Blocks until n bytes arrived
+	 * 
+	 * @param off where to put them in the buffer
+	 * @param n
+	 * @return false if the connection was closed before
+	 */
 
-		byte[] data = null;
-		try {
-			while (in.available() < n) {
-			}
-		} catch (IOException e1) {
-			e1.printStackTrace();
-		}
+	private boolean read(int off, int n) {
 
 		try {
-			data = in.readNBytes(n);
+			in.readFully(buffer.array(), off, n);
 		} catch (IOException e) {
-			e.printStackTrace();
+			return false;
 		}
 
-		return data;
+		return true;
 
 	}
 
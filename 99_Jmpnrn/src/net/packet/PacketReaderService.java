@@ -10,15 +10,29 @@ package net.packet;
 
 import java.net.Socket;
 
+import net.Connection;
+
 public class PacketReaderService implements Runnable {
 
 	private volatile boolean running;
 	private PacketReader reader;
 	private PacketQueue packets;
+	private Connection source;
 
 	public PacketReaderService(Socket socket, PacketQueue packets) {
+		this(socket, packets, null);
+	}
+	
+	/**
+	 * @param socket
+	 * @param packets
+	 * @param source  set as source of every packet read
+	 */
+	
+	public PacketReaderService(Socket socket, PacketQueue packets, Connection source) {
 		this.reader = new PacketReader(socket);
 		this.packets = packets;
+		this.source = source;
 	}
 
 	public PacketReaderService(Socket socket) {
@@ -31,11 +45,23 @@ public class PacketReaderService implements Runnable {
 		
 		while (running) {
 			Packet p = reader.nextPacket();
-			packets.add(p);
+			if (p == null) {
+				// the connection was closed
+				break;
+			}
+			p.setSource(source);
+			if (!packets.add(p)) {
+				break;
+			}
 		}
+		running = false;
 
 	}
 	
+	public boolean isRunning() {
+		return running;
+	}
+	
 	public PacketQueue getPackets() {
 		return packets;
 	}
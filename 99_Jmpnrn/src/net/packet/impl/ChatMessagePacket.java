@@ -8,6 +8,8 @@
  *******************************************************/
 package net.packet.impl;
 
+import java.nio.ByteBuffer;
+
 import net.packet.Packet;
 import net.server.Server;
 
@@ -24,14 +26,22 @@ public class ChatMessagePacket extends Packet {
 		super(ID_CHAT_MESSAGE, LEN_CHAT_MESSGE);
 		this.sender = sender;
 		this.msg = msg;
-		writeS(data, sender, 24);
-		writeS(data, msg, 512);
 	}
 	
 	public ChatMessagePacket(byte[] b) {
+		this(ByteBuffer.wrap(b));
+	}
+	
+	public ChatMessagePacket(ByteBuffer b) {
 		super(b);
-		this.sender = getString(in, 24);
-		this.msg = getString(in, 512);
+		this.sender = getString(b, 24);
+		this.msg = getString(b, 512);
+	}
+	
+	@Override
+	protected void write(ByteBuffer b) {
+		putString(b, sender, 24);
+		putString(b, msg, 512);
 	}
 
 	public String getSender() {
@@ -8,15 +8,12 @@
  *******************************************************/
 package net.packet.impl;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
+import java.nio.ByteBuffer;
 
 import game.Game;
 import net.packet.Packet;
 import net.server.Server;
 
-import static net.packet.ByteStreamUtil.*;
-
 public class LoginPacket extends Packet {
 	
 	public LoginPacket() {
@@ -26,6 +23,15 @@ public class LoginPacket extends Packet {
 	public LoginPacket(byte[] b) {
 		super(b);
 	}
+	
+	public LoginPacket(ByteBuffer b) {
+		super(b);
+	}
+	
+	@Override
+	protected void write(ByteBuffer b) {
+		
+	}
 
 	@Override
 	public void handle(Game game) {
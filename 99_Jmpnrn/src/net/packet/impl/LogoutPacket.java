@@ -8,6 +8,8 @@
  *******************************************************/
 package net.packet.impl;
 
+import java.nio.ByteBuffer;
+
 import game.Game;
 import net.packet.Packet;
 import net.server.Server;
@@ -22,6 +24,15 @@ public class LogoutPacket extends Packet {
 		super(b);
 	}
 	
+	public LogoutPacket(ByteBuffer b) {
+		super(b);
+	}
+	
+	@Override
+	protected void write(ByteBuffer b) {
+		
+	}
+	
 	@Override
 	public void handle(Game game) {
 		// TODO Auto-generated method stub
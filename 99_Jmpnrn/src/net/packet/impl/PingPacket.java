@@ -8,11 +8,11 @@
  *******************************************************/
 package net.packet.impl;
 
+import java.nio.ByteBuffer;
+
 import net.packet.Packet;
 import net.server.Server;
 
-import static net.packet.ByteStreamUtil.*;
-
 import game.Game;
 
 public class PingPacket extends Packet {
@@ -22,12 +22,20 @@ public class PingPacket extends Packet {
 	public PingPacket(long time) {
 		super(ID_PING, LEN_PING);
 		this.time = time;
-		writel(data, time);
 	}
 	
 	public PingPacket(byte[] b) {
+		this(ByteBuffer.wrap(b));
+	}
+	
+	public PingPacket(ByteBuffer b) {
 		super(b);
-		this.time = getLong(in);
+		this.time = b.getLong();
+	}
+	
+	@Override
+	protected void write(ByteBuffer b) {
+		b.putLong(time);
 	}
 	
 	@Override
@@ -8,16 +8,12 @@
  *******************************************************/
 package net.packet.impl;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
 import java.nio.ByteBuffer;
 
 import game.Game;
 import net.packet.Packet;
 import net.server.Server;
 
-import static net.packet.ByteStreamUtil.*;
-
 public class PlayerMovePacket extends Packet {
 
 	private double x;
@@ -28,20 +24,22 @@ public class PlayerMovePacket extends Packet {
 		
 		this.x = x;
 		this.y = y;
-
-		try {
-			data.write(getBytes(x));
-			data.write(getBytes(y));
-		} catch (IOException e) {
-			e.printStackTrace();
-		}
-		
 	}
 	
 	public PlayerMovePacket(byte[] b) {
+		this(ByteBuffer.wrap(b));
+	}
+	
+	public PlayerMovePacket(ByteBuffer b) {
 		super(b);
-		this.x = getDouble(in);
-		this.y = getDouble(in);
+		this.x = b.getDouble();
+		this.y = b.getDouble();
+	}
+	
+	@Override
+	protected void write(ByteBuffer b) {
+		b.putDouble(x);
+		b.putDouble(y);
 	}
 
 	public double getX() {
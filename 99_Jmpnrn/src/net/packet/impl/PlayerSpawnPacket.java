@@ -0,0 +1,51 @@
+package net.packet.impl;
+
+import java.nio.ByteBuffer;
+
+import game.Game;
+import net.packet.Packet;
+import net.server.Server;
+
+/**
+ * Tells a client the network id of its player in the world of the server, the
+ * client draws its own player itself
+ */
+
+public class PlayerSpawnPacket extends Packet {
+
+	private int networkId;
+	
+	public PlayerSpawnPacket(int networkId) {
+		super(ID_PLAYER_SPAWN, LEN_PLAYER_SPAWN);
+		this.networkId = networkId;
+	}
+	
+	public PlayerSpawnPacket(byte[] b) {
+		this(ByteBuffer.wrap(b));
+	}
+	
+	public PlayerSpawnPacket(ByteBuffer b) {
+		super(b);
+		this.networkId = b.getInt();
+	}
+	
+	@Override
+	protected void write(ByteBuffer b) {
+		b.putInt(networkId);
+	}
+
+	public int getNetworkId() {
+		return networkId;
+	}
+
+	@Override
+	public void handle(Game game) {
+		
+	}
+
+	@Override
+	public void handle(Server server) {
+		
+	}
+
+}
@@ -0,0 +1,59 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package net.packet.impl;
+
+import java.nio.ByteBuffer;
+
+import game.Game;
+import net.packet.Packet;
+import net.server.Server;
+
+/**
+ * Tells the server which snapshot the client has, the next snapshots are sent
+ * as delta against it
+ */
+
+public class SnapshotAckPacket extends Packet {
+
+	private int tick;
+	
+	public SnapshotAckPacket(int tick) {
+		super(ID_SNAPSHOT_ACK, LEN_SNAPSHOT_ACK);
+		this.tick = tick;
+	}
+	
+	public SnapshotAckPacket(byte[] b) {
+		this(ByteBuffer.wrap(b));
+	}
+	
+	public SnapshotAckPacket(ByteBuffer b) {
+		super(b);
+		this.tick = b.getInt();
+	}
+	
+	@Override
+	protected void write(ByteBuffer b) {
+		b.putInt(tick);
+	}
+
+	public int getTick() {
+		return tick;
+	}
+
+	@Override
+	public void handle(Game game) {
+		
+	}
+
+	@Override
+	public void handle(Server server) {
+		
+	}
+
+}
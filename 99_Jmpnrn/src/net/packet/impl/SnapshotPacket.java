@@ -0,0 +1,145 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package net.packet.impl;
+
+import java.nio.ByteBuffer;
+
+import game.Game;
+import net.WorldSnapshot;
+import net.packet.Packet;
+import net.server.Server;
+
+/**
+ * A world snapshot as delta against a snapshot the client acknowledged. A delta
+ * that doesn't fit into one packet is split into parts which are sent one after
+ * the other.
+ */
+
+public class SnapshotPacket extends Packet {
+
+	private static final int FIXED_SIZE = 12;
+
+	public static final int MAX_DELTA_SIZE = Character.MAX_VALUE - FIXED_SIZE;
+
+	private int tick;
+	private int baseTick;
+	private int part;
+	private int parts;
+	private byte[] delta;
+	
+	/**
+	 * @param tick
+	 * @param baseTick the tick of the base snapshot, -1 if the delta contains the
+	 *                 whole world
+	 * @param delta    written by
+	 *                 {@link WorldSnapshot#writeDelta(ByteBuffer, WorldSnapshot)}
+	 */
+	
+	public SnapshotPacket(int tick, int baseTick, byte[] delta) {
+		this(tick, baseTick, 0, 1, delta);
+	}
+	
+	/**
+	 * @param tick
+	 * @param baseTick
+	 * @param part     the index of the part
+	 * @param parts    how many parts the delta was split into
+	 * @param delta    the bytes of this part, at most {@link #MAX_DELTA_SIZE}
+	 */
+	
+	public SnapshotPacket(int tick, int baseTick, int part, int parts, byte[] delta) {
+		super(ID_SNAPSHOT, FIXED_SIZE + delta.length);
+		this.tick = tick;
+		this.baseTick = baseTick;
+		this.part = part;
+		this.parts = parts;
+		this.delta = delta;
+	}
+	
+	/**
+	 * Splits the delta into as many packets as needed
+	 * 
+	 * @param tick
+	 * @param baseTick
+	 * @param delta    from position to limit
+	 * @return the parts in the order they have to be sent
+	 */
+	
+	public static SnapshotPacket[] split(int tick, int baseTick, ByteBuffer delta) {
+		int parts = Math.max(1, (delta.remaining() + MAX_DELTA_SIZE - 1) / MAX_DELTA_SIZE);
+		if (parts > Character.MAX_VALUE) {
+			throw new IllegalArgumentException("Delta of " + delta.remaining() + " bytes is too large");
+		}
+		SnapshotPacket[] packets = new SnapshotPacket[parts];
+		for (int i = 0; i < parts; i++) {
+			byte[] bytes = new byte[Math.min(MAX_DELTA_SIZE, delta.remaining())];
+			delta.get(bytes);
+			packets[i] = new SnapshotPacket(tick, baseTick, i, parts, bytes);
+		}
+		return packets;
+	}
+	
+	public SnapshotPacket(byte[] b) {
+		this(ByteBuffer.wrap(b));
+	}
+	
+	public SnapshotPacket(ByteBuffer b) {
+		super(b);
+		this.tick = b.getInt();
+		this.baseTick = b.getInt();
+		this.part = b.getChar();
+		this.parts = b.getChar();
+		this.delta = new byte[getLength() - FIXED_SIZE];
+		b.get(delta);
+	}
+	
+	@Override
+	protected void write(ByteBuffer b) {
+		b.putInt(tick);
+		b.putInt(baseTick);
+		b.putChar((char) part);
+		b.putChar((char) parts);
+		b.put(delta);
+	}
+
+	public int getTick() {
+		return tick;
+	}
+
+	public int getBaseTick() {
+		return baseTick;
+	}
+
+	public int getPart() {
+		return part;
+	}
+
+	public int getParts() {
+		return parts;
+	}
+
+	/**
+	 * @return the bytes of this part, the whole delta if there is only one part
+	 */
+
+	public ByteBuffer getDelta() {
+		return ByteBuffer.wrap(delta);
+	}
+
+	@Override
+	public void handle(Game game) {
+		
+	}
+
+	@Override
+	public void handle(Server server) {
+		
+	}
+
+}
@@ -10,6 +10,8 @@ package net.packet.impl;
 
 import static net.packet.ByteStreamUtil.*;
 
+import java.nio.ByteBuffer;
+
 import game.Game;
 import net.packet.Packet;
 import net.server.Server;
@@ -20,12 +22,21 @@ public class WelcomePacket extends Packet {
 	
 	public WelcomePacket(String msg) {
 		super(ID_WELCOME, LEN_WELCOME);
-		writeS(data, msg, 100);
+		this.msg = msg;
 	}
 
 	public WelcomePacket(byte[] b) {
+		this(ByteBuffer.wrap(b));
+	}
+	
+	public WelcomePacket(ByteBuffer b) {
 		super(b);
-		msg = getString(in, 100);
+		msg = getString(b, 100);
+	}
+	
+	@Override
+	protected void write(ByteBuffer b) {
+		putString(b, msg, 100);
 	}
 
 	@Override
@@ -0,0 +1,230 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package net.server;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import net.Connection;
+import net.packet.Packet;
+import net.packet.PacketFramer;
+
+/**
+ * A client of the NIO server. Reading and writing only happens on the event
+ * loop the connection belongs to, send can be called from any thread.
+ */
+
+public class NioConnection implements Connection {
+
+	private Server server;
+	private NioEventLoop loop;
+	private SocketChannel channel;
+	private SelectionKey key;
+	private PacketFramer framer;
+	private ConcurrentLinkedQueue<ByteBuffer> writeQueue;
+	private ByteBuffer writing;
+	private AtomicBoolean flushScheduled;
+	private Packet pending;
+	private volatile short clientId;
+	private int id;
+	private boolean loggedIn;
+	private boolean closed;
+
+	public NioConnection(Server server, NioEventLoop loop, SocketChannel channel) {
+		this.server = server;
+		this.loop = loop;
+		this.channel = channel;
+		this.framer = new PacketFramer();
+		this.writeQueue = new ConcurrentLinkedQueue<>();
+		this.flushScheduled = new AtomicBoolean();
+		this.clientId = -1;
+		this.id = ProxyClients.ID_REQUEST;
+	}
+
+	void register(SelectionKey key) {
+		this.key = key;
+	}
+
+	@Override
+	public void send(Packet p) {
+		p.setClientId(clientId);
+		ByteBuffer b = server.getBufferPool().acquire(Packet.HEADER_SIZE + p.getLength());
+		p.encode(b);
+		// the same packet may be sent to other clients at the same time
+		b.putShort(Packet.CLIENT_ID_OFFSET, clientId);
+		b.flip();
+		writeQueue.add(b);
+		if (flushScheduled.compareAndSet(false, true)) {
+			loop.execute(this::flush);
+		}
+	}
+
+	private void flush() {
+		flushScheduled.set(false);
+		write();
+	}
+
+	/**
+	 * Writes as much of the queued packets as the socket takes, waits for
+	 * OP_WRITE if the socket is full
+	 */
+
+	void write() {
+		if (closed) {
+			return;
+		}
+		try {
+			while (true) {
+				if (writing == null) {
+					writing = writeQueue.poll();
+					if (writing == null) {
+						key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+						return;
+					}
+				}
+				channel.write(writing);
+				if (writing.hasRemaining()) {
+					key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+					return;
+				}
+				server.getBufferPool().release(writing);
+				writing = null;
+			}
+		} catch (IOException e) {
+			close();
+		}
+	}
+
+	/**
+	 * Reads what is available and hands complete packets to the server
+	 */
+
+	void read() {
+		try {
+			if (channel.read(framer.getBuffer()) < 0) {
+				close();
+				return;
+			}
+		} catch (IOException e) {
+			close();
+			return;
+		}
+		if (!deliverAll()) {
+			loop.stall(this);
+		}
+	}
+
+	/**
+	 * Delivers the packet that did not fit into the queue of the server and the
+	 * packets buffered after it
+	 *
+	 * @return if the connection can read again
+	 */
+
+	boolean resume() {
+		if (closed) {
+			return true;
+		}
+		if (!deliver(pending)) {
+			return false;
+		}
+		pending = null;
+		if (deliverAll()) {
+			key.interestOps(key.interestOps() | SelectionKey.OP_READ);
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * @return false if the queue of the server was full and reading was paused
+	 */
+
+	private boolean deliverAll() {
+		Packet p;
+		while (!closed && (p = framer.nextPacket()) != null) {
+			if (!deliver(p)) {
+				// the server is behind, stop reading until the packet fits
+				pending = p;
+				key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean deliver(Packet p) {
+		if (!loggedIn) {
+			login(p);
+			return true;
+		}
+		p.setSource(this);
+		return server.getPackets().offer(p);
+	}
+
+	private void login(Packet p) {
+		if (p.getId() != Packet.ID_LOGIN) {
+			System.out.println("Client Failed to Connect");
+			close();
+			return;
+		}
+
+		ProxyClients clients = server.getClients();
+		synchronized (clients) {
+			int id = clients.getNewClientID();
+			if (id == ProxyClients.ID_NOAVAILABLE) {
+				System.out.println("Client Failed to Connect, server is full");
+				close();
+				return;
+			}
+			this.id = id;
+			setClientId(id);
+			send(p);
+			clients.connect(id, this);
+			loggedIn = true;
+		}
+	}
+
+	void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		if (loggedIn) {
+			server.getClients().disconnect(id);
+		}
+		if (key != null) {
+			key.cancel();
+		}
+		try {
+			channel.close();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	@Override
+	public void setClientId(int id) {
+		this.clientId = (short) id;
+	}
+
+	@Override
+	public int getClientId() {
+		return clientId;
+	}
+
+	public boolean isClosed() {
+		return closed;
+	}
+
+}
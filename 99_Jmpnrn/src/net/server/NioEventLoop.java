@@ -0,0 +1,183 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package net.server;
+
+import java.io.IOException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * One selector thread of the NIO server. The first loop also accepts new
+ * connections and hands them to the loops in turn.
+ */
+
+public class NioEventLoop implements Runnable {
+
+	private static final long STALL_RETRY_MILLIS = 1;
+
+	private Server server;
+	private Selector selector;
+	private ConcurrentLinkedQueue<Runnable> tasks;
+	private ArrayList<NioConnection> stalled;
+	private ServerSocketChannel acceptChannel;
+	private NioEventLoop[] loops;
+	private int nextLoop;
+	private volatile boolean running;
+
+	public NioEventLoop(Server server) throws IOException {
+		this.server = server;
+		this.selector = Selector.open();
+		this.tasks = new ConcurrentLinkedQueue<>();
+		this.stalled = new ArrayList<>();
+	}
+
+	/**
+	 * Lets this loop accept new connections on the channel
+	 *
+	 * @param channel
+	 * @param loops   the loops accepted connections are spread across
+	 * @throws IOException
+	 */
+
+	void accept(ServerSocketChannel channel, NioEventLoop[] loops) throws IOException {
+		this.acceptChannel = channel;
+		this.loops = loops;
+		channel.register(selector, SelectionKey.OP_ACCEPT);
+	}
+
+	/**
+	 * Runs the task on the thread of this loop
+	 *
+	 * @param task
+	 */
+
+	public void execute(Runnable task) {
+		tasks.add(task);
+		selector.wakeup();
+	}
+
+	void stall(NioConnection c) {
+		stalled.add(c);
+	}
+
+	@Override
+	public void run() {
+		running = true;
+
+		try {
+			while (running) {
+				if (stalled.isEmpty()) {
+					selector.select();
+				} else {
+					selector.select(STALL_RETRY_MILLIS);
+				}
+
+				Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+				while (it.hasNext()) {
+					SelectionKey key = it.next();
+					it.remove();
+					handle(key);
+				}
+
+				runTasks();
+				resumeStalled();
+			}
+		} catch (IOException | ClosedSelectorException e) {
+			if (running) {
+				e.printStackTrace();
+			}
+		}
+
+		for (SelectionKey key : selector.keys()) {
+			if (key.attachment() instanceof NioConnection) {
+				((NioConnection) key.attachment()).close();
+			}
+		}
+		try {
+			selector.close();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	private void handle(SelectionKey key) {
+		if (!key.isValid()) {
+			return;
+		}
+
+		if (key.isAcceptable()) {
+			acceptAll();
+			return;
+		}
+
+		NioConnection c = (NioConnection) key.attachment();
+		if (key.isWritable()) {
+			c.write();
+		}
+		if (key.isValid() && key.isReadable()) {
+			c.read();
+		}
+	}
+
+	private void acceptAll() {
+		try {
+			SocketChannel channel;
+			while ((channel = acceptChannel.accept()) != null) {
+				channel.configureBlocking(false);
+				channel.socket().setTcpNoDelay(true);
+				NioEventLoop loop = loops[nextLoop];
+				nextLoop = (nextLoop + 1) % loops.length;
+				SocketChannel accepted = channel;
+				loop.execute(() -> loop.register(accepted));
+			}
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	private void register(SocketChannel channel) {
+		NioConnection c = new NioConnection(server, this, channel);
+		try {
+			c.register(channel.register(selector, SelectionKey.OP_READ, c));
+		} catch (IOException e) {
+			c.close();
+		}
+	}
+
+	private void runTasks() {
+		Runnable task;
+		while ((task = tasks.poll()) != null) {
+			task.run();
+		}
+	}
+
+	private void resumeStalled() {
+		Iterator<NioConnection> it = stalled.iterator();
+		while (it.hasNext()) {
+			if (it.next().resume()) {
+				it.remove();
+			} else {
+				// the queue is still full, try the others next time
+				return;
+			}
+		}
+	}
+
+	public void stop() {
+		running = false;
+		selector.wakeup();
+	}
+
+}
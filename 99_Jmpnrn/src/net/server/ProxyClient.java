@@ -20,7 +20,7 @@ public class ProxyClient extends Client {
 	public ProxyClient(Server server, Socket socket) {
 		super(socket);
 		this.server = server;
-		this.tcpReader = new PacketReaderService(socket, server.getPackets());
+		this.tcpReader = new PacketReaderService(socket, server.getPackets(), this);
 	}
 	
 }
@@ -8,28 +8,46 @@
  *******************************************************/
 package net.server;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Iterator;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
 
-import net.client.Client;
+import net.Connection;
 import net.packet.Packet;
 
 public class ProxyClients {
 
 	public static final int ID_REQUEST = -1;
 	public static final int ID_NOAVAILABLE = -2;
-	public static final int[] AVAILABLE_IDS = {99, 1, 2, 3, 4, 5, 6, 7};
+	public static final int DEFAULT_MAX_CLIENTS = 1024;
+	public static final int MAX_CLIENT_ID = Short.MAX_VALUE;
 	
-	private HashMap<Integer, ProxyClient> clients;
+	private ConcurrentHashMap<Integer, Connection> clients;
+	private int maxClients;
 	
 	public ProxyClients() {
-		this.clients = new HashMap<>();
+		this.clients = new ConcurrentHashMap<>();
+		this.maxClients = DEFAULT_MAX_CLIENTS;
 	}
 
-	public void connect(int id, ProxyClient p) {
+	public void connect(int id, Connection p) {
 		this.clients.put(id, p);
 	}
+	
+	public Connection get(int id) {
+		return this.clients.get(id);
+	}
+	
+	public int size() {
+		return this.clients.size();
+	}
+	
+	public Collection<Connection> getConnections() {
+		return this.clients.values();
+	}
+	
+	public boolean contains(Connection c) {
+		return this.clients.containsValue(c);
+	}
 
 	public void disconnect(int id) {
 		this.clients.remove(id);
@@ -37,18 +55,14 @@ public class ProxyClients {
 
 	public void send(Packet p) {
 
-		Iterator<Integer> iterator = clients.keySet().iterator();
-		while (iterator.hasNext()) {
-			clients.get(iterator.next()).send(p);
+		for (Connection client : clients.values()) {
+			client.send(p);
 		}
 	}
 
 	public void sendWithout(int bannedid, Packet p) {
 
-		Iterator<Integer> iterator = clients.keySet().iterator();
-		while (iterator.hasNext()) {
-			int clientid = iterator.next();
-			Client client = clients.get(clientid);
+		for (Connection client : clients.values()) {
 			if (!(client.getClientId() == bannedid)) {
 				
 				System.out.println("Sending to " + client.getClientId());
@@ -59,8 +73,13 @@ public class ProxyClients {
 
 	}
 	
-	public int getNewClientID() {
-		for (int i : AVAILABLE_IDS) {
+	/**
+	 * @return the lowest free id from 1 to the max clients, ID_NOAVAILABLE if
+	 *         the server is full
+	 */
+	
+	public synchronized int getNewClientID() {
+		for (int i = 1; i <= maxClients; i++) {
 			if (clients.get(i) == null) {
 				return i;
 			}
@@ -68,5 +87,21 @@ public class ProxyClients {
 		
 		return ID_NOAVAILABLE;
 	}
+	
+	/**
+	 * @param maxClients how many clients can be connected at once, at most
+	 *                   MAX_CLIENT_ID so the ids fit into the packet header
+	 */
+	
+	public void setMaxClients(int maxClients) {
+		if (maxClients < 0 || maxClients > MAX_CLIENT_ID) {
+			throw new IllegalArgumentException("max clients " + maxClients + " not in 0 to " + MAX_CLIENT_ID);
+		}
+		this.maxClients = maxClients;
+	}
+	
+	public int getMaxClients() {
+		return maxClients;
+	}
 
 }
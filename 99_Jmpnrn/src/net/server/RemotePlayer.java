@@ -0,0 +1,85 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package net.server;
+
+import java.awt.Shape;
+
+import game.entity.ActorType;
+import game.entity.GameObject;
+import game.level.World;
+import game.shape.Rectangle;
+
+/**
+ * The player of a client in the world of the server. The client only sends
+ * where it wants to be, the player walks there with at most MAX_SPEED. The
+ * client already collided its player with the map, so this one doesn't.
+ */
+
+public class RemotePlayer extends GameObject {
+
+	public static final double MAX_SPEED = 12;
+	
+	private double targetX;
+	private double targetY;
+	
+	public RemotePlayer(World worldIn, Rectangle r) {
+		super(worldIn, r, null);
+		this.gravity = 0;
+		this.friction = 0;
+		this.slopeCollision = false;
+		this.staticCollision = false;
+		this.targetX = r.getX();
+		this.targetY = r.getY();
+	}
+	
+	@Override
+	public void update(double elapsedTime) {
+		double dx = targetX - getX();
+		double dy = targetY - getY();
+		double dist = Math.sqrt(dx * dx + dy * dy);
+		if (dist == 0) {
+			setVel(0, 0);
+			return;
+		}
+		double speed = Math.min(MAX_SPEED, dist / elapsedTime);
+		setVel(dx / dist * speed, dy / dist * speed);
+	}
+	
+	public void setTarget(double x, double y) {
+		this.targetX = x;
+		this.targetY = y;
+	}
+
+	@Override
+	public boolean shouldCollide(GameObject g) {
+		return false;
+	}
+
+	@Override
+	public void onStaticCollision(Shape s) {
+		
+	}
+
+	@Override
+	public void onCollision(GameObject o) {
+		
+	}
+
+	@Override
+	public void onOutOfWorld(World world) {
+		setPosition(Math.max(0, Math.min(getX(), world.getWidth() - getWidth())),
+				Math.max(0, Math.min(getY(), world.getHeight() - getHeight())));
+	}
+
+	@Override
+	public ActorType getActorType() {
+		return ActorType.PLAYER;
+	}
+
+}
@@ -9,8 +9,11 @@
 package net.server;
 
 import java.io.IOException;
+import java.net.InetSocketAddress;
 import java.net.ServerSocket;
+import java.nio.channels.ServerSocketChannel;
 
+import net.packet.BufferPool;
 import net.packet.PacketQueue;
 
 public class Server {
@@ -19,6 +22,9 @@ public class Server {
 	private ProxyClients clients;
 	private ServerConnection connections;
 	private ServerSocket serverSocket;
+	private ServerSocketChannel serverChannel;
+	private NioEventLoop[] loops;
+	private BufferPool bufferPool;
 	
 	public Server(int port) {
 		this.packets = new PacketQueue(100);
@@ -31,6 +37,43 @@ public class Server {
 		System.out.println("Startet Server on port " + port);
 	}
 	
+	/**
+	 * Starts a non blocking server, all clients are served by the given number of
+	 * selector threads instead of two threads per client
+	 * 
+	 * @param port       0 to pick a free port
+	 * @param eventLoops
+	 */
+	
+	public Server(int port, int eventLoops) {
+		this.packets = new PacketQueue(100);
+		this.clients = new ProxyClients();
+		this.loops = new NioEventLoop[Math.max(1, eventLoops)];
+		this.bufferPool = new BufferPool(BufferPool.DEFAULT_BUFFER_SIZE, true, 4096);
+		
+		try {
+			System.out.println("Starting NIO Server on port " + port);
+			this.serverChannel = ServerSocketChannel.open();
+			this.serverChannel.bind(new InetSocketAddress(port));
+			this.serverChannel.configureBlocking(false);
+			this.serverSocket = serverChannel.socket();
+			
+			for (int i = 0; i < loops.length; i++) {
+				loops[i] = new NioEventLoop(this);
+			}
+			loops[0].accept(serverChannel, loops);
+		} catch (IOException e) {
+			System.err.println("Failed to create TCP Server on port " + port);
+			System.exit(1);
+		}
+		
+		for (int i = 0; i < loops.length; i++) {
+			new Thread(loops[i], "Server Event Loop " + i).start();
+		}
+		
+		System.out.println("Startet NIO Server on port " + getPort());
+	}
+	
 	public ServerSocket createTCPSocket(int port) {
 		try {
 			System.out.println("Starting Server on port " + port);
@@ -58,4 +101,34 @@ public class Server {
 		return serverSocket;
 	}
 	
+	/**
+	 * @return the direct buffers the NIO connections send packets from
+	 */
+	
+	public BufferPool getBufferPool() {
+		return bufferPool;
+	}
+	
+	public int getPort() {
+		return serverSocket.getLocalPort();
+	}
+	
+	/**
+	 * Stops the event loops of a NIO server and closes all connections
+	 */
+	
+	public void stop() {
+		if (loops == null) {
+			return;
+		}
+		for (NioEventLoop loop : loops) {
+			loop.stop();
+		}
+		try {
+			serverChannel.close();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+	
 }
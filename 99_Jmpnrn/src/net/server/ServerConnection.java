@@ -30,7 +30,7 @@ public class ServerConnection extends ServerTask {
 			System.out.println("New Client Attempts to Connect: " + socket.getInetAddress().toString());
 			ProxyClient client = new ProxyClient(server, socket);
 			Packet p = client.request();
-			if (p.getId() == Packet.ID_LOGIN) {
+			if (p != null && p.getId() == Packet.ID_LOGIN) {
 				client.start();
 				int id = server.getClients().getNewClientID();
 				client.setClientId(id);
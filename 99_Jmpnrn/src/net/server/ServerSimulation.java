@@ -0,0 +1,325 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package net.server;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import game.Time;
+import game.level.World;
+import game.shape.Rectangle;
+import net.Connection;
+import net.WorldSnapshot;
+import net.packet.Packet;
+import net.packet.impl.PlayerMovePacket;
+import net.packet.impl.PlayerSpawnPacket;
+import net.packet.impl.SnapshotAckPacket;
+import net.packet.impl.SnapshotPacket;
+
+/**
+ * Runs the world of the server at a fixed tick rate. Every tick the packets of
+ * the clients are applied, the world is updated and a snapshot is sent to every
+ * client as delta against the last snapshot the client acknowledged.
+ */
+
+public class ServerSimulation implements Runnable {
+
+	public static final int DEFAULT_TICK_RATE = 60;
+
+	/**
+	 * How many snapshots are kept as base for deltas, clients that didn't
+	 * acknowledge any of them get the whole world
+	 */
+	public static final int HISTORY = 32;
+
+	private Server server;
+	private World world;
+	private int tickRate;
+	private int tick;
+	private WorldSnapshot[] history;
+	private HashMap<Connection, Integer> acks;
+	private HashMap<Connection, RemotePlayer> players;
+	private HashMap<Integer, SnapshotPacket[]> deltas;
+	private ByteBuffer deltaBuffer;
+	private boolean deltaCompression;
+	private volatile boolean running;
+
+	private volatile long bytesSent;
+	private volatile long snapshotsSent;
+	private volatile long tickNanos;
+
+	public ServerSimulation(Server server, World world) {
+		this(server, world, DEFAULT_TICK_RATE);
+	}
+
+	public ServerSimulation(Server server, World world, int tickRate) {
+		this.server = server;
+		this.world = world;
+		this.tickRate = tickRate;
+		this.history = new WorldSnapshot[HISTORY];
+		for (int i = 0; i < HISTORY; i++) {
+			history[i] = new WorldSnapshot();
+		}
+		this.acks = new HashMap<>();
+		this.players = new HashMap<>();
+		this.deltas = new HashMap<>();
+		this.deltaBuffer = ByteBuffer.allocate(SnapshotPacket.MAX_DELTA_SIZE);
+		this.deltaCompression = true;
+	}
+
+	@Override
+	public void run() {
+		running = true;
+
+		double dt = 1.0 / tickRate;
+		double next = Time.getTime();
+		while (running) {
+			tick(dt);
+			next += dt;
+			double now = Time.getTime();
+			if (now - next > 1) {
+				// too far behind, don't try to catch up
+				next = now;
+			}
+			sleepUntil(next);
+		}
+	}
+
+	/**
+	 * Applies the packets that arrived, updates the world and sends the snapshot
+	 *
+	 * @param dt
+	 */
+
+	public void tick(double dt) {
+		long start = System.nanoTime();
+
+		Packet p;
+		while ((p = server.getPackets().poll()) != null) {
+			handle(p);
+		}
+		updatePlayers();
+
+		world.update(dt);
+		tick++;
+
+		WorldSnapshot snapshot = history[tick % HISTORY];
+		snapshot.capture(tick, world.getActors());
+		broadcast(snapshot);
+
+		tickNanos += System.nanoTime() - start;
+	}
+
+	private void handle(Packet p) {
+		Connection source = p.getSource();
+		if (source == null) {
+			return;
+		}
+
+		if (p instanceof SnapshotAckPacket) {
+			int acked = ((SnapshotAckPacket) p).getTick();
+			Integer last = acks.get(source);
+			// only ticks that were sent, a client can send anything
+			if (acked >= 0 && acked <= tick && (last == null || acked > last)) {
+				acks.put(source, acked);
+			}
+		} else if (p instanceof PlayerMovePacket) {
+			RemotePlayer player = players.get(source);
+			if (player != null) {
+				PlayerMovePacket move = (PlayerMovePacket) p;
+				player.setTarget(move.getX(), move.getY());
+			}
+		} else {
+			p.handle(server);
+		}
+	}
+
+	/**
+	 * Spawns a player for every new client, tells the client which actor is its
+	 * player and removes the players of clients that left
+	 */
+
+	private void updatePlayers() {
+		for (Connection c : server.getClients().getConnections()) {
+			if (!players.containsKey(c)) {
+				RemotePlayer player = new RemotePlayer(world, new Rectangle(0, 0, 1, 2.5));
+				// spawn compares the bounds, all players start at the same point
+				world.spawnQueue(player, world.getSpawnPoint());
+				// stay at the spawn point until the client sends where to go
+				player.setTarget(player.getX(), player.getY());
+				players.put(c, player);
+				c.send(new PlayerSpawnPacket(player.getNetworkId()));
+			}
+		}
+
+		Iterator<Map.Entry<Connection, RemotePlayer>> it = players.entrySet().iterator();
+		while (it.hasNext()) {
+			Map.Entry<Connection, RemotePlayer> e = it.next();
+			if (!server.getClients().contains(e.getKey())) {
+				world.remove(e.getValue());
+				acks.remove(e.getKey());
+				it.remove();
+			}
+		}
+	}
+
+	/**
+	 * Sends the snapshot to every client, clients that acknowledged the same
+	 * base share the packet
+	 *
+	 * @param snapshot
+	 */
+
+	private void broadcast(WorldSnapshot snapshot) {
+		deltas.clear();
+		ArrayList<Connection> connections = new ArrayList<>(server.getClients().getConnections());
+
+		SnapshotPacket[] shared = null;
+		boolean allShared = true;
+		SnapshotPacket[][] packets = new SnapshotPacket[connections.size()][];
+		for (int i = 0; i < packets.length; i++) {
+			packets[i] = snapshotFor(connections.get(i), snapshot);
+			if (shared == null) {
+				shared = packets[i];
+			}
+			allShared &= packets[i] == shared;
+		}
+
+		if (allShared && shared != null) {
+			for (SnapshotPacket p : shared) {
+				server.getClients().send(p);
+				count(p, packets.length);
+			}
+		} else {
+			for (int i = 0; i < packets.length; i++) {
+				for (SnapshotPacket p : packets[i]) {
+					connections.get(i).send(p);
+					count(p, 1);
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return the parts of the delta against the last snapshot the client
+	 *         acknowledged
+	 */
+
+	private SnapshotPacket[] snapshotFor(Connection c, WorldSnapshot snapshot) {
+		WorldSnapshot base = null;
+		Integer acked = acks.get(c);
+		if (deltaCompression && acked != null && acked >= 0 && snapshot.getTick() - acked < HISTORY) {
+			base = history[acked % HISTORY];
+			if (base.getTick() != acked) {
+				base = null;
+			}
+		}
+
+		int baseTick = base != null ? base.getTick() : -1;
+		SnapshotPacket[] p = deltas.get(baseTick);
+		if (p == null) {
+			int size = snapshot.getMaxDeltaSize(base);
+			if (deltaBuffer.capacity() < size) {
+				deltaBuffer = ByteBuffer.allocate(Math.max(size, deltaBuffer.capacity() * 2));
+			}
+			deltaBuffer.clear();
+			snapshot.writeDelta(deltaBuffer, base);
+			deltaBuffer.flip();
+			p = SnapshotPacket.split(snapshot.getTick(), baseTick, deltaBuffer);
+			deltas.put(baseTick, p);
+		}
+		return p;
+	}
+
+	private void count(SnapshotPacket p, int clients) {
+		bytesSent += (long) (Packet.HEADER_SIZE + p.getLength()) * clients;
+		snapshotsSent += clients;
+	}
+
+	private void sleepUntil(double time) {
+		double remaining;
+		while ((remaining = time - Time.getTime()) > 0) {
+			if (remaining > 0.002) {
+				try {
+					Thread.sleep((long) ((remaining - 0.001) * 1000));
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+			} else {
+				Thread.yield();
+			}
+		}
+	}
+
+	public void stop() {
+		running = false;
+	}
+
+	/**
+	 * @param deltaCompression false to send the whole world every tick
+	 */
+
+	public void setDeltaCompression(boolean deltaCompression) {
+		this.deltaCompression = deltaCompression;
+	}
+
+	public boolean isDeltaCompression() {
+		return deltaCompression;
+	}
+
+	/**
+	 * @param tick
+	 * @return the snapshot of the tick, null if it is not in the history anymore
+	 */
+
+	public WorldSnapshot getSnapshot(int tick) {
+		if (tick < 0) {
+			return null;
+		}
+		WorldSnapshot s = history[tick % HISTORY];
+		return s.getTick() == tick ? s : null;
+	}
+
+	public World getWorld() {
+		return world;
+	}
+
+	public int getTick() {
+		return tick;
+	}
+
+	public int getTickRate() {
+		return tickRate;
+	}
+
+	/**
+	 * @return bytes of all snapshot packets sent including the header
+	 */
+
+	public long getBytesSent() {
+		return bytesSent;
+	}
+
+	public long getSnapshotsSent() {
+		return snapshotsSent;
+	}
+
+	/**
+	 * @return time spent in {@link #tick(double)}
+	 */
+
+	public long getTickNanos() {
+		return tickNanos;
+	}
+
+}
@@ -12,8 +12,9 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import game.io.FileIO;
 
@@ -21,7 +22,7 @@ public class SoundEngine {
 	
 	private static SoundEngine instance;
 
-	private HashMap<String, Track> tracks;
+	private ConcurrentHashMap<String, Track> tracks;
 
 	public static SoundEngine getInstance() {
 		if (SoundEngine.instance == null) {
@@ -31,7 +32,7 @@ public class SoundEngine {
 	}
 	
 	public SoundEngine() {
-		this.tracks = new HashMap<>();
+		this.tracks = new ConcurrentHashMap<>();
 	}
 	
 	public void play(String id) {
@@ -102,20 +103,42 @@ public class SoundEngine {
 	}
 	
 	public void load(String tracklistfile) {
+		LinkedHashMap<String, String> tracklist = readTracklist(tracklistfile);
+		for (String id : tracklist.keySet()) {
+			loadTrack(id, tracklist.get(id));
+		}
+	}
+	
+	/**
+	 * @param tracklistfile
+	 * @return the path of every track by id
+	 */
+	
+	public LinkedHashMap<String, String> readTracklist(String tracklistfile) {
+		LinkedHashMap<String, String> tracklist = new LinkedHashMap<>();
 		InputStream in = FileIO.getResourceAsStream(tracklistfile);
 		BufferedReader reader = new BufferedReader(new InputStreamReader(in));
 		String line;
 		try {
 			while ((line = reader.readLine()) != null) {
 				String[] split = line.split(":");
-				String id = split[0];
-				String path = split[1];
-				this.tracks.put(id, new Track(path));
+				tracklist.put(split[0], split[1]);
 			}
 		} catch (IOException e) {
 			e.printStackTrace();
 		}
+		return tracklist;
+	}
+	
+	/**
+	 * Opens the track, tracks can be loaded from several threads at once
+	 * 
+	 * @param id
+	 * @param path
+	 */
 	
+	public void loadTrack(String id, String path) {
+		this.tracks.put(id, new Track(path));
 	}
 	
 	public static void main(String[] args) throws InterruptedException {
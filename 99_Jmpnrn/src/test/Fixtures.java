@@ -0,0 +1,84 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntToDoubleFunction;
+
+import game.level.MapData;
+import game.level.World;
+import game.shape.Polygon2D;
+
+/**
+ * Worlds and polygons shared by the tests and the benchmarks
+ */
+
+public class Fixtures {
+
+	private Fixtures() {
+	}
+
+	/**
+	 * @return the headless slopes world, initialized
+	 */
+
+	public static World world() {
+		World world = new World(null);
+		world.load("slopes");
+		world.init();
+		return world;
+	}
+
+	/**
+	 * @param maps the names of the maps
+	 * @return the collision polygons of the maps, one map after the other
+	 * @throws Exception
+	 */
+
+	public static List<Polygon2D> polygons(String... maps) throws Exception {
+		List<Polygon2D> polygons = new ArrayList<>();
+		for (String name : maps) {
+			polygons.addAll(MapData.load(name).createPolygons());
+		}
+		return polygons;
+	}
+
+	/**
+	 * A star around the center, concave if the radius changes from point to
+	 * point
+	 *
+	 * @param n      the number of points
+	 * @param cx
+	 * @param cy
+	 * @param radius the distance of point k from the center, called in the order
+	 *               of the points
+	 * @return the polygon
+	 */
+
+	public static Polygon2D star(int n, double cx, double cy, IntToDoubleFunction radius) {
+		return star(n, 1, cx, cy, radius);
+	}
+
+	/**
+	 * @param direction 1 or -1 for the points in the other direction
+	 * @see #star(int, double, double, IntToDoubleFunction)
+	 */
+
+	public static Polygon2D star(int n, int direction, double cx, double cy, IntToDoubleFunction radius) {
+		Polygon2D poly = new Polygon2D();
+		for (int k = 0; k < n; k++) {
+			double angle = 2 * Math.PI * k / n * direction;
+			double r = radius.applyAsDouble(k);
+			poly.addPoint(cx + Math.cos(angle) * r, cy + Math.sin(angle) * r);
+		}
+		return poly;
+	}
+
+}
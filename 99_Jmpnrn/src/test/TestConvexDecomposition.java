@@ -0,0 +1,140 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package test;
+
+import java.awt.geom.Path2D;
+import java.util.List;
+import java.util.Random;
+
+import game.shape.ConvexDecomposition;
+import game.shape.Polygon2D;
+import game.shape.Vector2;
+
+/**
+ * Splits the polygons of the slopes map and random concave polygons into
+ * convex parts and checks that the parts are convex and cover the same area,
+ * that intersects gives the same as the crossings of a java.awt path and that
+ * moving a rectangle by the penetration gets it out of a part, but not less
+ */
+
+public class TestConvexDecomposition {
+
+	private static final int RECTANGLES = 2000;
+
+	public static void main(String[] args) throws Exception {
+		List<Polygon2D> polygons = Fixtures.polygons("slopes");
+
+		Random random = new Random(1);
+		for (int i = 0; i < 100; i++) {
+			int n = 3 + random.nextInt(30);
+			polygons.add(Fixtures.star(n, i % 2 == 0 ? 1 : -1, 0, 0, k -> 1 + random.nextDouble() * 6));
+		}
+
+		int parts = 0;
+		int failed = 0;
+		int differ = 0;
+		int tested = 0;
+		Vector2 normal = new Vector2();
+		for (Polygon2D poly : polygons) {
+			double area = 0;
+			for (Polygon2D part : poly.getConvexParts()) {
+				if (!ConvexDecomposition.isConvex(part)) {
+					failed++;
+					System.out.println("not convex: " + part);
+				}
+				area += Math.abs(area(part));
+				parts++;
+			}
+			if (Math.abs(area - Math.abs(area(poly))) > 1e-9 * Math.max(1, area)) {
+				failed++;
+				System.out.printf("area %f of the parts, %f of %s\n", area, Math.abs(area(poly)), poly);
+			}
+
+			Path2D.Double path = new Path2D.Double(Path2D.WIND_EVEN_ODD);
+			path.moveTo(poly.xpoints[0], poly.ypoints[0]);
+			for (int k = 1; k < poly.npoints; k++) {
+				path.lineTo(poly.xpoints[k], poly.ypoints[k]);
+			}
+			path.closePath();
+
+			java.awt.geom.Rectangle2D b = path.getBounds2D();
+			for (int i = 0; i < RECTANGLES; i++) {
+				double w = random.nextDouble() * b.getWidth() / 2 + 0.01;
+				double h = random.nextDouble() * b.getHeight() / 2 + 0.01;
+				double x = b.getX() - w + random.nextDouble() * (b.getWidth() + w);
+				double y = b.getY() - h + random.nextDouble() * (b.getHeight() + h);
+				tested++;
+				if (poly.intersects(x, y, w, h) != path.intersects(x, y, w, h)) {
+					differ++;
+				}
+
+				for (Polygon2D part : poly.getConvexParts()) {
+					double depth = part.getPenetration(x, y, w, h, normal);
+					if (depth <= 0) {
+						continue;
+					}
+					double out = depth * (1 + 1e-9) + 1e-12;
+					double in = depth * 0.99;
+					if (part.intersects(x + normal.getX() * out, y + normal.getY() * out, w, h)
+							|| !part.intersects(x + normal.getX() * in, y + normal.getY() * in, w, h)) {
+						failed++;
+					}
+				}
+			}
+		}
+
+		System.out.printf("%d polygons in %d convex parts, %d rectangles, %d differ from java.awt: %s\n", polygons.size(),
+				parts, tested, differ, failed == 0 && differ == 0 ? "ok" : failed + " FAILED");
+
+		testCrossing(random);
+	}
+
+	/**
+	 * Stars that cross themselves can't be split exactly, intersects uses the
+	 * exact test and there is no penetration vector
+	 */
+
+	private static void testCrossing(Random random) {
+		int failed = 0;
+		Vector2 normal = new Vector2();
+		for (int n : new int[] { 5, 7, 9 }) {
+			Polygon2D star = new Polygon2D();
+			Path2D.Double path = new Path2D.Double(Path2D.WIND_EVEN_ODD);
+			for (int k = 0; k < n; k++) {
+				double angle = 2 * Math.PI * (k * 2 % n) / n;
+				star.addPoint(Math.cos(angle) * 5, Math.sin(angle) * 5);
+				if (k == 0) {
+					path.moveTo(star.xpoints[k], star.ypoints[k]);
+				} else {
+					path.lineTo(star.xpoints[k], star.ypoints[k]);
+				}
+			}
+			path.closePath();
+
+			for (int i = 0; i < RECTANGLES; i++) {
+				double x = random.nextDouble() * 12 - 6;
+				double y = random.nextDouble() * 12 - 6;
+				if (star.intersects(x, y, 0.3, 0.3) != path.intersects(x, y, 0.3, 0.3)
+						|| star.getPenetration(x, y, 0.3, 0.3, normal) != 0) {
+					failed++;
+				}
+			}
+		}
+		System.out.println("stars that cross themselves: " + (failed == 0 ? "ok" : failed + " FAILED"));
+	}
+
+	private static double area(Polygon2D poly) {
+		double area = 0;
+		for (int i = 0, last = poly.npoints - 1; i < poly.npoints; last = i, i++) {
+			area += poly.xpoints[last] * poly.ypoints[i] - poly.xpoints[i] * poly.ypoints[last];
+		}
+		return area / 2;
+	}
+
+}
@@ -0,0 +1,97 @@
+package test;
+
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import game.level.World;
+import game.shape.Rectangle;
+import game.shape.Vector2;
+import net.WorldSnapshot;
+import net.client.Client;
+import net.client.SnapshotReceiver;
+import net.packet.Packet;
+import net.packet.impl.LoginPacket;
+import net.packet.impl.SnapshotPacket;
+import net.server.RemotePlayer;
+import net.server.Server;
+import net.server.ServerSimulation;
+
+/**
+ * Runs the server simulation with so many actors that the whole world doesn't
+ * fit into one packet and checks that a client puts the parts back together,
+ * for the full snapshot and for a delta.
+ */
+
+public class TestLargeSnapshot {
+
+	private static final int ACTORS = 10000;
+	private static final int WIDTH = 100;
+	private static final int HEIGHT = 50;
+	private static final double DT = 1.0 / 60;
+
+	public static void main(String[] args) throws Exception {
+		Server server = new Server(0, 1);
+		World world = new World(null, WIDTH, HEIGHT);
+		Random random = new Random(1);
+		ArrayList<RemotePlayer> actors = new ArrayList<>();
+		for (int i = 0; i < ACTORS; i++) {
+			RemotePlayer actor = new RemotePlayer(world, new Rectangle(0, 0, 1, 2));
+			world.spawn(actor, new Vector2(random.nextDouble() * (WIDTH - 1), random.nextDouble() * (HEIGHT - 2)));
+			actor.setTarget(actor.getX(), actor.getY());
+			actors.add(actor);
+		}
+		ServerSimulation simulation = new ServerSimulation(server, world);
+
+		Client client = new Client("localhost", server.getPort());
+		client.send(new LoginPacket());
+		client.setClientId(client.request().getClientID());
+		client.start();
+		SnapshotReceiver receiver = new SnapshotReceiver();
+
+		simulation.tick(DT);
+		SnapshotPacket[] last = new SnapshotPacket[1];
+		WorldSnapshot full = receive(client, receiver, last);
+		check("full snapshot in " + last[0].getParts() + " parts", full != null && last[0].getParts() > 1 && last[0].getBaseTick() == -1);
+		check("full snapshot", full != null && full.sameState(simulation.getSnapshot(simulation.getTick())));
+		client.send(receiver.acknowledge(full));
+		// the ack has to be there before the next tick
+		Thread.sleep(200);
+
+		for (RemotePlayer actor : actors) {
+			actor.setTarget(random.nextDouble() * (WIDTH - 1), random.nextDouble() * (HEIGHT - 2));
+		}
+		simulation.tick(DT);
+		WorldSnapshot delta = receive(client, receiver, last);
+		check("delta in " + last[0].getParts() + " parts", delta != null && last[0].getBaseTick() == full.getTick());
+		check("delta", delta != null && delta.sameState(simulation.getSnapshot(simulation.getTick())));
+
+		client.stop();
+		server.stop();
+		System.exit(0);
+	}
+
+	/**
+	 * @return the next complete snapshot, null if none arrives within 5 seconds
+	 */
+
+	private static WorldSnapshot receive(Client client, SnapshotReceiver receiver, SnapshotPacket[] last) {
+		long end = System.currentTimeMillis() + 5000;
+		while (System.currentTimeMillis() < end) {
+			Packet p = client.getPackets().next(10, TimeUnit.MILLISECONDS);
+			if (p instanceof SnapshotPacket) {
+				last[0] = (SnapshotPacket) p;
+				WorldSnapshot s = receiver.receive(last[0]);
+				if (s != null) {
+					return s;
+				}
+			}
+		}
+		return null;
+	}
+
+	private static void check(String name, boolean ok) {
+		System.out.println(name + ": " + (ok ? "ok" : "FAILED"));
+	}
+
+}
@@ -0,0 +1,152 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+
+import game.entity.GameObject;
+import game.entity.Player;
+import game.entity.enemy.Enemies;
+import game.entity.enemy.Skeleton;
+import game.entity.item.Item;
+import game.entity.projectile.Arrow;
+import game.level.World;
+import game.shape.Rectangle;
+import game.shape.Vector2;
+
+/**
+ * Lets 100 skeletons shoot at a player and checks that no released arrow is
+ * still in the world, that every actor has its own network id and that arrows
+ * are only created for the first volley. Also checks that picked up items are
+ * not released and used up items are.
+ */
+
+public class TestObjectPool {
+
+	private static final int SKELETONS = 100;
+	private static final int TICKS = 1200;
+
+	public static void main(String[] args) throws Exception {
+		System.setProperty("java.awt.headless", "true");
+		int failed = 0;
+
+		Arrow.POOL.clear();
+		long[] pooled = run();
+		failed += pooled[0];
+		System.out.println(Arrow.POOL);
+		// the first volley creates an arrow for every skeleton, after that they come from the pool
+		boolean ok = Arrow.POOL.getCreated() <= SKELETONS;
+		failed += ok ? 0 : 1;
+		System.out.printf("arrow hit rate %.1f%%, %d created for %d skeletons: %s\n", Arrow.POOL.getHitRate() * 100, Arrow.POOL.getCreated(), SKELETONS, ok ? "ok" : "FAILED");
+
+		int maxPooled = Arrow.POOL.getMaxPooled();
+		Arrow.POOL.setMaxPooled(0);
+		Arrow.POOL.clear();
+		long[] unpooled = run();
+		failed += unpooled[0];
+		System.out.printf("arrows created: %d pooled, %d of %d without pool\n", pooled[1], unpooled[1], Arrow.POOL.getAcquired());
+
+		Arrow.POOL.setMaxPooled(maxPooled);
+		Arrow.POOL.clear();
+
+		failed += testItems();
+		System.out.println(failed == 0 ? "ok" : failed + " FAILED");
+	}
+
+	/**
+	 * @return failed checks and created arrows
+	 */
+
+	private static long[] run() {
+		World world = Fixtures.world();
+		Vector2 spawn = world.getSpawnPoint();
+		Player player = new Player(world, new Rectangle(0, 0, 1, 2.5), null);
+		player.setMaxHealth(Double.MAX_VALUE);
+		player.setHealth(Double.MAX_VALUE);
+		world.spawn(player, new Vector2(spawn.getX(), spawn.getY() - 2));
+		for (int i = 0; i < SKELETONS; i++) {
+			Skeleton skelly = Enemies.createSkelly(world);
+			skelly.setMaxHealth(Double.MAX_VALUE);
+			skelly.setHealth(Double.MAX_VALUE);
+			skelly.setTarget(player);
+			world.spawn(skelly, new Vector2(spawn.getX() - 10 + (i % 20), spawn.getY() - 4 - i / 20));
+		}
+
+		long failed = 0;
+		HashSet<Integer> ids = new HashSet<>();
+		for (int tick = 0; tick < TICKS; tick++) {
+			world.update(1.0 / 60);
+
+			ids.clear();
+			for (GameObject g : world.getActors()) {
+				if (g.isPooled()) {
+					failed++;
+					System.out.println("released " + g.getClass().getSimpleName() + " in the world at tick " + tick);
+				}
+				if (!ids.add(g.getNetworkId())) {
+					failed++;
+					System.out.println("network id " + g.getNetworkId() + " used twice at tick " + tick);
+				}
+			}
+		}
+		return new long[] { failed, Arrow.POOL.getCreated() };
+	}
+
+	private static int testItems() {
+		World world = Fixtures.world();
+		int failed = 0;
+
+		// picked up, the world removes it but an inventory keeps it
+		Item item = world.getItems().get("game_jack_daniels");
+		world.spawn(item, world.getSpawnPoint());
+		world.remove(item);
+		world.garbageCollection();
+		boolean ok = !item.isPooled() && !world.getActors().contains(item);
+		failed += ok ? 0 : 1;
+		System.out.println("removed item is not released: " + (ok ? "ok" : "FAILED"));
+
+		// used up
+		long uid = item.getUID();
+		ok = item.release() && !item.release();
+		Item next = world.getItems().get("game_jack_daniels");
+		ok &= next == item && !next.isPooled() && next.getUID() != uid;
+		failed += ok ? 0 : 1;
+		System.out.println("used up item is acquired again with a new uid: " + (ok ? "ok" : "FAILED"));
+
+		// spawning a released object is a bug
+		next.release();
+		try {
+			world.spawnQueue(next, world.getSpawnPoint());
+			ok = false;
+		} catch (IllegalStateException e) {
+			ok = true;
+		}
+		failed += ok ? 0 : 1;
+		System.out.println("spawning a released item fails: " + (ok ? "ok" : "FAILED"));
+
+		ArrayList<Item> items = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			items.add(world.getItems().get("game_jack_daniels"));
+		}
+		for (Item i : items) {
+			i.release();
+		}
+		for (int i = 0; i < 4; i++) {
+			world.getItems().get("game_jack_daniels");
+		}
+		world.getItems().getPools().forEach(p -> {
+			if (p.getAcquired() > 0) {
+				System.out.println(p);
+			}
+		});
+		return failed;
+	}
+
+}
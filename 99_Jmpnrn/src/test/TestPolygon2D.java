@@ -8,6 +8,9 @@
  *******************************************************/
 package test;
 
+import java.util.Random;
+
+import game.shape.Line;
 import game.shape.Polygon2D;
 import game.shape.Vector2;
 
@@ -29,6 +32,59 @@ public class TestPolygon2D {
 		Polygon2D poly = new Polygon2D(p);
 		System.out.println(poly);
 		
+		testNearestSide();
+		
+	}
+
+	/**
+	 * Compares the nearest side and the contact point on it with the lines the
+	 * polygon created before it cached its sides, also after the polygon moved
+	 */
+
+	private static void testNearestSide() {
+		Random random = new Random(1);
+		int failed = 0;
+		int tested = 0;
+		Vector2 contact = new Vector2();
+
+		for (int i = 0; i < 200; i++) {
+			int n = 3 + random.nextInt(20);
+			Polygon2D poly = Fixtures.star(n, 0, 0, k -> 1 + random.nextDouble() * 6);
+			poly.getNearestSide(0, 0);
+			poly.translate(random.nextDouble() * 10, random.nextDouble() * 10);
+
+			for (int j = 0; j < 100; j++) {
+				Vector2 point = new Vector2(random.nextDouble() * 30 - 10, random.nextDouble() * 30 - 10);
+
+				double min = Double.MAX_VALUE;
+				Line expected = null;
+				for (int k = 0; k < n; k++) {
+					int next = (k + 1) % n;
+					Line line = new Line(new Vector2(poly.xpoints[k], poly.ypoints[k]), new Vector2(poly.xpoints[next], poly.ypoints[next]));
+					double distance = line.getDistanceBetweenPointAndLine(point);
+					if (distance <= min) {
+						min = distance;
+						expected = line;
+					}
+				}
+
+				Line line = poly.getNearestSideToPoint(point);
+				int side = poly.getNearestSide(point.getX(), point.getY());
+				boolean same = Math.abs(line.getDistanceBetweenPointAndLine(point) - min) < 1e-9;
+				Vector2 old = expected.getNormalContactPoint(point);
+				boolean found = poly.getNormalContactPoint(side, point.getX(), point.getY(), contact);
+				if (line.getA().equals(expected.getA())) {
+					same &= found == old.isFinite();
+					same &= !found || Math.abs(contact.getY() - old.getY()) < 1e-9;
+				}
+				tested++;
+				if (!same) {
+					failed++;
+				}
+			}
+		}
+
+		System.out.printf("nearest side of %d points: %s\n", tested, failed == 0 ? "ok" : failed + " FAILED");
 	}
 
 }
@@ -0,0 +1,87 @@
+package test;
+
+import game.entity.ActorType;
+import game.entity.enemy.Enemies;
+import game.level.World;
+import game.shape.Rectangle;
+import game.shape.Vector2;
+import net.GameServer;
+import net.WorldSnapshot;
+import net.client.NetworkActor;
+import net.client.ServerSession;
+import net.server.Server;
+import net.server.ServerSimulation;
+
+/**
+ * Runs the game server with the slopes map and a client that plays on it.
+ * Checks that the first snapshot contains the whole world, that deltas arrive
+ * once the client acknowledged a snapshot, that the client world has the actors
+ * of the server and that the server moves the player of the client.
+ */
+
+public class TestServerSession {
+
+	private static final double DT = 1.0 / 60;
+
+	public static void main(String[] args) throws Exception {
+		Server server = new Server(0, 1);
+		World serverWorld = GameServer.createWorld("slopes");
+		for (int i = 0; i < 3; i++) {
+			serverWorld.spawn(Enemies.createSkelly(serverWorld), serverWorld.getSpawnPoint().add(new Vector2(i * 2, 0)));
+		}
+		ServerSimulation simulation = new ServerSimulation(server, serverWorld);
+		Thread simulationThread = new Thread(simulation, "Simulation");
+		simulationThread.start();
+
+		World world = Fixtures.world();
+		world.setMaxEnemies(0);
+		ServerSession session = ServerSession.connect("localhost", server.getPort());
+		Vector2 target = world.getSpawnPoint().add(new Vector2(3, 0));
+		NetworkActor player = new NetworkActor(world, new Rectangle(target.x, target.y, 1, 2.5), ActorType.PLAYER);
+
+		int firstBaseTick = -2;
+		int deltaAfter = -1;
+		long end = System.currentTimeMillis() + 5000;
+		while (System.currentTimeMillis() < end && session.getSnapshots() < 120) {
+			world.update(DT);
+			session.update(world, player);
+			// all snapshots that arrived before the ack are whole worlds
+			if (session.getSnapshots() > 0 && firstBaseTick == -2) {
+				firstBaseTick = session.getBaseTick();
+			}
+			if (session.getBaseTick() >= 0 && deltaAfter < 0) {
+				deltaAfter = session.getSnapshots();
+			}
+			Thread.sleep((long) (DT * 1000));
+		}
+
+		WorldSnapshot latest = session.getReceiver().getLatest();
+		int expected = 0;
+		int own = -1;
+		for (int i = 0; latest != null && i < latest.size(); i++) {
+			if (latest.getId(i) == session.getPlayerId()) {
+				own = i;
+			} else if (latest.getType(i) != ActorType.DOOR) {
+				expected++;
+			}
+		}
+
+		check("first snapshots are the whole world", firstBaseTick == -1);
+		check("deltas after the first ack, from snapshot " + deltaAfter, deltaAfter > 1);
+		check("last snapshot is a delta", session.getBaseTick() >= 0);
+		check("own player known", session.getPlayerId() != 0 && own >= 0);
+		check(expected + " actors of the server in the client world", expected > 0 && session.getActorCount() == expected);
+		check("server moved the player", own >= 0 && Math.abs(latest.getX(own) - target.x) < 0.01 && Math.abs(latest.getY(own) - target.y) < 0.01);
+
+		session.stop();
+		simulation.stop();
+		simulationThread.join();
+		server.stop();
+		System.exit(0);
+	}
+
+	private static void check(String name, boolean ok) {
+		System.out.println(name + ": " + (ok ? "ok" : "FAILED"));
+	}
+
+}
@@ -0,0 +1,79 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package test;
+
+import java.awt.geom.Rectangle2D;
+import java.util.List;
+import java.util.Random;
+
+import game.graphics.Screen;
+import game.shape.Polygon2D;
+
+/**
+ * Pushes random points inside the polygons of the maps and of random concave
+ * polygons out of them, step by step with contains the way the world did it
+ * and with {@link Polygon2D#getStepsOut(double, double, double)}, and checks
+ * that both take the same number of steps
+ */
+
+public class TestSlopeResolution {
+
+	private static final int POINTS = 200_000;
+
+	public static void main(String[] args) throws Exception {
+		List<Polygon2D> polygons = Fixtures.polygons("slopes", "default");
+
+		Random random = new Random(1);
+		// concave polygons with many edges above each other
+		for (int i = 0; i < 50; i++) {
+			int n = 5 + random.nextInt(40);
+			polygons.add(Fixtures.star(n, 20, 20, k -> 1 + random.nextDouble() * 6));
+		}
+
+		double step = 1.0 / (double) Screen.TILESIZE;
+		int tested = 0;
+		int failed = 0;
+		long loopSteps = 0;
+		for (int i = 0; i < POINTS; i++) {
+			Polygon2D poly = polygons.get(i % polygons.size());
+			Rectangle2D b = poly.getBounds2D();
+			double x = b.getX() + random.nextDouble() * b.getWidth();
+			double y = b.getY() + random.nextDouble() * b.getHeight();
+			if (i % 4 == 0) {
+				// on a pixel, like actors that stand still
+				x = Math.floor(x / step) * step;
+				y = Math.floor(y / step) * step;
+			}
+			if (!poly.contains(x, y)) {
+				continue;
+			}
+			tested++;
+
+			int expected = 0;
+			double ly = y;
+			while (poly.contains(x, ly)) {
+				ly += step;
+				expected++;
+			}
+			loopSteps += expected;
+
+			int steps = poly.getStepsOut(x, y, step);
+			if (steps != expected) {
+				failed++;
+				if (failed <= 10) {
+					System.out.printf("(%f, %f): %d steps, expected %d\n", x, y, steps, expected);
+				}
+			}
+		}
+
+		System.out.printf("%d points in %d polygons, %.1f steps on average: %s\n", tested, polygons.size(),
+				loopSteps / (double) tested, failed == 0 ? "ok" : failed + " FAILED");
+	}
+
+}
@@ -0,0 +1,176 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package test;
+
+import java.util.Random;
+
+import game.entity.Player;
+import game.entity.enemy.Enemies;
+import game.entity.enemy.Skeleton;
+import game.entity.projectile.Arrow;
+import game.level.MapData;
+import game.level.World;
+import game.shape.Polygon2D;
+import game.shape.Rectangle;
+import game.shape.Vector2;
+import game.util.DoubleList;
+
+/**
+ * Compares the time of impact of sweeps against rectangles and polygons with
+ * moving the box in small steps, then shoots arrows at 20 tiles per second at
+ * a thin platform and at a skeleton with different tick rates and checks that
+ * they hit at every rate
+ */
+
+public class TestSweptCollision {
+
+	private static final int STEPS = 4000;
+	private static final int[] TICK_RATES = { 60, 30, 10, 5 };
+
+	public static void main(String[] args) throws Exception {
+		System.setProperty("java.awt.headless", "true");
+		int failed = testTimeOfImpact();
+
+		MapData map = MapData.load("slopes");
+		DoubleList rects = map.getRectangles();
+		// the thinnest platform
+		int thin = 0;
+		for (int i = 0; i < rects.size(); i += 4) {
+			if (rects.get(i + 3) < rects.get(thin + 3)) {
+				thin = i;
+			}
+		}
+		double px = rects.get(thin) + rects.get(thin + 2) / 2;
+		double py = rects.get(thin + 1);
+
+		for (int rate : TICK_RATES) {
+			World world = Fixtures.world();
+			Player player = new Player(world, new Rectangle(0, 0, 1, 2.5), null);
+			world.spawn(player, new Vector2(px - 10, py - 12));
+			Arrow arrow = new Arrow(player, 20, new Vector2(0, 1), 1);
+			world.spawn(arrow, new Vector2(px - arrow.getWidth() / 2, py - 6));
+			double lowest = run(world, arrow, rate);
+			boolean ok = lowest <= py + 1e-9;
+			failed += ok ? 0 : 1;
+			System.out.printf("arrow at platform, %2d ticks/s: bottom %.3f, platform top %.3f: %s\n", rate, lowest, py, ok ? "ok" : "FAILED");
+		}
+
+		for (int rate : TICK_RATES) {
+			World world = Fixtures.world();
+			Vector2 spawn = world.getSpawnPoint();
+			Player player = new Player(world, new Rectangle(0, 0, 1, 2.5), null);
+			player.setMaxHealth(Double.MAX_VALUE);
+			player.setHealth(Double.MAX_VALUE);
+			world.spawn(player, new Vector2(spawn.getX() - 20, spawn.getY() - 20));
+			Skeleton skelly = Enemies.createSkelly(world);
+			world.spawn(skelly, new Vector2(spawn.getX() + 6, spawn.getY() - 3));
+			for (int i = 0; i < 180; i++) {
+				world.update(1.0 / 60);
+			}
+			double health = skelly.getHealth();
+
+			// a bit above the middle, the arrow falls on the way
+			Arrow arrow = new Arrow(player, 20, new Vector2(1, 0), 1);
+			world.spawn(arrow, new Vector2(skelly.getX() - 6, skelly.getY() + skelly.getHeight() * 0.3));
+			run(world, arrow, rate);
+			boolean ok = skelly.getHealth() < health;
+			failed += ok ? 0 : 1;
+			System.out.printf("arrow at skeleton, %2d ticks/s: health %.1f -> %.1f: %s\n", rate, health, skelly.getHealth(), ok ? "ok" : "FAILED");
+		}
+
+		System.out.println(failed == 0 ? "ok" : failed + " FAILED");
+	}
+
+	/**
+	 * Updates the world until the arrow is gone or stuck
+	 *
+	 * @return the lowest bottom of the arrow
+	 */
+
+	private static double run(World world, Arrow arrow, int rate) {
+		double lowest = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < rate * 2 && !arrow.isRemove(); i++) {
+			world.update(1.0 / rate);
+			lowest = Math.max(lowest, arrow.getBot());
+		}
+		return lowest;
+	}
+
+	/**
+	 * Sweeps random boxes against a rectangle and a concave polygon and compares
+	 * the time with the first of STEPS steps that overlaps
+	 */
+
+	private static int testTimeOfImpact() {
+		Random random = new Random(1);
+		Rectangle rect = new Rectangle(10, 10, 3, 0.25);
+		Polygon2D poly = Fixtures.star(12, 11, 10, k -> k % 2 == 0 ? 3 : 1.5);
+
+		int failed = 0;
+		int hits = 0;
+		Vector2 normal = new Vector2();
+		for (int i = 0; i < 2000; i++) {
+			double x = random.nextDouble() * 20;
+			double y = random.nextDouble() * 20;
+			double dx = random.nextDouble() * 24 - 12;
+			double dy = random.nextDouble() * 24 - 12;
+			double w = 0.5;
+			double h = 0.5;
+
+			for (int shape = 0; shape < 2; shape++) {
+				boolean overlapsAtStart = shape == 0 ? rect.intersects(x, y, w, h) : poly.intersects(x, y, w, h);
+				if (overlapsAtStart) {
+					continue;
+				}
+				double t = shape == 0 ? rect.sweep(x, y, w, h, dx, dy, normal) : poly.sweep(x, y, w, h, dx, dy, normal);
+				double expected = Double.NaN;
+				for (int s = 1; s <= STEPS; s++) {
+					double ts = s / (double) STEPS;
+					boolean overlaps = shape == 0 ? rect.intersects(x + dx * ts, y + dy * ts, w, h)
+							: poly.intersects(x + dx * ts, y + dy * ts, w, h);
+					if (overlaps) {
+						expected = ts;
+						break;
+					}
+				}
+				if (!Double.isNaN(t)) {
+					hits++;
+				}
+				// a step can jump over a corner the sweep touches
+				boolean same = Double.isNaN(expected) ? Double.isNaN(t) || grazes(shape == 0 ? rect : null, poly, x, y, w, h, dx, dy, t)
+						: t <= expected && t > expected - 1.0 / STEPS - 1e-9;
+				if (!same) {
+					failed++;
+					if (failed <= 10) {
+						System.out.printf("shape %d from (%f, %f) by (%f, %f): %f, expected %f\n", shape, x, y, dx, dy, t, expected);
+					}
+				}
+			}
+		}
+		System.out.printf("time of impact of %d sweeps that hit: %s\n", hits, failed == 0 ? "ok" : failed + " FAILED");
+		return failed;
+	}
+
+	/**
+	 * @return true if the box only overlaps the shape for less than a step
+	 *         after the time
+	 */
+
+	private static boolean grazes(Rectangle rect, Polygon2D poly, double x, double y, double w, double h, double dx, double dy, double t) {
+		for (int s = 0; s <= 100; s++) {
+			double ts = t + s / (double) STEPS / 100;
+			boolean overlaps = rect != null ? rect.intersects(x + dx * ts, y + dy * ts, w, h) : poly.intersects(x + dx * ts, y + dy * ts, w, h);
+			if (overlaps) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
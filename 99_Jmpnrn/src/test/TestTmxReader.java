@@ -0,0 +1,97 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import game.io.FileIO;
+import game.level.MapData;
+
+/**
+ * Stores the layers of the slopes map with every encoding Tiled supports and
+ * checks that the reader gets the same tiles as from csv. Also checks that the
+ * compiled map is only used for the .tmx it was compiled from.
+ */
+
+public class TestTmxReader {
+
+	private static final Pattern CSV = Pattern.compile("<data encoding=\"csv\">([^<]*)</data>");
+
+	public static void main(String[] args) throws Exception {
+
+		String tmx = FileIO.read("world/slopes.tmx");
+		MapData csv = MapData.readTmx(new ByteArrayInputStream(tmx.getBytes(StandardCharsets.UTF_8)));
+
+		for (String compression : new String[] { null, "zlib", "gzip" }) {
+			String encoded = encode(tmx, compression);
+			MapData map = MapData.readTmx(new ByteArrayInputStream(encoded.getBytes(StandardCharsets.UTF_8)));
+
+			boolean same = map.getLayers().size() == csv.getLayers().size();
+			for (int i = 0; same && i < csv.getLayers().size(); i++) {
+				same = Arrays.deepEquals(csv.getLayers().get(i), map.getLayers().get(i));
+			}
+			same &= Arrays.equals(csv.getPolygonPoints().toArray(), map.getPolygonPoints().toArray());
+			System.out.printf("base64 %-5s %7d chars: %s\n", compression != null ? compression : "", encoded.length(), same ? "ok" : "FAILED");
+		}
+
+		ByteBuffer compiled = FileIO.mapResource("world/slopes.map");
+		ByteBuffer source = FileIO.mapResource("world/slopes.tmx");
+		boolean current = MapData.isCompiledFrom(compiled, source);
+		byte[] edited = tmx.replaceFirst("<map ", "<map  ").getBytes(StandardCharsets.UTF_8);
+		boolean stale = !MapData.isCompiledFrom(compiled, ByteBuffer.wrap(edited));
+		System.out.println("compiled map of the current tmx is used: " + (current ? "ok" : "FAILED, run MapCompiler"));
+		System.out.println("compiled map of an edited tmx is not used: " + (stale ? "ok" : "FAILED"));
+	}
+
+	/**
+	 * Replaces the csv data of all layers with base64 of the little endian tile
+	 * ids
+	 */
+
+	private static String encode(String tmx, String compression) throws Exception {
+		StringBuffer out = new StringBuffer();
+		Matcher m = CSV.matcher(tmx);
+		while (m.find()) {
+			String[] values = m.group(1).trim().split("[,\\s]+");
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			OutputStream os = bytes;
+			if ("zlib".equals(compression)) {
+				os = new DeflaterOutputStream(bytes);
+			} else if ("gzip".equals(compression)) {
+				os = new GZIPOutputStream(bytes);
+			}
+			for (String v : values) {
+				long gid = Long.parseLong(v);
+				os.write((int) gid);
+				os.write((int) (gid >> 8));
+				os.write((int) (gid >> 16));
+				os.write((int) (gid >> 24));
+			}
+			os.close();
+
+			String attributes = "encoding=\"base64\"" + (compression != null ? " compression=\"" + compression + "\"" : "");
+			// Tiled writes the base64 on its own line
+			String data = "<data " + attributes + ">\n   " + Base64.getEncoder().encodeToString(bytes.toByteArray()) + "\n  </data>";
+			m.appendReplacement(out, Matcher.quoteReplacement(data));
+		}
+		m.appendTail(out);
+		return out.toString();
+	}
+
+}
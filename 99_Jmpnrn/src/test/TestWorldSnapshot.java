@@ -0,0 +1,60 @@
+package test;
+
+import java.nio.ByteBuffer;
+
+import game.entity.ActorType;
+import net.WorldSnapshot;
+
+/**
+ * Writes deltas between snapshots and checks that the client gets the same
+ * actors with the same type, position and size as the server
+ */
+
+public class TestWorldSnapshot {
+
+	public static void main(String[] args) {
+		WorldSnapshot first = new WorldSnapshot();
+		first.clear(0);
+		first.add(1, ActorType.PLAYER.ordinal(), 100, 200, 1024, 2048);
+		first.add(2, ActorType.SKELETON.ordinal(), 300, 400, 1024, 2048);
+		first.add(5, ActorType.ARROW.ordinal(), 500, 600, 512, 512);
+
+		WorldSnapshot second = new WorldSnapshot();
+		second.clear(1);
+		// 1 moved, 2 changed its size, 5 was removed, 7 and 8 are new
+		second.add(1, ActorType.PLAYER.ordinal(), 110, 190, 1024, 2048);
+		second.add(2, ActorType.SKELETON.ordinal(), 300, 400, 1024, 1024);
+		second.add(7, ActorType.ITEM.ordinal(), -20, 30, 1024, 1024);
+		second.add(8, ActorType.SWORD_HIT.ordinal(), 0, 0, 1536, 1536);
+
+		WorldSnapshot client = new WorldSnapshot();
+		client.readDelta(delta(first, null), null, 0);
+		check("full snapshot", client.sameState(first));
+		check("type of a new actor", client.getType(1) == ActorType.SKELETON);
+		check("size of a new actor", client.getWidth(2) == 0.5 && client.getHeight(2) == 0.5);
+
+		WorldSnapshot next = new WorldSnapshot();
+		next.readDelta(delta(second, first), client, 1);
+		check("delta", next.sameState(second));
+		check("changed size", next.getHeight(1) == 1);
+		check("new item", next.getId(2) == 7 && next.getType(2) == ActorType.ITEM && next.getX(2) < 0);
+
+		// unchanged actors cost nothing
+		int full = delta(second, null).remaining();
+		int none = delta(second, second).remaining();
+		System.out.println("full " + full + " bytes, no change " + none + " bytes");
+		check("empty delta", none == 3);
+	}
+
+	private static ByteBuffer delta(WorldSnapshot s, WorldSnapshot base) {
+		ByteBuffer b = ByteBuffer.allocate(1024);
+		s.writeDelta(b, base);
+		b.flip();
+		return b;
+	}
+
+	private static void check(String name, boolean ok) {
+		System.out.println(name + ": " + (ok ? "ok" : "FAILED"));
+	}
+
+}
@@ -0,0 +1,121 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package test.bench;
+
+import java.io.BufferedReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.util.LinkedHashMap;
+
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+
+import game.entity.item.Items;
+import game.graphics.Images;
+import game.graphics.Screen;
+import game.io.AssetPipeline;
+import game.io.FileIO;
+import game.level.MapData;
+import sound.SoundEngine;
+
+/**
+ * Cold start of the assets that can be loaded without a display, sound device
+ * and database, one after another and with the {@link AssetPipeline}. Tracks
+ * are only decoded because there is no device to open a clip on. Every path
+ * runs in a new jvm, the last run prints its timings per asset.<br>
+ * <br>
+ * usage: AssetPipelineBenchmark [threads]
+ */
+
+public class AssetPipelineBenchmark {
+
+	private static final int RUNS = 3;
+
+	public static void main(String[] args) throws Exception {
+		int threads = args.length > 0 ? Integer.parseInt(args[0]) : 0;
+		if (args.length > 1) {
+			// started by the benchmark to measure one path
+			boolean parallel = args[1].equals("parallel");
+			AssetPipeline assets = new AssetPipeline(parallel ? threads : 1);
+			long start = System.nanoTime();
+			add(assets);
+			assets.start();
+			assets.await();
+			double time = (System.nanoTime() - start) / 1e6;
+			assets.printTimings();
+			System.out.println(time);
+			return;
+		}
+
+		System.out.printf("%d processors\n", Runtime.getRuntime().availableProcessors());
+		for (String path : new String[] { "serial", "parallel" }) {
+			double sum = 0;
+			String[] last = null;
+			for (int i = 0; i < RUNS; i++) {
+				last = run(threads, path);
+				sum += Double.parseDouble(last[last.length - 1]);
+			}
+			System.out.println("\n" + path);
+			for (int i = 0; i < last.length - 1; i++) {
+				System.out.println(last[i]);
+			}
+			System.out.printf("mean of %d cold starts: %.1f ms\n", RUNS, sum / RUNS);
+		}
+	}
+
+	private static void add(AssetPipeline assets) {
+		assets.add("fonts", () -> Screen.createFont("font/pixel_font_2.ttf"));
+		assets.add("images", Images::load);
+		assets.add("items", () -> new Items().loadJSON("item/items.json"));
+		assets.add("map slopes", () -> map("slopes"));
+		assets.add("map default", () -> map("default"));
+		LinkedHashMap<String, String> tracklist = new SoundEngine().readTracklist("sound/tracklist.trl");
+		for (String id : tracklist.keySet()) {
+			assets.add("sound " + id, () -> decode(tracklist.get(id)));
+		}
+	}
+
+	private static void map(String name) {
+		try (InputStream in = FileIO.getResourceAsStream("world/" + name + ".tmx")) {
+			MapData.readTmx(in);
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static void decode(String path) {
+		URL url = FileIO.getURL(path);
+		if (url == null) {
+			// not every track is in the repository
+			return;
+		}
+		try (AudioInputStream in = AudioSystem.getAudioInputStream(url)) {
+			in.readAllBytes();
+		} catch (Exception e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static String[] run(int threads, String path) throws Exception {
+		Process p = new ProcessBuilder(System.getProperty("java.home") + "/bin/java", "-Djava.awt.headless=true", "-cp",
+				System.getProperty("java.class.path"), AssetPipelineBenchmark.class.getName(), String.valueOf(threads), path)
+						.start();
+		StringBuilder out = new StringBuilder();
+		try (BufferedReader in = new BufferedReader(new InputStreamReader(p.getInputStream()))) {
+			String line;
+			while ((line = in.readLine()) != null) {
+				out.append(line).append('\n');
+			}
+		}
+		p.waitFor();
+		return out.toString().split("\n");
+	}
+
+}
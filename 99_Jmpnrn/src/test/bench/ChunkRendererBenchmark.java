@@ -0,0 +1,91 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package test.bench;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import game.graphics.Image2d;
+import game.graphics.Screen;
+import game.level.ChunkRenderer;
+import game.level.World;
+
+/**
+ * Compares baking the whole slopes map into one image against the
+ * {@link ChunkRenderer} while a 1280x720 viewport sweeps over the map. Needs a
+ * display for the volatile images.
+ */
+
+public class ChunkRendererBenchmark {
+
+	private static final int VIEW_WIDTH = 1280;
+	private static final int VIEW_HEIGHT = 720;
+	private static final int STEP = 8;
+
+	public static void main(String[] args) {
+
+		World world = new World(null);
+		world.load("slopes");
+		int tilesize = Screen.TILESIZE;
+		int mapWidth = world.getWidth() * tilesize;
+		int mapHeight = world.getHeight() * tilesize;
+
+		BufferedImage frame = new BufferedImage(VIEW_WIDTH, VIEW_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+		Graphics2D g2 = frame.createGraphics();
+
+		// whole map in one image, the way World.createImageBuffer did it
+		long start = System.nanoTime();
+		Image2d full = new Image2d(mapWidth, mapHeight);
+		Graphics2D fg = full.createGraphics();
+		for (int[][] layer : world.getLayers()) {
+			for (int row = 0; row < world.getHeight(); row++) {
+				for (int coll = 0; coll < world.getWidth(); coll++) {
+					int n = layer[row][coll];
+					if (n > 0) {
+						fg.drawImage(world.getTilesets().get(n - 1).getImage(), coll * tilesize, row * tilesize, tilesize, tilesize, null);
+					}
+				}
+			}
+		}
+		fg.dispose();
+		full.backup();
+		long bakeTime = System.nanoTime() - start;
+		long fullBytes = 2L * mapWidth * mapHeight * 4;
+
+		int frames = 0;
+		start = System.nanoTime();
+		for (int y = 0; y + VIEW_HEIGHT <= mapHeight; y += VIEW_HEIGHT / 2) {
+			for (int x = 0; x + VIEW_WIDTH <= mapWidth; x += STEP) {
+				full.draw(g2, x, y, VIEW_WIDTH, VIEW_HEIGHT, 0, 0, VIEW_WIDTH, VIEW_HEIGHT);
+				frames++;
+			}
+		}
+		long fullFrameTime = System.nanoTime() - start;
+		full.flush();
+
+		ChunkRenderer renderer = new ChunkRenderer(world.getTilesets(), world.getLayers(), world.getWidth(), world.getHeight(), ChunkRenderer.DEFAULT_MEMORY_BUDGET);
+		long worstFrame = 0;
+		start = System.nanoTime();
+		for (int y = 0; y + VIEW_HEIGHT <= mapHeight; y += VIEW_HEIGHT / 2) {
+			for (int x = 0; x + VIEW_WIDTH <= mapWidth; x += STEP) {
+				long t = System.nanoTime();
+				renderer.draw(g2, x, y, VIEW_WIDTH, VIEW_HEIGHT, tilesize);
+				worstFrame = Math.max(worstFrame, System.nanoTime() - t);
+			}
+		}
+		long chunkFrameTime = System.nanoTime() - start;
+		g2.dispose();
+
+		System.out.printf("map %dx%d tiles, %dx%d px, %d frames\n", world.getWidth(), world.getHeight(), mapWidth, mapHeight, frames);
+		System.out.printf("full image  : bake %8.2f ms, memory %8.2f MB, frame %6.3f ms\n", bakeTime / 1e6, fullBytes / 1048576.0, fullFrameTime / 1e6 / frames);
+		System.out.printf("chunked     : peak memory %8.2f MB, frame %6.3f ms, worst frame %6.3f ms, chunks rendered %d\n", renderer.getPeakMemoryUsed() / 1048576.0, chunkFrameTime / 1e6 / frames, worstFrame / 1e6, renderer.getRenderedChunks());
+
+	}
+
+}
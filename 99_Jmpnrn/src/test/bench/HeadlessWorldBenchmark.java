@@ -0,0 +1,117 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package test.bench;
+
+import java.awt.GraphicsEnvironment;
+
+import game.entity.GameObject;
+import game.entity.Player;
+import game.entity.enemy.Enemies;
+import game.entity.enemy.Skeleton;
+import game.level.World;
+import game.shape.Rectangle;
+import game.shape.Vector2;
+
+/**
+ * Loads the slopes world without a game and a display and steps it as fast as
+ * possible with a fixed time step. Half of the skeletons shoot at a player that
+ * can't die, the others walk around, skeletons that die or fall out of the
+ * world are replaced every simulated second. Prints ticks per second and the
+ * time per tick.<br>
+ * <br>
+ * usage: HeadlessWorldBenchmark [skeletons] [seconds]
+ */
+
+public class HeadlessWorldBenchmark {
+
+	private static final double DT = 1.0 / 60;
+	private static final int WARMUP_TICKS = 5000;
+
+	public static void main(String[] args) {
+		System.setProperty("java.awt.headless", "true");
+
+		int skeletons = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+		double seconds = args.length > 1 ? Double.parseDouble(args[1]) : 10;
+
+		long start = System.nanoTime();
+		World world = new World(null);
+		world.load("slopes");
+		world.init();
+		long loadTime = System.nanoTime() - start;
+
+		Player player = new Player(world, new Rectangle(0, 0, 1, 2.5), null);
+		player.setMaxHealth(Double.MAX_VALUE);
+		player.setHealth(Double.MAX_VALUE);
+		world.spawn(player, world.getSpawnPoint());
+
+		for (int i = 0; i < skeletons; i++) {
+			world.spawn(createSkelly(world, player, i), spawnPoint(world, i));
+		}
+
+		System.out.printf("headless: %s, load: %.1f ms, actors: %d\n", GraphicsEnvironment.isHeadless(), loadTime / 1e6, world.getActors().size());
+
+		for (int i = 0; i < WARMUP_TICKS; i++) {
+			step(world, player, skeletons, i);
+		}
+
+		long ticks = 0;
+		long worst = 0;
+		int replaced = 0;
+		long end = System.nanoTime() + (long) (seconds * 1e9);
+		start = System.nanoTime();
+		long now = start;
+		while (now < end) {
+			replaced += step(world, player, skeletons, ticks);
+			ticks++;
+			long t = System.nanoTime();
+			worst = Math.max(worst, t - now);
+			now = t;
+		}
+		double time = (now - start) / 1e9;
+
+		System.out.printf("%d ticks (%.0f s simulated) in %.1f s, %d skeletons replaced\n", ticks, ticks * DT, time, replaced);
+		System.out.printf("ticks/s: %.0f, mean: %.1f us, worst: %.1f us, actors: %d\n", ticks / time, time * 1e6 / ticks, worst / 1e3, world.getActors().size());
+	}
+
+	/**
+	 * Updates the world and once per simulated second fills up the skeletons
+	 * 
+	 * @return how many skeletons were spawned
+	 */
+
+	private static int step(World world, Player player, int skeletons, long tick) {
+		world.update(DT);
+		if (tick % 60 != 0) {
+			return 0;
+		}
+		int alive = 0;
+		for (GameObject g : world.getActors()) {
+			if (g instanceof Skeleton && !g.isRemove()) {
+				alive++;
+			}
+		}
+		for (int i = alive; i < skeletons; i++) {
+			world.spawnQueue(createSkelly(world, player, i), spawnPoint(world, i));
+		}
+		return Math.max(0, skeletons - alive);
+	}
+
+	private static Skeleton createSkelly(World world, Player player, int i) {
+		Skeleton skelly = Enemies.createSkelly(world);
+		if (i % 2 == 0) {
+			skelly.setTarget(player);
+		}
+		return skelly;
+	}
+
+	private static Vector2 spawnPoint(World world, int i) {
+		return world.getSpawnPoint().add(new Vector2(i % 20 - 10, -(i / 20)));
+	}
+
+}
@@ -0,0 +1,104 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package test.bench;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+import game.entity.item.Items;
+import game.graphics.Images;
+import game.io.FileIO;
+import game.level.World;
+
+/**
+ * Loads the images the game loads until the first level is played, the ui
+ * images, the items twice like a game and a world without a game do, the
+ * player and two worlds with their tilesets. Measured in new jvms, reports the
+ * time and the heap that is still used after a gc.<br>
+ * <br>
+ * usage: ImageLoadBenchmark
+ */
+
+public class ImageLoadBenchmark {
+
+	private static final int RUNS = 5;
+
+	public static void main(String[] args) throws Exception {
+		if (args.length > 0) {
+			// started by the benchmark
+			MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+			System.gc();
+			long heap = memory.getHeapMemoryUsage().getUsed();
+			long start = System.nanoTime();
+			Object[] loaded = load();
+			double time = (System.nanoTime() - start) / 1e6;
+			System.gc();
+			heap = memory.getHeapMemoryUsage().getUsed() - heap;
+			System.out.printf("image cache: %d decoded, %d shared, %d kB\n", FileIO.getImages().getDecoded(),
+					FileIO.getImages().getHits(), FileIO.getImages().getMemoryUsed() / 1024);
+			System.out.printf("%f %d %d\n", time, heap, loaded.length);
+			return;
+		}
+
+		double time = 0;
+		long heap = 0;
+		String cache = null;
+		for (int i = 0; i < RUNS; i++) {
+			String[] r = run();
+			cache = r[0];
+			String[] values = r[1].trim().split(" ");
+			time += Double.parseDouble(values[0]);
+			heap += Long.parseLong(values[1]);
+		}
+		System.out.println(cache);
+		System.out.printf("%14s %14s\n", "load ms", "heap kB");
+		System.out.printf("%14.1f %14d\n", time / RUNS, heap / RUNS / 1024);
+	}
+
+	private static Object[] load() {
+		Object images = Images.ARROW;
+		Items gameItems = new Items();
+		gameItems.loadJSON("item/items.json");
+		gameItems.registerDefaults();
+		Items worldItems = new Items();
+		worldItems.loadJSON("item/items.json");
+		worldItems.registerDefaults();
+		Object player = FileIO.loadImage("img/bacardi.png");
+		Object skelly = FileIO.loadImage("img/skeleton.png");
+		World slopes = new World(null);
+		slopes.setHeadless(false);
+		slopes.load("slopes");
+		World other = new World(null);
+		other.setHeadless(false);
+		other.load("default");
+		return new Object[] { images, gameItems, worldItems, player, skelly, slopes, other };
+	}
+
+	/**
+	 * @return the lines the benchmark printed
+	 */
+
+	private static String[] run() throws Exception {
+		Process p = new ProcessBuilder(System.getProperty("java.home") + "/bin/java", "-Djava.awt.headless=true", "-cp",
+				System.getProperty("java.class.path"), ImageLoadBenchmark.class.getName(), "run").start();
+		String[] lines = new String[2];
+		try (BufferedReader in = new BufferedReader(new InputStreamReader(p.getInputStream()))) {
+			String line;
+			while ((line = in.readLine()) != null) {
+				lines[0] = lines[1];
+				lines[1] = line;
+			}
+		}
+		p.waitFor();
+		return lines;
+	}
+
+}
@@ -0,0 +1,160 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package test.bench;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+
+import game.entity.Door;
+import game.graphics.Screen;
+import game.level.LevelManager;
+import game.level.World;
+
+/**
+ * Compares how long the game thread is blocked when the start level and the
+ * level behind its door are loaded before the first frame, like the game did,
+ * with loading them on a {@link LevelManager}. Every path runs in a new jvm
+ * with rendered tiles, the game thread runs frames of 16 ms while it waits and
+ * the longest frame is reported.<br>
+ * <br>
+ * usage: LevelLoadBenchmark [start level]
+ */
+
+public class LevelLoadBenchmark {
+
+	private static final int RUNS = 3;
+	private static final int WIDTH = 1280;
+	private static final int HEIGHT = 720;
+	private static final long FRAME = 16_000_000L;
+
+	public static void main(String[] args) throws Exception {
+		String name = args.length > 0 ? args[0] : "slopes";
+		if (args.length > 1) {
+			// started by the benchmark to measure one path
+			double[] r = args[1].equals("sync") ? sync(name) : async(name);
+			System.out.printf("%f %f %f\n", r[0], r[1], r[2]);
+			return;
+		}
+
+		System.out.printf("%-8s %18s %18s %18s\n", "path", "first frame ms", "longest frame ms", "door switch ms");
+		for (String path : new String[] { "sync", "async" }) {
+			double[] sum = new double[3];
+			for (int i = 0; i < RUNS; i++) {
+				double[] r = run(name, path);
+				for (int j = 0; j < 3; j++) {
+					sum[j] += r[j];
+				}
+			}
+			System.out.printf("%-8s %18.1f %18.1f %18.3f\n", path, sum[0] / RUNS, sum[1] / RUNS, sum[2] / RUNS);
+		}
+	}
+
+	/**
+	 * Loads both levels on the game thread, the first frame is drawn after that
+	 */
+
+	private static double[] sync(String name) {
+		long start = System.nanoTime();
+		World world = create(name);
+		prepare(world);
+		World next = create(target(world));
+		double first = (System.nanoTime() - start) / 1e6;
+
+		// the chunks around the spawn point are drawn when the player goes through the door
+		start = System.nanoTime();
+		prepare(next);
+		double door = (System.nanoTime() - start) / 1e6;
+		return new double[] { first, first, door };
+	}
+
+	/**
+	 * Runs frames until the level is loaded, then frames until the door target
+	 * is loaded
+	 */
+
+	private static double[] async(String name) throws InterruptedException {
+		long start = System.nanoTime();
+		LevelManager levels = new LevelManager(null, WIDTH, HEIGHT);
+		levels.setHeadless(false);
+		levels.load(name);
+
+		long longest = 0;
+		long frame = System.nanoTime();
+		World world;
+		while ((world = levels.get(name)) == null) {
+			longest = Math.max(longest, frame(frame));
+			frame = System.nanoTime();
+		}
+		double first = (System.nanoTime() - start) / 1e6;
+
+		levels.enter(world);
+		String target = target(world);
+		frame = System.nanoTime();
+		while (!levels.isLoaded(target)) {
+			longest = Math.max(longest, frame(frame));
+			frame = System.nanoTime();
+		}
+
+		start = System.nanoTime();
+		World next = levels.get(target);
+		next.getSpawnPoint();
+		double door = (System.nanoTime() - start) / 1e6;
+		levels.shutdown();
+		return new double[] { first, longest / 1e6, door };
+	}
+
+	/**
+	 * Sleeps until the frame that started at the time is over
+	 * 
+	 * @return the length of the frame
+	 */
+
+	private static long frame(long start) throws InterruptedException {
+		long left = FRAME - (System.nanoTime() - start);
+		if (left > 0) {
+			Thread.sleep(left / 1_000_000L, (int) (left % 1_000_000L));
+		}
+		return System.nanoTime() - start;
+	}
+
+	private static World create(String name) {
+		World world = new World(null);
+		world.setHeadless(false);
+		world.load(name);
+		world.init();
+		return world;
+	}
+
+	private static void prepare(World world) {
+		int x = (int) (world.getSpawnPoint().getX() * Screen.TILESIZE) - WIDTH / 2;
+		int y = (int) (world.getSpawnPoint().getY() * Screen.TILESIZE) - HEIGHT / 2;
+		world.getTileRenderer().prepare(x, y, WIDTH, HEIGHT, Screen.TILESIZE);
+	}
+
+	private static String target(World world) {
+		return world.getActors().stream().filter(g -> g instanceof Door).map(g -> ((Door) g).getTarget())
+				.findFirst().orElseThrow(() -> new IllegalStateException(world + " has no door"));
+	}
+
+	private static double[] run(String name, String path) throws Exception {
+		Process p = new ProcessBuilder(System.getProperty("java.home") + "/bin/java", "-Djava.awt.headless=true", "-cp",
+				System.getProperty("java.class.path"), LevelLoadBenchmark.class.getName(), name, path).start();
+		String last = null;
+		try (BufferedReader in = new BufferedReader(new InputStreamReader(p.getInputStream()))) {
+			String line;
+			while ((line = in.readLine()) != null) {
+				last = line;
+			}
+		}
+		p.waitFor();
+		String[] parts = last.trim().split(" ");
+		return new double[] { Double.parseDouble(parts[0]), Double.parseDouble(parts[1]), Double.parseDouble(parts[2]) };
+	}
+
+}
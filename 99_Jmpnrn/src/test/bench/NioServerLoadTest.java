@@ -0,0 +1,190 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package test.bench;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+
+import net.packet.Packet;
+import net.packet.PacketFramer;
+import net.packet.PacketReader;
+import net.packet.impl.LoginPacket;
+import net.packet.impl.PingPacket;
+import net.server.Server;
+
+/**
+ * Connects a few clients that never log in and then some hundred clients that
+ * log in and send pings to a NIO server, which echoes every ping back. Prints
+ * the connect time, round trip times, throughput and the number of threads of
+ * the server.
+ */
+
+public class NioServerLoadTest {
+
+	private static final int SILENT_CLIENTS = 10;
+	private static final int CLIENTS = 500;
+	private static final int PINGS = 200;
+	private static final int EVENT_LOOPS = 2;
+
+	public static void main(String[] args) throws Exception {
+
+		int threadsBefore = Thread.activeCount();
+
+		// with the default limit of clients, like a server started by GameServer
+		Server server = new Server(0, EVENT_LOOPS);
+
+		Thread echo = new Thread(() -> {
+			try {
+				while (true) {
+					Packet p = server.getPackets().take();
+					p.getSource().send(p);
+				}
+			} catch (InterruptedException e) {
+			}
+		}, "Echo");
+		echo.start();
+
+		InetSocketAddress address = new InetSocketAddress("localhost", server.getPort());
+
+		// clients which connect but never send anything must not block the others
+		ArrayList<SocketChannel> silent = new ArrayList<>();
+		for (int i = 0; i < SILENT_CLIENTS; i++) {
+			silent.add(SocketChannel.open(address));
+		}
+
+		Selector selector = Selector.open();
+		TestClient[] clients = new TestClient[CLIENTS];
+
+		long start = System.nanoTime();
+		for (int i = 0; i < CLIENTS; i++) {
+			clients[i] = new TestClient(SocketChannel.open(address));
+			clients[i].write(new LoginPacket().getData());
+			clients[i].channel.configureBlocking(false);
+			clients[i].channel.register(selector, SelectionKey.OP_READ, clients[i]);
+		}
+		HashSet<Integer> ids = new HashSet<>();
+		while (ids.size() < CLIENTS) {
+			poll(selector, ids);
+		}
+		long connectTime = System.nanoTime() - start;
+		System.out.printf("%d clients logged in after %.1f ms, %d connected on the server, ids 1 to %d\n", CLIENTS,
+				connectTime / 1e6, server.getClients().size(), Collections.max(ids));
+
+		int serverThreads = Thread.activeCount() - threadsBefore - 1;
+
+		long[] rtts = new long[CLIENTS * PINGS];
+		int received = 0;
+		start = System.nanoTime();
+		for (TestClient c : clients) {
+			c.ping();
+		}
+		while (received < rtts.length) {
+			selector.select();
+			Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+			while (it.hasNext()) {
+				SelectionKey key = it.next();
+				it.remove();
+				TestClient c = (TestClient) key.attachment();
+				for (byte[] frame : c.read()) {
+					if (frame[0] != Packet.ID_PING) {
+						continue;
+					}
+					PingPacket p = new PingPacket(frame);
+					rtts[received++] = System.nanoTime() - p.time;
+					if (++c.pings < PINGS) {
+						c.ping();
+					}
+				}
+			}
+		}
+		long time = System.nanoTime() - start;
+
+		Arrays.sort(rtts);
+		System.out.printf("%d pings in %.1f ms, %.0f pings/s\n", rtts.length, time / 1e6, rtts.length / (time / 1e9));
+		System.out.printf("rtt p50 %.3f ms, p99 %.3f ms, max %.3f ms\n", rtts[rtts.length / 2] / 1e6,
+				rtts[(int) (rtts.length * 0.99)] / 1e6, rtts[rtts.length - 1] / 1e6);
+		System.out.printf("server threads: %d (blocking server: %d)\n", serverThreads, 1 + CLIENTS * 2);
+
+		for (SocketChannel c : silent) {
+			c.close();
+		}
+		for (TestClient c : clients) {
+			c.channel.close();
+		}
+		selector.close();
+		server.stop();
+		echo.interrupt();
+	}
+
+	/**
+	 * Adds the ids of the clients that received the answer to their login
+	 */
+
+	private static void poll(Selector selector, HashSet<Integer> ids) throws IOException {
+		selector.select();
+		Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+		while (it.hasNext()) {
+			SelectionKey key = it.next();
+			it.remove();
+			TestClient c = (TestClient) key.attachment();
+			for (byte[] frame : c.read()) {
+				if (frame[0] == Packet.ID_LOGIN && !ids.add(PacketReader.decode(frame).getClientID())) {
+					throw new IllegalStateException("client id " + PacketReader.decode(frame).getClientID() + " given twice");
+				}
+			}
+		}
+	}
+
+	private static class TestClient {
+
+		private SocketChannel channel;
+		private PacketFramer framer;
+		private int pings;
+
+		public TestClient(SocketChannel channel) throws IOException {
+			this.channel = channel;
+			this.framer = new PacketFramer();
+			channel.socket().setTcpNoDelay(true);
+		}
+
+		public void ping() throws IOException {
+			write(new PingPacket(System.nanoTime()).getData());
+		}
+
+		public void write(byte[] data) throws IOException {
+			ByteBuffer b = ByteBuffer.wrap(data);
+			while (b.hasRemaining()) {
+				channel.write(b);
+			}
+		}
+
+		public ArrayList<byte[]> read() throws IOException {
+			ArrayList<byte[]> frames = new ArrayList<>();
+			if (channel.read(framer.getBuffer()) < 0) {
+				throw new IOException("closed by the server");
+			}
+			byte[] frame;
+			while ((frame = framer.next()) != null) {
+				frames.add(frame);
+			}
+			return frames;
+		}
+
+	}
+
+}
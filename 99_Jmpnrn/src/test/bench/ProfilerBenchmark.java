@@ -0,0 +1,141 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package test.bench;
+
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+
+import game.Profiler;
+import game.entity.Player;
+import game.entity.enemy.Enemies;
+import game.level.World;
+import game.shape.Rectangle;
+import game.shape.Vector2;
+import jdk.jfr.Recording;
+
+/**
+ * Measures what the {@link Profiler} costs. An empty tick with all tick scopes
+ * shows the cost of the instrumentation alone, then the slopes world with
+ * skeletons is stepped with the profiler disabled, enabled and enabled while a
+ * flight recording of its events runs. The modes alternate in blocks so the
+ * jit and the world state affect them the same.<br>
+ * <br>
+ * usage: ProfilerBenchmark [skeletons] [blocks]
+ */
+
+public class ProfilerBenchmark {
+
+	private static final double DT = 1.0 / 60;
+	private static final int BLOCK = 2000;
+	private static final int EMPTY_TICKS = 2_000_000;
+
+	public static void main(String[] args) throws Exception {
+		System.setProperty("java.awt.headless", "true");
+		int skeletons = args.length > 0 ? Integer.parseInt(args[0]) : 30;
+		int blocks = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+		// instrumentation alone
+		for (int i = 0; i < EMPTY_TICKS; i++) {
+			emptyTick();
+		}
+		long allocated = allocatedBytes();
+		long start = System.nanoTime();
+		for (int i = 0; i < EMPTY_TICKS; i++) {
+			emptyTick();
+		}
+		double empty = (System.nanoTime() - start) / (double) EMPTY_TICKS;
+		allocated = allocatedBytes() - allocated;
+		System.out.printf("empty tick with %d scopes: %.0f ns, %d bytes allocated in %d ticks\n", 4, empty, allocated, EMPTY_TICKS);
+
+		World world = new World(null);
+		world.load("slopes");
+		world.init();
+		Player player = new Player(world, new Rectangle(0, 0, 1, 2.5), null);
+		player.setMaxHealth(Double.MAX_VALUE);
+		player.setHealth(Double.MAX_VALUE);
+		world.spawn(player, world.getSpawnPoint());
+		for (int i = 0; i < skeletons; i++) {
+			world.spawn(Enemies.createSkelly(world), world.getSpawnPoint().add(new Vector2(i % 20 - 10, -(i / 20))));
+		}
+
+		String[] modes = { "disabled", "enabled", "enabled + jfr" };
+		long[] nanos = new long[modes.length];
+		Recording recording = new Recording();
+		recording.enable("jmpnrn.ProfilerScope");
+		for (int b = -1; b < blocks; b++) {
+			for (int m = 0; m < modes.length; m++) {
+				Profiler.setEnabled(m > 0);
+				if (m == 2) {
+					recording.start();
+				}
+				start = System.nanoTime();
+				for (int i = 0; i < BLOCK; i++) {
+					tick(world);
+				}
+				long time = System.nanoTime() - start;
+				if (m == 2) {
+					recording.stop();
+					recording.close();
+					recording = new Recording();
+					recording.enable("jmpnrn.ProfilerScope");
+				}
+				if (b >= 0) {
+					// the first round is warmup
+					nanos[m] += time;
+				}
+			}
+		}
+
+		System.out.printf("%-16s %14s\n", "profiler", "us per tick");
+		for (int m = 0; m < modes.length; m++) {
+			System.out.printf("%-16s %14.2f\n", modes[m], nanos[m] / 1e3 / ((long) blocks * BLOCK));
+		}
+
+		Profiler.updateStatistics();
+		System.out.printf("\n%-20s %12s %12s %12s\n", "scope", "p50", "p99", "max");
+		for (int s = 0; s < Profiler.getScopeCount(); s++) {
+			if (Profiler.getCount(s) > 0) {
+				System.out.printf("%-20s %12d %12d %12d\n", Profiler.getName(s), Profiler.getP50(s), Profiler.getP99(s), Profiler.getMax(s));
+			}
+		}
+		StringWriter csv = new StringWriter();
+		Profiler.writeCsv(csv);
+		System.out.printf("csv: %d lines\n", csv.toString().split("\n").length);
+	}
+
+	/**
+	 * The scopes of Engine.tick and World.update around nothing
+	 */
+
+	private static void emptyTick() {
+		Profiler.beginTick();
+		long t = Profiler.begin();
+		Profiler.end(Profiler.INPUT, t);
+		t = Profiler.begin();
+		long c = Profiler.begin();
+		Profiler.end(Profiler.COLLISION, c);
+		c = Profiler.begin();
+		Profiler.end(Profiler.GC, c);
+		Profiler.end(Profiler.UPDATE, t);
+		Profiler.endTick();
+	}
+
+	private static void tick(World world) {
+		Profiler.beginTick();
+		long t = Profiler.begin();
+		world.update(DT);
+		Profiler.end(Profiler.UPDATE, t);
+		Profiler.endTick();
+	}
+
+	private static long allocatedBytes() {
+		return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+}
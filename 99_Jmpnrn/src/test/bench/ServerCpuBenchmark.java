@@ -0,0 +1,125 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package test.bench;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import net.client.Client;
+import net.packet.Packet;
+import net.packet.impl.LoginPacket;
+import net.packet.impl.PlayerMovePacket;
+import net.server.Server;
+
+/**
+ * Starts the blocking server with 8 clients in the same process and measures
+ * the cpu time used by all threads, first while nobody sends anything and then
+ * while every client sends player moves at 60 packets per second
+ */
+
+public class ServerCpuBenchmark {
+
+	private static final int CLIENTS = 8;
+	private static final int SEND_RATE = 60;
+	private static final long MEASURE_MILLIS = 3000;
+
+	private static volatile boolean sending;
+	private static volatile long received;
+
+	public static void main(String[] args) throws Exception {
+
+		ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		int cores = Runtime.getRuntime().availableProcessors();
+
+		Server server = new Server(0);
+		Thread consumer = new Thread(() -> {
+			while (true) {
+				Packet p = server.getPackets().next();
+				if (p == null) {
+					return;
+				}
+				received++;
+			}
+		}, "Consumer");
+		consumer.setDaemon(true);
+		consumer.start();
+
+		Client[] clients = new Client[CLIENTS];
+		for (int i = 0; i < CLIENTS; i++) {
+			clients[i] = new Client("localhost", server.getServerSocket().getLocalPort());
+			clients[i].send(new LoginPacket());
+			clients[i].start();
+		}
+		while (server.getClients().size() < CLIENTS) {
+			Thread.sleep(10);
+		}
+		System.out.printf("%d clients connected, %d threads, %d cores\n", CLIENTS, Thread.activeCount(), cores);
+
+		Thread.sleep(500);
+		double idle = measure(threads);
+		System.out.printf("idle:  %6.1f%% of one core\n", idle);
+
+		sending = true;
+		for (Client c : clients) {
+			Thread sender = new Thread(() -> {
+				long period = 1000000000L / SEND_RATE;
+				long next = System.nanoTime();
+				float x = 0;
+				while (sending) {
+					c.send(new PlayerMovePacket(x++, 0));
+					next += period;
+					long sleep = next - System.nanoTime();
+					if (sleep > 0) {
+						try {
+							Thread.sleep(sleep / 1000000, (int) (sleep % 1000000));
+						} catch (InterruptedException e) {
+							return;
+						}
+					}
+				}
+			}, "Sender");
+			sender.setDaemon(true);
+			sender.start();
+		}
+
+		Thread.sleep(500);
+		long before = received;
+		double load = measure(threads);
+		long packets = received - before;
+		sending = false;
+		System.out.printf("load:  %6.1f%% of one core, %d packets/s\n", load, packets * 1000 / MEASURE_MILLIS);
+
+		System.exit(0);
+	}
+
+	/**
+	 * @return the cpu time of all threads during MEASURE_MILLIS in percent of
+	 *         one core
+	 */
+
+	private static double measure(ThreadMXBean threads) throws InterruptedException {
+		long cpu = cpuTime(threads);
+		long start = System.nanoTime();
+		Thread.sleep(MEASURE_MILLIS);
+		long wall = System.nanoTime() - start;
+		return (cpuTime(threads) - cpu) * 100.0 / wall;
+	}
+
+	private static long cpuTime(ThreadMXBean threads) {
+		long sum = 0;
+		for (long id : threads.getAllThreadIds()) {
+			long t = threads.getThreadCpuTime(id);
+			if (t > 0) {
+				sum += t;
+			}
+		}
+		return sum;
+	}
+
+}
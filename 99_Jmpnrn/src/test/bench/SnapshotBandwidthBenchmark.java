@@ -0,0 +1,205 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package test.bench;
+
+import java.awt.Shape;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import game.entity.GameObject;
+import game.level.World;
+import game.shape.Rectangle;
+import game.shape.Vector2;
+import net.WorldSnapshot;
+import net.client.Client;
+import net.client.SnapshotReceiver;
+import net.packet.Packet;
+import net.packet.impl.LoginPacket;
+import net.packet.impl.PlayerMovePacket;
+import net.packet.impl.SnapshotPacket;
+import net.server.Server;
+import net.server.ServerSimulation;
+
+/**
+ * Runs the server simulation with 200 actors and 8 clients which acknowledge
+ * every snapshot, with different shares of moving actors and with and without
+ * delta compression. Prints the bandwidth of the snapshots, the time per tick
+ * and if the clients ended up with the state of the server.
+ */
+
+public class SnapshotBandwidthBenchmark {
+
+	private static final int CLIENTS = 8;
+	private static final int ACTORS = 200;
+	private static final int WIDTH = 100;
+	private static final int HEIGHT = 50;
+	private static final long WARMUP_MILLIS = 1000;
+	private static final long MEASURE_MILLIS = 3000;
+
+	public static void main(String[] args) throws Exception {
+
+		System.out.printf("%8s %8s %14s %16s %10s %10s\n", "moving", "delta", "kB/s", "bytes/client/tick", "tick ms",
+				"in sync");
+
+		double[] moving = { 0, 0.1, 0.5, 1 };
+		for (double m : moving) {
+			run(m, false);
+			run(m, true);
+		}
+
+		System.exit(0);
+	}
+
+	private static void run(double moving, boolean delta) throws Exception {
+		Server server = new Server(0, 1);
+		World world = new World(null, WIDTH, HEIGHT);
+		Random random = new Random(1);
+		for (int i = 0; i < ACTORS; i++) {
+			Wanderer w = new Wanderer(world, i < ACTORS * moving, random);
+			world.spawn(w, new Vector2(random.nextDouble() * (WIDTH - 1), random.nextDouble() * (HEIGHT - 1)));
+		}
+
+		ServerSimulation simulation = new ServerSimulation(server, world);
+		simulation.setDeltaCompression(delta);
+		Thread simulationThread = new Thread(simulation, "Simulation");
+		simulationThread.start();
+
+		TestClient[] clients = new TestClient[CLIENTS];
+		for (int i = 0; i < CLIENTS; i++) {
+			clients[i] = new TestClient(server.getPort(), i);
+			clients[i].start();
+		}
+
+		Thread.sleep(WARMUP_MILLIS);
+		long bytes = simulation.getBytesSent();
+		long snapshots = simulation.getSnapshotsSent();
+		long nanos = simulation.getTickNanos();
+		int ticks = simulation.getTick();
+		long start = System.nanoTime();
+
+		Thread.sleep(MEASURE_MILLIS);
+
+		double seconds = (System.nanoTime() - start) / 1e9;
+		bytes = simulation.getBytesSent() - bytes;
+		snapshots = simulation.getSnapshotsSent() - snapshots;
+		nanos = simulation.getTickNanos() - nanos;
+		ticks = simulation.getTick() - ticks;
+
+		simulation.stop();
+		simulationThread.join();
+		// let the clients read what is still on the way
+		Thread.sleep(300);
+
+		boolean inSync = true;
+		for (TestClient c : clients) {
+			c.running = false;
+			c.thread.join();
+			WorldSnapshot latest = c.receiver.getLatest();
+			WorldSnapshot expected = latest != null ? simulation.getSnapshot(latest.getTick()) : null;
+			inSync &= latest != null && latest.getTick() == simulation.getTick() && expected != null
+					&& latest.sameState(expected);
+			c.client.stop();
+		}
+		server.stop();
+
+		System.out.printf("%7.0f%% %8s %14.1f %16.1f %10.3f %10s\n", moving * 100, delta, bytes / seconds / 1024,
+				bytes / (double) snapshots, nanos / 1e6 / ticks, inSync);
+	}
+
+	private static class TestClient implements Runnable {
+
+		private Client client;
+		private SnapshotReceiver receiver;
+		private Random random;
+		private Thread thread;
+		private volatile boolean running;
+
+		public TestClient(int port, int seed) {
+			this.client = new Client("localhost", port);
+			this.receiver = new SnapshotReceiver();
+			this.random = new Random(seed);
+			client.send(new LoginPacket());
+			Packet login = client.request();
+			client.setClientId(login.getClientID());
+			client.start();
+		}
+
+		public void start() {
+			running = true;
+			thread = new Thread(this, "Test Client");
+			thread.start();
+		}
+
+		@Override
+		public void run() {
+			int received = 0;
+			while (running) {
+				Packet p = client.getPackets().next(10, TimeUnit.MILLISECONDS);
+				if (!(p instanceof SnapshotPacket)) {
+					continue;
+				}
+				WorldSnapshot s = receiver.receive((SnapshotPacket) p);
+				if (s == null) {
+					continue;
+				}
+				client.send(receiver.acknowledge(s));
+				if (++received % 30 == 0) {
+					client.send(new PlayerMovePacket(random.nextDouble() * WIDTH, random.nextDouble() * HEIGHT));
+				}
+			}
+		}
+
+	}
+
+	/**
+	 * Walks in a straight line and turns around at the border of the world, or
+	 * stands still
+	 */
+
+	private static class Wanderer extends GameObject {
+
+		public Wanderer(World world, boolean moving, Random random) {
+			super(world, new Rectangle(0, 0, 0.5, 0.5), null);
+			this.gravity = 0;
+			this.friction = 0;
+			this.staticCollision = false;
+			if (moving) {
+				double angle = random.nextDouble() * Math.PI * 2;
+				setVel(Math.cos(angle) * 3, Math.sin(angle) * 3);
+			}
+		}
+
+		@Override
+		public boolean shouldCollide(GameObject g) {
+			return false;
+		}
+
+		@Override
+		public void onStaticCollision(Shape s) {
+
+		}
+
+		@Override
+		public void onCollision(GameObject o) {
+
+		}
+
+		@Override
+		public void onOutOfWorld(World world) {
+			if (getX() < 0 || getX() > world.getWidth()) {
+				setVelX(-getVelX());
+			}
+			if (getY() < 0 || getY() > world.getHeight()) {
+				setVelY(-getVelY());
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,146 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package test.bench;
+
+import java.awt.Shape;
+import java.util.ArrayList;
+import java.util.Random;
+
+import game.entity.GameObject;
+import game.level.SpatialHash;
+import game.level.World;
+import game.shape.Rectangle;
+import game.util.IntList;
+
+/**
+ * Compares the per tick cost of the old nested actor loop against the
+ * {@link SpatialHash} broadphase used by World.update
+ */
+
+public class SpatialHashBenchmark {
+
+	private static final int WORLD_SIZE = 100;
+	private static final int WARMUP = 5;
+	private static final int TICKS = 20;
+
+	public static void main(String[] args) {
+
+		int[] counts = { 100, 1000, 10000 };
+		System.out.printf("%8s %14s %14s %10s\n", "actors", "nested ms", "hashed ms", "pairs");
+
+		for (int n : counts) {
+			ArrayList<GameObject> actors = createActors(n, new Random(n));
+			SpatialHash hash = new SpatialHash(WORLD_SIZE, WORLD_SIZE, SpatialHash.DEFAULT_CELL_SIZE);
+			IntList candidates = new IntList();
+
+			for (int i = 0; i < WARMUP; i++) {
+				nested(actors);
+				hashed(actors, hash, candidates);
+			}
+
+			long nestedTime = 0;
+			long hashedTime = 0;
+			int pairs = 0;
+			Random random = new Random(42);
+			for (int t = 0; t < TICKS; t++) {
+				jitter(actors, random);
+
+				long start = System.nanoTime();
+				int nestedPairs = nested(actors);
+				nestedTime += System.nanoTime() - start;
+
+				start = System.nanoTime();
+				int hashedPairs = hashed(actors, hash, candidates);
+				hashedTime += System.nanoTime() - start;
+
+				if (nestedPairs != hashedPairs) {
+					System.err.println("Pair count does not match " + nestedPairs + " / " + hashedPairs);
+				}
+				pairs = hashedPairs;
+			}
+
+			System.out.printf("%8d %14.4f %14.4f %10d\n", n, nestedTime / 1e6 / TICKS, hashedTime / 1e6 / TICKS, pairs);
+		}
+
+	}
+
+	private static int nested(ArrayList<GameObject> actors) {
+		int pairs = 0;
+		for (GameObject actor : actors) {
+			for (GameObject actor2 : actors) {
+				if (actor != actor2 && actor.intersects(actor2)) {
+					pairs++;
+				}
+			}
+		}
+		return pairs;
+	}
+
+	private static int hashed(ArrayList<GameObject> actors, SpatialHash hash, IntList candidates) {
+		int pairs = 0;
+		hash.build(actors);
+		for (int i = 0; i < actors.size(); i++) {
+			GameObject actor = actors.get(i);
+			hash.query(i, candidates);
+			for (int c = 0; c < candidates.size(); c++) {
+				GameObject actor2 = actors.get(candidates.get(c));
+				if (actor != actor2 && actor.intersects(actor2)) {
+					pairs++;
+				}
+			}
+		}
+		return pairs;
+	}
+
+	private static void jitter(ArrayList<GameObject> actors, Random random) {
+		for (GameObject g : actors) {
+			g.addPosition(random.nextDouble() * 0.2 - 0.1, random.nextDouble() * 0.2 - 0.1);
+		}
+	}
+
+	private static ArrayList<GameObject> createActors(int n, Random random) {
+		ArrayList<GameObject> actors = new ArrayList<>();
+		for (int i = 0; i < n; i++) {
+			double w = 0.5 + random.nextDouble();
+			double h = 0.5 + random.nextDouble() * 1.5;
+			Rectangle r = new Rectangle(random.nextDouble() * WORLD_SIZE, random.nextDouble() * WORLD_SIZE, w, h);
+			actors.add(new Dummy(r));
+		}
+		return actors;
+	}
+
+	private static class Dummy extends GameObject {
+
+		public Dummy(Rectangle r) {
+			super(null, r, null);
+		}
+
+		@Override
+		public boolean shouldCollide(GameObject g) {
+			return true;
+		}
+
+		@Override
+		public void onStaticCollision(Shape s) {
+
+		}
+
+		@Override
+		public void onCollision(GameObject o) {
+
+		}
+
+		@Override
+		public void onOutOfWorld(World world) {
+
+		}
+
+	}
+
+}
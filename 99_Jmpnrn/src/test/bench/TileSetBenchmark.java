@@ -0,0 +1,123 @@
+/*******************************************************
+ * Copyright (C) 2020-2021 jgret <thomgreimel@gmail.com>
+ * 
+ * This file is part of Jmpnrn.
+ * 
+ * Jmpnrn can not be copied and/or distributed without the express
+ * permission of jgret
+ *******************************************************/
+package test.bench;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+
+import game.graphics.Image2d;
+import game.graphics.TileSet;
+import game.io.FileIO;
+
+/**
+ * Compares a tileset with one image per tile, the way TileSet was built, with
+ * the sheet as one image. Measures creating the set, with the accelerated
+ * images when there is a display, and drawing every tile of the set into an
+ * image the way chunks are rendered.<br>
+ * <br>
+ * usage: TileSetBenchmark [image] [tilesize]
+ */
+
+public class TileSetBenchmark {
+
+	private static final int WARMUP = 20;
+	private static final int ROUNDS = 50;
+
+	public static void main(String[] args) {
+		String name = args.length > 0 ? args[0] : "img/super_mario_16x16.png";
+		int tilesize = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+		BufferedImage sheet = FileIO.loadBufferedImage(name);
+		boolean accelerated = !GraphicsEnvironment.isHeadless();
+		int count = (sheet.getWidth() / tilesize) * (sheet.getHeight() / tilesize);
+		BufferedImage target = new BufferedImage(64 * 16, 64 * 16, BufferedImage.TYPE_INT_ARGB);
+
+		System.out.printf("%s: %d tiles, accelerated images %s\n", name, count, accelerated ? "created" : "not created (headless)");
+		System.out.printf("%-10s %14s %14s %14s %14s\n", "tileset", "images", "create ms", "kB allocated", "draw all ms");
+
+		for (String path : new String[] { "per tile", "atlas" }) {
+			boolean atlas = path.equals("atlas");
+			for (int i = 0; i < WARMUP; i++) {
+				flush(create(sheet, tilesize, atlas, accelerated));
+			}
+			long allocated = allocatedBytes();
+			long start = System.nanoTime();
+			for (int i = 0; i < ROUNDS; i++) {
+				flush(create(sheet, tilesize, atlas, accelerated));
+			}
+			double create = (System.nanoTime() - start) / 1e6 / ROUNDS;
+			allocated = (allocatedBytes() - allocated) / ROUNDS;
+
+			Object set = create(sheet, tilesize, atlas, false);
+			Graphics2D g2 = target.createGraphics();
+			for (int i = 0; i < WARMUP; i++) {
+				drawAll(g2, set, count);
+			}
+			start = System.nanoTime();
+			for (int i = 0; i < ROUNDS; i++) {
+				drawAll(g2, set, count);
+			}
+			double draw = (System.nanoTime() - start) / 1e6 / ROUNDS;
+			g2.dispose();
+
+			System.out.printf("%-10s %14d %14.3f %14d %14.3f\n", path, atlas ? 1 : count, create, allocated / 1024, draw);
+		}
+	}
+
+	private static Object create(BufferedImage sheet, int tilesize, boolean atlas, boolean accelerated) {
+		if (atlas) {
+			TileSet set = new TileSet(sheet, tilesize, tilesize);
+			if (accelerated) {
+				set.getSheet().getImage();
+			}
+			return set;
+		}
+		int colls = sheet.getWidth() / tilesize;
+		Image2d[] tiles = new Image2d[colls * (sheet.getHeight() / tilesize)];
+		for (int i = 0; i < tiles.length; i++) {
+			tiles[i] = new Image2d(sheet.getSubimage((i % colls) * tilesize, (i / colls) * tilesize, tilesize, tilesize));
+			if (accelerated) {
+				tiles[i].getImage();
+			}
+		}
+		return tiles;
+	}
+
+	private static void flush(Object set) {
+		if (set instanceof TileSet) {
+			((TileSet) set).getSheet().flush();
+		} else {
+			for (Image2d tile : (Image2d[]) set) {
+				tile.flush();
+			}
+		}
+	}
+
+	/**
+	 * Draws every tile scaled to 64 pixels into a 16x16 grid
+	 */
+
+	private static void drawAll(Graphics2D g2, Object set, int count) {
+		for (int n = 0; n < count; n++) {
+			int x = (n % 16) * 64;
+			int y = ((n / 16) % 16) * 64;
+			if (set instanceof TileSet) {
+				((TileSet) set).drawBuffered(g2, n, x, y, 64, 64);
+			} else {
+				g2.drawImage(((Image2d[]) set)[n].getBackup(), x, y, 64, 64, null);
+			}
+		}
+	}
+
+	private static long allocatedBytes() {
+		return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+
+}